@@ -146,6 +146,16 @@ public interface ExecConstants {
   DoubleValidator TEXT_ESTIMATED_ROW_SIZE = new RangeDoubleValidator(
       "store.text.estimated_row_size_bytes", 1, Long.MAX_VALUE, 100.0);
 
+  /**
+   * The number of threads the text reader parses a split with. The scan thread reads the split in chunks of whole
+   * lines and each thread parses a chunk into batches of its own. At 1 the scan thread parses the split itself.
+   */
+  String TEXT_PARSE_THREADS_KEY = "store.text.parse_threads";
+  LongValidator TEXT_PARSE_THREADS = new RangeLongValidator(TEXT_PARSE_THREADS_KEY, 1, 64, 1);
+  String TEXT_PARSE_CHUNK_SIZE_KEY = "store.text.parse_chunk_size";
+  LongValidator TEXT_PARSE_CHUNK_SIZE = new RangeLongValidator(TEXT_PARSE_CHUNK_SIZE_KEY, 1024, 256 * 1024 * 1024,
+      8 * 1024 * 1024);
+
   /**
    * The column label (for directory levels) in results when querying files in a directory
    * E.g.  labels: dir0   dir1
@@ -171,6 +181,13 @@ public interface ExecConstants {
   String JSON_READ_NUMBERS_AS_DOUBLE = "store.json.read_numbers_as_double";
   BooleanValidator JSON_READ_NUMBERS_AS_DOUBLE_VALIDATOR = new BooleanValidator(JSON_READ_NUMBERS_AS_DOUBLE, false);
 
+  /**
+   * Whether JSON files are read with the byte level reader, which reads records without creating
+   * objects but does not recognize extended JSON types.
+   */
+  String JSON_BYTE_READER = "store.json.byte_reader";
+  BooleanValidator JSON_BYTE_READER_VALIDATOR = new BooleanValidator(JSON_BYTE_READER, false);
+
   String MONGO_ALL_TEXT_MODE = "store.mongo.all_text_mode";
   OptionValidator MONGO_READER_ALL_TEXT_MODE_VALIDATOR = new BooleanValidator(MONGO_ALL_TEXT_MODE, false);
   String MONGO_READER_READ_NUMBERS_AS_DOUBLE = "store.mongo.read_numbers_as_double";
@@ -332,6 +349,61 @@ public interface ExecConstants {
   String CODE_GEN_EXP_IN_METHOD_SIZE = "exec.java.compiler.exp_in_method_size";
   LongValidator CODE_GEN_EXP_IN_METHOD_SIZE_VALIDATOR = new LongValidator(CODE_GEN_EXP_IN_METHOD_SIZE, 50);
 
+  String ENABLE_VECTORIZED_FUNCTIONS_KEY = "exec.enable_vectorized_functions";
+  BooleanValidator ENABLE_VECTORIZED_FUNCTIONS = new BooleanValidator(ENABLE_VECTORIZED_FUNCTIONS_KEY, true);
+
+  String EXTERNAL_SORT_NORMALIZED_KEYS_KEY = "exec.sort.enable_normalized_keys";
+  BooleanValidator EXTERNAL_SORT_NORMALIZED_KEYS = new BooleanValidator(EXTERNAL_SORT_NORMALIZED_KEYS_KEY, true);
+
+  /**
+   * Memory (in bytes) the window operator may use for buffered batches before it spills them to the external sort
+   * spill directories.
+   */
+  String WINDOW_SPILL_THRESHOLD_KEY = "exec.window.spill_threshold";
+  PositiveLongValidator WINDOW_SPILL_THRESHOLD = new PositiveLongValidator(WINDOW_SPILL_THRESHOLD_KEY, Long.MAX_VALUE,
+      1024 * 1024 * 1024L);
+
+  /**
+   * Memory (in bytes) the merge join may use before it spills the right side batches of a duplicate key run to the
+   * external sort spill directories.
+   */
+  String MERGE_JOIN_SPILL_THRESHOLD_KEY = "exec.merge_join.spill_threshold";
+  PositiveLongValidator MERGE_JOIN_SPILL_THRESHOLD = new PositiveLongValidator(MERGE_JOIN_SPILL_THRESHOLD_KEY,
+      Long.MAX_VALUE, 1024 * 1024 * 1024L);
+
+  /**
+   * Memory (in bytes) the nested loop join may use to hold its right input before the remaining right side batches
+   * are spilled to the external sort spill directories.
+   */
+  String NESTED_LOOP_JOIN_SPILL_THRESHOLD_KEY = "exec.nested_loop_join.spill_threshold";
+  PositiveLongValidator NESTED_LOOP_JOIN_SPILL_THRESHOLD = new PositiveLongValidator(
+      NESTED_LOOP_JOIN_SPILL_THRESHOLD_KEY, Long.MAX_VALUE, 1024 * 1024 * 1024L);
+
+  /**
+   * Whether the first phase of a two phase hash aggregate may stop aggregating across batches when it finds that
+   * grouping hardly reduces its input, and the ratio of groups to input records above which it does so.
+   */
+  String HASHAGG_ADAPTIVE_PARTIAL_KEY = "exec.hashagg.adaptive_partial";
+  BooleanValidator HASHAGG_ADAPTIVE_PARTIAL = new BooleanValidator(HASHAGG_ADAPTIVE_PARTIAL_KEY, false);
+  String HASHAGG_PARTIAL_MAX_GROUP_RATIO_KEY = "exec.hashagg.partial_max_group_ratio";
+  DoubleValidator HASHAGG_PARTIAL_MAX_GROUP_RATIO = new RangeDoubleValidator(HASHAGG_PARTIAL_MAX_GROUP_RATIO_KEY,
+      0, 1, 0.9);
+
+  /**
+   * The number of bytes flatten, project and hash join aim to put in an output batch. They put fewer records in a
+   * batch when their rows are so wide that their usual number of records would take more.
+   */
+  String OUTPUT_BATCH_SIZE_KEY = "exec.output_batch_size";
+  LongValidator OUTPUT_BATCH_SIZE = new RangeLongValidator(OUTPUT_BATCH_SIZE_KEY, 1024, Integer.MAX_VALUE,
+      16 * 1024 * 1024);
+
+  /**
+   * Whether the selection vector remover copies the selected records one column at a time, rather than one record
+   * at a time with generated code.
+   */
+  String SV_REMOVER_COLUMNAR_COPY_KEY = "exec.svremover.columnar_copy";
+  BooleanValidator SV_REMOVER_COLUMNAR_COPY = new BooleanValidator(SV_REMOVER_COLUMNAR_COPY_KEY, true);
+
   String TO_DATE_FORMAT_KEY = "drill.exec.fn.to_date_format";
   StringValidator TO_DATE_FORMAT = new EnumeratedStringValidator(
       TO_DATE_FORMAT_KEY, "JODA", ToDateFormats.class);
@@ -258,7 +258,7 @@ public class ClassGenerator<T>{
       }
     }
     if (blockRotated) {
-      evaluationVisitor.previousExpressions.clear();
+      evaluationVisitor.clearPreviousExpressions();
     }
   }
 
@@ -0,0 +1,50 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.expr;
+
+import org.apache.drill.exec.record.selection.SelectionVector2;
+import org.apache.drill.exec.vector.ValueVector;
+
+/**
+ * Batch-at-a-time implementation of a {@link DrillSimpleFunc}. When every argument of a call to the simple function
+ * is a plain column of required type, operators that support it evaluate the call with one invocation per batch
+ * rather than inlining the simple function's per-row eval() into generated code.
+ *
+ * Implementations are discovered through classpath scanning, must have a public no-arg constructor and must be
+ * stateless, as a single instance is shared by all fragments.
+ */
+public interface DrillVectorizedFunc {
+
+  /**
+   * @return the simple function whose results this implementation reproduces
+   */
+  Class<? extends DrillSimpleFunc> getSimpleFunction();
+
+  /**
+   * Evaluate the function for recordCount rows. Output row i is computed from input row
+   * <code>sv2 == null ? start + i : sv2.getIndex(start + i)</code>. The output vector is allocated by the caller
+   * and must be written with the safe mutator methods; the caller also sets its value count.
+   *
+   * @param inputs the argument vectors, in parameter order
+   * @param sv2 the incoming selection vector or null
+   * @param start the first input position to evaluate
+   * @param recordCount the number of rows to evaluate
+   * @param output the vector receiving the results
+   */
+  void eval(ValueVector[] inputs, SelectionVector2 sv2, int start, int recordCount, ValueVector output);
+}
@@ -19,6 +19,7 @@ package org.apache.drill.exec.expr;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -74,6 +75,7 @@ import com.sun.codemodel.JClass;
 import com.sun.codemodel.JConditional;
 import com.sun.codemodel.JExpr;
 import com.sun.codemodel.JExpression;
+import com.sun.codemodel.JFieldVar;
 import com.sun.codemodel.JInvocation;
 import com.sun.codemodel.JLabel;
 import com.sun.codemodel.JType;
@@ -144,6 +146,23 @@ public class EvaluationVisitor {
     previousExpressions = mapStack.pop();
   }
 
+  /**
+   * Forget the previously evaluated expressions when code generation moves on to a new block. Blocks may be
+   * flushed into separate methods, so only holders whose value does not depend on the current row can be shared
+   * across them. Those are the constant expressions rendered into class fields assigned once in the setup method.
+   * Other field-backed holders, such as complex readers, are positioned per row in the block that declared them
+   * and are dropped like local variables.
+   */
+  void clearPreviousExpressions() {
+    Iterator<HoldingContainer> iter = previousExpressions.values().iterator();
+    while (iter.hasNext()) {
+      HoldingContainer hc = iter.next();
+      if (!(hc.isConstant() && hc.getHolder() instanceof JFieldVar)) {
+        iter.remove();
+      }
+    }
+  }
+
   private HoldingContainer getPrevious(LogicalExpression expression, MappingSet mappingSet) {
     HoldingContainer previous = previousExpressions.get(new ExpressionHolder(expression, mappingSet));
     if (previous != null) {
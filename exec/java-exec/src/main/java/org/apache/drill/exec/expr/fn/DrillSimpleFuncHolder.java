@@ -64,6 +64,10 @@ public class DrillSimpleFuncHolder extends DrillFuncHolder {
     return false;
   }
 
+  public String getDrillFuncClass() {
+    return drillFuncClass;
+  }
+
   public DrillSimpleFunc createInterpreter() throws Exception {
     return (DrillSimpleFunc)Class.forName(drillFuncClass).newInstance();
   }
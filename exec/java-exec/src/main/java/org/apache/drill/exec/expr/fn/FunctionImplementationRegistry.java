@@ -19,12 +19,15 @@ package org.apache.drill.exec.expr.fn;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.drill.common.config.DrillConfig;
 import org.apache.drill.common.expression.FunctionCall;
+import org.apache.drill.common.expression.LogicalExpression;
 import org.apache.drill.common.expression.fn.CastFunctions;
 import org.apache.drill.common.expression.fn.ToDateTypeFunctions;
 import org.apache.drill.common.scanner.ClassPathScanner;
@@ -33,6 +36,9 @@ import org.apache.drill.common.types.TypeProtos.DataMode;
 import org.apache.drill.common.types.TypeProtos.MajorType;
 import org.apache.drill.common.types.TypeProtos.MinorType;
 import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.expr.DrillFuncHolderExpr;
+import org.apache.drill.exec.expr.DrillVectorizedFunc;
+import org.apache.drill.exec.expr.ValueVectorReadExpression;
 import org.apache.drill.exec.planner.sql.DrillOperatorTable;
 import org.apache.drill.exec.resolver.FunctionResolver;
 import org.apache.drill.exec.server.options.OptionManager;
@@ -40,6 +46,7 @@ import org.apache.drill.exec.server.options.OptionManager;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 /**
  * This class offers the registry for functions. Notably, in addition to Drill its functions
@@ -51,6 +58,8 @@ public class FunctionImplementationRegistry implements FunctionLookupContext {
 
   private DrillFunctionRegistry drillFuncRegistry;
   private List<PluggableFunctionRegistry> pluggableFuncRegistries = Lists.newArrayList();
+  // vectorized implementations, keyed by the class name of the simple function they replace
+  private Map<String, DrillVectorizedFunc> vectorizedFuncs = Maps.newHashMap();
   private OptionManager optionManager = null;
 
   @Deprecated @VisibleForTesting
@@ -86,6 +95,18 @@ public class FunctionImplementationRegistry implements FunctionLookupContext {
         break;
       }
     }
+    for (Class<? extends DrillVectorizedFunc> clazz : classpathScan.getImplementations(DrillVectorizedFunc.class)) {
+      if (Modifier.isAbstract(clazz.getModifiers()) || !Modifier.isPublic(clazz.getModifiers())) {
+        continue;
+      }
+      try {
+        DrillVectorizedFunc func = clazz.newInstance();
+        vectorizedFuncs.put(func.getSimpleFunction().getName(), func);
+      } catch(InstantiationException | IllegalAccessException e) {
+        logger.warn("Unable to instantiate DrillVectorizedFunc class '{}'. Skipping it.", clazz, e);
+      }
+    }
+
     logger.info("Function registry loaded.  {} functions loaded in {} ms.", drillFuncRegistry.size(), w.elapsed(TimeUnit.MILLISECONDS));
   }
 
@@ -179,6 +200,37 @@ public class FunctionImplementationRegistry implements FunctionLookupContext {
     return null;
   }
 
+  /**
+   * Find a vectorized implementation able to evaluate the given materialized expression a batch at a time. This is
+   * only possible when the expression is a call to a simple function with a registered {@link DrillVectorizedFunc}
+   * and every argument is a plain, top level column of required type.
+   *
+   * @param expr materialized expression
+   * @return the vectorized implementation, or null if the expression has to be evaluated row by row
+   */
+  public DrillVectorizedFunc findVectorizedFunction(LogicalExpression expr) {
+    if (vectorizedFuncs.isEmpty() || !(expr instanceof DrillFuncHolderExpr)) {
+      return null;
+    }
+    final DrillFuncHolderExpr funcExpr = (DrillFuncHolderExpr) expr;
+    if (!(funcExpr.getHolder() instanceof DrillSimpleFuncHolder)) {
+      return null;
+    }
+    final DrillVectorizedFunc func = vectorizedFuncs.get(((DrillSimpleFuncHolder) funcExpr.getHolder()).getDrillFuncClass());
+    if (func == null) {
+      return null;
+    }
+    for (LogicalExpression arg : funcExpr.args) {
+      if (!(arg instanceof ValueVectorReadExpression)
+          || ((ValueVectorReadExpression) arg).hasReadPath()
+          || ((ValueVectorReadExpression) arg).getFieldId().isHyperReader()
+          || arg.getMajorType().getMode() != DataMode.REQUIRED) {
+        return null;
+      }
+    }
+    return func;
+  }
+
   // Method to find if the output type of a drill function if of complex type
   public boolean isFunctionComplexOutput(String name) {
     List<DrillFuncHolder> methods = drillFuncRegistry.getMethods(name);
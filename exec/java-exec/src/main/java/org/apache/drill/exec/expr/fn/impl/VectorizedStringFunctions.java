@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.expr.fn.impl;
+
+import io.netty.buffer.DrillBuf;
+import io.netty.util.internal.PlatformDependent;
+
+import org.apache.drill.exec.expr.DrillSimpleFunc;
+import org.apache.drill.exec.expr.DrillVectorizedFunc;
+import org.apache.drill.exec.expr.holders.VarCharHolder;
+import org.apache.drill.exec.record.selection.SelectionVector2;
+import org.apache.drill.exec.vector.ValueVector;
+import org.apache.drill.exec.vector.VarCharVector;
+
+/**
+ * Batch-at-a-time versions of functions in {@link StringFunctions}.
+ */
+public class VectorizedStringFunctions {
+
+  /**
+   * Case conversion keeps the length of every value, so the values of a batch are first copied into the output
+   * vector as they are and then converted with a single pass over the contiguous output data.
+   */
+  private abstract static class CaseConversion implements DrillVectorizedFunc {
+
+    private final byte lowerBound;
+    private final byte upperBound;
+    private final int delta;
+
+    protected CaseConversion(byte lowerBound, byte upperBound, int delta) {
+      this.lowerBound = lowerBound;
+      this.upperBound = upperBound;
+      this.delta = delta;
+    }
+
+    @Override
+    public void eval(ValueVector[] inputs, SelectionVector2 sv2, int start, int recordCount, ValueVector output) {
+      final VarCharVector.Accessor accessor = ((VarCharVector) inputs[0]).getAccessor();
+      final VarCharVector out = (VarCharVector) output;
+      final VarCharVector.Mutator mutator = out.getMutator();
+      final VarCharHolder holder = new VarCharHolder();
+
+      for (int i = 0; i < recordCount; i++) {
+        accessor.get(sv2 == null ? start + i : sv2.getIndex(start + i), holder);
+        mutator.setSafe(i, holder);
+      }
+
+      final DrillBuf data = out.getBuffer();
+      final long end = data.memoryAddress() + out.getOffsetVector().getAccessor().get(recordCount);
+      for (long addr = data.memoryAddress(); addr < end; addr++) {
+        final byte currentByte = PlatformDependent.getByte(addr);
+        if (currentByte >= lowerBound && currentByte <= upperBound) {
+          PlatformDependent.putByte(addr, (byte) (currentByte + delta));
+        }
+      }
+    }
+  }
+
+  public static class LowerCase extends CaseConversion {
+
+    public LowerCase() {
+      // 'A - Z' : 0x41 - 0x5A
+      super((byte) 0x41, (byte) 0x5A, 0x20);
+    }
+
+    @Override
+    public Class<? extends DrillSimpleFunc> getSimpleFunction() {
+      return StringFunctions.LowerCase.class;
+    }
+  }
+
+  public static class UpperCase extends CaseConversion {
+
+    public UpperCase() {
+      // 'a - z' : 0x61 - 0x7A
+      super((byte) 0x61, (byte) 0x7A, -0x20);
+    }
+
+    @Override
+    public Class<? extends DrillSimpleFunc> getSimpleFunction() {
+      return StringFunctions.UpperCase.class;
+    }
+  }
+}
@@ -38,16 +38,24 @@ public class HashAggregate extends AbstractSingle {
   private final List<NamedExpression> aggrExprs;
 
   private final float cardinality;
+  private final boolean partial; // first phase of a two phase aggregate; its output is aggregated again
+
+  public HashAggregate(PhysicalOperator child, List<NamedExpression> groupByExprs, List<NamedExpression> aggrExprs,
+                       float cardinality) {
+    this(child, groupByExprs, aggrExprs, cardinality, false);
+  }
 
   @JsonCreator
   public HashAggregate(@JsonProperty("child") PhysicalOperator child,
                        @JsonProperty("keys") List<NamedExpression> groupByExprs,
                        @JsonProperty("exprs") List<NamedExpression> aggrExprs,
-                       @JsonProperty("cardinality") float cardinality) {
+                       @JsonProperty("cardinality") float cardinality,
+                       @JsonProperty("partial") boolean partial) {
     super(child);
     this.groupByExprs = groupByExprs;
     this.aggrExprs = aggrExprs;
     this.cardinality = cardinality;
+    this.partial = partial;
   }
 
   public List<NamedExpression> getGroupByExprs() {
@@ -62,6 +70,10 @@ public class HashAggregate extends AbstractSingle {
     return cardinality;
   }
 
+  public boolean isPartial() {
+    return partial;
+  }
+
   @Override
   public <T, X, E extends Throwable> T accept(PhysicalVisitor<T, X, E> physicalVisitor, X value) throws E{
     return physicalVisitor.visitHashAggregate(this, value);
@@ -69,7 +81,7 @@ public class HashAggregate extends AbstractSingle {
 
   @Override
   protected PhysicalOperator getNewWithChild(PhysicalOperator child) {
-    return new HashAggregate(child, groupByExprs, aggrExprs, cardinality);
+    return new HashAggregate(child, groupByExprs, aggrExprs, cardinality, partial);
   }
 
   @Override
@@ -34,26 +34,63 @@ import com.fasterxml.jackson.annotation.JsonTypeName;
 public class HashPartitionSender extends AbstractSender {
   static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(HashPartitionSender.class);
 
+  /**
+   * How the sender deals with keys that are much more frequent than others. Both sides of a join must agree: the
+   * side whose heavy hitters are spread across a group of receivers needs the other side to replicate every record to
+   * that same group of receivers.
+   */
+  public enum SkewMode {
+    /** Every record goes to the receiver its hash value selects. */
+    NONE,
+    /** Records of keys found frequent in a sample go round-robin to the fan-out receivers following their hash receiver. */
+    SPREAD,
+    /** Every record goes to its hash receiver and the fan-out receivers following it. */
+    REPLICATE
+  }
+
   private final LogicalExpression expr;
+  private final SkewMode skewMode;
+  private final int skewFanout;
+
+  public HashPartitionSender(int oppositeMajorFragmentId,
+                             PhysicalOperator child,
+                             LogicalExpression expr,
+                             List<MinorFragmentEndpoint> endpoints) {
+    this(oppositeMajorFragmentId, child, expr, endpoints, SkewMode.NONE, 1);
+  }
 
   @JsonCreator
   public HashPartitionSender(@JsonProperty("receiver-major-fragment") int oppositeMajorFragmentId,
                              @JsonProperty("child") PhysicalOperator child,
                              @JsonProperty("expr") LogicalExpression expr,
-                             @JsonProperty("destinations") List<MinorFragmentEndpoint> endpoints) {
+                             @JsonProperty("destinations") List<MinorFragmentEndpoint> endpoints,
+                             @JsonProperty("skew-mode") SkewMode skewMode,
+                             @JsonProperty("skew-fanout") int skewFanout) {
     super(oppositeMajorFragmentId, child, endpoints);
     this.expr = expr;
+    this.skewMode = skewMode == null ? SkewMode.NONE : skewMode;
+    this.skewFanout = Math.max(1, skewFanout);
   }
 
   @Override
   protected PhysicalOperator getNewWithChild(PhysicalOperator child) {
-    return new HashPartitionSender(oppositeMajorFragmentId, child, expr, destinations);
+    return new HashPartitionSender(oppositeMajorFragmentId, child, expr, destinations, skewMode, skewFanout);
   }
 
   public LogicalExpression getExpr() {
     return expr;
   }
 
+  @JsonProperty("skew-mode")
+  public SkewMode getSkewMode() {
+    return skewMode;
+  }
+
+  @JsonProperty("skew-fanout")
+  public int getSkewFanout() {
+    return skewFanout;
+  }
+
   @Override
   public <T, X, E extends Throwable> T accept(PhysicalVisitor<T, X, E> physicalVisitor, X value) throws E {
     return physicalVisitor.visitHashPartitionSender(this, value);
@@ -25,6 +25,7 @@ import org.apache.drill.exec.physical.base.PhysicalOperator;
 import org.apache.drill.exec.physical.base.PhysicalOperatorUtil;
 import org.apache.drill.exec.physical.base.Receiver;
 import org.apache.drill.exec.physical.base.Sender;
+import org.apache.drill.exec.physical.config.HashPartitionSender.SkewMode;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -41,17 +42,26 @@ public class HashToRandomExchange extends AbstractExchange{
   }
 
   private final LogicalExpression expr;
+  private final SkewMode skewMode;
+  private final int skewFanout;
+
+  public HashToRandomExchange(PhysicalOperator child, LogicalExpression expr) {
+    this(child, expr, SkewMode.NONE, 1);
+  }
 
   @JsonCreator
-  public HashToRandomExchange(@JsonProperty("child") PhysicalOperator child, @JsonProperty("expr") LogicalExpression expr) {
+  public HashToRandomExchange(@JsonProperty("child") PhysicalOperator child, @JsonProperty("expr") LogicalExpression expr,
+                              @JsonProperty("skewMode") SkewMode skewMode, @JsonProperty("skewFanout") int skewFanout) {
     super(child);
     this.expr = expr;
+    this.skewMode = skewMode == null ? SkewMode.NONE : skewMode;
+    this.skewFanout = Math.max(1, skewFanout);
   }
 
   @Override
   public Sender getSender(int minorFragmentId, PhysicalOperator child) {
     return new HashPartitionSender(receiverMajorFragmentId, child, expr,
-        PhysicalOperatorUtil.getIndexOrderedEndpoints(receiverLocations));
+        PhysicalOperatorUtil.getIndexOrderedEndpoints(receiverLocations), skewMode, skewFanout);
   }
 
   @Override
@@ -61,11 +71,21 @@ public class HashToRandomExchange extends AbstractExchange{
 
   @Override
   protected PhysicalOperator getNewWithChild(PhysicalOperator child) {
-    return new HashToRandomExchange(child, expr);
+    return new HashToRandomExchange(child, expr, skewMode, skewFanout);
   }
 
   @JsonProperty("expr")
   public LogicalExpression getExpression(){
     return expr;
   }
+
+  @JsonProperty("skewMode")
+  public SkewMode getSkewMode() {
+    return skewMode;
+  }
+
+  @JsonProperty("skewFanout")
+  public int getSkewFanout() {
+    return skewFanout;
+  }
 }
@@ -21,6 +21,7 @@ package org.apache.drill.exec.physical.config;
 import java.util.Iterator;
 import java.util.List;
 
+import org.apache.drill.common.expression.LogicalExpression;
 import org.apache.drill.common.logical.data.JoinCondition;
 import org.apache.drill.exec.physical.base.AbstractBase;
 import org.apache.drill.exec.physical.base.PhysicalOperator;
@@ -44,25 +45,34 @@ public class NestedLoopJoinPOP extends AbstractBase {
   private final PhysicalOperator right;
 
   /*
-   * Conditions and jointype are currently not used, since the condition is always true
-   * and we don't perform any special execution operation based on join type either. However
-   * when we enhance NLJ this would be used.
+   * Conditions and jointype are currently not used, we don't perform any special execution operation
+   * based on join type. However when we enhance NLJ this would be used.
    */
   private final List<JoinCondition> conditions;
   private final JoinRelType joinType;
 
+  // Join condition evaluated for every pair of left and right records, null if every pair is emitted
+  private final LogicalExpression condition;
+
+  public NestedLoopJoinPOP(PhysicalOperator left, PhysicalOperator right, List<JoinCondition> conditions,
+                           JoinRelType joinType) {
+    this(left, right, conditions, joinType, null);
+  }
+
   @JsonCreator
   public NestedLoopJoinPOP(
       @JsonProperty("left") PhysicalOperator left,
       @JsonProperty("right") PhysicalOperator right,
       @JsonProperty("conditions") List<JoinCondition> conditions,
-      @JsonProperty("joinType") JoinRelType joinType
+      @JsonProperty("joinType") JoinRelType joinType,
+      @JsonProperty("condition") LogicalExpression condition
   ) {
     this.left = left;
     this.right = right;
     this.conditions = conditions;
     Preconditions.checkArgument(joinType != null, "Join type is missing!");
     this.joinType = joinType;
+    this.condition = condition;
   }
 
   @Override
@@ -73,7 +83,7 @@ public class NestedLoopJoinPOP extends AbstractBase {
   @Override
   public PhysicalOperator getNewWithChildren(List<PhysicalOperator> children) {
     Preconditions.checkArgument(children.size() == 2);
-    return new NestedLoopJoinPOP(children.get(0), children.get(1), conditions, joinType);
+    return new NestedLoopJoinPOP(children.get(0), children.get(1), conditions, joinType, condition);
   }
 
   @Override
@@ -97,6 +107,10 @@ public class NestedLoopJoinPOP extends AbstractBase {
     return conditions;
   }
 
+  public LogicalExpression getCondition() {
+    return condition;
+  }
+
   @Override
   public int getOperatorType() {
     return CoreOperatorType.NESTED_LOOP_JOIN_VALUE;
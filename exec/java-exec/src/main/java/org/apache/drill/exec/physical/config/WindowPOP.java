@@ -115,6 +115,14 @@ public class WindowPOP extends AbstractSingle {
       return offset == 0;
     }
 
+    /**
+     * @return true for {@code <n> PRECEDING}, in which case the offset is {@code -n}
+     */
+    @JsonIgnore
+    public boolean isBoundedPreceding() {
+      return !unbounded && offset < 0;
+    }
+
     public long getOffset() {
       return offset;
     }
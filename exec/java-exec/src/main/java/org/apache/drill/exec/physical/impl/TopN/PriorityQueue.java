@@ -26,7 +26,14 @@ import org.apache.drill.exec.record.VectorContainer;
 import org.apache.drill.exec.record.selection.SelectionVector4;
 
 public interface PriorityQueue {
-  public void add(FragmentContext context, RecordBatchData batch) throws SchemaChangeException;
+  /**
+   * Add the records of a batch to the queue. Once the queue holds limit records, a record is only admitted if it
+   * sorts before the current root of the heap, which is the last of the records retained so far.
+   *
+   * @return false if no record of the batch was admitted, in which case the batch's buffers have already been
+   * released and the batch holds no memory
+   */
+  public boolean add(FragmentContext context, RecordBatchData batch) throws SchemaChangeException;
   public void init(int limit, FragmentContext context, BufferAllocator allocator, boolean hasSv2) throws SchemaChangeException;
   public void generate() throws SchemaChangeException;
   public VectorContainer getHyperBatch();
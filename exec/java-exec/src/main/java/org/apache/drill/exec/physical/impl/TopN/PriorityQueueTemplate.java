@@ -88,7 +88,7 @@ public abstract class PriorityQueueTemplate implements PriorityQueue {
   }
 
   @Override
-  public void add(FragmentContext context, RecordBatchData batch) throws SchemaChangeException{
+  public boolean add(FragmentContext context, RecordBatchData batch) throws SchemaChangeException{
     Stopwatch watch = Stopwatch.createStarted();
     if (hyperBatch == null) {
       hyperBatch = new ExpandableHyperContainer(batch.getContainer());
@@ -108,18 +108,27 @@ public abstract class PriorityQueueTemplate implements PriorityQueue {
       queueSize++;
       siftUp();
     }
+    int admitted = count;
     for (; count < batch.getRecordCount(); count++) {
       heapSv4.set(limit, batchCount, hasSv2 ? sv2.getIndex(count) : count);
       if (compare(limit, 0) < 0) {
         swap(limit, 0);
         siftDown();
+        admitted++;
       }
     }
     batchCount++;
     if (hasSv2) {
       sv2.clear();
     }
-    logger.debug("Took {} us to add {} records", watch.elapsed(TimeUnit.MICROSECONDS), count);
+    logger.debug("Took {} us to add {} records, {} admitted", watch.elapsed(TimeUnit.MICROSECONDS), count, admitted);
+    if (admitted == 0) {
+      // None of the records is referenced by the heap, so the data can be released right away rather than being
+      // held until the next purge. The emptied vectors keep their slot in the hyper batch so batch indexes stay valid.
+      batch.getContainer().zeroVectors();
+      return false;
+    }
+    return true;
   }
 
   @Override
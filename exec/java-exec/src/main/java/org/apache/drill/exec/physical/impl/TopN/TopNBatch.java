@@ -69,6 +69,10 @@ import com.sun.codemodel.JExpr;
 public class TopNBatch extends AbstractRecordBatch<TopN> {
   static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(TopNBatch.class);
 
+  // batches are addressed by the upper 16 bits of a selection vector 4 entry, so the hyper batch has to be compacted
+  // before it outgrows that range, even when most of its batches were rejected and hold no data
+  private static final int MAX_HYPER_BATCHES = Character.MAX_VALUE;
+
   private  final int batchPurgeThreshold;
 
   public final MappingSet MAIN_MAPPING = new MappingSet( (String) null, null, ClassGenerator.DEFAULT_SCALAR_MAP, ClassGenerator.DEFAULT_SCALAR_MAP);
@@ -84,6 +88,7 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
   SelectionVector4 sv4;
   private long countSincePurge;
   private int batchCount;
+  private int retainedBatchCount;
   private Copier copier;
   private boolean first = true;
   private int recordCount = 0;
@@ -225,7 +230,6 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
             break;
           }
           countSincePurge += incoming.getRecordCount();
-          batchCount++;
           RecordBatchData batch;
           if (schemaChanged) {
             batch = new RecordBatchData(SchemaUtil.coerceContainer(incoming, this.schema, oContext), oContext.getAllocator());
@@ -239,11 +243,17 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
               assert !schemaChanged;
               priorityQueue = createNewPriorityQueue(context, config.getOrderings(), new ExpandableHyperContainer(batch.getContainer()), MAIN_MAPPING, LEFT_MAPPING, RIGHT_MAPPING);
             }
-            priorityQueue.add(context, batch);
-            if (countSincePurge > config.getLimit() && batchCount > batchPurgeThreshold) {
+            batchCount++;
+            if (priorityQueue.add(context, batch)) {
+              retainedBatchCount++;
+            }
+            // only batches still holding data count towards the purge threshold
+            if ((countSincePurge > config.getLimit() && retainedBatchCount > batchPurgeThreshold)
+                || batchCount >= MAX_HYPER_BATCHES) {
               purge();
               countSincePurge = 0;
               batchCount = 0;
+              retainedBatchCount = 0;
             }
             success = true;
           } finally {
@@ -412,6 +422,8 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
       priorityQueue.cleanup();
       priorityQueue = createNewPriorityQueue(context, config.getOrderings(), canonicalizedContainer, MAIN_MAPPING, LEFT_MAPPING, RIGHT_MAPPING);
       priorityQueue.resetQueue(canonicalizedContainer, builder.getSv4().createNewWrapperCurrent());
+      batchCount = 0;
+      retainedBatchCount = 0;
     } finally {
       builder.clear();
       builder.close();
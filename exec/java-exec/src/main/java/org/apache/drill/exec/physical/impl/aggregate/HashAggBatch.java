@@ -128,6 +128,11 @@ public class HashAggBatch extends AbstractRecordBatch<HashAggregate> {
       return aggregator.outputCurrentBatch();
     }
 
+    if (aggregator.earlyOutput()) {
+      // a partial aggregate is flushing its groups; return them before consuming more input
+      return aggregator.outputCurrentBatch();
+    }
+
     logger.debug("Starting aggregator doWork; incoming record count = {} ", incoming.getRecordCount());
 
     AggOutcome out = aggregator.doWork();
@@ -29,7 +29,7 @@ import org.apache.drill.common.expression.ErrorCollectorImpl;
 import org.apache.drill.common.expression.ExpressionPosition;
 import org.apache.drill.common.expression.FieldReference;
 import org.apache.drill.common.expression.LogicalExpression;
-import org.apache.drill.common.types.TypeProtos.MajorType;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.compile.sig.RuntimeOverridden;
 import org.apache.drill.exec.exception.ClassTransformationException;
 import org.apache.drill.exec.exception.SchemaChangeException;
@@ -51,7 +51,7 @@ import org.apache.drill.exec.record.RecordBatch.IterOutcome;
 import org.apache.drill.exec.record.TypedFieldId;
 import org.apache.drill.exec.record.VectorContainer;
 import org.apache.drill.exec.record.VectorWrapper;
-import org.apache.drill.exec.vector.AllocationHelper;
+import org.apache.drill.exec.vector.ColumnWidthTracker;
 import org.apache.drill.exec.vector.FixedWidthVector;
 import org.apache.drill.exec.vector.ObjectVector;
 import org.apache.drill.exec.vector.ValueVector;
@@ -63,6 +63,10 @@ public abstract class HashAggTemplate implements HashAggregator {
   private static final long ALLOCATOR_INITIAL_RESERVATION = 1 * 1024 * 1024;
   private static final long ALLOCATOR_MAX_RESERVATION = 20L * 1000 * 1000 * 1000;
   private static final int VARIABLE_WIDTH_VALUE_SIZE = 50;
+  // records a partial aggregate groups before it compares the number of groups with the number of records
+  private static final int MIN_SAMPLE_RECORDS = HashTable.BATCH_SIZE / 8;
+  // records a partial aggregate passes through (flushing after every batch) before it samples the reduction again
+  private static final int RESAMPLE_RECORDS = 16 * HashTable.BATCH_SIZE;
 
   private static final boolean EXTRA_DEBUG_1 = false;
   private static final boolean EXTRA_DEBUG_2 = false;
@@ -90,6 +94,7 @@ public abstract class HashAggTemplate implements HashAggregator {
   private IndexPointer outStartIdxHolder;
   private IndexPointer outNumRecordsHolder;
   private int numGroupByOutFields = 0; // Note: this should be <= number of group-by fields
+  private ColumnWidthTracker outputValueWidths; // widths of the output aggregate values seen so far
 
   ErrorCollector collector = new ErrorCollectorImpl();
 
@@ -97,6 +102,15 @@ public abstract class HashAggTemplate implements HashAggregator {
   private boolean allFlushed = false;
   private boolean buildComplete = false;
 
+  // adaptive partial aggregation; only the first phase of a two phase aggregate may flush its groups early
+  private boolean adaptive = false;
+  private double maxGroupRatio;
+  private boolean passThrough = false; // flushing the groups after every incoming batch
+  private boolean earlyFlush = false; // groups are being output before the input is exhausted
+  private boolean batchPending = false; // the current incoming batch has not been counted yet
+  private long sampledRecords = 0;
+  private long passThroughRecords = 0;
+
   private OperatorStats stats = null;
   private HashTableStats htStats = new HashTableStats();
 
@@ -105,7 +119,11 @@ public abstract class HashAggTemplate implements HashAggregator {
     NUM_BUCKETS,
     NUM_ENTRIES,
     NUM_RESIZING,
-    RESIZING_TIME;
+    RESIZING_TIME,
+    GROUP_RATIO_PERCENT,
+    EARLY_FLUSHES,
+    PASS_THROUGH_RECORDS,
+    REALLOCS_AVOIDED;
 
     // duplicate for hash ag
 
@@ -273,9 +291,15 @@ public abstract class HashAggTemplate implements HashAggregator {
     this.htable = ht.createAndSetupHashTable(groupByOutFieldIds);
 
     numGroupByOutFields = groupByOutFieldIds.length;
+    outputValueWidths =
+        new ColumnWidthTracker(outContainer.getNumberOfColumns() - numGroupByOutFields, VARIABLE_WIDTH_VALUE_SIZE);
     batchHolders = new ArrayList<BatchHolder>();
     // First BatchHolder is created when the first put request is received.
 
+    this.adaptive = hashAggrConfig.isPartial() && context.getOptions().getOption(ExecConstants.HASHAGG_ADAPTIVE_PARTIAL);
+    this.maxGroupRatio = context.getOptions().getOption(ExecConstants.HASHAGG_PARTIAL_MAX_GROUP_RATIO);
+    this.batchPending = true;
+
     doSetup(incoming);
   }
 
@@ -304,6 +328,13 @@ public abstract class HashAggTemplate implements HashAggregator {
           logger.debug("Processed {} records", underlyingIndex);
         }
 
+        if (adaptive && batchPending) {
+          batchPending = false;
+          if (checkReduction(incoming.getRecordCount())) {
+            return AggOutcome.RETURN_OUTCOME;
+          }
+        }
+
         try {
 
           while (true) {
@@ -332,6 +363,7 @@ public abstract class HashAggTemplate implements HashAggregator {
 
               case OK:
                 resetIndex();
+                batchPending = true;
                 if (incoming.getRecordCount() == 0) {
                   continue;
                 } else {
@@ -381,16 +413,16 @@ public abstract class HashAggTemplate implements HashAggregator {
     for (int i = 0; i < numGroupByOutFields; i++) {
       outgoingIter.next();
     }
+    int column = 0;
     while (outgoingIter.hasNext()) {
       ValueVector vv = outgoingIter.next().getValueVector();
-      MajorType type = vv.getField().getType();
 
       /*
        * In build schema we use the allocation model that specifies exact record count
        * so we need to stick with that allocation model until DRILL-2211 is resolved. Using
-       * 50 as the average bytes per value as is used in HashTable.
+       * the widths of earlier output values, or 50 as the average bytes per value as is used in HashTable.
        */
-      AllocationHelper.allocatePrecomputedChildCount(vv, records, VARIABLE_WIDTH_VALUE_SIZE, 0);
+      outputValueWidths.allocate(column++, vv, records);
     }
   }
 
@@ -483,9 +515,15 @@ public abstract class HashAggTemplate implements HashAggregator {
     this.htable.outputKeys(outBatchIndex, this.outContainer, outStartIdxHolder.value, outNumRecordsHolder.value);
 
     // set the value count for outgoing batch value vectors
+    int column = -numGroupByOutFields;
     for (VectorWrapper<?> v : outgoing) {
       v.getValueVector().getMutator().setValueCount(numOutputRecords);
+      if (column >= 0) {
+        outputValueWidths.record(column, v.getValueVector());
+      }
+      column++;
     }
+    stats.setLongStat(Metric.REALLOCS_AVOIDED, htStats.reallocsAvoided + outputValueWidths.getReallocsAvoided());
 
     outputCount += numOutputRecords;
 
@@ -495,7 +533,13 @@ public abstract class HashAggTemplate implements HashAggregator {
 
     lastBatchOutputCount = numOutputRecords;
     outBatchIndex++;
-    if (outBatchIndex == batchHolders.size()) {
+    if (earlyFlush) {
+      // the last batch holder may have been allocated ahead of use and hold no groups
+      if (outBatchIndex == batchHolders.size() || batchHolders.get(outBatchIndex).getNumPendingOutput() == 0) {
+        logger.debug("HashAggregate: Flushed groups early; continuing with the next incoming batch.");
+        resetGroups();
+      }
+    } else if (outBatchIndex == batchHolders.size()) {
       allFlushed = true;
 
       logger.debug("HashAggregate: All batches flushed.");
@@ -515,6 +559,10 @@ public abstract class HashAggTemplate implements HashAggregator {
     return buildComplete;
   }
 
+  public boolean earlyOutput() {
+    return earlyFlush;
+  }
+
   public int numGroupedRecords() {
     return numGroupedRecords;
   }
@@ -563,12 +611,72 @@ public abstract class HashAggTemplate implements HashAggregator {
     }
   }
 
+  /**
+   * Decides, after each incoming batch of a partial aggregate, whether to keep aggregating across batches. Once at
+   * least {@link #MIN_SAMPLE_RECORDS} records are grouped, the groups are compared with the records they came from;
+   * if grouping does not bring that ratio below the configured maximum, the aggregate switches to passing its input
+   * through, flushing the groups of every batch, and samples again after {@link #RESAMPLE_RECORDS} records.
+   *
+   * @param records number of records in the batch just processed
+   * @return true if the groups are being flushed and the first output batch is ready
+   */
+  private boolean checkReduction(int records) {
+    if (passThrough) {
+      passThroughRecords += records;
+      stats.addLongStat(Metric.PASS_THROUGH_RECORDS, records);
+      if (passThroughRecords >= RESAMPLE_RECORDS) {
+        passThrough = false;
+        passThroughRecords = 0;
+        sampledRecords = 0;
+      }
+      return startEarlyFlush();
+    }
+
+    sampledRecords += records;
+    if (sampledRecords < MIN_SAMPLE_RECORDS) {
+      return false;
+    }
+    final double groupRatio = (double) htable.size() / sampledRecords;
+    stats.setLongStat(Metric.GROUP_RATIO_PERCENT, Math.round(groupRatio * 100));
+    if (groupRatio <= maxGroupRatio) {
+      // grouping pays off, aggregate the rest of the input as usual
+      adaptive = false;
+      return false;
+    }
+
+    logger.debug("HashAggregate: {} groups from {} records, passing the input through.", htable.size(), sampledRecords);
+    passThrough = true;
+    return startEarlyFlush();
+  }
+
+  private boolean startEarlyFlush() {
+    if (htable.size() == 0) {
+      return false;
+    }
+    stats.addLongStat(Metric.EARLY_FLUSHES, 1);
+    earlyFlush = true;
+    outputCurrentBatch();
+    return true;
+  }
+
+  // Drop the groups that were flushed early so that aggregation can continue with an empty table.
+  private void resetGroups() {
+    for (BatchHolder bh : batchHolders) {
+      bh.clear();
+    }
+    batchHolders.clear();
+    htable.reset();
+    outBatchIndex = 0;
+    earlyFlush = false;
+  }
+
   private void updateStats(HashTable htable) {
     htable.getStats(htStats);
     this.stats.setLongStat(Metric.NUM_BUCKETS, htStats.numBuckets);
     this.stats.setLongStat(Metric.NUM_ENTRIES, htStats.numEntries);
     this.stats.setLongStat(Metric.NUM_RESIZING, htStats.numResizing);
     this.stats.setLongStat(Metric.RESIZING_TIME, htStats.resizingTime);
+    this.stats.setLongStat(Metric.REALLOCS_AVOIDED, htStats.reallocsAvoided + outputValueWidths.getReallocsAvoided());
   }
 
   // Code-generated methods (implemented in HashAggBatch)
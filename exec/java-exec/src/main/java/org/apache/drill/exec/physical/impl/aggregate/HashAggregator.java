@@ -60,6 +60,11 @@ public interface HashAggregator {
 
   public abstract boolean buildComplete();
 
+  /**
+   * @return true if groups are being output before the input is exhausted (partial aggregation only)
+   */
+  public abstract boolean earlyOutput();
+
   public abstract IterOutcome outputCurrentBatch();
 
 }
@@ -126,33 +126,16 @@ public abstract class StreamingAggTemplate implements StreamingAggregator {
       }
 
       outside: while(true) {
-      // loop through existing records, adding as necessary.
-        for (; underlyingIndex < incoming.getRecordCount(); incIndex()) {
+      // loop through existing records, adding a run of records with the same keys at a time.
+        while (underlyingIndex < incoming.getRecordCount()) {
           if (EXTRA_DEBUG) {
             logger.debug("Doing loop with values underlying {}, current {}", underlyingIndex, currentIndex);
           }
-          if (previousIndex == -1) {
-            if (EXTRA_DEBUG) {
-              logger.debug("Adding the initial row's keys and values.");
-            }
-            addRecordInc(currentIndex);
-          }
-          else if (isSame( previousIndex, currentIndex )) {
-            if (EXTRA_DEBUG) {
-              logger.debug("Values were found the same, adding.");
-            }
-            addRecordInc(currentIndex);
-          } else {
+          if (previousIndex != -1 && !isSame(previousIndex, currentIndex)) {
             if (EXTRA_DEBUG) {
               logger.debug("Values were different, outputting previous batch.");
             }
-            if(!outputToBatch(previousIndex)) {
-              // There is still space in outgoing container, so proceed to the next input.
-              if (EXTRA_DEBUG) {
-                logger.debug("Output successful.");
-              }
-              addRecordInc(currentIndex);
-            } else {
+            if (outputToBatch(previousIndex)) {
               if (EXTRA_DEBUG) {
                 logger.debug("Output container has reached its capacity. Flushing it.");
               }
@@ -162,7 +145,16 @@ public abstract class StreamingAggTemplate implements StreamingAggregator {
               return setOkAndReturn();
             }
           }
+          // the current record starts or continues a group; add it along with the rest of its run in this batch.
+          final int runEnd = findRunEnd(underlyingIndex);
+          if (EXTRA_DEBUG) {
+            logger.debug("Adding run of {} records.", runEnd - underlyingIndex);
+          }
+          addRecordsInc(underlyingIndex, runEnd);
+          underlyingIndex = runEnd - 1;
+          currentIndex = getVectorIndex(underlyingIndex);
           previousIndex = currentIndex;
+          incIndex();
         }
 
         InternalBatch previous = new InternalBatch(incoming, context);
@@ -330,6 +322,55 @@ public abstract class StreamingAggTemplate implements StreamingAggregator {
     return outputCount == OUTPUT_BATCH_SIZE;
   }
 
+  /**
+   * Finds the end of the run of records with the same keys as the record at the given position of the incoming batch.
+   * Since the incoming is grouped on the keys, the run ends at the first record that differs from its first record.
+   * Distinct keys end the run after a single comparison, and a run reaching the end of the batch is found after two;
+   * anything in between is found by galloping rather than comparing every record with its predecessor.
+   *
+   * @param start position (before applying any selection vector) of the first record of the run
+   * @return position one past the last record of the run
+   */
+  private int findRunEnd(int start) {
+    final int last = incoming.getRecordCount() - 1;
+    final int startIndex = getVectorIndex(start);
+    if (start == last || !isSame(startIndex, getVectorIndex(start + 1))) {
+      return start + 1;
+    }
+    if (isSame(startIndex, getVectorIndex(last))) {
+      return last + 1;
+    }
+    // gallop until a record with different keys is found, then binary search for the first one
+    int low = start + 2;
+    int step = 1;
+    int high = low;
+    while (high < last && isSame(startIndex, getVectorIndex(high))) {
+      low = high + 1;
+      step <<= 1;
+      high = Math.min(start + 1 + step, last);
+    }
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (isSame(startIndex, getVectorIndex(mid))) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Adds the records at positions [start, end) of the incoming batch to the current group. The loop lives in the
+   * generated class, so the accumulator updates of the whole run are compiled together with it.
+   */
+  private void addRecordsInc(int start, int end) {
+    for (int i = start; i < end; i++) {
+      addRecord(getVectorIndex(i));
+    }
+    this.addedRecordCount += end - start;
+  }
+
   private void addRecordInc(int index) {
     addRecord(index);
     this.addedRecordCount++;
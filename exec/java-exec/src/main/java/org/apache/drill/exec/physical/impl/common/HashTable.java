@@ -72,6 +72,11 @@ public interface HashTable {
 
   public void clear();
 
+  /**
+   * Removes all entries, leaving the table set up for new puts at its initial capacity.
+   */
+  public void reset();
+
   public boolean outputKeys(int batchIdx, VectorContainer outContainer, int outStartIndex, int numRecords);
 
   public void addNewKeyBatch();
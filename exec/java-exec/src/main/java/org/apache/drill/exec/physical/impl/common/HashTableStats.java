@@ -23,6 +23,7 @@ public class HashTableStats {
   public int numEntries;
   public int numResizing;
   public int resizingTime;
+  public long reallocsAvoided;
 
   public HashTableStats() {
   }
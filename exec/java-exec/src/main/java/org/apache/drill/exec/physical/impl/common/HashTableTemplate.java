@@ -37,6 +37,7 @@ import org.apache.drill.exec.record.VectorContainer;
 import org.apache.drill.exec.record.VectorWrapper;
 import org.apache.drill.exec.vector.AllocationHelper;
 import org.apache.drill.exec.vector.BigIntVector;
+import org.apache.drill.exec.vector.ColumnWidthTracker;
 import org.apache.drill.exec.vector.FixedWidthVector;
 import org.apache.drill.exec.vector.IntVector;
 import org.apache.drill.exec.vector.ValueVector;
@@ -92,6 +93,9 @@ public abstract class HashTableTemplate implements HashTable {
   // The original container from which others may be cloned
   private VectorContainer htContainerOrig;
 
+  // Widths of the variable width keys seen so far, used to size the key vectors of new BatchHolders
+  private ColumnWidthTracker keyWidths;
+
   private MaterializedField dummyIntField;
 
   private int numResizing = 0;
@@ -125,6 +129,7 @@ public abstract class HashTableTemplate implements HashTable {
       htContainer = new VectorContainer();
       boolean success = false;
       try {
+        int column = 0;
         for (VectorWrapper<?> w : htContainerOrig) {
           ValueVector vv = TypeHelper.getNewVector(w.getField(), allocator);
 
@@ -136,12 +141,13 @@ public abstract class HashTableTemplate implements HashTable {
           if (vv instanceof FixedWidthVector) {
             ((FixedWidthVector) vv).allocateNew(BATCH_SIZE);
           } else if (vv instanceof VariableWidthVector) {
-            ((VariableWidthVector) vv).allocateNew(VARIABLE_WIDTH_VECTOR_SIZE, BATCH_SIZE);
+            keyWidths.allocate(column, vv, BATCH_SIZE);
           } else {
             vv.allocateNew();
           }
 
           htContainer.add(vv);
+          column++;
         }
 
         links = allocMetadataVector(HashTable.BATCH_SIZE, EMPTY_SLOT);
@@ -367,6 +373,15 @@ public abstract class HashTableTemplate implements HashTable {
       }
     }
 
+    // Called once no more keys will be inserted into this BatchHolder.
+    private void recordKeyWidths() {
+      setValueCount();
+      int column = 0;
+      for (VectorWrapper<?> vw : htContainer) {
+        keyWidths.record(column++, vw.getValueVector());
+      }
+    }
+
     private void dump(int idx) {
       while (true) {
         int idxWithinBatch = idx & BATCH_MASK;
@@ -458,6 +473,7 @@ public abstract class HashTableTemplate implements HashTable {
     this.incomingProbe = incomingProbe;
     this.outgoing = outgoing;
     this.htContainerOrig = htContainerOrig;
+    this.keyWidths = new ColumnWidthTracker(htContainerOrig.getNumberOfColumns(), VARIABLE_WIDTH_VECTOR_SIZE / BATCH_SIZE);
 
     // round up the initial capacity to nearest highest power of 2
     tableSize = roundUpToPowerOf2(initialCap);
@@ -505,6 +521,7 @@ public abstract class HashTableTemplate implements HashTable {
     stats.numEntries = numEntries;
     stats.numResizing = numResizing;
     stats.resizingTime = resizingTime;
+    stats.reallocsAvoided = keyWidths.getReallocsAvoided();
   }
 
   public boolean isEmpty() {
@@ -524,6 +541,23 @@ public abstract class HashTableTemplate implements HashTable {
     numEntries = 0;
   }
 
+  public void reset() {
+    for (BatchHolder bh : batchHolders) {
+      bh.clear();
+    }
+    batchHolders.clear();
+    startIndices.clear();
+
+    tableSize = roundUpToPowerOf2(htConfig.getInitialCapacity());
+    if (tableSize > MAXIMUM_CAPACITY) {
+      tableSize = MAXIMUM_CAPACITY;
+    }
+    threshold = (int) Math.ceil(tableSize * htConfig.getLoadFactor());
+    startIndices = allocMetadataVector(tableSize, EMPTY_SLOT);
+    freeIndex = 0;
+    numEntries = 0;
+  }
+
   private int getBucketIndex(int hash, int numBuckets) {
     return hash & (numBuckets - 1);
   }
@@ -680,6 +714,9 @@ public abstract class HashTableTemplate implements HashTable {
   }
 
   private BatchHolder addBatchHolder() {
+    if (!batchHolders.isEmpty()) {
+      batchHolders.get(batchHolders.size() - 1).recordKeyWidths();
+    }
     BatchHolder bh = new BatchHolder(batchHolders.size());
     batchHolders.add(bh);
     bh.setup();
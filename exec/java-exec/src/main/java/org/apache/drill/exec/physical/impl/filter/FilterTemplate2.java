@@ -17,6 +17,8 @@
  */
 package org.apache.drill.exec.physical.impl.filter;
 
+import io.netty.util.internal.PlatformDependent;
+
 import javax.inject.Named;
 
 import org.apache.drill.exec.exception.SchemaChangeException;
@@ -80,26 +82,30 @@ public abstract class FilterTemplate2 implements Filterer{
     doTransfers();
   }
 
+  /*
+   * Both loops below build the outgoing selection vector without a data dependent branch per row: the candidate
+   * index is always written to the next free slot and the slot is only claimed when the predicate holds. The slot
+   * written never lies beyond the current row, so it always falls within the vector allocated for recordCount rows.
+   * Selection vectors are read and written through their memory addresses to keep bounds checks out of the loop.
+   */
   private void filterBatchSV2(int recordCount){
+    final long inAddr = incomingSelectionVector.getDataAddr();
+    final long outAddr = outgoingSelectionVector.getDataAddr();
     int svIndex = 0;
-    final int count = recordCount;
-    for(int i = 0; i < count; i++){
-      char index = incomingSelectionVector.getIndex(i);
-      if(doEval(index, 0)){
-        outgoingSelectionVector.setIndex(svIndex, index);
-        svIndex++;
-      }
+    for(int i = 0; i < recordCount; i++){
+      final short index = PlatformDependent.getShort(inAddr + i * SelectionVector2.RECORD_SIZE);
+      PlatformDependent.putShort(outAddr + svIndex * SelectionVector2.RECORD_SIZE, index);
+      svIndex += doEval(index & 0xFFFF, 0) ? 1 : 0;
     }
     outgoingSelectionVector.setRecordCount(svIndex);
   }
 
   private void filterBatchNoSV(int recordCount){
+    final long outAddr = outgoingSelectionVector.getDataAddr();
     int svIndex = 0;
     for(int i = 0; i < recordCount; i++){
-      if(doEval(i, 0)){
-        outgoingSelectionVector.setIndex(svIndex, (char)i);
-        svIndex++;
-      }
+      PlatformDependent.putShort(outAddr + svIndex * SelectionVector2.RECORD_SIZE, (short) i);
+      svIndex += doEval(i, 0) ? 1 : 0;
     }
     outgoingSelectionVector.setRecordCount(svIndex);
   }
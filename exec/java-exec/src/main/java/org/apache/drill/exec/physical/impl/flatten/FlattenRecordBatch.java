@@ -43,6 +43,7 @@ import org.apache.drill.exec.physical.config.FlattenPOP;
 import org.apache.drill.exec.record.AbstractSingleRecordBatch;
 import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
 import org.apache.drill.exec.record.MaterializedField;
+import org.apache.drill.exec.record.OutputBatchSizer;
 import org.apache.drill.exec.record.RecordBatch;
 import org.apache.drill.exec.record.TransferPair;
 import org.apache.drill.exec.record.TypedFieldId;
@@ -68,6 +69,7 @@ public class FlattenRecordBatch extends AbstractSingleRecordBatch<FlattenPOP> {
   private boolean hasRemainder = false;
   private int remainderIndex = 0;
   private int recordCount;
+  private final OutputBatchSizer batchSizer;
 
   private final Flattener.Monitor monitor = new Flattener.Monitor() {
     @Override
@@ -96,6 +98,7 @@ public class FlattenRecordBatch extends AbstractSingleRecordBatch<FlattenPOP> {
 
   public FlattenRecordBatch(FlattenPOP pop, RecordBatch incoming, FragmentContext context) throws OutOfMemoryException {
     super(pop, context, incoming);
+    batchSizer = new OutputBatchSizer(context.getOptions());
   }
 
   @Override
@@ -159,6 +162,7 @@ public class FlattenRecordBatch extends AbstractSingleRecordBatch<FlattenPOP> {
     setFlattenVector();
 
     int childCount = incomingRecordCount == 0 ? 0 : flattener.getFlattenField().getAccessor().getInnerValueCount();
+    setOutputCount(childCount);
     int outputRecords = childCount == 0 ? 0: flattener.flattenRecords(incomingRecordCount, 0, monitor);
     // TODO - change this to be based on the repeated vector length
     if (outputRecords < childCount) {
@@ -179,10 +183,25 @@ public class FlattenRecordBatch extends AbstractSingleRecordBatch<FlattenPOP> {
     if (complexWriters != null) {
       container.buildSchema(SelectionVectorMode.NONE);
     }
+    batchSizer.record(container);
 
     return IterOutcome.OK;
   }
 
+  /**
+   * Limit the output batches of the incoming batch to the records that fit in the output batch size. An output
+   * record holds the other columns of its incoming record and one value of the flattened list.
+   */
+  private void setOutputCount(int childCount) {
+    if (childCount == 0) {
+      return;
+    }
+    final ValueVector flattenField = flattener.getFlattenField();
+    final int valueWidth = (int) (((long) flattenField.getBufferSize() + childCount - 1) / childCount);
+    final int rowWidth = OutputBatchSizer.getRowWidth(incoming) - OutputBatchSizer.getWidth(flattenField) + valueWidth;
+    flattener.setOutputCount(batchSizer.getRecordCount(Math.max(rowWidth, batchSizer.getRowWidth()), Integer.MAX_VALUE));
+  }
+
   private void handleRemainder() {
     int remainingRecordCount = flattener.getFlattenField().getAccessor().getInnerValueCount() - remainderIndex;
     if (!doAlloc()) {
@@ -210,6 +229,7 @@ public class FlattenRecordBatch extends AbstractSingleRecordBatch<FlattenPOP> {
     if (complexWriters != null) {
       container.buildSchema(SelectionVectorMode.NONE);
     }
+    batchSizer.record(container);
   }
 
   public void addComplexWriter(ComplexWriter writer) {
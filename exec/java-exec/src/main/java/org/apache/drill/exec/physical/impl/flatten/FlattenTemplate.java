@@ -56,6 +56,11 @@ public abstract class FlattenTemplate implements Flattener {
    */
   private int outputLimit = OUTPUT_BATCH_SIZE;
 
+  /**
+   * The number of records that fit in the output batch size for the width of the current input's rows.
+   */
+  private int outputCount = Integer.MAX_VALUE;
+
   // this allows for groups to be written between batches if we run out of space, for cases where we have finished
   // a batch on the boundary it will be set to 0
   private int innerValueIndex;
@@ -71,6 +76,11 @@ public abstract class FlattenTemplate implements Flattener {
     this.accessor = RepeatedValueVector.RepeatedAccessor.class.cast(flattenField.getAccessor());
   }
 
+  @Override
+  public void setOutputCount(int outputCount) {
+    this.outputCount = outputCount;
+  }
+
   public RepeatedValueVector getFlattenField() {
     return fieldToFlatten;
   }
@@ -117,6 +127,11 @@ public abstract class FlattenTemplate implements Flattener {
                 break outer;
               }
 
+              // Or if the batch holds as many records as fit in the output batch size.
+              if (recordsThisCall == outputCount) {
+                break outer;
+              }
+
               /*
                * At the moment, the output record includes the input record, so for very
                * large records that we're flattening, we're carrying forward the original
@@ -43,6 +43,7 @@ public interface Flattener {
   public int flattenRecords(int recordCount, int firstOutputIndex, Monitor monitor);
 
   public void setFlattenField(RepeatedValueVector repeatedColumn);
+  public void setOutputCount(int outputCount);
   public RepeatedValueVector getFlattenField();
   public void resetGroupIndex();
 
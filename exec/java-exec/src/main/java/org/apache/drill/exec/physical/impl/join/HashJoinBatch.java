@@ -51,6 +51,7 @@ import org.apache.drill.exec.record.BatchSchema;
 import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
 import org.apache.drill.exec.record.ExpandableHyperContainer;
 import org.apache.drill.exec.record.MaterializedField;
+import org.apache.drill.exec.record.OutputBatchSizer;
 import org.apache.drill.exec.record.RecordBatch;
 import org.apache.drill.exec.record.TypedFieldId;
 import org.apache.drill.exec.record.VectorContainer;
@@ -147,12 +148,16 @@ public class HashJoinBatch extends AbstractRecordBatch<HashJoinPOP> {
 
   private final HashTableStats htStats = new HashTableStats();
 
+  // limits the records of the output batches for the width of the rows already joined
+  private final OutputBatchSizer batchSizer;
+
   public enum Metric implements MetricDef {
 
     NUM_BUCKETS,
     NUM_ENTRIES,
     NUM_RESIZING,
-    RESIZING_TIME;
+    RESIZING_TIME,
+    REALLOCS_AVOIDED;
 
     // duplicate for hash ag
 
@@ -246,6 +251,11 @@ public class HashJoinBatch extends AbstractRecordBatch<HashJoinPOP> {
           for (final VectorWrapper<?> v : container) {
             v.getValueVector().getMutator().setValueCount(outputRecords);
           }
+          if (outputRecords > 0) {
+            batchSizer.record(container);
+            hashJoinProbe.setTargetRecordsPerBatch(
+                batchSizer.getRecordCount(batchSizer.getRowWidth(), HashJoinProbe.TARGET_RECORDS_PER_BATCH));
+          }
 
           return IterOutcome.OK;
         }
@@ -500,6 +510,7 @@ public class HashJoinBatch extends AbstractRecordBatch<HashJoinPOP> {
     this.right = right;
     joinType = popConfig.getJoinType();
     conditions = popConfig.getConditions();
+    batchSizer = new OutputBatchSizer(context.getOptions());
   }
 
   private void updateStats(HashTable htable) {
@@ -511,6 +522,7 @@ public class HashJoinBatch extends AbstractRecordBatch<HashJoinPOP> {
     stats.setLongStat(Metric.NUM_ENTRIES, htStats.numEntries);
     stats.setLongStat(Metric.NUM_RESIZING, htStats.numResizing);
     stats.setLongStat(Metric.RESIZING_TIME, htStats.resizingTime);
+    stats.setLongStat(Metric.REALLOCS_AVOIDED, htStats.reallocsAvoided);
   }
 
   @Override
@@ -32,6 +32,9 @@ import org.apache.calcite.rel.core.JoinRelType;
 public interface HashJoinProbe {
   public static TemplateClassDefinition<HashJoinProbe> TEMPLATE_DEFINITION = new TemplateClassDefinition<HashJoinProbe>(HashJoinProbe.class, HashJoinProbeTemplate.class);
 
+  // The most records an output batch holds, fewer if they don't fit in the output batch size
+  public static final int TARGET_RECORDS_PER_BATCH = 4000;
+
   /* The probe side of the hash join can be in the following two states
    * 1. PROBE_PROJECT: Inner join case, we probe our hash table to see if we have a
    *    key match and if we do we project the record
@@ -49,6 +52,7 @@ public interface HashJoinProbe {
                                           JoinRelType joinRelType);
   public abstract void doSetup(FragmentContext context, VectorContainer buildBatch, RecordBatch probeBatch, RecordBatch outgoing);
   public abstract int  probeAndProject() throws SchemaChangeException, ClassTransformationException, IOException;
+  public abstract void setTargetRecordsPerBatch(int targetRecordsPerBatch);
   public abstract void projectBuildRecord(int buildIndex, int outIndex);
   public abstract void projectProbeRecord(int probeIndex, int outIndex);
 }
@@ -47,7 +47,7 @@ public abstract class HashJoinProbeTemplate implements HashJoinProbe {
 
   private HashJoinBatch outgoingJoinBatch = null;
 
-  private static final int TARGET_RECORDS_PER_BATCH = 4000;
+  private int targetRecordsPerBatch = TARGET_RECORDS_PER_BATCH;
 
   /* Helper class
    * Maintains linked list of build side records with the same key
@@ -97,8 +97,13 @@ public abstract class HashJoinProbeTemplate implements HashJoinProbe {
     doSetup(context, buildBatch, probeBatch, outgoing);
   }
 
+  @Override
+  public void setTargetRecordsPerBatch(int targetRecordsPerBatch) {
+    this.targetRecordsPerBatch = targetRecordsPerBatch;
+  }
+
   public void executeProjectRightPhase() {
-    while (outputRecords < TARGET_RECORDS_PER_BATCH && recordsProcessed < recordsToProcess) {
+    while (outputRecords < targetRecordsPerBatch && recordsProcessed < recordsToProcess) {
       projectBuildRecord(unmatchedBuildIndexes.get(recordsProcessed), outputRecords);
       recordsProcessed++;
       outputRecords++;
@@ -106,7 +111,7 @@ public abstract class HashJoinProbeTemplate implements HashJoinProbe {
   }
 
   public void executeProbePhase() throws SchemaChangeException {
-    while (outputRecords < TARGET_RECORDS_PER_BATCH && probeState != ProbeState.DONE && probeState != ProbeState.PROJECT_RIGHT) {
+    while (outputRecords < targetRecordsPerBatch && probeState != ProbeState.DONE && probeState != ProbeState.PROJECT_RIGHT) {
 
       // Check if we have processed all records in this batch we need to invoke next
       if (recordsProcessed == recordsToProcess) {
@@ -68,8 +68,10 @@ public abstract class JoinTemplate implements JoinWorker {
           if (isLeftJoin) {
             doCopyLeft(status.left.getCurrentPosition(), status.getOutPosition());
             status.incOutputPos();
+            status.left.next();
+          } else {
+            status.left.skip(gallop(status, true));
           }
-          status.left.next();
           continue;
 
         case 0:
@@ -115,7 +117,7 @@ public abstract class JoinTemplate implements JoinWorker {
           continue;
         case 1:
           // left key > right key
-          status.right.next();
+          status.right.skip(gallop(status, false));
           continue;
 
         default:
@@ -125,6 +127,43 @@ public abstract class JoinTemplate implements JoinWorker {
     return true;
   }
 
+  /**
+   * Counts how many rows following the current row of one side, within its current batch, still compare lower than
+   * the current row of the other side. Uses an exponential search followed by a binary search, so long runs of
+   * non-matching keys cost a logarithmic number of comparisons.
+   * @param advanceLeft true to count rows of the left side lower than the right row, false for the reverse
+   * @return number of rows that can be skipped before moving to the next row
+   */
+  private int gallop(final JoinStatus status, final boolean advanceLeft) {
+    final int start = advanceLeft ? status.left.getCurrentPosition() : status.right.getCurrentPosition();
+    final int count = advanceLeft ? status.left.getInnerRecordCount() : status.right.getInnerRecordCount();
+
+    // the row at start is known to be lower, find an upper bound that isn't
+    int low = start;
+    int step = 1;
+    while (start + step < count && isLower(status, advanceLeft, start + step)) {
+      low = start + step;
+      step <<= 1;
+    }
+    int high = Math.min(start + step, count);
+
+    // binary search for the first row in (low, high] that isn't lower
+    while (high - low > 1) {
+      final int mid = (low + high) >>> 1;
+      if (isLower(status, advanceLeft, mid)) {
+        low = mid;
+      } else {
+        high = mid;
+      }
+    }
+    return low - start;
+  }
+
+  private boolean isLower(final JoinStatus status, final boolean leftSide, final int index) {
+    return leftSide ? doCompare(index, status.right.getCurrentPosition()) < 0
+      : doCompare(status.left.getCurrentPosition(), index) > 0;
+  }
+
   // Generated Methods
 
   public abstract void doSetup(@Named("context") FragmentContext context,
@@ -32,6 +32,7 @@ import org.apache.drill.common.types.TypeProtos.DataMode;
 import org.apache.drill.common.types.TypeProtos.MajorType;
 import org.apache.drill.common.types.TypeProtos.MinorType;
 import org.apache.drill.common.types.Types;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.compile.sig.MappingSet;
 import org.apache.drill.exec.exception.ClassTransformationException;
 import org.apache.drill.exec.exception.OutOfMemoryException;
@@ -44,6 +45,7 @@ import org.apache.drill.exec.expr.fn.FunctionGenerationHelper;
 import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.physical.config.MergeJoinPOP;
 import org.apache.drill.exec.physical.impl.join.JoinUtils.JoinComparator;
+import org.apache.drill.exec.physical.impl.xsort.SpillSet;
 import org.apache.drill.exec.record.AbstractRecordBatch;
 import org.apache.drill.exec.record.BatchSchema;
 import org.apache.drill.exec.record.MaterializedField;
@@ -116,6 +118,7 @@ public class MergeJoinBatch extends AbstractRecordBatch<MergeJoinPOP> {
     this.leftIterator = new RecordIterator(left, this, oContext, 0, false);
     this.right = right;
     this.rightIterator = new RecordIterator(right, this, oContext, 1);
+    enableRightSpilling();
     this.joinType = popConfig.getJoinType();
     this.status = new JoinStatus(leftIterator, rightIterator, this);
     this.conditions = popConfig.getConditions();
@@ -252,6 +255,15 @@ public class MergeJoinBatch extends AbstractRecordBatch<MergeJoinPOP> {
     }
   }
 
+  /**
+   * Lets the right iterator spill the batches of a long duplicate key run, which it holds in memory to replay them for
+   * every matching left row.
+   */
+  private void enableRightSpilling() {
+    rightIterator.enableSpilling(new SpillSet(context, oContext.getAllocator(), popConfig, "mergejoin"),
+        context.getOptions().getOption(ExecConstants.MERGE_JOIN_SPILL_THRESHOLD));
+  }
+
   @Override
   public void close() {
     super.close();
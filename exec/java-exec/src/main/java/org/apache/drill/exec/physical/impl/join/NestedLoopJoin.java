@@ -23,7 +23,7 @@ import org.apache.drill.exec.record.ExpandableHyperContainer;
 import org.apache.drill.exec.record.RecordBatch;
 import org.apache.drill.exec.record.VectorContainer;
 
-import java.util.LinkedList;
+import java.util.List;
 
 /**
  * Interface for the nested loop join operator.
@@ -34,7 +34,7 @@ public interface NestedLoopJoin {
 
   public void setupNestedLoopJoin(FragmentContext context, RecordBatch left,
                                   ExpandableHyperContainer rightContainer,
-                                  LinkedList<Integer> rightCounts,
+                                  List<Integer> rightCounts,
                                   NestedLoopJoinBatch outgoing);
   // Produce output records
   public int outputRecords();
@@ -45,6 +45,9 @@ public interface NestedLoopJoin {
   // Project the record from the hyper container given the batch index and the record within the batch at 'outIndex'
   public void emitRight(int batchIndex, int recordIndexWithinBatch, int outIndex);
 
+  // Evaluate the join condition on the pair of records projected into the output container at offset 'outIndex'
+  public boolean doEval(int outIndex);
+
   // Setup the input/output value vector references
   public void doSetup(FragmentContext context, VectorContainer rightContainer, RecordBatch leftBatch, RecordBatch outgoing);
 }
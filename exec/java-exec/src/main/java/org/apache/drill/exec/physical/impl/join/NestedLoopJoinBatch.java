@@ -18,10 +18,16 @@
 package org.apache.drill.exec.physical.impl.join;
 
 import java.io.IOException;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.drill.common.exceptions.DrillRuntimeException;
+import org.apache.drill.common.expression.ErrorCollector;
+import org.apache.drill.common.expression.ErrorCollectorImpl;
+import org.apache.drill.common.expression.LogicalExpression;
+import org.apache.drill.common.expression.ValueExpressions;
 import org.apache.drill.common.types.TypeProtos;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.compile.sig.GeneratorMapping;
 import org.apache.drill.exec.compile.sig.MappingSet;
 import org.apache.drill.exec.exception.ClassTransformationException;
@@ -29,19 +35,25 @@ import org.apache.drill.exec.exception.OutOfMemoryException;
 import org.apache.drill.exec.exception.SchemaChangeException;
 import org.apache.drill.exec.expr.ClassGenerator;
 import org.apache.drill.exec.expr.CodeGenerator;
+import org.apache.drill.exec.expr.ExpressionTreeMaterializer;
+import org.apache.drill.exec.expr.ReturnValueExpression;
 import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.physical.config.NestedLoopJoinPOP;
 import org.apache.drill.exec.physical.impl.sort.RecordBatchData;
+import org.apache.drill.exec.physical.impl.xsort.SpillSet;
 import org.apache.drill.exec.record.AbstractRecordBatch;
 import org.apache.drill.exec.record.BatchSchema;
 import org.apache.drill.exec.record.ExpandableHyperContainer;
 import org.apache.drill.exec.record.MaterializedField;
 import org.apache.drill.exec.record.RecordBatch;
 import org.apache.drill.exec.record.TypedFieldId;
+import org.apache.drill.exec.record.VectorContainer;
 import org.apache.drill.exec.record.VectorWrapper;
 import org.apache.drill.exec.vector.AllocationHelper;
+import org.apache.hadoop.fs.Path;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
 import com.sun.codemodel.JExpr;
 import com.sun.codemodel.JExpression;
 import com.sun.codemodel.JVar;
@@ -87,7 +99,19 @@ public class NestedLoopJoinBatch extends AbstractRecordBatch<NestedLoopJoinPOP>
   private ExpandableHyperContainer rightContainer = new ExpandableHyperContainer();
 
   // Record count of the individual batches in the right hypoer container
-  private LinkedList<Integer> rightCounts = new LinkedList<>();
+  private List<Integer> rightCounts = new ArrayList<>();
+
+  // Containers of the individual batches in the right hyper container
+  private final List<VectorContainer> rightBatches = Lists.newArrayList();
+
+  // Spill file of every right batch, null for the batches held in memory
+  private final List<Path> rightSpillPaths = Lists.newArrayList();
+
+  // Spilled right batch currently read back into memory, -1 if none
+  private int loadedRightBatch = -1;
+
+  // Spill files of the right batches beyond the spill threshold
+  private final SpillSet spillSet;
 
 
   // Generator mapping for the right side
@@ -120,12 +144,28 @@ public class NestedLoopJoinBatch extends AbstractRecordBatch<NestedLoopJoinPOP>
       "outgoing" /* write container */,
       EMIT_LEFT_CONSTANT, EMIT_LEFT);
 
+  // Generator mapping for the join condition
+  private static final GeneratorMapping EVAL_CONDITION =
+      GeneratorMapping.create("doSetup" /* setup method */, "doEval" /* eval method */, null /* reset */,
+          null /* cleanup */);
+  // Generator mapping for the join condition : constant
+  private static final GeneratorMapping EVAL_CONDITION_CONSTANT = GeneratorMapping.create("doSetup" /* setup method */,
+      "doSetup" /* eval method */,
+      null /* reset */, null /* cleanup */);
+
+  // Mapping set for the join condition, evaluated on the pair of records already projected into the output
+  private static final MappingSet evalConditionMapping = new MappingSet("outIndex" /* read index */, "outIndex" /* write index */,
+      "outgoing" /* read container */,
+      "outgoing" /* write container */,
+      EVAL_CONDITION_CONSTANT, EVAL_CONDITION);
+
   protected NestedLoopJoinBatch(NestedLoopJoinPOP popConfig, FragmentContext context, RecordBatch left, RecordBatch right) throws OutOfMemoryException {
     super(popConfig, context);
     Preconditions.checkNotNull(left);
     Preconditions.checkNotNull(right);
     this.left = left;
     this.right = right;
+    this.spillSet = new SpillSet(context, oContext.getAllocator(), popConfig, "nestedloopjoin");
   }
 
   /**
@@ -217,11 +257,12 @@ public class NestedLoopJoinBatch extends AbstractRecordBatch<NestedLoopJoinPOP>
    * vector references we implement two more methods
    * 1. emitLeft()  -> Project record from the left side
    * 2. emitRight() -> Project record from the right side (which is a hyper container)
+   * and doEval() which evaluates the join condition on a projected pair of records
    * @return the runtime generated class that implements the NestedLoopJoin interface
    * @throws IOException
    * @throws ClassTransformationException
    */
-  private NestedLoopJoin setupWorker() throws IOException, ClassTransformationException {
+  private NestedLoopJoin setupWorker() throws IOException, ClassTransformationException, SchemaChangeException {
     final CodeGenerator<NestedLoopJoin> nLJCodeGenerator = CodeGenerator.get(NestedLoopJoin.TEMPLATE_DEFINITION, context.getFunctionRegistry(), context.getOptions());
     final ClassGenerator<NestedLoopJoin> nLJClassGenerator = nLJCodeGenerator.getRoot();
 
@@ -272,6 +313,19 @@ public class NestedLoopJoinBatch extends AbstractRecordBatch<NestedLoopJoinPOP>
       outputFieldId++;
     }
 
+    // Evaluate the join condition over the output container, which holds the left and the right fields
+    final ErrorCollector collector = new ErrorCollectorImpl();
+    final LogicalExpression condition = popConfig.getCondition() != null ? popConfig.getCondition()
+        : ValueExpressions.getBit(true);
+    final LogicalExpression materialized = ExpressionTreeMaterializer.materialize(condition, container, collector,
+        context.getFunctionRegistry());
+    if (collector.hasErrors()) {
+      throw new SchemaChangeException(String.format("Failure while trying to materialize the join condition. Errors:\n %s.",
+          collector.toErrorString()));
+    }
+    nLJClassGenerator.setMappingSet(evalConditionMapping);
+    nLJClassGenerator.addExpr(new ReturnValueExpression(materialized), ClassGenerator.BlkCreateMode.FALSE);
+
     return context.getImplementationClass(nLJCodeGenerator);
   }
 
@@ -343,20 +397,56 @@ public class NestedLoopJoinBatch extends AbstractRecordBatch<NestedLoopJoinPOP>
     final RecordBatchData batchCopy = new RecordBatchData(inputBatch, oContext.getAllocator());
     boolean success = false;
     try {
-      rightCounts.addLast(inputBatch.getRecordCount());
+      rightCounts.add(inputBatch.getRecordCount());
       rightContainer.addBatch(batchCopy.getContainer());
+      rightBatches.add(batchCopy.getContainer());
+      rightSpillPaths.add(null);
       success = true;
     } finally {
       if (!success) {
         batchCopy.clear();
       }
     }
+
+    // The right side is scanned once per left batch, so the batches that fit the budget stay in memory and the
+    // others are read back one at a time.
+    if (oContext.getAllocator().getAllocatedMemory() > context.getOptions().getOption(
+        ExecConstants.NESTED_LOOP_JOIN_SPILL_THRESHOLD)) {
+      spillRightBatch(rightBatches.size() - 1);
+    }
+  }
+
+  private void spillRightBatch(int index) {
+    final VectorContainer batch = rightBatches.get(index);
+    rightSpillPaths.set(index, spillSet.spill(batch, rightCounts.get(index)));
+    batch.zeroVectors();
+  }
+
+  /**
+   * Makes sure the vectors of the given right batch are in memory, reading it back if it was spilled. Only one
+   * spilled batch is held in memory at a time.
+   * @param index index of the batch in the right hyper container
+   */
+  protected void loadRightBatch(int index) {
+    final Path path = rightSpillPaths.get(index);
+    if (path == null || index == loadedRightBatch) {
+      return;
+    }
+    if (loadedRightBatch != -1) {
+      rightBatches.get(loadedRightBatch).zeroVectors();
+      loadedRightBatch = -1;
+    }
+    spillSet.load(path, rightBatches.get(index));
+    loadedRightBatch = index;
   }
 
   @Override
   public void close() {
     rightContainer.clear();
     rightCounts.clear();
+    rightBatches.clear();
+    rightSpillPaths.clear();
+    spillSet.close();
     super.close();
   }
 
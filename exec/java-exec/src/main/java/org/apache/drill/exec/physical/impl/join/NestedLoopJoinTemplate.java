@@ -25,7 +25,6 @@ import org.apache.drill.exec.record.VectorContainer;
 import org.apache.drill.exec.record.VectorWrapper;
 
 import javax.inject.Named;
-import java.util.LinkedList;
 import java.util.List;
 
 /*
@@ -65,7 +64,7 @@ public abstract class NestedLoopJoinTemplate implements NestedLoopJoin {
    */
   public void setupNestedLoopJoin(FragmentContext context, RecordBatch left,
                                   ExpandableHyperContainer rightContainer,
-                                  LinkedList<Integer> rightCounts,
+                                  List<Integer> rightCounts,
                                   NestedLoopJoinBatch outgoing) {
     this.left = left;
     leftRecordCount = left.getRecordCount();
@@ -77,7 +76,10 @@ public abstract class NestedLoopJoinTemplate implements NestedLoopJoin {
 
   /**
    * This method is the core of the nested loop join. For every record on the right we go over
-   * the left batch and produce the cross product output
+   * the left batch and produce the records of the cross product that satisfy the join condition.
+   * Each pair is copied into the next free slot of the output batch and the condition is evaluated
+   * on that slot; the slot is only kept when the condition holds, otherwise the next pair overwrites
+   * it. The right record is only copied again once a pair has been kept or the right record changes.
    * @param outputIndex index to start emitting records at
    * @return final outputIndex after producing records in the output batch
    */
@@ -102,16 +104,28 @@ public abstract class NestedLoopJoinTemplate implements NestedLoopJoin {
     outer: {
 
       for (; localNextRightBatchToProcess< totalRightBatches; localNextRightBatchToProcess++) { // for every batch on the right
-        int compositeIndexPart = localNextRightBatchToProcess << 16;
         int rightRecordCount = rightCounts.get(localNextRightBatchToProcess);
 
+        // read the batch back if it was spilled
+        outgoing.loadRightBatch(localNextRightBatchToProcess);
+
         for (; localNextRightRecordToProcess < rightRecordCount; localNextRightRecordToProcess++) { // for every record in this right batch
+          boolean rightEmitted = false;
           for (; localNextLeftRecordToProcess < localLeftRecordCount; localNextLeftRecordToProcess++) { // for every record in the left batch
 
             // project records from the left and right batches
             emitLeft(localNextLeftRecordToProcess, outputIndex);
-            emitRight(localNextRightBatchToProcess, localNextRightRecordToProcess, outputIndex);
+            if (!rightEmitted) {
+              emitRight(localNextRightBatchToProcess, localNextRightRecordToProcess, outputIndex);
+              rightEmitted = true;
+            }
+
+            if (!doEval(outputIndex)) {
+              // the pair doesn't join, reuse the slot for the next pair
+              continue;
+            }
             outputIndex++;
+            rightEmitted = false;
 
             // TODO: Optimization; We can eliminate this check and compute the limits before the loop
             if (outputIndex >= NestedLoopJoinBatch.MAX_BATCH_SIZE) {
@@ -192,4 +206,6 @@ public abstract class NestedLoopJoinTemplate implements NestedLoopJoin {
                                  @Named("outIndex") int outIndex);
 
   public abstract void emitLeft(@Named("leftIndex") int leftIndex, @Named("outIndex") int outIndex);
+
+  public abstract boolean doEval(@Named("outIndex") int outIndex);
 }
@@ -18,10 +18,8 @@
 package org.apache.drill.exec.physical.impl.mergereceiver;
 
 import java.io.IOException;
-import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
-import java.util.PriorityQueue;
 
 import org.apache.calcite.rel.RelFieldCollation.Direction;
 import org.apache.drill.common.exceptions.DrillRuntimeException;
@@ -105,8 +103,8 @@ public class MergingRecordBatch extends AbstractRecordBatch<MergingReceiverPOP>
   private int outgoingPosition = 0;
   private int senderCount = 0;
   private RawFragmentBatch[] incomingBatches;
-  private int[] batchOffsets;
-  private PriorityQueue <Node> pqueue;
+  private int[] batchOffsets; // position of the next record to merge within each loaded batch
+  private LoserTree tree;
   private RawFragmentBatch emptyBatch = null;
   private RawFragmentBatch[] tempBatchHolder;
   private long[] inputCounts;
@@ -270,7 +268,6 @@ public class MergingRecordBatch extends AbstractRecordBatch<MergingReceiverPOP>
           return IterOutcome.STOP;
         }
         batch.release();
-        ++batchOffsets[i];
         ++i;
       }
 
@@ -310,17 +307,7 @@ public class MergingRecordBatch extends AbstractRecordBatch<MergingReceiverPOP>
         return IterOutcome.STOP;
       }
 
-      // allocate the priority queue with the generated comparator
-      this.pqueue = new PriorityQueue<>(fragProviders.length, new Comparator<Node>() {
-        @Override
-        public int compare(final Node node1, final Node node2) {
-          final int leftIndex = (node1.batchId << 16) + node1.valueIndex;
-          final int rightIndex = (node2.batchId << 16) + node2.valueIndex;
-          return merger.doEval(leftIndex, rightIndex);
-        }
-      });
-
-      // populate the priority queue with initial values
+      // populate the loser tree with initial values
       for (int b = 0; b < senderCount; ++b) {
         while (batchLoaders[b] != null && batchLoaders[b].getRecordCount() == 0) {
           try {
@@ -340,36 +327,37 @@ public class MergingRecordBatch extends AbstractRecordBatch<MergingReceiverPOP>
             return IterOutcome.STOP;
           }
         }
-        if (batchLoaders[b] != null) {
-          pqueue.add(new Node(b, 0));
-        }
       }
+      tree = new LoserTree(senderCount);
 
       hasRun = true;
       // finished lazy initialization
     }
 
-    while (!pqueue.isEmpty()) {
-      // pop next value from pq and copy to outgoing batch
-      final Node node = pqueue.peek();
-      if (!copyRecordToOutgoingBatch(node)) {
+    while (tree.hasWinner()) {
+      // copy the run of records from the winning batch that sort before the head of every other batch
+      final int batchId = tree.getWinner();
+      final int start = batchOffsets[batchId];
+      final int end = findRunEnd(batchId, start, tree.getChallenger());
+      final int count = Math.min(end - start, OUTGOING_BATCH_SIZE - outgoingPosition);
+      if (!copyRecordsToOutgoingBatch(batchId, start, count)) {
         logger.debug("Outgoing vectors space is full; breaking");
         prevBatchWasFull = true;
       }
-      pqueue.poll();
+      batchOffsets[batchId] = start + count;
 
-      if (node.valueIndex == batchLoaders[node.batchId].getRecordCount() - 1) {
+      if (batchOffsets[batchId] == batchLoaders[batchId].getRecordCount()) {
         // reached the end of an incoming record batch
         RawFragmentBatch nextBatch;
         try {
-          nextBatch = getNext(node.batchId);
+          nextBatch = getNext(batchId);
 
           while (nextBatch != null && nextBatch.getHeader().getDef().getRecordCount() == 0) {
-            nextBatch = getNext(node.batchId);
+            nextBatch = getNext(batchId);
           }
 
-          assert nextBatch != null || inputCounts[node.batchId] == outputCounts[node.batchId]
-              : String.format("Stream %d input count: %d output count %d", node.batchId, inputCounts[node.batchId], outputCounts[node.batchId]);
+          assert nextBatch != null || inputCounts[batchId] == outputCounts[batchId]
+              : String.format("Stream %d input count: %d output count %d", batchId, inputCounts[batchId], outputCounts[batchId]);
           if (nextBatch == null && !context.shouldContinue()) {
             return IterOutcome.STOP;
           }
@@ -378,10 +366,11 @@ public class MergingRecordBatch extends AbstractRecordBatch<MergingReceiverPOP>
           return IterOutcome.STOP;
         }
 
-        incomingBatches[node.batchId] = nextBatch;
+        incomingBatches[batchId] = nextBatch;
 
         if (nextBatch == null) {
           // batch is empty
+          tree.remove(batchId);
           boolean allBatchesEmpty = true;
 
           for (final RawFragmentBatch batch : incomingBatches) {
@@ -397,7 +386,7 @@ public class MergingRecordBatch extends AbstractRecordBatch<MergingReceiverPOP>
             break;
           }
 
-          // this batch is empty; since the pqueue no longer references this batch, it will be
+          // this batch is empty; since the loser tree no longer references this batch, it will be
           // ignored in subsequent iterations.
           if (prevBatchWasFull) {
             break;
@@ -406,25 +395,27 @@ public class MergingRecordBatch extends AbstractRecordBatch<MergingReceiverPOP>
           }
         }
 
-        final UserBitShared.RecordBatchDef rbd = incomingBatches[node.batchId].getHeader().getDef();
+        final UserBitShared.RecordBatchDef rbd = incomingBatches[batchId].getHeader().getDef();
         try {
-          batchLoaders[node.batchId].load(rbd, incomingBatches[node.batchId].getBody());
+          batchLoaders[batchId].load(rbd, incomingBatches[batchId].getBody());
           // TODO:  Clean:  DRILL-2933:  That load(...) no longer throws
           // SchemaChangeException, so check/clean catch clause below.
         } catch(final SchemaChangeException ex) {
           context.fail(ex);
           return IterOutcome.STOP;
         }
-        incomingBatches[node.batchId].release();
-        batchOffsets[node.batchId] = 0;
+        incomingBatches[batchId].release();
+        batchOffsets[batchId] = 0;
 
-        // add front value from batch[x] to priority queue
-        if (batchLoaders[node.batchId].getRecordCount() != 0) {
-          pqueue.add(new Node(node.batchId, 0));
+        // replay the front value from batch[x] against the other batches
+        if (batchLoaders[batchId].getRecordCount() != 0) {
+          tree.replay(batchId);
+        } else {
+          tree.remove(batchId);
         }
 
       } else {
-        pqueue.add(new Node(node.batchId, node.valueIndex + 1));
+        tree.replay(batchId);
       }
 
       if (prevBatchWasFull) {
@@ -437,7 +428,7 @@ public class MergingRecordBatch extends AbstractRecordBatch<MergingReceiverPOP>
       vw.getValueVector().getMutator().setValueCount(outgoingPosition);
     }
 
-    if (pqueue.isEmpty()) {
+    if (!tree.hasWinner()) {
       state = BatchState.DONE;
     }
 
@@ -698,33 +689,156 @@ public class MergingRecordBatch extends AbstractRecordBatch<MergingReceiverPOP>
   }
 
   /**
-   * Copy the record referenced by the supplied node to the next output position.
-   * Side Effect: increments outgoing position if successful
+   * Compares the next records of two incoming batches. Ties are broken by batch id, so that records with equal keys
+   * keep a stable order.
+   *
+   * @return true if the next record of batch left sorts before the next record of batch right
+   */
+  private boolean sortsBefore(final int left, final int leftIndex, final int right) {
+    final int compare = merger.doEval((left << 16) + leftIndex, (right << 16) + batchOffsets[right]);
+    return compare < 0 || (compare == 0 && left < right);
+  }
+
+  /**
+   * Finds the end of the run of records in the given batch, starting at start, that sort before the next record of
+   * the challenger. Since each incoming batch is sorted, the run is a prefix of the remaining records. Interleaved
+   * inputs end the run after a single comparison, and a batch that lies entirely before the challenger (as with range
+   * partitioned inputs) is taken whole after two; anything in between is found by galloping.
    *
-   * @param node Reference to the next record to copy from the incoming batches
+   * @return index one past the last record of the run
    */
-  private boolean copyRecordToOutgoingBatch(final Node node) {
-    assert ++outputCounts[node.batchId] <= inputCounts[node.batchId]
-        : String.format("Stream %d input count: %d output count %d", node.batchId, inputCounts[node.batchId], outputCounts[node.batchId]);
-    final int inIndex = (node.batchId << 16) + node.valueIndex;
-    merger.doCopy(inIndex, outgoingPosition);
-    outgoingPosition++;
-    if (outgoingPosition == OUTGOING_BATCH_SIZE) {
-      return false;
+  private int findRunEnd(final int batchId, final int start, final int challenger) {
+    final int recordCount = batchLoaders[batchId].getRecordCount();
+    if (challenger < 0) {
+      return recordCount;
     }
-    return true;
+    // the record at start is known to win
+    if (start + 1 == recordCount || !sortsBefore(batchId, start + 1, challenger)) {
+      return start + 1;
+    }
+    if (sortsBefore(batchId, recordCount - 1, challenger)) {
+      return recordCount;
+    }
+    // gallop until a record that doesn't win is found, then binary search for the first one
+    int low = start + 2;
+    int step = 1;
+    int high = low;
+    while (high < recordCount - 1 && sortsBefore(batchId, high, challenger)) {
+      low = high + 1;
+      step <<= 1;
+      high = Math.min(start + 1 + step, recordCount - 1);
+    }
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (sortsBefore(batchId, mid, challenger)) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
   }
 
   /**
-   * A Node contains a reference to a single value in a specific incoming batch.  It is used
-   * as a wrapper for the priority queue.
+   * Copy count records of the given incoming batch, starting at start, to the next output positions.
+   * Side Effect: increments outgoing position
+   *
+   * @return false if the outgoing batch is full
    */
-  public class Node {
-    public int batchId;      // incoming batch
-    public int valueIndex;   // value within the batch
-    Node(final int batchId, final int valueIndex) {
-      this.batchId = batchId;
-      this.valueIndex = valueIndex;
+  private boolean copyRecordsToOutgoingBatch(final int batchId, final int start, final int count) {
+    assert (outputCounts[batchId] += count) <= inputCounts[batchId]
+        : String.format("Stream %d input count: %d output count %d", batchId, inputCounts[batchId], outputCounts[batchId]);
+    final int base = batchId << 16;
+    for (int i = start; i < start + count; i++) {
+      merger.doCopy(base + i, outgoingPosition++);
+    }
+    return outgoingPosition < OUTGOING_BATCH_SIZE;
+  }
+
+  /**
+   * A tournament tree over the incoming batches whose internal nodes remember the loser of each match. Replacing the
+   * winner only replays the matches on its path to the root, so each step costs log(k) comparisons for k senders,
+   * compared to about twice that for a binary heap. Batches that are exhausted lose every match.
+   */
+  private class LoserTree {
+    private final int leaves;
+    private final int[] losers; // losers[0] holds the overall winner
+    private final boolean[] active;
+
+    LoserTree(final int leaves) {
+      this.leaves = leaves;
+      this.losers = new int[Math.max(leaves, 1)];
+      this.active = new boolean[leaves];
+      for (int b = 0; b < leaves; b++) {
+        active[b] = batchLoaders[b] != null;
+      }
+      losers[0] = leaves == 0 ? -1 : build(1);
+    }
+
+    private int build(final int node) {
+      if (node >= leaves) {
+        return node - leaves;
+      }
+      final int left = build(2 * node);
+      final int right = build(2 * node + 1);
+      if (beats(left, right)) {
+        losers[node] = right;
+        return left;
+      }
+      losers[node] = left;
+      return right;
+    }
+
+    private boolean beats(final int a, final int b) {
+      if (!active[b]) {
+        return true;
+      }
+      if (!active[a]) {
+        return false;
+      }
+      return sortsBefore(a, batchOffsets[a], b);
+    }
+
+    boolean hasWinner() {
+      return losers[0] >= 0 && active[losers[0]];
+    }
+
+    int getWinner() {
+      return losers[0];
+    }
+
+    /**
+     * @return the batch whose next record would win if the current winner were removed, or -1 if there is none
+     */
+    int getChallenger() {
+      int challenger = -1;
+      for (int node = (losers[0] + leaves) / 2; node > 0; node /= 2) {
+        final int loser = losers[node];
+        if (active[loser] && (challenger < 0 || beats(loser, challenger))) {
+          challenger = loser;
+        }
+      }
+      return challenger;
+    }
+
+    /**
+     * Replays the matches of the given batch after its next record changed.
+     */
+    void replay(final int batchId) {
+      int winner = batchId;
+      for (int node = (batchId + leaves) / 2; node > 0; node /= 2) {
+        if (beats(losers[node], winner)) {
+          final int loser = winner;
+          winner = losers[node];
+          losers[node] = loser;
+        }
+      }
+      losers[0] = winner;
+    }
+
+    void remove(final int batchId) {
+      active[batchId] = false;
+      replay(batchId);
     }
   }
 
@@ -18,10 +18,10 @@
 package org.apache.drill.exec.physical.impl.orderedpartitioner;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
 
 import org.apache.drill.common.expression.ErrorCollector;
 import org.apache.drill.common.expression.ErrorCollectorImpl;
@@ -32,12 +32,6 @@ import org.apache.drill.common.logical.data.Order.Ordering;
 import org.apache.drill.common.types.TypeProtos;
 import org.apache.drill.common.types.Types;
 import org.apache.drill.exec.cache.CachedVectorContainer;
-import org.apache.drill.exec.cache.Counter;
-import org.apache.drill.exec.cache.DistributedCache;
-import org.apache.drill.exec.cache.DistributedCache.CacheConfig;
-import org.apache.drill.exec.cache.DistributedCache.SerializationMode;
-import org.apache.drill.exec.cache.DistributedMap;
-import org.apache.drill.exec.cache.DistributedMultiMap;
 import org.apache.drill.exec.compile.sig.MappingSet;
 import org.apache.drill.exec.exception.ClassTransformationException;
 import org.apache.drill.exec.exception.OutOfMemoryException;
@@ -71,7 +65,6 @@ import org.apache.drill.exec.vector.IntVector;
 import org.apache.drill.exec.vector.ValueVector;
 import org.apache.calcite.rel.RelFieldCollation.Direction;
 
-import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.sun.codemodel.JConditional;
 import com.sun.codemodel.JExpr;
@@ -79,10 +72,11 @@ import com.sun.codemodel.JExpr;
 /**
  * The purpose of this operator is to generate an ordered partition, rather than a random hash partition. This could be
  * used to do a total order sort, for example. This operator reads in a few incoming record batches, samples these
- * batches, and stores them in the distributed cache. The samples from all the parallel-running fragments are merged,
- * and a partition-table is built and stored in the distributed cache for use by all fragments. A new column is added to
- * the outgoing batch, whose value is determined by where each record falls in the partition table. This column is used
- * by PartitionSenderRootExec to determine which bucket to assign each record to.
+ * batches, and sends the samples to the Foreman through the {@link OrderedPartitionSampleExchange}. Once enough of the
+ * parallel-running fragments have reported, every fragment receives all the samples and builds the same partition
+ * table from them. A new column is added to the outgoing batch, whose value is determined by where each record falls in
+ * the partition table. This column is used by PartitionSenderRootExec to determine which bucket to assign each record
+ * to.
  */
 public class OrderedPartitionRecordBatch extends AbstractRecordBatch<OrderedPartitionSender> {
   static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(OrderedPartitionRecordBatch.class);
@@ -90,17 +84,6 @@ public class OrderedPartitionRecordBatch extends AbstractRecordBatch<OrderedPart
   private static final long ALLOCATOR_INITIAL_RESERVATION = 1*1024*1024;
   private static final long ALLOCATOR_MAX_RESERVATION = 20L*1000*1000*1000;
 
-  public static final CacheConfig<String, CachedVectorContainer> SINGLE_CACHE_CONFIG = CacheConfig //
-      .newBuilder(CachedVectorContainer.class) //
-      .name("SINGLE-" + CachedVectorContainer.class.getSimpleName()) //
-      .mode(SerializationMode.DRILL_SERIALIZIABLE) //
-      .build();
-  public static final CacheConfig<String, CachedVectorContainer> MULTI_CACHE_CONFIG = CacheConfig //
-      .newBuilder(CachedVectorContainer.class) //
-      .name("MULTI-" + CachedVectorContainer.class.getSimpleName()) //
-      .mode(SerializationMode.DRILL_SERIALIZIABLE) //
-      .build();
-
   public final MappingSet mainMapping = new MappingSet( (String) null, null, ClassGenerator.DEFAULT_CONSTANT_MAP,
       ClassGenerator.DEFAULT_SCALAR_MAP);
   public final MappingSet incomingMapping = new MappingSet("inIndex", null, "incoming", null,
@@ -109,7 +92,7 @@ public class OrderedPartitionRecordBatch extends AbstractRecordBatch<OrderedPart
       ClassGenerator.DEFAULT_CONSTANT_MAP, ClassGenerator.DEFAULT_SCALAR_MAP);
 
   private final int recordsToSample; // How many records must be received before analyzing
-  private final int samplingFactor; // Will collect samplingFactor * number of partitions to send to distributed cache
+  private final int samplingFactor; // Will collect samplingFactor * number of partitions to send to the Foreman
   private final float completionFactor; // What fraction of fragments must be completed before attempting to build
                                         // partition table
   protected final RecordBatch incoming;
@@ -125,10 +108,7 @@ public class OrderedPartitionRecordBatch extends AbstractRecordBatch<OrderedPart
   private int recordCount;
 
   private final IntVector partitionKeyVector;
-  private final DistributedMap<String, CachedVectorContainer> tableMap;
-  private final Counter minorFragmentSampleCount;
-  private final DistributedMultiMap<String, CachedVectorContainer> mmap;
-  private final String mapKey;
+  private final OrderedPartitionSampleExchange sampleExchange;
   private List<VectorContainer> sampledIncomingBatches;
 
   public OrderedPartitionRecordBatch(OrderedPartitionSender pop, RecordBatch incoming, FragmentContext context) throws OutOfMemoryException {
@@ -139,14 +119,7 @@ public class OrderedPartitionRecordBatch extends AbstractRecordBatch<OrderedPart
     this.recordsToSample = pop.getRecordsToSample();
     this.samplingFactor = pop.getSamplingFactor();
     this.completionFactor = pop.getCompletionFactor();
-
-    DistributedCache cache = null;
-    this.mmap = cache.getMultiMap(MULTI_CACHE_CONFIG);
-    this.tableMap = cache.getMap(SINGLE_CACHE_CONFIG);
-    Preconditions.checkNotNull(tableMap);
-
-    this.mapKey = String.format("%s_%d", context.getHandle().getQueryId(), context.getHandle().getMajorFragmentId());
-    this.minorFragmentSampleCount = cache.getCounter(mapKey);
+    this.sampleExchange = context.getDrillbitContext().getSampleExchange();
 
     SchemaPath outputPath = popConfig.getRef();
     MaterializedField outputField = MaterializedField.create(outputPath.getAsNamePart().getName(), Types.required(TypeProtos.MinorType.INT));
@@ -163,7 +136,7 @@ public class OrderedPartitionRecordBatch extends AbstractRecordBatch<OrderedPart
   }
 
 
-  private boolean saveSamples() throws SchemaChangeException, ClassTransformationException, IOException {
+  private byte[] saveSamples() throws SchemaChangeException, ClassTransformationException, IOException {
     recordsSampled = 0;
     IterOutcome upstream;
 
@@ -229,14 +202,13 @@ public class OrderedPartitionRecordBatch extends AbstractRecordBatch<OrderedPart
       }
       containerToCache.setRecordCount(copier.getOutputRecords());
 
-      // Get a distributed multimap handle from the distributed cache, and put the vectors from the new vector container
-      // into a serializable wrapper object, and then add to distributed map
+      // Put the vectors from the new vector container into a serializable wrapper object, whose bytes are sent to the
+      // Foreman
 
       batch = WritableBatch.getBatchNoHVWrap(containerToCache.getRecordCount(), containerToCache, false);
       sampleToSave = new CachedVectorContainer(batch, context.getAllocator());
-
-      mmap.put(mapKey, sampleToSave);
       this.sampledIncomingBatches = builder.getHeldRecordBatches();
+      return sampleToSave.getData();
     } finally {
       builder.clear();
       builder.close();
@@ -248,106 +220,60 @@ public class OrderedPartitionRecordBatch extends AbstractRecordBatch<OrderedPart
         sampleToSave.clear();
       }
     }
-    return true;
-
-
   }
 
-  /**
-   * Wait until the at least the given timeout is expired or interrupted and the fragment status is not runnable.
-   * @param timeout Timeout in milliseconds.
-   * @return True if the given timeout is expired. False when interrupted and the fragment status is not runnable.
-   */
-  private boolean waitUntilTimeOut(final long timeout) {
-    while(true) {
-      try {
-        Thread.sleep(timeout);
-        return true;
-      } catch (final InterruptedException e) {
-        if (!context.shouldContinue()) {
-          return false;
-        }
-      }
-    }
+  private int fragmentsBeforeProceed() {
+    return (int) Math.ceil(sendingMajorFragmentWidth * completionFactor);
   }
 
   /**
    * This method is called when the first batch comes in. Incoming batches are collected until a threshold is met. At
-   * that point, the records in the batches are sorted and sampled, and the sampled records are stored in the
-   * distributed cache. Once a sufficient fraction of the fragments have shared their samples, each fragment grabs all
-   * the samples, sorts all the records, builds a partition table, and attempts to push the partition table to the
-   * distributed cache. Whichever table gets pushed first becomes the table used by all fragments for partitioning.
+   * that point, the records in the batches are sorted and sampled, and the sampled records are sent to the Foreman.
+   * Once a sufficient fraction of the fragments have shared their samples, each fragment receives all the samples,
+   * sorts all the records and builds the partition table. Since all fragments sort the same samples, they all arrive at
+   * the same table. A fragment whose input turns out to be empty abstains instead of waiting, as it has no records to
+   * partition, and builds a table without boundaries from its own empty sample.
    *
    * @return True is successful. False if failed.
    */
   private boolean getPartitionVectors() {
     try {
-      if (!saveSamples()) {
-        return false;
+      final byte[] sample = saveSamples();
+      if (recordsSampled == 0) {
+        sampleExchange.abstain(context, fragmentsBeforeProceed(), sendingMajorFragmentWidth);
+        buildTable(Collections.singletonList(sample));
+        return true;
       }
-
-      CachedVectorContainer finalTable = null;
-
-      long val = minorFragmentSampleCount.incrementAndGet();
-      logger.debug("Incremented mfsc, got {}", val);
-
-      final long fragmentsBeforeProceed = (long) Math.ceil(sendingMajorFragmentWidth * completionFactor);
-      final String finalTableKey = mapKey + "final";
-
-      if (val == fragmentsBeforeProceed) { // we crossed the barrier, build table and get data.
-        buildTable();
-        finalTable = tableMap.get(finalTableKey);
-      } else {
-        // Wait until sufficient number of fragments have submitted samples, or proceed after xx ms passed
-        // TODO: this should be polling.
-
-        if (val < fragmentsBeforeProceed) {
-          if (!waitUntilTimeOut(10)) {
-            return false;
-          }
-        }
-        for (int i = 0; i < 100 && finalTable == null; i++) {
-          finalTable = tableMap.get(finalTableKey);
-          if (finalTable != null) {
-            break;
-          }
-          if (!waitUntilTimeOut(10)) {
-            return false;
-          }
-        }
-        if (finalTable == null) {
-          buildTable();
-        }
-        finalTable = tableMap.get(finalTableKey);
+      final List<byte[]> samples = sampleExchange.exchange(context, fragmentsBeforeProceed(),
+          sendingMajorFragmentWidth, sample);
+      if (samples == null) {
+        return false;
       }
-
-      Preconditions.checkState(finalTable != null);
-
-      // Extract vectors from the wrapper, and add to partition vectors. These vectors will be used for partitioning in
-      // the rest of this operator
-      for (VectorWrapper<?> w : finalTable.get()) {
-        partitionVectors.add(w.getValueVector());
+      buildTable(samples);
+    } catch (final Exception ex) {
+      if (!context.shouldContinue()) {
+        return false;
       }
-
-    } catch (final ClassTransformationException | IOException | SchemaChangeException ex) {
       kill(false);
       context.fail(ex);
       return false;
-      // TODO InterruptedException
     }
     return true;
   }
 
-  private void buildTable() throws SchemaChangeException, ClassTransformationException, IOException {
+  private void buildTable(List<byte[]> samples) throws SchemaChangeException, ClassTransformationException, IOException {
 
-    // Get all samples from distributed map
+    // Deserialize the samples of all fragments
 
     SortRecordBatchBuilder containerBuilder = new SortRecordBatchBuilder(context.getAllocator());
     final VectorContainer allSamplesContainer = new VectorContainer();
     final VectorContainer candidatePartitionTable = new VectorContainer();
-    CachedVectorContainer wrap = null;
+    final List<CachedVectorContainer> wraps = Lists.newArrayList();
+    boolean success = false;
     try {
-      for (CachedVectorContainer w : mmap.get(mapKey)) {
+      for (byte[] data : samples) {
+        CachedVectorContainer w = new CachedVectorContainer(data, context.getAllocator());
+        wraps.add(w);
         containerBuilder.add(w.get());
       }
       containerBuilder.build(context, allSamplesContainer);
@@ -365,8 +291,7 @@ public class OrderedPartitionRecordBatch extends AbstractRecordBatch<OrderedPart
       sorter.setup(context, newSv4, allSamplesContainer);
       sorter.sort(newSv4, allSamplesContainer);
 
-      // Copy every Nth record from the samples into a candidate partition table, where N = totalSampledRecords/partitions
-      // Attempt to push this to the distributed map. Only the first candidate to get pushed will be used.
+      // Copy every Nth record from the samples into the partition table, where N = totalSampledRecords/partitions
       SampleCopier copier = null;
       List<ValueVector> localAllocationVectors = Lists.newArrayList();
       copier = getCopier(newSv4, allSamplesContainer, candidatePartitionTable, orderDefs, localAllocationVectors);
@@ -375,9 +300,11 @@ public class OrderedPartitionRecordBatch extends AbstractRecordBatch<OrderedPart
         for (ValueVector vv : localAllocationVectors) {
           AllocationHelper.allocate(vv, samplingFactor * partitions, allocationSize);
         }
-        int skipRecords = containerBuilder.getSv4().getTotalCount() / partitions;
+        int totalRecords = containerBuilder.getSv4().getTotalCount();
+        int skipRecords = totalRecords / partitions;
         if (copier.copyRecords(skipRecords, skipRecords, partitions - 1)) {
-          assert copier.getOutputRecords() == partitions - 1 : String.format("output records: %d partitions: %d", copier.getOutputRecords(), partitions);
+          // an empty sample, only ever built by a fragment without records, has no boundaries
+          assert totalRecords == 0 || copier.getOutputRecords() == partitions - 1 : String.format("output records: %d partitions: %d", copier.getOutputRecords(), partitions);
           for (VectorWrapper<?> vw : candidatePartitionTable) {
             vw.getValueVector().getMutator().setValueCount(copier.getOutputRecords());
           }
@@ -388,16 +315,21 @@ public class OrderedPartitionRecordBatch extends AbstractRecordBatch<OrderedPart
         }
       }
       candidatePartitionTable.setRecordCount(copier.getOutputRecords());
-      WritableBatch batch = WritableBatch.getBatchNoHVWrap(candidatePartitionTable.getRecordCount(), candidatePartitionTable, false);
-      wrap = new CachedVectorContainer(batch, context.getDrillbitContext().getAllocator());
-      tableMap.putIfAbsent(mapKey + "final", wrap, 1, TimeUnit.MINUTES);
+
+      // These vectors will be used for partitioning in the rest of this operator
+      for (VectorWrapper<?> w : candidatePartitionTable) {
+        partitionVectors.add(w.getValueVector());
+      }
+      success = true;
     } finally {
-      candidatePartitionTable.clear();
+      if (!success) {
+        candidatePartitionTable.clear();
+      }
       allSamplesContainer.clear();
       containerBuilder.clear();
       containerBuilder.close();
-      if (wrap != null) {
-        wrap.clear();
+      for (CachedVectorContainer w : wraps) {
+        w.clear();
       }
     }
 
@@ -497,6 +429,12 @@ public class OrderedPartitionRecordBatch extends AbstractRecordBatch<OrderedPart
       throw new RuntimeException("Invalid state: First batch should have OK_NEW_SCHEMA");
     }
 
+    // A fragment without any data still has to report to the Foreman, so the other fragments don't wait for its sample
+    if (this.first && upstream == IterOutcome.NONE) {
+      sampleExchange.abstain(context, fragmentsBeforeProceed(), sendingMajorFragmentWidth);
+      first = false;
+    }
+
     // If this is the first iteration, we need to generate the partition vectors before we can proceed
     if (this.first && upstream == IterOutcome.OK_NEW_SCHEMA) {
       if (!getPartitionVectors()) {
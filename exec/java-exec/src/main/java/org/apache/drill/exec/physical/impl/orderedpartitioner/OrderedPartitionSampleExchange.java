@@ -0,0 +1,373 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.orderedpartitioner;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DrillBuf;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
+import org.apache.drill.exec.proto.ExecProtos.FragmentHandle;
+import org.apache.drill.exec.proto.UserBitShared.QueryResult.QueryState;
+import org.apache.drill.exec.proto.helper.QueryIdHelper;
+import org.apache.drill.exec.rpc.RpcException;
+import org.apache.drill.exec.rpc.RpcOutcomeListener;
+import org.apache.drill.exec.rpc.UserRpcException;
+import org.apache.drill.exec.rpc.control.ControlTunnel.JacksonSerDe;
+import org.apache.drill.exec.rpc.control.Controller;
+import org.apache.drill.exec.rpc.control.Controller.CustomMessageHandler;
+import org.apache.drill.exec.rpc.control.Controller.CustomResponse;
+import org.apache.drill.exec.rpc.control.Controller.CustomSerDe;
+import org.apache.drill.exec.work.WorkManager.WorkerBee;
+import org.apache.drill.exec.work.foreman.Foreman;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+/**
+ * Exchanges the samples taken by the minor fragments of an ordered partition sender, replacing the distributed cache
+ * that was used for this purpose. The exchange runs in two phases over custom control messages:
+ * <ol>
+ * <li>Every minor fragment sends its sorted sample to the Foreman's Drillbit, which acts as the rendezvous point for
+ * the sending major fragment.</li>
+ * <li>Once the expected number of fragments have reported and at least one of them sent a sample, the rendezvous
+ * pushes the complete set of samples back to every waiting fragment. Fragments reporting after that point receive the
+ * set in the reply to their own sample.</li>
+ * </ol>
+ * Every fragment then derives the partition boundaries from the same samples, so all of them partition identically.
+ * Fragments without data only report that they abstain and do not wait. Waiting fragments block on a future instead of
+ * polling and are released by cancellation; the query fails if the set cannot be pushed to one of them.
+ */
+public class OrderedPartitionSampleExchange {
+  static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(OrderedPartitionSampleExchange.class);
+
+  public static final int SAMPLE_MESSAGE_TYPE = 20;
+  public static final int SAMPLE_SET_MESSAGE_TYPE = 21;
+
+  private static final CustomSerDe<SampleMessage> SERDE = new JacksonSerDe<>(SampleMessage.class);
+
+  private final DrillbitEndpoint endpoint;
+  private final Controller controller;
+  private WorkerBee bee;
+  // samples gathered on this Drillbit for sending major fragments whose Foreman runs here. Entries are dropped once
+  // every sender has been served; the expiry only covers queries that fail before that happens.
+  private final Cache<String, Rendezvous> rendezvous = CacheBuilder.newBuilder()
+      .expireAfterAccess(1, TimeUnit.HOURS)
+      .build();
+  // fragments running on this Drillbit that are waiting for the sample set
+  private final ConcurrentMap<String, SettableFuture<List<byte[]>>> waiting = Maps.newConcurrentMap();
+
+  public OrderedPartitionSampleExchange(DrillbitEndpoint endpoint, Controller controller) {
+    this.endpoint = endpoint;
+    this.controller = controller;
+  }
+
+  /**
+   * Registers the handlers for the sample and sample set messages. Must be called once, before any fragment runs.
+   *
+   * @param bee used to fail the query of a fragment the sample set cannot be pushed to
+   */
+  public void registerHandlers(WorkerBee bee) {
+    this.bee = bee;
+    controller.registerCustomHandler(SAMPLE_MESSAGE_TYPE, new SampleHandler(), SERDE, SERDE);
+    controller.registerCustomHandler(SAMPLE_SET_MESSAGE_TYPE, new SampleSetHandler(), SERDE, SERDE);
+  }
+
+  /**
+   * Contributes the sample of the calling fragment and waits for the samples of all fragments.
+   *
+   * @param context the calling fragment
+   * @param expectedFragments number of fragments whose samples must be gathered before the set is released
+   * @param sendingFragments total number of fragments taking part in the exchange
+   * @param sample serialized sample of the calling fragment
+   * @return the serialized samples of all fragments, or null if the fragment was cancelled while waiting
+   */
+  public List<byte[]> exchange(final FragmentContext context, final int expectedFragments, final int sendingFragments,
+      final byte[] sample) throws Exception {
+    final FragmentHandle handle = context.getHandle();
+    final String key = QueryIdHelper.getQueryIdentifier(handle);
+    final SettableFuture<List<byte[]>> future = SettableFuture.create();
+    waiting.put(key, future);
+    try {
+      final SampleMessage reply = context.getControlTunnel(context.getForemanEndpoint())
+          .getCustomTunnel(SAMPLE_MESSAGE_TYPE, SERDE, SERDE)
+          .send(newMessage(context, expectedFragments, sendingFragments, sample))
+          .get();
+      if (reply.isComplete()) {
+        return reply.getSamples();
+      }
+      while (true) {
+        try {
+          return future.get();
+        } catch (final InterruptedException e) {
+          if (!context.shouldContinue()) {
+            return null;
+          }
+        } catch (final ExecutionException e) {
+          throw new RpcException(e.getCause());
+        }
+      }
+    } finally {
+      waiting.remove(key);
+    }
+  }
+
+  /**
+   * Reports a fragment that saw no data. It counts towards the expected fragments without adding a sample, so the
+   * other fragments are not left waiting for it. The set is only released once a fragment did send a sample, so
+   * abstaining fragments alone never complete it.
+   */
+  public void abstain(final FragmentContext context, final int expectedFragments, final int sendingFragments) {
+    context.getControlTunnel(context.getForemanEndpoint())
+        .getCustomTunnel(SAMPLE_MESSAGE_TYPE, SERDE, SERDE)
+        .send(new RpcOutcomeListener<SampleMessage>() {
+          @Override
+          public void failed(RpcException ex) {
+            logger.warn("Failure while reporting an empty sample to the Foreman.", ex);
+          }
+
+          @Override
+          public void success(SampleMessage value, ByteBuf buffer) {
+          }
+
+          @Override
+          public void interrupted(InterruptedException e) {
+          }
+        }, newMessage(context, expectedFragments, sendingFragments, null));
+  }
+
+  private static SampleMessage newMessage(final FragmentContext context, final int expectedFragments,
+      final int sendingFragments, final byte[] sample) {
+    final FragmentHandle handle = context.getHandle();
+    return new SampleMessage(QueryIdHelper.getQueryId(handle.getQueryId()), handle.getMajorFragmentId(),
+        handle.getMinorFragmentId(), expectedFragments, sendingFragments, context.getIdentity().toByteArray(),
+        sample == null ? Collections.<byte[]>emptyList() : Collections.singletonList(sample), false);
+  }
+
+  /**
+   * Samples gathered for one sending major fragment.
+   */
+  private class Rendezvous {
+    private final List<byte[]> samples = Lists.newArrayList();
+    private final List<SampleMessage> waiters = Lists.newArrayList();
+    private int reported;
+    private boolean complete;
+
+    /**
+     * @return the reply to the sender: the complete sample set if it is available, otherwise an incomplete reply once a
+     *         sender with a sample is queued for the push
+     */
+    synchronized SampleMessage report(final String key, final SampleMessage message) {
+      reported++;
+      if (reported >= message.getSendingFragments()) {
+        rendezvous.invalidate(key);
+      }
+      if (!complete) {
+        // a fragment without a sample is not waiting, and a set without any sample has no boundaries to offer
+        samples.addAll(message.getSamples());
+        if (reported < message.getExpectedFragments() || samples.isEmpty()) {
+          if (!message.getSamples().isEmpty()) {
+            waiters.add(message);
+          }
+          return reply(message, Collections.<byte[]>emptyList(), false);
+        }
+        complete = true;
+        for (final SampleMessage waiter : waiters) {
+          push(waiter);
+        }
+        waiters.clear();
+      }
+      return reply(message, samples, true);
+    }
+
+    private void push(final SampleMessage waiter) {
+      final DrillbitEndpoint target;
+      try {
+        target = DrillbitEndpoint.PARSER.parseFrom(waiter.getEndpoint());
+      } catch (final InvalidProtocolBufferException e) {
+        failQuery(waiter, e);
+        return;
+      }
+      controller.getTunnel(target)
+          .getCustomTunnel(SAMPLE_SET_MESSAGE_TYPE, SERDE, SERDE)
+          .send(new RpcOutcomeListener<SampleMessage>() {
+            @Override
+            public void failed(RpcException ex) {
+              failQuery(waiter, ex);
+            }
+
+            @Override
+            public void success(SampleMessage value, ByteBuf buffer) {
+            }
+
+            @Override
+            public void interrupted(InterruptedException e) {
+            }
+          }, reply(waiter, samples, true));
+    }
+
+    /**
+     * Fails the query of a fragment that cannot receive the sample set, which cancels the fragment waiting for it. The
+     * Foreman of the query runs on this Drillbit, as it is the rendezvous point.
+     */
+    private void failQuery(final SampleMessage waiter, final Exception e) {
+      logger.error("Failure while sending the sample set to fragment {}:{}.", waiter.getMajorFragmentId(),
+          waiter.getMinorFragmentId(), e);
+      final Foreman foreman = bee.getForemanForQueryId(QueryIdHelper.getQueryIdFromString(waiter.getQueryId()));
+      if (foreman != null) {
+        foreman.addToEventQueue(QueryState.FAILED, e);
+      }
+    }
+  }
+
+  private static SampleMessage reply(final SampleMessage message, final List<byte[]> samples, final boolean complete) {
+    return new SampleMessage(message.getQueryId(), message.getMajorFragmentId(), message.getMinorFragmentId(),
+        message.getExpectedFragments(), message.getSendingFragments(), null, samples, complete);
+  }
+
+  private class SampleHandler implements CustomMessageHandler<SampleMessage, SampleMessage> {
+    @Override
+    public CustomResponse<SampleMessage> onMessage(final SampleMessage message, final DrillBuf dBody)
+        throws UserRpcException {
+      final String key = message.getQueryId() + ":" + message.getMajorFragmentId();
+      try {
+        final Rendezvous r = rendezvous.get(key, new Callable<Rendezvous>() {
+          @Override
+          public Rendezvous call() {
+            return new Rendezvous();
+          }
+        });
+        return new SampleResponse(r.report(key, message));
+      } catch (final ExecutionException e) {
+        throw new UserRpcException(endpoint, "Failure while gathering ordered partition samples.", e.getCause());
+      }
+    }
+  }
+
+  private class SampleSetHandler implements CustomMessageHandler<SampleMessage, SampleMessage> {
+    @Override
+    public CustomResponse<SampleMessage> onMessage(final SampleMessage message, final DrillBuf dBody) {
+      final String key = message.getQueryId() + ":" + message.getMajorFragmentId() + ":"
+          + message.getMinorFragmentId();
+      final SettableFuture<List<byte[]>> future = waiting.get(key);
+      if (future != null) {
+        future.set(message.getSamples());
+      } else {
+        logger.debug("Discarding sample set for fragment {}, which is no longer waiting.", key);
+      }
+      return new SampleResponse(reply(message, Collections.<byte[]>emptyList(), false));
+    }
+  }
+
+  private static class SampleResponse implements CustomResponse<SampleMessage> {
+    private final SampleMessage message;
+
+    SampleResponse(SampleMessage message) {
+      this.message = message;
+    }
+
+    @Override
+    public SampleMessage getMessage() {
+      return message;
+    }
+
+    @Override
+    public ByteBuf[] getBodies() {
+      return null;
+    }
+  }
+
+  /**
+   * Message used for both phases: a fragment's own sample on the way in, the complete sample set on the way out. Only
+   * a message marked complete carries the sample set; an incomplete reply tells the sender to wait for the push.
+   */
+  public static class SampleMessage {
+    private final String queryId;
+    private final int majorFragmentId;
+    private final int minorFragmentId;
+    private final int expectedFragments;
+    private final int sendingFragments;
+    private final byte[] endpoint;
+    private final List<byte[]> samples;
+    private final boolean complete;
+
+    @JsonCreator
+    public SampleMessage(@JsonProperty("queryId") String queryId,
+                         @JsonProperty("majorFragmentId") int majorFragmentId,
+                         @JsonProperty("minorFragmentId") int minorFragmentId,
+                         @JsonProperty("expectedFragments") int expectedFragments,
+                         @JsonProperty("sendingFragments") int sendingFragments,
+                         @JsonProperty("endpoint") byte[] endpoint,
+                         @JsonProperty("samples") List<byte[]> samples,
+                         @JsonProperty("complete") boolean complete) {
+      this.queryId = queryId;
+      this.majorFragmentId = majorFragmentId;
+      this.minorFragmentId = minorFragmentId;
+      this.expectedFragments = expectedFragments;
+      this.sendingFragments = sendingFragments;
+      this.endpoint = endpoint;
+      this.samples = samples == null ? Collections.<byte[]>emptyList() : samples;
+      this.complete = complete;
+    }
+
+    public String getQueryId() {
+      return queryId;
+    }
+
+    public int getMajorFragmentId() {
+      return majorFragmentId;
+    }
+
+    public int getMinorFragmentId() {
+      return minorFragmentId;
+    }
+
+    public int getExpectedFragments() {
+      return expectedFragments;
+    }
+
+    public int getSendingFragments() {
+      return sendingFragments;
+    }
+
+    public byte[] getEndpoint() {
+      return endpoint;
+    }
+
+    public List<byte[]> getSamples() {
+      return samples;
+    }
+
+    public boolean isComplete() {
+      return complete;
+    }
+  }
+}
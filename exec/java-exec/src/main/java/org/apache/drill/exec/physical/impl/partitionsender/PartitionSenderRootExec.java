@@ -18,6 +18,7 @@
 package org.apache.drill.exec.physical.impl.partitionsender;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicIntegerArray;
@@ -52,9 +53,6 @@ import org.apache.drill.exec.vector.CopyUtil;
 
 import com.carrotsearch.hppc.IntArrayList;
 import com.google.common.annotations.VisibleForTesting;
-import com.sun.codemodel.JExpr;
-import com.sun.codemodel.JExpression;
-import com.sun.codemodel.JType;
 
 public class PartitionSenderRootExec extends BaseRootExec {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(PartitionSenderRootExec.class);
@@ -88,7 +86,13 @@ public class PartitionSenderRootExec extends BaseRootExec {
     N_RECEIVERS,
     BYTES_SENT,
     SENDING_THREADS_COUNT,
-    COST;
+    COST,
+    HEAVY_HITTERS,
+    SPREAD_RECORDS,
+    REPLICATED_RECORDS,
+    MEDIAN_RECORDS,
+    // minor fragment id of the receiver that got MAX_RECORDS
+    MAX_RECORDS_RECEIVER;
 
     @Override
     public int metricId() {
@@ -275,13 +279,9 @@ public class PartitionSenderRootExec extends BaseRootExec {
           collector.toErrorString()));
     }
 
-    // generate code to copy from an incoming value vector to the destination partition's outgoing value vector
-    JExpression bucket = JExpr.direct("bucket");
-
-    // generate evaluate expression to determine the hash
+    // generate evaluate expression to determine the hash, the partitioner maps it to a receiver
     ClassGenerator.HoldingContainer exprHolder = cg.addExpr(materializedExpr);
-    cg.getEvalBlock().decl(JType.parse(cg.getModel(), "int"), "bucket", exprHolder.getValue().mod(JExpr.lit(outGoingBatchCount)));
-    cg.getEvalBlock()._return(cg.getModel().ref(Math.class).staticInvoke("abs").arg(bucket));
+    cg.getEvalBlock()._return(exprHolder.getValue());
 
     CopyUtil.generateCopies(cgInner, incoming, incoming.getSchema().getSelectionVectorMode() == SelectionVectorMode.FOUR_BYTE);
 
@@ -296,18 +296,30 @@ public class PartitionSenderRootExec extends BaseRootExec {
   }
 
   /**
-   * Find min and max record count seen across the outgoing batches and put them in stats.
+   * Find min, median and max record count seen across the outgoing batches and put them in stats, along with the
+   * receiver that got the most records.
    */
   private void updateAggregateStats() {
+    // the partitioners cover consecutive ranges of the receivers, in order
+    final long[] receiverRecordCounts = new long[outGoingBatchCount];
+    int receiver = 0;
+    int maxReceiver = 0;
     for (Partitioner part : partitioner.getPartitioners() ) {
       for (PartitionOutgoingBatch o : part.getOutgoingBatches()) {
         long totalRecords = o.getTotalRecords();
         minReceiverRecordCount = Math.min(minReceiverRecordCount, totalRecords);
         maxReceiverRecordCount = Math.max(maxReceiverRecordCount, totalRecords);
+        if (totalRecords > receiverRecordCounts[maxReceiver]) {
+          maxReceiver = receiver;
+        }
+        receiverRecordCounts[receiver++] = totalRecords;
       }
     }
     stats.setLongStat(Metric.MIN_RECORDS, minReceiverRecordCount);
     stats.setLongStat(Metric.MAX_RECORDS, maxReceiverRecordCount);
+    stats.setLongStat(Metric.MAX_RECORDS_RECEIVER, popConfig.getDestinations().get(maxReceiver).getId());
+    Arrays.sort(receiverRecordCounts, 0, receiver);
+    stats.setLongStat(Metric.MEDIAN_RECORDS, receiver == 0 ? 0 : receiverRecordCounts[receiver / 2]);
   }
 
   @Override
@@ -34,6 +34,7 @@ import org.apache.drill.exec.ops.OperatorContext;
 import org.apache.drill.exec.ops.OperatorStats;
 import org.apache.drill.exec.physical.MinorFragmentEndpoint;
 import org.apache.drill.exec.physical.config.HashPartitionSender;
+import org.apache.drill.exec.physical.config.HashPartitionSender.SkewMode;
 import org.apache.drill.exec.physical.impl.partitionsender.PartitionSenderRootExec.Metric;
 import org.apache.drill.exec.proto.ExecProtos.FragmentHandle;
 import org.apache.drill.exec.record.BatchSchema;
@@ -49,6 +50,8 @@ import org.apache.drill.exec.record.selection.SelectionVector2;
 import org.apache.drill.exec.record.selection.SelectionVector4;
 import org.apache.drill.exec.vector.ValueVector;
 
+import com.carrotsearch.hppc.IntIntHashMap;
+import com.carrotsearch.hppc.cursors.IntIntCursor;
 import com.google.common.collect.Lists;
 
 public abstract class PartitionerTemplate implements Partitioner {
@@ -57,6 +60,9 @@ public abstract class PartitionerTemplate implements Partitioner {
   // Always keep the recordCount as (2^x) - 1 to better utilize the memory allocation in ValueVectors
   private static final int DEFAULT_RECORD_BATCH_SIZE = (1 << 10) - 1;
 
+  // Number of records whose hash values are counted to find the heavy hitters when spreading them
+  private static final int HEAVY_HITTER_SAMPLE_SIZE = 1 << 12;
+
   private SelectionVector2 sv2;
   private SelectionVector4 sv4;
   private RecordBatch incoming;
@@ -67,6 +73,22 @@ public abstract class PartitionerTemplate implements Partitioner {
 
   private int outgoingRecordBatchSize = DEFAULT_RECORD_BATCH_SIZE;
 
+  // Number of receivers across all the partitioners, the hash value of a record selects one of them
+  private int receiverCount;
+
+  // Skew handling, see HashPartitionSender.SkewMode. Every partitioner sees the same records in the same order, so
+  // they all find the same heavy hitters and send a given record to the same receivers.
+  private SkewMode skewMode = SkewMode.NONE;
+  private int skewFanout = 1;
+  // Occurrences of each hash value among the records sampled so far, null once the heavy hitters are known
+  private IntIntHashMap sampledHashes;
+  private int sampledRecords;
+  // Heavy hitter hash values, each mapped to the offset of the receiver its next record goes to
+  private IntIntHashMap heavyHitters;
+  // Records of this partitioner's receivers sent away from their hash receiver, or sent to an extra receiver
+  private long spreadRecords;
+  private long replicatedRecords;
+
   public PartitionerTemplate() throws SchemaChangeException {
   }
 
@@ -95,6 +117,12 @@ public abstract class PartitionerTemplate implements Partitioner {
     this.stats = stats;
     this.start = start;
     this.end = end;
+    this.receiverCount = popConfig.getDestinations().size();
+    this.skewMode = popConfig.getSkewMode();
+    this.skewFanout = Math.min(popConfig.getSkewFanout(), receiverCount);
+    if (skewMode == SkewMode.SPREAD && skewFanout > 1) {
+      sampledHashes = new IntIntHashMap();
+    }
     doSetup(context, incoming, null);
 
     // Half the outgoing record batch size if the number of senders exceeds 1000 to reduce the total amount of memory
@@ -194,6 +222,15 @@ public abstract class PartitionerTemplate implements Partitioner {
       default:
         throw new UnsupportedOperationException("Unknown selection vector mode: " + svMode.toString());
     }
+
+    if (spreadRecords > 0) {
+      stats.addLongStat(Metric.SPREAD_RECORDS, spreadRecords);
+      spreadRecords = 0;
+    }
+    if (replicatedRecords > 0) {
+      stats.addLongStat(Metric.REPLICATED_RECORDS, replicatedRecords);
+      replicatedRecords = 0;
+    }
   }
 
   /**
@@ -202,10 +239,80 @@ public abstract class PartitionerTemplate implements Partitioner {
    * @throws IOException
    */
   private void doCopy(int svIndex) throws IOException {
-    int index = doEval(svIndex);
+    final int hash = doEval(svIndex);
+    final int index = Math.abs(hash % receiverCount);
+    switch (skewMode) {
+      case SPREAD:
+        final int receiver = spreadReceiver(hash, index);
+        if (copyToReceiver(receiver, svIndex) && receiver != index) {
+          spreadRecords++;
+        }
+        break;
+      case REPLICATE:
+        copyToReceiver(index, svIndex);
+        for (int i = 1; i < skewFanout; i++) {
+          if (copyToReceiver((index + i) % receiverCount, svIndex)) {
+            replicatedRecords++;
+          }
+        }
+        break;
+      default:
+        copyToReceiver(index, svIndex);
+    }
+  }
+
+  private boolean copyToReceiver(int index, int svIndex) throws IOException {
     if ( index >= start && index < end) {
       OutgoingRecordBatch outgoingBatch = outgoingBatches.get(index - start);
       outgoingBatch.copy(svIndex);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns the receiver of a record whose hash value selects the given receiver. Until enough records have been
+   * sampled every record goes to that receiver; afterwards the records of heavy hitters go round-robin to it and the
+   * receivers following it.
+   */
+  private int spreadReceiver(int hash, int index) {
+    if (sampledHashes != null) {
+      sampledHashes.addTo(hash, 1);
+      if (++sampledRecords == HEAVY_HITTER_SAMPLE_SIZE) {
+        findHeavyHitters();
+      }
+      return index;
+    }
+    if (heavyHitters == null) {
+      return index;
+    }
+    final int slot = heavyHitters.indexOf(hash);
+    if (slot < 0) {
+      return index;
+    }
+    final int offset = heavyHitters.indexGet(slot);
+    heavyHitters.indexReplace(slot, offset + 1 == skewFanout ? 0 : offset + 1);
+    return (index + offset) % receiverCount;
+  }
+
+  /**
+   * A hash value is a heavy hitter when its records alone outnumber an even share of the sampled records.
+   */
+  private void findHeavyHitters() {
+    final IntIntHashMap found = new IntIntHashMap();
+    for (IntIntCursor cursor : sampledHashes) {
+      if ((long) cursor.value * receiverCount > sampledRecords) {
+        found.put(cursor.key, 0);
+      }
+    }
+    sampledHashes = null;
+    if (!found.isEmpty()) {
+      heavyHitters = found;
+      logger.debug("Spreading {} heavy hitters over {} receivers", found.size(), skewFanout);
+    }
+    // all the partitioners find the same heavy hitters, only one of them reports them
+    if (start == 0) {
+      stats.addLongStat(Metric.HEAVY_HITTERS, found.size());
     }
   }
 
@@ -37,6 +37,7 @@ import org.apache.drill.common.expression.fn.CastFunctions;
 import org.apache.drill.common.logical.data.NamedExpression;
 import org.apache.drill.common.types.TypeProtos.MinorType;
 import org.apache.drill.common.types.Types;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.exception.ClassTransformationException;
 import org.apache.drill.exec.exception.OutOfMemoryException;
 import org.apache.drill.exec.exception.SchemaChangeException;
@@ -44,6 +45,7 @@ import org.apache.drill.exec.expr.ClassGenerator;
 import org.apache.drill.exec.expr.ClassGenerator.HoldingContainer;
 import org.apache.drill.exec.expr.CodeGenerator;
 import org.apache.drill.exec.expr.DrillFuncHolderExpr;
+import org.apache.drill.exec.expr.DrillVectorizedFunc;
 import org.apache.drill.exec.expr.ExpressionTreeMaterializer;
 import org.apache.drill.exec.expr.TypeHelper;
 import org.apache.drill.exec.expr.ValueVectorReadExpression;
@@ -55,11 +57,13 @@ import org.apache.drill.exec.planner.StarColumnHelper;
 import org.apache.drill.exec.record.AbstractSingleRecordBatch;
 import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
 import org.apache.drill.exec.record.MaterializedField;
+import org.apache.drill.exec.record.OutputBatchSizer;
 import org.apache.drill.exec.record.RecordBatch;
 import org.apache.drill.exec.record.TransferPair;
 import org.apache.drill.exec.record.TypedFieldId;
 import org.apache.drill.exec.record.VectorContainer;
 import org.apache.drill.exec.record.VectorWrapper;
+import org.apache.drill.exec.record.selection.SelectionVector2;
 import org.apache.drill.exec.store.ImplicitColumnExplorer;
 import org.apache.drill.exec.vector.AllocationHelper;
 import org.apache.drill.exec.vector.FixedWidthVector;
@@ -78,9 +82,13 @@ public class ProjectRecordBatch extends AbstractSingleRecordBatch<Project> {
   private List<ValueVector> allocationVectors;
   private List<ComplexWriter> complexWriters;
   private List<DrillComplexWriterFuncHolder> complexExprList;
+  private List<VectorizedExpression> vectorizedExprs;
   private boolean hasRemainder = false;
   private int remainderIndex = 0;
   private int recordCount;
+  private final OutputBatchSizer batchSizer;
+  private int recordLimit; // the number of records of the incoming batch that fit in an output batch
+  private IntHashSet projectedFieldIds = new IntHashSet(); // the incoming columns the projection reads
 
   private static final String EMPTY_STRING = "";
   private boolean first = true;
@@ -105,8 +113,24 @@ public class ProjectRecordBatch extends AbstractSingleRecordBatch<Project> {
     }
   }
 
+  /**
+   * A projected expression evaluated a batch at a time by a {@link DrillVectorizedFunc} instead of generated code.
+   */
+  private static class VectorizedExpression {
+    private final DrillVectorizedFunc function;
+    private final ValueVector[] inputs;
+    private final ValueVector output;
+
+    VectorizedExpression(DrillVectorizedFunc function, ValueVector[] inputs, ValueVector output) {
+      this.function = function;
+      this.inputs = inputs;
+      this.output = output;
+    }
+  }
+
   public ProjectRecordBatch(final Project pop, final RecordBatch incoming, final FragmentContext context) throws OutOfMemoryException {
     super(pop, context, incoming);
+    batchSizer = new OutputBatchSizer(context.getOptions());
   }
 
   @Override
@@ -191,12 +215,19 @@ public class ProjectRecordBatch extends AbstractSingleRecordBatch<Project> {
 
     container.zeroVectors();
 
-    if (!doAlloc(incomingRecordCount)) {
+    // the output rows are usually as wide as the ones of the last output batch, until there is one they are
+    // estimated from the incoming columns the projection reads
+    final int rowWidth = batchSizer.getRowWidth() > 0 ? batchSizer.getRowWidth() : getProjectedRowWidth();
+    recordLimit = batchSizer.getRecordCount(rowWidth, incomingRecordCount);
+    final int projectCount = Math.min(incomingRecordCount, recordLimit);
+    if (!doAlloc(projectCount)) {
       outOfMemory = true;
       return IterOutcome.OUT_OF_MEMORY;
     }
 
-    final int outputRecords = projector.projectRecords(0, incomingRecordCount, 0);
+    // vectorized expressions read the incoming vectors, so they run before the projector transfers them
+    evalVectorized(0, projectCount);
+    final int outputRecords = projector.projectRecords(0, projectCount, 0);
     if (outputRecords < incomingRecordCount) {
       setValueCount(outputRecords);
       hasRemainder = true;
@@ -214,17 +245,20 @@ public class ProjectRecordBatch extends AbstractSingleRecordBatch<Project> {
     if (complexWriters != null) {
       container.buildSchema(SelectionVectorMode.NONE);
     }
+    batchSizer.record(container);
 
     return IterOutcome.OK;
   }
 
   private void handleRemainder() {
     final int remainingRecordCount = incoming.getRecordCount() - remainderIndex;
-    if (!doAlloc(remainingRecordCount)) {
+    final int projectCount = Math.min(remainingRecordCount, recordLimit);
+    if (!doAlloc(projectCount)) {
       outOfMemory = true;
       return;
     }
-    final int projRecords = projector.projectRecords(remainderIndex, remainingRecordCount, 0);
+    evalVectorized(remainderIndex, projectCount);
+    final int projRecords = projector.projectRecords(remainderIndex, projectCount, 0);
     if (projRecords < remainingRecordCount) {
       setValueCount(projRecords);
       this.recordCount = projRecords;
@@ -243,6 +277,18 @@ public class ProjectRecordBatch extends AbstractSingleRecordBatch<Project> {
     if (complexWriters != null) {
       container.buildSchema(SelectionVectorMode.NONE);
     }
+    batchSizer.record(container);
+  }
+
+  private void evalVectorized(int startIndex, int recordCount) {
+    if (vectorizedExprs.isEmpty() || recordCount == 0) {
+      return;
+    }
+    final SelectionVector2 sv2 = incoming.getSchema().getSelectionVectorMode() == SelectionVectorMode.TWO_BYTE ?
+        incoming.getSelectionVector2() : null;
+    for (final VectorizedExpression e : vectorizedExprs) {
+      e.function.eval(e.inputs, sv2, startIndex, recordCount, e.output);
+    }
   }
 
   public void addComplexWriter(final ComplexWriter writer) {
@@ -312,6 +358,8 @@ public class ProjectRecordBatch extends AbstractSingleRecordBatch<Project> {
       }
     }
     this.allocationVectors = Lists.newArrayList();
+    this.vectorizedExprs = Lists.newArrayList();
+    final boolean vectorize = context.getOptions().getOption(ExecConstants.ENABLE_VECTORIZED_FUNCTIONS);
     if (complexWriters != null) {
       container.clear();
     } else {
@@ -324,6 +372,8 @@ public class ProjectRecordBatch extends AbstractSingleRecordBatch<Project> {
     final ClassGenerator<Projector> cg = CodeGenerator.getRoot(Projector.TEMPLATE_DEFINITION, context.getFunctionRegistry(), context.getOptions());
 
     final IntHashSet transferFieldIds = new IntHashSet();
+    projectedFieldIds = new IntHashSet();
+    batchSizer.reset();
 
     final boolean isAnyWildcard = isAnyWildcard(exprs);
 
@@ -356,6 +406,7 @@ public class ProjectRecordBatch extends AbstractSingleRecordBatch<Project> {
                 continue;
               }
 
+              projectedFieldIds.add(k - 1);
               final FieldReference ref = new FieldReference(name);
               final ValueVector vvOut = container.addOrGet(MaterializedField.create(ref.getAsNamePart().getName(), vvIn.getField().getType()), callBack);
               final TransferPair tp = vvIn.makeTransferPair(vvOut);
@@ -382,6 +433,7 @@ public class ProjectRecordBatch extends AbstractSingleRecordBatch<Project> {
               if (collector.hasErrors()) {
                 throw new SchemaChangeException(String.format("Failure while trying to materialize incoming schema.  Errors:\n %s.", collector.toErrorString()));
               }
+              addProjectedFieldIds(expr);
 
               final MaterializedField outputField = MaterializedField.create(name, expr.getMajorType());
               final ValueVector vv = container.addOrGet(outputField, callBack);
@@ -423,6 +475,7 @@ public class ProjectRecordBatch extends AbstractSingleRecordBatch<Project> {
       if (collector.hasErrors()) {
         throw new SchemaChangeException(String.format("Failure while trying to materialize incoming schema.  Errors:\n %s.", collector.toErrorString()));
       }
+      addProjectedFieldIds(expr);
 
       // add value vector to transfer if direct reference and this is allowed, otherwise, add to evaluation stack.
       if (expr instanceof ValueVectorReadExpression && incoming.getSchema().getSelectionVectorMode() == SelectionVectorMode.NONE
@@ -458,6 +511,18 @@ public class ProjectRecordBatch extends AbstractSingleRecordBatch<Project> {
         }
         // save the expr for later for getting schema when input is empty
         complexExprList.add((DrillComplexWriterFuncHolder)((DrillFuncHolderExpr)expr).getHolder());
+      } else if (vectorize && context.getFunctionRegistry().findVectorizedFunction(expr) != null) {
+        final DrillFuncHolderExpr funcExpr = (DrillFuncHolderExpr) expr;
+        final ValueVector[] inputs = new ValueVector[funcExpr.args.size()];
+        for (int j = 0; j < inputs.length; j++) {
+          final TypedFieldId id = ((ValueVectorReadExpression) funcExpr.args.get(j)).getFieldId();
+          inputs[j] = incoming.getValueAccessorById(id.getIntermediateClass(), id.getFieldIds()).getValueVector();
+        }
+        final ValueVector vector = container.addOrGet(outputField, callBack);
+        allocationVectors.add(vector);
+        vectorizedExprs.add(new VectorizedExpression(context.getFunctionRegistry().findVectorizedFunction(expr),
+            inputs, vector));
+        logger.debug("Added vectorized eval for project expression.");
       } else {
         // need to do evaluation.
         final ValueVector vector = container.addOrGet(outputField, callBack);
@@ -494,6 +559,35 @@ public class ProjectRecordBatch extends AbstractSingleRecordBatch<Project> {
     }
   }
 
+  /**
+   * Remembers the incoming columns the expression reads.
+   */
+  private void addProjectedFieldIds(final LogicalExpression expr) {
+    if (expr instanceof ValueVectorReadExpression) {
+      projectedFieldIds.add(((ValueVectorReadExpression) expr).getFieldId().getFieldIds()[0]);
+      return;
+    }
+    for (final LogicalExpression child : expr) {
+      addProjectedFieldIds(child);
+    }
+  }
+
+  /**
+   * @return The width of the incoming rows counting only the columns the projection reads, an estimate of the width
+   *         of the output rows before any has been emitted.
+   */
+  private int getProjectedRowWidth() {
+    long width = 0;
+    int fieldId = 0;
+    for (final VectorWrapper<?> w : incoming) {
+      if (!w.isHyper() && projectedFieldIds.contains(fieldId)) {
+        width += OutputBatchSizer.getWidth(w.getValueVector());
+      }
+      fieldId++;
+    }
+    return (int) Math.min(width, Integer.MAX_VALUE);
+  }
+
   private boolean isImplicitFileColumn(ValueVector vvIn) {
     return ImplicitColumnExplorer.initImplicitFileColumns(context.getOptions()).get(vvIn.getField().getName()) != null;
   }
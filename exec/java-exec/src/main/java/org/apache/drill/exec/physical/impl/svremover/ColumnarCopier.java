@@ -0,0 +1,108 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.svremover;
+
+import java.util.Iterator;
+
+import org.apache.drill.common.types.TypeProtos.MajorType;
+import org.apache.drill.common.types.Types;
+import org.apache.drill.exec.exception.SchemaChangeException;
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
+import org.apache.drill.exec.record.RecordBatch;
+import org.apache.drill.exec.record.TransferPair;
+import org.apache.drill.exec.record.VectorWrapper;
+import org.apache.drill.exec.record.selection.SelectionVector2;
+import org.apache.drill.exec.record.selection.SelectionVector4;
+import org.apache.drill.exec.vector.AllocationHelper;
+import org.apache.drill.exec.vector.BulkCopyVector;
+import org.apache.drill.exec.vector.ValueVector;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Copies the records that the selection vector of the incoming batch selects one column at a time, rather than one
+ * record at a time like the generated copiers. Vectors that implement {@link BulkCopyVector} copy the values of a
+ * call in one go, with a loop specialized for their type; the others, e.g. maps and repeated vectors, copy their
+ * values one by one through transfer pairs.
+ */
+public class ColumnarCopier implements Copier {
+
+  private RecordBatch incoming;
+  private RecordBatch outgoing;
+  private SelectionVectorMode svMode;
+
+  @Override
+  public void setupRemover(FragmentContext context, RecordBatch incoming, RecordBatch outgoing)
+      throws SchemaChangeException {
+    this.incoming = incoming;
+    this.outgoing = outgoing;
+    this.svMode = incoming.getSchema().getSelectionVectorMode();
+    Preconditions.checkArgument(svMode == SelectionVectorMode.TWO_BYTE || svMode == SelectionVectorMode.FOUR_BYTE);
+  }
+
+  @Override
+  public int copyRecords(int index, int recordCount) {
+    for(VectorWrapper<?> out : outgoing){
+      MajorType type = out.getField().getType();
+      if (!Types.isFixedWidthType(type) || Types.isRepeated(type)) {
+        out.getValueVector().allocateNew();
+      } else {
+        AllocationHelper.allocate(out.getValueVector(), recordCount, 1);
+      }
+    }
+
+    // the outgoing vectors are in the order of the incoming ones
+    final Iterator<VectorWrapper<?>> in = incoming.iterator();
+    for (VectorWrapper<?> out : outgoing) {
+      if (svMode == SelectionVectorMode.TWO_BYTE) {
+        copy(in.next().getValueVector(), out.getValueVector(), incoming.getSelectionVector2(), index, recordCount);
+      } else {
+        copy(in.next().getValueVectors(), out.getValueVector(), incoming.getSelectionVector4(), index, recordCount);
+      }
+    }
+    return recordCount;
+  }
+
+  private static void copy(ValueVector from, ValueVector to, SelectionVector2 sv2, int index, int recordCount) {
+    if (to instanceof BulkCopyVector) {
+      ((BulkCopyVector) to).copyFromSafe(sv2.getBuffer(false), index, recordCount, 0, from);
+      return;
+    }
+    final TransferPair pair = from.makeTransferPair(to);
+    for (int i = 0; i < recordCount; i++) {
+      pair.copyValueSafe(sv2.getIndex(index + i), i);
+    }
+  }
+
+  private static void copy(ValueVector[] from, ValueVector to, SelectionVector4 sv4, int index, int recordCount) {
+    if (to instanceof BulkCopyVector) {
+      ((BulkCopyVector) to).copyFromSafe(sv4.getBuffer(), sv4.getStart() + index, recordCount, 0, from);
+      return;
+    }
+    final TransferPair[] pairs = new TransferPair[from.length];
+    for (int i = 0; i < recordCount; i++) {
+      final int entry = sv4.get(index + i);
+      final int batch = entry >>> 16;
+      if (pairs[batch] == null) {
+        pairs[batch] = from[batch].makeTransferPair(to);
+      }
+      pairs[batch].copyValueSafe(entry & 0xFFFF, i);
+    }
+  }
+}
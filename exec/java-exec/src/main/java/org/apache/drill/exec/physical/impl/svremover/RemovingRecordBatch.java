@@ -20,6 +20,7 @@ package org.apache.drill.exec.physical.impl.svremover;
 import java.io.IOException;
 import java.util.List;
 
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.exception.ClassTransformationException;
 import org.apache.drill.exec.exception.OutOfMemoryException;
 import org.apache.drill.exec.exception.SchemaChangeException;
@@ -225,6 +226,12 @@ public class RemovingRecordBatch extends AbstractSingleRecordBatch<SelectionVect
       TransferPair tp = vv.getValueVector().makeTransferPair(container.addOrGet(vv.getField(), callBack));
     }
 
+    if (context.getOptions().getOption(ExecConstants.SV_REMOVER_COLUMNAR_COPY)) {
+      final Copier copier = new ColumnarCopier();
+      copier.setupRemover(context, incoming, this);
+      return copier;
+    }
+
     try {
       final CodeGenerator<Copier> cg = CodeGenerator.get(Copier.TEMPLATE_DEFINITION2, context.getFunctionRegistry(), context.getOptions());
       CopyUtil.generateCopies(cg.getRoot(), incoming, false);
@@ -249,6 +256,12 @@ public class RemovingRecordBatch extends AbstractSingleRecordBatch<SelectionVect
       v.makeTransferPair(container.addOrGet(v.getField(), callBack));
     }
 
+    if (context.getOptions().getOption(ExecConstants.SV_REMOVER_COLUMNAR_COPY)) {
+      final Copier copier = new ColumnarCopier();
+      copier.setupRemover(context, batch, outgoing);
+      return copier;
+    }
+
     try {
       final CodeGenerator<Copier> cg = CodeGenerator.get(Copier.TEMPLATE_DEFINITION4, context.getFunctionRegistry(), context.getOptions());
       CopyUtil.generateCopies(cg.getRoot(), batch, true);
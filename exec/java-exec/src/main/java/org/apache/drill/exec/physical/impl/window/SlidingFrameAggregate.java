@@ -0,0 +1,513 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.window;
+
+import io.netty.buffer.DrillBuf;
+
+import org.apache.drill.common.exceptions.UserException;
+import org.apache.drill.common.expression.FunctionCall;
+import org.apache.drill.common.expression.LogicalExpression;
+import org.apache.drill.common.logical.data.NamedExpression;
+import org.apache.drill.common.types.TypeProtos.DataMode;
+import org.apache.drill.common.types.TypeProtos.MajorType;
+import org.apache.drill.common.types.TypeProtos.MinorType;
+import org.apache.drill.exec.exception.SchemaChangeException;
+import org.apache.drill.exec.expr.ExpressionTreeMaterializer;
+import org.apache.drill.exec.expr.ValueVectorReadExpression;
+import org.apache.drill.exec.expr.fn.FunctionLookupContext;
+import org.apache.drill.exec.record.MaterializedField;
+import org.apache.drill.exec.record.TypedFieldId;
+import org.apache.drill.exec.record.VectorAccessible;
+import org.apache.drill.exec.record.VectorContainer;
+import org.apache.drill.exec.vector.BaseDataValueVector;
+import org.apache.drill.exec.vector.BigIntVector;
+import org.apache.drill.exec.vector.DateVector;
+import org.apache.drill.exec.vector.Float4Vector;
+import org.apache.drill.exec.vector.Float8Vector;
+import org.apache.drill.exec.vector.IntVector;
+import org.apache.drill.exec.vector.NullableBigIntVector;
+import org.apache.drill.exec.vector.NullableDateVector;
+import org.apache.drill.exec.vector.NullableFloat4Vector;
+import org.apache.drill.exec.vector.NullableFloat8Vector;
+import org.apache.drill.exec.vector.NullableIntVector;
+import org.apache.drill.exec.vector.NullableTimeStampVector;
+import org.apache.drill.exec.vector.NullableTimeVector;
+import org.apache.drill.exec.vector.NullableVector;
+import org.apache.drill.exec.vector.TimeStampVector;
+import org.apache.drill.exec.vector.TimeVector;
+import org.apache.drill.exec.vector.ValueVector;
+
+/**
+ * Computes SUM, $SUM0, COUNT, AVG, MIN and MAX over a {@code ROWS BETWEEN n PRECEDING AND CURRENT ROW} frame with
+ * constant amortized work per row.
+ * <br>SUM, COUNT and AVG keep running totals and subtract the row that leaves the frame. Integer totals are exact.
+ * Floating point totals are kept as a compensated sum of the finite values plus counts of the infinities and NaNs in
+ * the frame, so a value that left the frame doesn't leave rounding error or a NaN behind. MIN and MAX keep a
+ * monotonic deque of the frame's candidate values, so each row is pushed and popped at most once.
+ * <br>Rows are fed in partition order with {@link #add(int)}; the caller resets the state at partition boundaries.
+ */
+public class SlidingFrameAggregate {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(SlidingFrameAggregate.class);
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private enum Kind { SUM, SUM0, COUNT, AVG, MIN, MAX }
+
+  private final Kind kind;
+  private final long preceding;
+  private final TypedFieldId inputId; // null when the argument is a non nullable expression (e.g. count(*))
+  private final MinorType inputType;
+  private final boolean floating;
+  private final TypedFieldId outputId;
+  private final MajorType outputType;
+
+  private ValueVector.Accessor nullAccessor;
+  private DrillBuf values;
+  private ValueVector output;
+
+  // values of the rows currently in the frame (only needed by SUM, COUNT and AVG), oldest first
+  private long[] frameValues = new long[INITIAL_CAPACITY];
+  private boolean[] frameNulls = new boolean[INITIAL_CAPACITY];
+  private int frameHead;
+  private int frameSize;
+
+  // MIN/MAX candidates, as (position in partition, value), oldest first
+  private long[] dequePositions = new long[INITIAL_CAPACITY];
+  private long[] dequeValues = new long[INITIAL_CAPACITY];
+  private int dequeHead;
+  private int dequeSize;
+
+  private long position; // position of the next row in the current partition
+  private long longSum;
+  // finite floating point values are summed with Neumaier's compensation, non finite values are only counted
+  private double doubleSum;
+  private double doubleCompensation;
+  private long positiveInfinities;
+  private long negativeInfinities;
+  private long nans;
+  private long nonNullCount;
+
+  private SlidingFrameAggregate(Kind kind, long preceding, TypedFieldId inputId, MinorType inputType,
+                                TypedFieldId outputId, MajorType outputType) {
+    this.kind = kind;
+    this.preceding = preceding;
+    this.inputId = inputId;
+    this.inputType = inputType;
+    this.floating = inputType == MinorType.FLOAT4 || inputType == MinorType.FLOAT8;
+    this.outputId = outputId;
+    this.outputType = outputType;
+  }
+
+  /**
+   * @return true if the aggregate function can be computed over a bounded ROWS frame
+   */
+  static boolean isSupported(final FunctionCall call) {
+    return toKind(call.getName()) != null;
+  }
+
+  private static Kind toKind(final String name) {
+    switch (name.toLowerCase()) {
+      case "sum":
+        return Kind.SUM;
+      case "$sum0":
+        return Kind.SUM0;
+      case "count":
+        return Kind.COUNT;
+      case "avg":
+        return Kind.AVG;
+      case "min":
+        return Kind.MIN;
+      case "max":
+        return Kind.MAX;
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * materializes the aggregate, adding its output vector to the container
+   * @param preceding number of rows preceding the current row in the frame
+   */
+  static SlidingFrameAggregate create(final NamedExpression ne, final VectorContainer container,
+      final FunctionLookupContext registry, final long preceding) throws SchemaChangeException {
+    final FunctionCall call = (FunctionCall) ne.getExpr();
+    final Kind kind = toKind(call.getName());
+    final LogicalExpression aggregate = ExpressionTreeMaterializer.materializeAndCheckErrors(call, container, registry);
+    final LogicalExpression arg = ExpressionTreeMaterializer.materializeAndCheckErrors(call.args.get(0), container, registry);
+
+    TypedFieldId inputId = null;
+    MinorType inputType = arg.getMajorType().getMinorType();
+    if (arg instanceof ValueVectorReadExpression && !((ValueVectorReadExpression) arg).hasReadPath()
+        && !((ValueVectorReadExpression) arg).getFieldId().hasRemainder()) {
+      inputId = ((ValueVectorReadExpression) arg).getFieldId();
+    } else if (kind != Kind.COUNT || arg.getMajorType().getMode() != DataMode.REQUIRED) {
+      throw unsupported(call, "its argument must be a column");
+    }
+
+    if (kind != Kind.COUNT) {
+      switch (inputType) {
+        case INT:
+        case BIGINT:
+        case FLOAT4:
+        case FLOAT8:
+          break;
+        case DATE:
+        case TIME:
+        case TIMESTAMP:
+          if (kind == Kind.MIN || kind == Kind.MAX) {
+            break;
+          }
+        default:
+          throw unsupported(call, "of its argument type " + inputType);
+      }
+    }
+
+    final MajorType outputType = aggregate.getMajorType();
+    switch (outputType.getMinorType()) {
+      case INT:
+      case BIGINT:
+      case FLOAT4:
+      case FLOAT8:
+      case DATE:
+      case TIME:
+      case TIMESTAMP:
+        break;
+      default:
+        throw unsupported(call, "of its return type " + outputType.getMinorType());
+    }
+
+    final MaterializedField output = MaterializedField.create(ne.getRef().getAsNamePart().getName(), outputType);
+    container.addOrGet(output).allocateNew();
+    final TypedFieldId outputId = container.getValueVectorId(ne.getRef());
+
+    return new SlidingFrameAggregate(kind, preceding, inputId, inputType, outputId, outputType);
+  }
+
+  private static UserException unsupported(final FunctionCall call, final String reason) {
+    return UserException.unsupportedError()
+      .message("Window function '%s' is not supported with a bounded ROWS frame because %s", call.getName(), reason)
+      .build(logger);
+  }
+
+  /**
+   * binds the input vector of the batch rows will be read from, and the output vector results are written to
+   */
+  void setup(final VectorAccessible incoming, final VectorAccessible outgoing) {
+    output = outgoing.getValueAccessorById(outputId.getIntermediateClass(), outputId.getFieldIds()).getValueVector();
+    if (inputId == null) {
+      return;
+    }
+    ValueVector vector = incoming.getValueAccessorById(inputId.getIntermediateClass(), inputId.getFieldIds()).getValueVector();
+    nullAccessor = vector.getAccessor();
+    if (vector instanceof NullableVector) {
+      vector = ((NullableVector) vector).getValuesVector();
+    }
+    values = ((BaseDataValueVector) vector).getBuffer();
+  }
+
+  /**
+   * resets the running state at the start of a new partition
+   */
+  void reset() {
+    frameHead = 0;
+    frameSize = 0;
+    dequeHead = 0;
+    dequeSize = 0;
+    position = 0;
+    longSum = 0;
+    resetDoubleSum();
+    nonNullCount = 0;
+  }
+
+  private void resetDoubleSum() {
+    doubleSum = 0;
+    doubleCompensation = 0;
+    positiveInfinities = 0;
+    negativeInfinities = 0;
+    nans = 0;
+  }
+
+  /**
+   * adds a row to the frame and drops the row that no longer belongs to it
+   */
+  void add(final int row) {
+    final boolean isNull = inputId != null && nullAccessor.isNull(row);
+    final long value = isNull || inputId == null ? 0 : read(row);
+
+    if (kind == Kind.MIN || kind == Kind.MAX) {
+      if (!isNull) {
+        // discard candidates that can never be the frame's extreme again
+        while (dequeSize > 0 && !better(dequeValues[dequeIndex(dequeSize - 1)], value)) {
+          dequeSize--;
+        }
+        pushCandidate(position, value);
+      }
+      while (dequeSize > 0 && dequePositions[dequeHead] < position - preceding) {
+        dequeHead = (dequeHead + 1) % dequePositions.length;
+        dequeSize--;
+      }
+    } else {
+      accumulate(value, isNull, 1);
+      pushFrameValue(value, isNull);
+      if (frameSize > preceding + 1) {
+        accumulate(frameValues[frameHead], frameNulls[frameHead], -1);
+        frameHead = (frameHead + 1) % frameValues.length;
+        frameSize--;
+      }
+    }
+    position++;
+  }
+
+  /**
+   * writes the aggregate of the current frame
+   */
+  void output(final int outIndex) {
+    final ValueVector vector = output;
+    switch (kind) {
+      case COUNT:
+        writeLong(vector, outIndex, nonNullCount);
+        return;
+      case SUM0:
+      case SUM:
+        if (nonNullCount == 0 && kind == Kind.SUM) {
+          writeNull(vector, outIndex);
+        } else if (floating) {
+          writeDouble(vector, outIndex, doubleTotal());
+        } else {
+          writeLong(vector, outIndex, longSum);
+        }
+        return;
+      case AVG:
+        if (nonNullCount == 0) {
+          writeNull(vector, outIndex);
+        } else {
+          writeDouble(vector, outIndex, (floating ? doubleTotal() : longSum) / (double) nonNullCount);
+        }
+        return;
+      default:
+        if (dequeSize == 0) {
+          writeNull(vector, outIndex);
+        } else if (floating) {
+          writeDouble(vector, outIndex, Double.longBitsToDouble(dequeValues[dequeHead]));
+        } else {
+          writeLong(vector, outIndex, dequeValues[dequeHead]);
+        }
+    }
+  }
+
+  private long read(final int row) {
+    switch (inputType) {
+      case INT:
+      case TIME:
+        return values.getInt(row << 2);
+      case FLOAT4:
+        return Double.doubleToRawLongBits(values.getFloat(row << 2));
+      case FLOAT8:
+        return Double.doubleToRawLongBits(values.getDouble(row << 3));
+      default:
+        return values.getLong(row << 3);
+    }
+  }
+
+  private void accumulate(final long value, final boolean isNull, final int sign) {
+    if (isNull) {
+      return;
+    }
+    nonNullCount += sign;
+    if (!floating) {
+      longSum += sign * value;
+      return;
+    }
+    if (nonNullCount == 0) {
+      // the frame has no values left, drop whatever rounding error is left over
+      resetDoubleSum();
+      return;
+    }
+    final double d = Double.longBitsToDouble(value);
+    if (Double.isNaN(d)) {
+      nans += sign;
+    } else if (d == Double.POSITIVE_INFINITY) {
+      positiveInfinities += sign;
+    } else if (d == Double.NEGATIVE_INFINITY) {
+      negativeInfinities += sign;
+    } else {
+      final double x = sign * d;
+      final double t = doubleSum + x;
+      if (Math.abs(doubleSum) >= Math.abs(x)) {
+        doubleCompensation += (doubleSum - t) + x;
+      } else {
+        doubleCompensation += (x - t) + doubleSum;
+      }
+      doubleSum = t;
+    }
+  }
+
+  /**
+   * @return the floating point sum of the values in the frame
+   */
+  private double doubleTotal() {
+    if (nans > 0 || (positiveInfinities > 0 && negativeInfinities > 0)) {
+      return Double.NaN;
+    } else if (positiveInfinities > 0) {
+      return Double.POSITIVE_INFINITY;
+    } else if (negativeInfinities > 0) {
+      return Double.NEGATIVE_INFINITY;
+    }
+    return doubleSum + doubleCompensation;
+  }
+
+  /**
+   * @return true if {@code candidate} must be kept in front of {@code value} in the MIN/MAX deque
+   */
+  private boolean better(final long candidate, final long value) {
+    final int cmp = floating ? Double.compare(Double.longBitsToDouble(candidate), Double.longBitsToDouble(value))
+      : Long.compare(candidate, value);
+    return kind == Kind.MIN ? cmp < 0 : cmp > 0;
+  }
+
+  private int dequeIndex(final int offset) {
+    return (dequeHead + offset) % dequePositions.length;
+  }
+
+  private void pushCandidate(final long pos, final long value) {
+    if (dequeSize == dequePositions.length) {
+      dequePositions = grow(dequePositions, dequeHead, dequeSize);
+      dequeValues = grow(dequeValues, dequeHead, dequeSize);
+      dequeHead = 0;
+    }
+    final int index = dequeIndex(dequeSize++);
+    dequePositions[index] = pos;
+    dequeValues[index] = value;
+  }
+
+  private void pushFrameValue(final long value, final boolean isNull) {
+    if (frameSize == frameValues.length) {
+      frameValues = grow(frameValues, frameHead, frameSize);
+      final boolean[] nulls = new boolean[frameNulls.length * 2];
+      for (int i = 0; i < frameSize; i++) {
+        nulls[i] = frameNulls[(frameHead + i) % frameNulls.length];
+      }
+      frameNulls = nulls;
+      frameHead = 0;
+    }
+    final int index = (frameHead + frameSize++) % frameValues.length;
+    frameValues[index] = value;
+    frameNulls[index] = isNull;
+  }
+
+  private static long[] grow(final long[] ring, final int head, final int size) {
+    final long[] grown = new long[ring.length * 2];
+    for (int i = 0; i < size; i++) {
+      grown[i] = ring[(head + i) % ring.length];
+    }
+    return grown;
+  }
+
+  private void writeNull(final ValueVector vector, final int index) {
+    if (outputType.getMode() != DataMode.OPTIONAL) {
+      throw new IllegalStateException("Empty frame for non nullable window aggregate " + outputId);
+    }
+    final ValueVector.Mutator mutator = vector.getMutator();
+    switch (outputType.getMinorType()) {
+      case INT:
+        ((NullableIntVector.Mutator) mutator).setNull(index);
+        break;
+      case BIGINT:
+        ((NullableBigIntVector.Mutator) mutator).setNull(index);
+        break;
+      case FLOAT4:
+        ((NullableFloat4Vector.Mutator) mutator).setNull(index);
+        break;
+      case FLOAT8:
+        ((NullableFloat8Vector.Mutator) mutator).setNull(index);
+        break;
+      case DATE:
+        ((NullableDateVector.Mutator) mutator).setNull(index);
+        break;
+      case TIME:
+        ((NullableTimeVector.Mutator) mutator).setNull(index);
+        break;
+      default:
+        ((NullableTimeStampVector.Mutator) mutator).setNull(index);
+    }
+  }
+
+  private void writeDouble(final ValueVector vector, final int index, final double value) {
+    switch (outputType.getMinorType()) {
+      case FLOAT4:
+        if (outputType.getMode() == DataMode.OPTIONAL) {
+          ((NullableFloat4Vector) vector).getMutator().setSafe(index, (float) value);
+        } else {
+          ((Float4Vector) vector).getMutator().setSafe(index, (float) value);
+        }
+        break;
+      case FLOAT8:
+        if (outputType.getMode() == DataMode.OPTIONAL) {
+          ((NullableFloat8Vector) vector).getMutator().setSafe(index, value);
+        } else {
+          ((Float8Vector) vector).getMutator().setSafe(index, value);
+        }
+        break;
+      default:
+        writeLong(vector, index, (long) value);
+    }
+  }
+
+  private void writeLong(final ValueVector vector, final int index, final long value) {
+    final boolean nullable = outputType.getMode() == DataMode.OPTIONAL;
+    switch (outputType.getMinorType()) {
+      case INT:
+        if (nullable) {
+          ((NullableIntVector) vector).getMutator().setSafe(index, (int) value);
+        } else {
+          ((IntVector) vector).getMutator().setSafe(index, (int) value);
+        }
+        break;
+      case BIGINT:
+        if (nullable) {
+          ((NullableBigIntVector) vector).getMutator().setSafe(index, value);
+        } else {
+          ((BigIntVector) vector).getMutator().setSafe(index, value);
+        }
+        break;
+      case TIME:
+        if (nullable) {
+          ((NullableTimeVector) vector).getMutator().setSafe(index, (int) value);
+        } else {
+          ((TimeVector) vector).getMutator().setSafe(index, (int) value);
+        }
+        break;
+      case DATE:
+        if (nullable) {
+          ((NullableDateVector) vector).getMutator().setSafe(index, value);
+        } else {
+          ((DateVector) vector).getMutator().setSafe(index, value);
+        }
+        break;
+      case TIMESTAMP:
+        if (nullable) {
+          ((NullableTimeStampVector) vector).getMutator().setSafe(index, value);
+        } else {
+          ((TimeStampVector) vector).getMutator().setSafe(index, value);
+        }
+        break;
+      default:
+        writeDouble(vector, index, value);
+    }
+  }
+}
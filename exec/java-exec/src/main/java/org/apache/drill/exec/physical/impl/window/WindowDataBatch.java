@@ -20,6 +20,7 @@ package org.apache.drill.exec.physical.impl.window;
 import com.google.common.collect.Lists;
 import org.apache.drill.common.expression.SchemaPath;
 import org.apache.drill.exec.ops.OperatorContext;
+import org.apache.drill.exec.physical.impl.xsort.SpillSet;
 import org.apache.drill.exec.record.BatchSchema;
 import org.apache.drill.exec.record.TransferPair;
 import org.apache.drill.exec.record.TypedFieldId;
@@ -29,6 +30,7 @@ import org.apache.drill.exec.record.VectorWrapper;
 import org.apache.drill.exec.record.selection.SelectionVector2;
 import org.apache.drill.exec.record.selection.SelectionVector4;
 import org.apache.drill.exec.vector.ValueVector;
+import org.apache.hadoop.fs.Path;
 
 import java.util.Iterator;
 import java.util.List;
@@ -39,8 +41,15 @@ public class WindowDataBatch implements VectorAccessible {
   private final VectorContainer container;
   private final int recordCount;
 
-  public WindowDataBatch(final VectorAccessible batch, final OperatorContext oContext) {
+  private final WindowSpillManager spillManager;
+  private Path spillPath; // set once the batch has been written to the spill file system
+  private boolean spilled; // true while the vectors only live in the spill file
+  long lastAccess; // maintained by the spill manager to pick eviction candidates
+
+  public WindowDataBatch(final VectorAccessible batch, final OperatorContext oContext,
+                         final WindowSpillManager spillManager) {
     this.oContext = oContext;
+    this.spillManager = spillManager;
     recordCount = batch.getRecordCount();
 
     List<ValueVector> vectors = Lists.newArrayList();
@@ -65,6 +74,7 @@ public class WindowDataBatch implements VectorAccessible {
   }
 
   public VectorContainer getContainer() {
+    ensureLoaded();
     return container;
   }
 
@@ -75,6 +85,7 @@ public class WindowDataBatch implements VectorAccessible {
 
   @Override
   public VectorWrapper<?> getValueAccessorById(Class<?> clazz, int... fieldIds) {
+    ensureLoaded();
     return container.getValueAccessorById(clazz, fieldIds);
   }
 
@@ -90,6 +101,7 @@ public class WindowDataBatch implements VectorAccessible {
 
   @Override
   public Iterator<VectorWrapper<?>> iterator() {
+    ensureLoaded();
     return container.iterator();
   }
 
@@ -105,5 +117,45 @@ public class WindowDataBatch implements VectorAccessible {
 
   public void clear() {
     container.clear();
+    spilled = false;
+    if (spillManager != null) {
+      spillManager.release(this);
+    }
+  }
+
+  public boolean isSpilled() {
+    return spilled;
+  }
+
+  Path getSpillPath() {
+    return spillPath;
+  }
+
+  private void ensureLoaded() {
+    if (spillManager != null) {
+      spillManager.access(this);
+    }
+  }
+
+  /**
+   * Releases the vectors of this batch, writing them to a spill file first unless a previous spill already did.
+   * The batch contents never change once buffered, so an existing spill file can be reused.
+   */
+  void spill(final SpillSet spillSet) {
+    assert !spilled;
+    if (spillPath == null) {
+      spillPath = spillSet.spill(container, recordCount);
+    }
+    container.zeroVectors();
+    spilled = true;
+  }
+
+  /**
+   * Reads the vectors of a spilled batch back into this batch's container.
+   */
+  void load(final SpillSet spillSet) {
+    assert spilled;
+    spillSet.load(spillPath, container);
+    spilled = false;
   }
 }
@@ -28,6 +28,7 @@ import org.apache.drill.common.expression.FunctionCall;
 import org.apache.drill.common.expression.LogicalExpression;
 import org.apache.drill.common.logical.data.NamedExpression;
 import org.apache.drill.common.logical.data.Order;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.compile.TemplateClassDefinition;
 import org.apache.drill.exec.compile.sig.GeneratorMapping;
 import org.apache.drill.exec.compile.sig.MappingSet;
@@ -40,6 +41,7 @@ import org.apache.drill.exec.expr.ExpressionTreeMaterializer;
 import org.apache.drill.exec.expr.fn.FunctionGenerationHelper;
 import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.physical.config.WindowPOP;
+import org.apache.drill.exec.physical.impl.xsort.SpillSet;
 import org.apache.drill.exec.record.AbstractRecordBatch;
 import org.apache.drill.exec.record.BatchSchema;
 import org.apache.drill.exec.record.RecordBatch;
@@ -60,10 +62,13 @@ public class WindowFrameRecordBatch extends AbstractRecordBatch<WindowPOP> {
 
   private final RecordBatch incoming;
   private List<WindowDataBatch> batches;
+  private final WindowSpillManager spillManager;
 
   private WindowFramer[] framers;
   private boolean hasOrderBy; // true if window definition contains an order-by clause
   private final List<WindowFunction> functions = Lists.newArrayList();
+  private final List<SlidingFrameAggregate> slidingAggregates = Lists.newArrayList();
+  private boolean slidingPartitionContinues; // true if the next batch starts with the partition the last batch ended
 
   private boolean noMoreBatches; // true when downstream returns NONE
   private BatchSchema schema;
@@ -74,6 +79,19 @@ public class WindowFrameRecordBatch extends AbstractRecordBatch<WindowPOP> {
     super(popConfig, context);
     this.incoming = incoming;
     batches = Lists.newArrayList();
+    spillManager = createSpillManager();
+  }
+
+  private WindowSpillManager createSpillManager() {
+    final SpillSet spillSet = new SpillSet(context, oContext.getAllocator(), popConfig, "window");
+    final long threshold = context.getOptions().getOption(ExecConstants.WINDOW_SPILL_THRESHOLD);
+    return new WindowSpillManager(spillSet, oContext.getAllocator(), threshold, batches);
+  }
+
+  private void addBatch(final VectorAccessible batch) {
+    final WindowDataBatch windowBatch = new WindowDataBatch(batch, oContext, spillManager);
+    batches.add(windowBatch);
+    spillManager.makeRoom(windowBatch);
   }
 
   /**
@@ -127,7 +145,7 @@ public class WindowFrameRecordBatch extends AbstractRecordBatch<WindowPOP> {
           }
         case OK:
           if (incoming.getRecordCount() > 0) {
-            batches.add(new WindowDataBatch(incoming, oContext));
+            addBatch(incoming);
           }
           break;
         default:
@@ -173,6 +191,10 @@ public class WindowFrameRecordBatch extends AbstractRecordBatch<WindowPOP> {
       framer.doWork();
     }
 
+    if (!slidingAggregates.isEmpty()) {
+      aggregateSlidingFrames(current);
+    }
+
     // transfer "non aggregated" vectors
     for (VectorWrapper<?> vw : current) {
       ValueVector v = container.addOrGet(vw.getField());
@@ -192,6 +214,32 @@ public class WindowFrameRecordBatch extends AbstractRecordBatch<WindowPOP> {
     logger.trace("doWork() END");
   }
 
+  /**
+   * computes the aggregates over bounded ROWS frames for every row of the current batch. Their running state is carried
+   * over to the next batch when it continues the current partition.
+   */
+  private void aggregateSlidingFrames(final WindowDataBatch current) {
+    final int recordCount = current.getRecordCount();
+    for (final SlidingFrameAggregate aggregate : slidingAggregates) {
+      aggregate.setup(current, container);
+    }
+
+    for (int row = 0; row < recordCount; row++) {
+      final boolean newPartition = row == 0 ? !slidingPartitionContinues
+        : !framers[0].isSamePartition(row - 1, current, row, current);
+      for (final SlidingFrameAggregate aggregate : slidingAggregates) {
+        if (newPartition) {
+          aggregate.reset();
+        }
+        aggregate.add(row);
+        aggregate.output(row);
+      }
+    }
+
+    slidingPartitionContinues = batches.size() > 1
+      && framers[0].isSamePartition(recordCount - 1, current, 0, batches.get(1));
+  }
+
   /**
    * @return true when all window functions are ready to process the current batch (it's the first batch currently
    * held in memory)
@@ -244,7 +292,7 @@ public class WindowFrameRecordBatch extends AbstractRecordBatch<WindowPOP> {
     }
 
     if (incoming.getRecordCount() > 0) {
-      batches.add(new WindowDataBatch(incoming, oContext));
+      addBatch(incoming);
     }
   }
 
@@ -262,6 +310,9 @@ public class WindowFrameRecordBatch extends AbstractRecordBatch<WindowPOP> {
 
     hasOrderBy = popConfig.getOrderings().size() > 0;
 
+    // ROWS BETWEEN <n> PRECEDING AND CURRENT ROW is computed with running state instead of generated framer code
+    final boolean boundedRows = popConfig.isFrameUnitsRows() && popConfig.getStart().isBoundedPreceding();
+
     // all existing vectors will be transferred to the outgoing container in framer.doWork()
     for (final VectorWrapper<?> wrapper : batch) {
       container.addOrGet(wrapper.getField());
@@ -277,6 +328,17 @@ public class WindowFrameRecordBatch extends AbstractRecordBatch<WindowPOP> {
 
       final FunctionCall call = (FunctionCall) ne.getExpr();
       final WindowFunction winfun = WindowFunction.fromExpression(call);
+      if (boundedRows && winfun.supportsCustomFrames()) {
+        if (winfun.type != WindowFunction.Type.AGGREGATE || !SlidingFrameAggregate.isSupported(call)) {
+          throw UserException.unsupportedError()
+            .message("Window function '%s' is not supported with a bounded ROWS frame", call.getName())
+            .build(logger);
+        }
+        slidingAggregates.add(SlidingFrameAggregate.create(ne, container, context.getFunctionRegistry(),
+          -popConfig.getStart().getOffset()));
+        continue;
+      }
+
       if (winfun.materialize(ne, container, context.getFunctionRegistry())) {
         functions.add(winfun);
         requireFullPartition |= winfun.requiresFullPartition(popConfig);
@@ -302,6 +364,9 @@ public class WindowFrameRecordBatch extends AbstractRecordBatch<WindowPOP> {
       orderExprs.add(ExpressionTreeMaterializer.materializeAndCheckErrors(oe.getExpr(), batch, context.getFunctionRegistry()));
     }
 
+    // we always need a framer to find the partition boundaries
+    useDefaultFrame |= !useCustomFrame;
+
     // count how many framers we need
     int numFramers = useDefaultFrame ? 1 : 0;
     numFramers += useCustomFrame ? 1 : 0;
@@ -398,6 +463,11 @@ public class WindowFrameRecordBatch extends AbstractRecordBatch<WindowPOP> {
       }
       batches = null;
     }
+
+    if (spillManager.getSpillCount() > 0) {
+      logger.debug("window operator spilled {} batches", spillManager.getSpillCount());
+    }
+    spillManager.close();
   }
 
   @Override
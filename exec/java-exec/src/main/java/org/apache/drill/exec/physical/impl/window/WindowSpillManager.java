@@ -0,0 +1,108 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.window;
+
+import java.util.List;
+
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.physical.impl.xsort.SpillSet;
+
+/**
+ * Keeps the batches buffered by {@link WindowFrameRecordBatch} under a memory threshold by spilling them to the spill
+ * file system and reading them back when a framer accesses them again.
+ * <br>The first batch of the list (the one being processed) and the most recently accessed batch are never evicted,
+ * so the framers can always read the current batch and the batch they are scanning.
+ */
+public class WindowSpillManager implements AutoCloseable {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(WindowSpillManager.class);
+
+  private final SpillSet spillSet;
+  private final BufferAllocator allocator;
+  private final long memoryThreshold;
+  private final List<WindowDataBatch> batches;
+
+  private long clock;
+  private int spillCount;
+
+  public WindowSpillManager(final SpillSet spillSet, final BufferAllocator allocator, final long memoryThreshold,
+                            final List<WindowDataBatch> batches) {
+    this.spillSet = spillSet;
+    this.allocator = allocator;
+    this.memoryThreshold = memoryThreshold;
+    this.batches = batches;
+  }
+
+  /**
+   * @return number of times a batch was evicted from memory
+   */
+  public int getSpillCount() {
+    return spillCount;
+  }
+
+  /**
+   * marks the batch as most recently used, reading it back from disk if it was spilled
+   */
+  void access(final WindowDataBatch batch) {
+    batch.lastAccess = ++clock;
+    if (batch.isSpilled()) {
+      batch.load(spillSet);
+      makeRoom(batch);
+    }
+  }
+
+  /**
+   * spills least recently used batches until the allocated memory falls under the threshold, or only the batches
+   * that can't be evicted are left in memory
+   * @param keep batch that must stay in memory, in addition to the first batch
+   */
+  public void makeRoom(final WindowDataBatch keep) {
+    while (allocator.getAllocatedMemory() > memoryThreshold) {
+      WindowDataBatch victim = null;
+      for (int i = 1; i < batches.size(); i++) {
+        final WindowDataBatch candidate = batches.get(i);
+        if (candidate != keep && !candidate.isSpilled() && (victim == null || candidate.lastAccess < victim.lastAccess)) {
+          victim = candidate;
+        }
+      }
+      if (victim == null) {
+        return;
+      }
+      spill(victim);
+    }
+  }
+
+  private void spill(final WindowDataBatch batch) {
+    batch.spill(spillSet);
+    spillCount++;
+    logger.debug("spilled window batch with {} rows to {}", batch.getRecordCount(), batch.getSpillPath());
+  }
+
+  /**
+   * deletes the spill file of a batch that is no longer needed
+   */
+  void release(final WindowDataBatch batch) {
+    if (batch.getSpillPath() != null) {
+      spillSet.delete(batch.getSpillPath());
+    }
+  }
+
+  @Override
+  public void close() {
+    spillSet.close();
+  }
+}
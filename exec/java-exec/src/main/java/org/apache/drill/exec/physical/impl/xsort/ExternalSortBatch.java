@@ -102,6 +102,7 @@ public class ExternalSortBatch extends AbstractRecordBatch<ExternalSort> {
 
   private BatchSchema schema;
   private SingleBatchSorter sorter;
+  private NormalizedKeySorter keySorter;
   private SortRecordBatchBuilder builder;
   private MSorter mSorter;
   /**
@@ -345,6 +346,7 @@ public class ExternalSortBatch extends AbstractRecordBatch<ExternalSort> {
               b.setSchema(schema);
             }
             this.sorter = createNewSorter(context, convertedBatch);
+            this.keySorter = createNewKeySorter(convertedBatch);
           } else {
             convertedBatch = SchemaUtil.coerceContainer(incoming, schema, oContext);
           }
@@ -374,7 +376,12 @@ public class ExternalSortBatch extends AbstractRecordBatch<ExternalSort> {
           totalCount += count;
           totalBatches++;
           sorter.setup(context, sv2, convertedBatch);
-          sorter.sort(sv2);
+          if (keySorter != null) {
+            keySorter.setup(convertedBatch);
+            keySorter.sort(sv2, sorter);
+          } else {
+            sorter.sort(sv2);
+          }
           RecordBatchData rbd = new RecordBatchData(convertedBatch, oAllocator);
           boolean success = false;
           try {
@@ -723,6 +730,13 @@ public class ExternalSortBatch extends AbstractRecordBatch<ExternalSort> {
     return context.getImplementationClass(cg);
   }
 
+  private NormalizedKeySorter createNewKeySorter(VectorAccessible batch) {
+    if (!context.getOptions().getOption(ExecConstants.EXTERNAL_SORT_NORMALIZED_KEYS)) {
+      return null;
+    }
+    return NormalizedKeySorter.create(popConfig.getOrderings(), batch, context.getFunctionRegistry());
+  }
+
   private void generateComparisons(ClassGenerator<?> g, VectorAccessible batch) throws SchemaChangeException {
     g.setMappingSet(MAIN_MAPPING);
 
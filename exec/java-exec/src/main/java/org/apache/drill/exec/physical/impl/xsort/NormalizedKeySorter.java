@@ -0,0 +1,290 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.xsort;
+
+import io.netty.buffer.DrillBuf;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.calcite.rel.RelFieldCollation.Direction;
+import org.apache.drill.common.expression.ErrorCollector;
+import org.apache.drill.common.expression.ErrorCollectorImpl;
+import org.apache.drill.common.expression.LogicalExpression;
+import org.apache.drill.common.logical.data.Order.Ordering;
+import org.apache.drill.common.types.TypeProtos.DataMode;
+import org.apache.drill.common.types.TypeProtos.MajorType;
+import org.apache.drill.exec.expr.ExpressionTreeMaterializer;
+import org.apache.drill.exec.expr.ValueVectorReadExpression;
+import org.apache.drill.exec.expr.fn.FunctionImplementationRegistry;
+import org.apache.drill.exec.record.TypedFieldId;
+import org.apache.drill.exec.record.VectorAccessible;
+import org.apache.drill.exec.record.selection.SelectionVector2;
+import org.apache.drill.exec.vector.BaseDataValueVector;
+import org.apache.drill.exec.vector.NullableVector;
+import org.apache.drill.exec.vector.UInt4Vector;
+import org.apache.drill.exec.vector.ValueVector;
+import org.apache.drill.exec.vector.VarBinaryVector;
+import org.apache.drill.exec.vector.VarCharVector;
+
+/**
+ * Sorts a single batch by a normalized form of its leading sort key before
+ * falling back to the generated comparator.
+ *
+ * <p>The leading key is encoded into a 64-bit value whose unsigned order
+ * matches the ordering of the key (direction included), and the
+ * (key, row) pairs are sorted with an LSD radix sort. Nulls are partitioned
+ * to the front or back of the batch according to the null ordering. When the
+ * encoding is exact and there is only one sort key the result is final;
+ * otherwise each run of equal keys is handed to the {@link SingleBatchSorter}
+ * to break ties with the full comparison.</p>
+ *
+ * <p>Only plain top-level INT, TIME, BIGINT, DATE, TIMESTAMP, VARCHAR and
+ * VARBINARY columns are supported. Variable width values are encoded by their
+ * first eight bytes, which preserves the unsigned byte-wise order used by
+ * {@code compare_to} for those types.</p>
+ */
+public class NormalizedKeySorter {
+  static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(NormalizedKeySorter.class);
+
+  private static final int RADIX_BITS = 8;
+  private static final int RADIX = 1 << RADIX_BITS;
+  private static final int PASSES = Long.SIZE / RADIX_BITS;
+
+  private enum KeyType { INT, LONG, BYTES }
+
+  private final TypedFieldId fieldId;
+  private final KeyType keyType;
+  private final boolean nullable;
+  private final boolean descending;
+  private final boolean nullsLast;
+  private final boolean tieBreakRequired;
+
+  private ValueVector vector;
+  private DrillBuf values;
+  private UInt4Vector.Accessor offsets;
+
+  private long[] keys = new long[0];
+  private long[] keysScratch = new long[0];
+  private char[] rows = new char[0];
+  private char[] rowsScratch = new char[0];
+  private final int[][] histograms = new int[PASSES][RADIX];
+
+  private NormalizedKeySorter(TypedFieldId fieldId, KeyType keyType, boolean nullable, Ordering ordering,
+      boolean moreKeys) {
+    this.fieldId = fieldId;
+    this.keyType = keyType;
+    this.nullable = nullable;
+    this.descending = ordering.getDirection() == Direction.DESCENDING;
+    // the generated comparator negates the null comparison for descending keys
+    this.nullsLast = ordering.nullsSortHigh() != descending;
+    this.tieBreakRequired = moreKeys || keyType == KeyType.BYTES;
+  }
+
+  /**
+   * Returns a sorter for the leading ordering, or null if its expression is not
+   * a column of a supported type in the given batch.
+   */
+  public static NormalizedKeySorter create(List<Ordering> orderings, VectorAccessible batch,
+      FunctionImplementationRegistry registry) {
+    if (orderings.isEmpty()) {
+      return null;
+    }
+    final Ordering first = orderings.get(0);
+    final ErrorCollector collector = new ErrorCollectorImpl();
+    final LogicalExpression expr = ExpressionTreeMaterializer.materialize(first.getExpr(), batch, collector, registry);
+    if (collector.hasErrors() || !(expr instanceof ValueVectorReadExpression)) {
+      return null;
+    }
+    final ValueVectorReadExpression read = (ValueVectorReadExpression) expr;
+    final TypedFieldId id = read.getFieldId();
+    if (read.hasReadPath() || id.isHyperReader() || id.hasRemainder() || id.getFieldIds().length != 1) {
+      return null;
+    }
+    final MajorType type = id.getIntermediateType();
+    if (type.getMode() == DataMode.REPEATED) {
+      return null;
+    }
+    final KeyType keyType;
+    switch (type.getMinorType()) {
+    case INT:
+    case TIME:
+      keyType = KeyType.INT;
+      break;
+    case BIGINT:
+    case DATE:
+    case TIMESTAMP:
+      keyType = KeyType.LONG;
+      break;
+    case VARCHAR:
+    case VARBINARY:
+      keyType = KeyType.BYTES;
+      break;
+    default:
+      return null;
+    }
+    return new NormalizedKeySorter(id, keyType, type.getMode() == DataMode.OPTIONAL, first, orderings.size() > 1);
+  }
+
+  public void setup(VectorAccessible batch) {
+    vector = batch.getValueAccessorById(fieldId.getIntermediateClass(), fieldId.getFieldIds()).getValueVector();
+    final ValueVector valuesVector = nullable ? ((NullableVector) vector).getValuesVector() : vector;
+    values = ((BaseDataValueVector) valuesVector).getBuffer();
+    if (valuesVector instanceof VarCharVector) {
+      offsets = ((VarCharVector) valuesVector).getOffsetVector().getAccessor();
+    } else if (valuesVector instanceof VarBinaryVector) {
+      offsets = ((VarBinaryVector) valuesVector).getOffsetVector().getAccessor();
+    }
+  }
+
+  /**
+   * Sorts the given selection vector, using the generated sorter only to order
+   * rows whose normalized keys are equal.
+   */
+  public void sort(SelectionVector2 sv2, SingleBatchSorter tieBreaker) {
+    final int count = sv2.getCount();
+    ensureCapacity(count);
+
+    final ValueVector.Accessor accessor = vector.getAccessor();
+    int keyCount = 0;
+    int nullCount = 0;
+    for (int i = 0; i < count; i++) {
+      final char row = sv2.getIndex(i);
+      if (nullable && accessor.isNull(row)) {
+        rowsScratch[nullCount++] = row;
+      } else {
+        keys[keyCount] = normalize(row);
+        rows[keyCount++] = row;
+      }
+    }
+
+    final int keyStart = nullsLast ? 0 : nullCount;
+    final int nullStart = nullsLast ? keyCount : 0;
+    for (int i = 0; i < nullCount; i++) {
+      sv2.setIndex(nullStart + i, rowsScratch[i]);
+    }
+
+    radixSort(keyCount);
+    for (int i = 0; i < keyCount; i++) {
+      sv2.setIndex(keyStart + i, rows[i]);
+    }
+
+    if (!tieBreakRequired && nullCount <= 1) {
+      return;
+    }
+    if (tieBreakRequired) {
+      int runStart = 0;
+      for (int i = 1; i <= keyCount; i++) {
+        if (i == keyCount || keys[i] != keys[runStart]) {
+          if (i - runStart > 1) {
+            tieBreaker.sort(sv2, keyStart + runStart, keyStart + i);
+          }
+          runStart = i;
+        }
+      }
+    }
+    if (nullCount > 1) {
+      tieBreaker.sort(sv2, nullStart, nullStart + nullCount);
+    }
+  }
+
+  private long normalize(int row) {
+    final long key;
+    switch (keyType) {
+    case INT:
+      key = (values.getInt(row << 2) ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+      break;
+    case LONG:
+      key = values.getLong(row << 3) ^ Long.MIN_VALUE;
+      break;
+    default:
+      final int start = offsets.get(row);
+      final int length = offsets.get(row + 1) - start;
+      if (length >= 8) {
+        key = Long.reverseBytes(values.getLong(start));
+      } else {
+        long prefix = 0;
+        for (int i = 0; i < length; i++) {
+          prefix |= (values.getByte(start + i) & 0xFFL) << (56 - (i << 3));
+        }
+        key = prefix;
+      }
+    }
+    return descending ? ~key : key;
+  }
+
+  /**
+   * LSD radix sort of the first {@code count} keys by unsigned value, carrying
+   * the row indexes along. Digits that are identical for every key are skipped.
+   */
+  private void radixSort(int count) {
+    for (int[] histogram : histograms) {
+      Arrays.fill(histogram, 0);
+    }
+    for (int i = 0; i < count; i++) {
+      final long key = keys[i];
+      for (int pass = 0; pass < PASSES; pass++) {
+        histograms[pass][(int) (key >>> (pass * RADIX_BITS)) & (RADIX - 1)]++;
+      }
+    }
+
+    long[] srcKeys = keys;
+    long[] dstKeys = keysScratch;
+    char[] srcRows = rows;
+    char[] dstRows = rowsScratch;
+    for (int pass = 0; pass < PASSES; pass++) {
+      final int[] histogram = histograms[pass];
+      final int shift = pass * RADIX_BITS;
+      if (count == 0 || histogram[(int) (srcKeys[0] >>> shift) & (RADIX - 1)] == count) {
+        continue;
+      }
+      int offset = 0;
+      for (int digit = 0; digit < RADIX; digit++) {
+        final int digitCount = histogram[digit];
+        histogram[digit] = offset;
+        offset += digitCount;
+      }
+      for (int i = 0; i < count; i++) {
+        final long key = srcKeys[i];
+        final int target = histogram[(int) (key >>> shift) & (RADIX - 1)]++;
+        dstKeys[target] = key;
+        dstRows[target] = srcRows[i];
+      }
+      final long[] tmpKeys = srcKeys;
+      srcKeys = dstKeys;
+      dstKeys = tmpKeys;
+      final char[] tmpRows = srcRows;
+      srcRows = dstRows;
+      dstRows = tmpRows;
+    }
+
+    if (srcKeys != keys) {
+      System.arraycopy(srcKeys, 0, keys, 0, count);
+      System.arraycopy(srcRows, 0, rows, 0, count);
+    }
+  }
+
+  private void ensureCapacity(int count) {
+    if (keys.length < count) {
+      keys = new long[count];
+      keysScratch = new long[count];
+      rows = new char[count];
+      rowsScratch = new char[count];
+    }
+  }
+}
@@ -57,6 +57,11 @@ public abstract class SingleBatchSorterTemplate implements SingleBatchSorter, In
     logger.debug("Took {} us to sort {} records", watch.elapsed(TimeUnit.MICROSECONDS), vector2.getCount());
   }
 
+  @Override
+  public void sort(SelectionVector2 vector2, int start, int end) {
+    new QuickSort().sort(this, start, end);
+  }
+
   @Override
   public void swap(int sv0, int sv1) {
     char tmp = vector2.getIndex(sv0);
@@ -0,0 +1,161 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.xsort;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.common.exceptions.UserException;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.cache.VectorAccessibleSerializable;
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.physical.base.PhysicalOperator;
+import org.apache.drill.exec.proto.ExecProtos.FragmentHandle;
+import org.apache.drill.exec.proto.helper.QueryIdHelper;
+import org.apache.drill.exec.record.VectorContainer;
+import org.apache.drill.exec.record.VectorWrapper;
+import org.apache.drill.exec.record.WritableBatch;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import com.google.common.base.Joiner;
+
+/**
+ * Spill files of an operator that writes single batches to the spill file system and reads them back into the same
+ * vectors, as the window, merge join and nested loop join operators do for the batches they have to hold on to.
+ * <br>Like the files of {@link ExternalSortBatch}, they go to a directory named after the query, fragment and
+ * operator on the file system and in one of the directories given by the external sort spill options. The file system
+ * is only opened and the directory only created once the first batch is spilled; closing the set deletes the directory.
+ */
+public class SpillSet implements AutoCloseable {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(SpillSet.class);
+
+  private final DrillConfig config;
+  private final BufferAllocator allocator;
+  private final Path spillDir;
+
+  private FileSystem fs;
+  private int fileCount;
+
+  /**
+   * @param context fragment of the operator
+   * @param allocator allocator of the operator, which owns the vectors read back
+   * @param popConfig the spilling operator
+   * @param operatorName suffix of the spill directory telling the kind of operator
+   */
+  public SpillSet(FragmentContext context, BufferAllocator allocator, PhysicalOperator popConfig, String operatorName) {
+    this.config = context.getConfig();
+    this.allocator = allocator;
+    final List<String> dirs = config.getStringList(ExecConstants.EXTERNAL_SORT_SPILL_DIRS);
+    final FragmentHandle handle = context.getHandle();
+    final String dirName = String.format("%s_majorfragment%s_minorfragment%s_operator%s_%s",
+        QueryIdHelper.getQueryId(handle.getQueryId()), handle.getMajorFragmentId(), handle.getMinorFragmentId(),
+        popConfig.getOperatorId(), operatorName);
+    spillDir = new Path(Joiner.on("/").join(dirs.get(handle.getMinorFragmentId() % dirs.size()), dirName));
+  }
+
+  /**
+   * @return number of spill files written
+   */
+  public int getFileCount() {
+    return fileCount;
+  }
+
+  /**
+   * Writes a batch to a new spill file. The vectors of the batch are left as they are; the caller releases them.
+   * @return path of the spill file, to read the batch back from
+   */
+  public Path spill(Iterable<VectorWrapper<?>> batch, int recordCount) {
+    Path path = null;
+    try {
+      if (fs == null) {
+        final Configuration conf = new Configuration();
+        conf.set("fs.default.name", config.getString(ExecConstants.EXTERNAL_SORT_SPILL_FILESYSTEM));
+        fs = FileSystem.get(conf);
+      }
+      if (fileCount == 0) {
+        fs.deleteOnExit(spillDir);
+      }
+      path = new Path(spillDir, Integer.toString(fileCount++));
+      final WritableBatch writableBatch = WritableBatch.getBatchNoHVWrap(recordCount, batch, false);
+      final VectorAccessibleSerializable serializable = new VectorAccessibleSerializable(writableBatch, allocator);
+      try (FSDataOutputStream output = fs.create(path)) {
+        serializable.writeToStream(output);
+      }
+    } catch (IOException e) {
+      throw UserException.resourceError(e)
+        .message("Failed to spill a record batch to %s", path != null ? path : spillDir)
+        .build(logger);
+    }
+    return path;
+  }
+
+  /**
+   * Reads a spilled batch back into the vectors of the given batch, which must have the schema it was spilled with.
+   * The spill file is kept, so an unchanged batch can be released again without being rewritten.
+   */
+  public void load(Path path, Iterable<VectorWrapper<?>> batch) {
+    final VectorAccessibleSerializable serializable = new VectorAccessibleSerializable(allocator);
+    try (FSDataInputStream input = fs.open(path)) {
+      serializable.readFromStream(input);
+    } catch (IOException e) {
+      throw UserException.dataReadError(e)
+        .message("Failed to read back a spilled record batch from %s", path)
+        .build(logger);
+    }
+    final VectorContainer loaded = serializable.get();
+    final Iterator<VectorWrapper<?>> source = loaded.iterator();
+    for (VectorWrapper<?> w : batch) {
+      source.next().getValueVector().makeTransferPair(w.getValueVector()).transfer();
+    }
+    loaded.zeroVectors();
+  }
+
+  /**
+   * Deletes the spill file of a batch that is no longer needed.
+   */
+  public void delete(Path path) {
+    try {
+      fs.delete(path, false);
+    } catch (IOException e) {
+      logger.warn("Unable to delete spill file {}", path, e);
+    }
+  }
+
+  @Override
+  public void close() {
+    if (fileCount == 0) {
+      return;
+    }
+    try {
+      if (fs.exists(spillDir) && fs.delete(spillDir, true)) {
+        fs.cancelDeleteOnExit(spillDir);
+      }
+    } catch (IOException e) {
+      // since this is meant to be used in a batch's cleanup, we don't propagate the exception
+      logger.warn("Unable to delete spill directory {}", spillDir, e);
+    }
+    fileCount = 0;
+  }
+}
@@ -23,6 +23,7 @@ import java.util.List;
 import org.apache.calcite.linq4j.Ord;
 
 import org.apache.drill.exec.physical.base.PhysicalOperator;
+import org.apache.drill.exec.physical.config.HashPartitionSender.SkewMode;
 import org.apache.drill.exec.physical.config.HashToRandomExchange;
 import org.apache.drill.exec.planner.cost.DrillCostBase;
 import org.apache.drill.exec.planner.cost.DrillCostBase.DrillCostFactory;
@@ -41,10 +42,19 @@ public class HashToRandomExchangePrel extends ExchangePrel {
 
 
   private final List<DistributionField> fields;
+  private final SkewMode skewMode;
+  private final int skewFanout;
 
   public HashToRandomExchangePrel(RelOptCluster cluster, RelTraitSet traitSet, RelNode input, List<DistributionField> fields) {
+    this(cluster, traitSet, input, fields, SkewMode.NONE, 1);
+  }
+
+  public HashToRandomExchangePrel(RelOptCluster cluster, RelTraitSet traitSet, RelNode input, List<DistributionField> fields,
+                                  SkewMode skewMode, int skewFanout) {
     super(cluster, traitSet, input);
     this.fields = fields;
+    this.skewMode = skewMode;
+    this.skewFanout = skewFanout;
     assert input.getConvention() == Prel.DRILL_PHYSICAL;
   }
 
@@ -82,7 +92,7 @@ public class HashToRandomExchangePrel extends ExchangePrel {
 
   @Override
   public RelNode copy(RelTraitSet traitSet, List<RelNode> inputs) {
-    return new HashToRandomExchangePrel(getCluster(), traitSet, sole(inputs), fields);
+    return new HashToRandomExchangePrel(getCluster(), traitSet, sole(inputs), fields, skewMode, skewFanout);
   }
 
   public PhysicalOperator getPhysicalOperator(PhysicalPlanCreator creator) throws IOException {
@@ -95,7 +105,8 @@ public class HashToRandomExchangePrel extends ExchangePrel {
     }
 
     // TODO - refactor to different exchange name
-    HashToRandomExchange g = new HashToRandomExchange(childPOP, HashPrelUtil.getHashExpression(this.fields, getInput().getRowType()));
+    HashToRandomExchange g = new HashToRandomExchange(childPOP, HashPrelUtil.getHashExpression(this.fields, getInput().getRowType()),
+        skewMode, skewFanout);
     return creator.addMetadata(this, g);
   }
 
@@ -103,12 +114,21 @@ public class HashToRandomExchangePrel extends ExchangePrel {
     return this.fields;
   }
 
+  public SkewMode getSkewMode() {
+    return skewMode;
+  }
+
+  public int getSkewFanout() {
+    return skewFanout;
+  }
+
   @Override
   public RelWriter explainTerms(RelWriter pw) {
     super.explainTerms(pw);
       for (Ord<DistributionField> ord : Ord.zip(fields)) {
         pw.item("dist" + ord.i, ord.e);
       }
+    pw.itemIf("skew", skewMode + "(" + skewFanout + ")", skewMode != SkewMode.NONE);
     return pw;
   }
 
@@ -244,7 +244,8 @@ public abstract class JoinPruleBase extends Prule {
         call.transformTo(new HashJoinPrel(join.getCluster(), convertedLeft.getTraitSet(), convertedLeft, convertedRight, joinCondition,
             join.getJoinType()));
       } else if (physicalJoinType == PhysicalJoinType.NESTEDLOOP_JOIN) {
-        if (joinCondition.isAlwaysTrue()) {
+        // inner joins evaluate the condition while pairing the records, other joins filter the cross product
+        if (joinCondition.isAlwaysTrue() || join.getJoinType() == JoinRelType.INNER) {
           call.transformTo(new NestedLoopJoinPrel(join.getCluster(), convertedLeft.getTraitSet(), convertedLeft, convertedRight, joinCondition,
             join.getJoinType()));
         } else {
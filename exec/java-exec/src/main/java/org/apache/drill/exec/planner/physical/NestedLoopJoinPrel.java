@@ -20,15 +20,19 @@ package org.apache.drill.exec.planner.physical;
 import java.io.IOException;
 import java.util.List;
 
+import org.apache.drill.common.expression.LogicalExpression;
 import org.apache.drill.common.logical.data.JoinCondition;
 import org.apache.drill.exec.physical.base.PhysicalOperator;
 import org.apache.drill.exec.physical.config.NestedLoopJoinPOP;
 import org.apache.drill.exec.planner.cost.DrillCostBase;
 import org.apache.drill.exec.planner.cost.DrillCostBase.DrillCostFactory;
+import org.apache.drill.exec.planner.logical.DrillOptiq;
+import org.apache.drill.exec.planner.logical.DrillParseContext;
 import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
 import org.apache.calcite.rel.InvalidRelException;
 import org.apache.calcite.rel.core.Join;
 import org.apache.calcite.rel.core.JoinRelType;
+import org.apache.calcite.rel.metadata.RelMdUtil;
 import org.apache.calcite.rel.metadata.RelMetadataQuery;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rex.RexNode;
@@ -59,7 +63,7 @@ public class NestedLoopJoinPrel  extends JoinPrel {
 
   @Override
   public double getRows() {
-    return this.getLeft().getRows() * this.getRight().getRows();
+    return this.getLeft().getRows() * this.getRight().getRows() * RelMdUtil.guessSelectivity(getCondition());
   }
 
   @Override
@@ -71,8 +75,8 @@ public class NestedLoopJoinPrel  extends JoinPrel {
     double rightRowCount = RelMetadataQuery.getRowCount(this.getRight());
     double nljFactor = PrelUtil.getSettings(getCluster()).getNestedLoopJoinFactor();
 
-    // cpu cost of evaluating each leftkey=rightkey join condition
-    double joinConditionCost = DrillCostBase.COMPARE_CPU_COST * this.getLeftKeys().size();
+    // cpu cost of evaluating each conjunct of the join condition, the join evaluates the non equality ones as well
+    double joinConditionCost = DrillCostBase.COMPARE_CPU_COST * RelOptUtil.conjunctions(getCondition()).size();
 
     double cpuCost = joinConditionCost * (leftRowCount * rightRowCount) * nljFactor;
 
@@ -94,10 +98,17 @@ public class NestedLoopJoinPrel  extends JoinPrel {
     JoinRelType jtype = this.getJoinType();
 
     List<JoinCondition> conditions = Lists.newArrayList();
+    LogicalExpression condition = null;
+
+    if (!getCondition().isAlwaysTrue()) {
+      // the whole condition is evaluated by the join, the equality conditions are only listed when there is nothing else
+      if (RelOptUtil.conjunctions(getCondition()).size() == leftKeys.size()) {
+        buildJoinConditions(conditions, leftFields, rightFields, leftKeys, rightKeys);
+      }
+      condition = DrillOptiq.toDrill(new DrillParseContext(PrelUtil.getSettings(getCluster())), this, getCondition());
+    }
 
-    buildJoinConditions(conditions, leftFields, rightFields, leftKeys, rightKeys);
-
-    NestedLoopJoinPOP nljoin = new NestedLoopJoinPOP(leftPop, rightPop, conditions, jtype);
+    NestedLoopJoinPOP nljoin = new NestedLoopJoinPOP(leftPop, rightPop, conditions, jtype, condition);
     return creator.addMetadata(this, nljoin);
   }
 
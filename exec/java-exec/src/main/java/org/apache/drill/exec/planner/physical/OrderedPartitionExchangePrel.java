@@ -20,10 +20,13 @@ package org.apache.drill.exec.planner.physical;
 import java.io.IOException;
 import java.util.List;
 
+import org.apache.drill.common.expression.FieldReference;
 import org.apache.drill.exec.physical.base.PhysicalOperator;
+import org.apache.drill.exec.physical.config.OrderedPartitionExchange;
 import org.apache.drill.exec.planner.cost.DrillCostBase;
 import org.apache.drill.exec.planner.cost.DrillCostBase.DrillCostFactory;
 import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
+import org.apache.calcite.rel.RelCollation;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.metadata.RelMetadataQuery;
 import org.apache.calcite.plan.RelOptCluster;
@@ -31,10 +34,25 @@ import org.apache.calcite.plan.RelOptCost;
 import org.apache.calcite.plan.RelOptPlanner;
 import org.apache.calcite.plan.RelTraitSet;
 
+/**
+ * Range partitions its input on the given collation. The boundaries of the ranges are sampled at execution time, and
+ * receiver i gets the i-th range, so sorting each receiver's input locally gives the sorted ranges of the whole input.
+ * The sending side adds a column holding the range of each record, named {@link #PARTITION_FIELD}, which the receiving
+ * side sees in addition to the columns of the input.
+ */
 public class OrderedPartitionExchangePrel extends ExchangePrel {
 
+  public static final String PARTITION_FIELD = "E_X_P_R_R_A_N_G_E_F_I_E_L_D";
+
+  private final RelCollation collation;
+
   public OrderedPartitionExchangePrel(RelOptCluster cluster, RelTraitSet traitSet, RelNode input) {
+    this(cluster, traitSet, input, null);
+  }
+
+  public OrderedPartitionExchangePrel(RelOptCluster cluster, RelTraitSet traitSet, RelNode input, RelCollation collation) {
     super(cluster, traitSet, input);
+    this.collation = collation;
     assert input.getConvention() == Prel.DRILL_PHYSICAL;
   }
 
@@ -57,11 +75,24 @@ public class OrderedPartitionExchangePrel extends ExchangePrel {
 
   @Override
   public RelNode copy(RelTraitSet traitSet, List<RelNode> inputs) {
-    return new OrderedPartitionExchangePrel(getCluster(), traitSet, sole(inputs));
+    return new OrderedPartitionExchangePrel(getCluster(), traitSet, sole(inputs), collation);
   }
 
   public PhysicalOperator getPhysicalOperator(PhysicalPlanCreator creator) throws IOException {
-    throw new IOException(this.getClass().getSimpleName() + " not supported yet!");
+    if (collation == null) {
+      throw new IOException(this.getClass().getSimpleName() + " without a collation not supported yet!");
+    }
+    Prel child = (Prel) this.getInput();
+
+    PhysicalOperator childPOP = child.getPhysicalOperator(creator);
+
+    OrderedPartitionExchange g = new OrderedPartitionExchange(PrelUtil.getOrdering(collation, getInput().getRowType()),
+        new FieldReference(PARTITION_FIELD), childPOP, null, null, null);
+    return creator.addMetadata(this, g);
+  }
+
+  public RelCollation getCollation() {
+    return collation;
   }
 
   @Override
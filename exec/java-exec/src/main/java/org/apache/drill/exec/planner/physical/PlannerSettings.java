@@ -73,6 +73,9 @@ public class PlannerSettings implements Context{
   public static final OptionValidator PRODUCER_CONSUMER_QUEUE_SIZE = new LongValidator("planner.producer_consumer_queue_size", 10);
   public static final OptionValidator HASH_SINGLE_KEY = new BooleanValidator("planner.enable_hash_single_key", true);
   public static final OptionValidator HASH_JOIN_SWAP = new BooleanValidator("planner.enable_hashjoin_swap", true);
+  public static final OptionValidator HASH_JOIN_SKEW = new BooleanValidator("planner.enable_hashjoin_skew_handling", false);
+  public static final OptionValidator HASH_JOIN_SKEW_FANOUT = new PositiveLongValidator("planner.hashjoin_skew_fanout", 1024, 4);
+  public static final OptionValidator RANGE_PARTITIONED_SORT = new BooleanValidator("planner.enable_range_partitioned_sort", false);
   public static final OptionValidator HASH_JOIN_SWAP_MARGIN_FACTOR = new RangeDoubleValidator("planner.join.hash_join_swap_margin_factor", 0, 100, 10d);
   public static final String ENABLE_DECIMAL_DATA_TYPE_KEY = "planner.enable_decimal_data_type";
   public static final OptionValidator ENABLE_DECIMAL_DATA_TYPE = new BooleanValidator(ENABLE_DECIMAL_DATA_TYPE_KEY, false);
@@ -189,6 +192,18 @@ public class PlannerSettings implements Context{
     return options.getOption(HASH_JOIN_SWAP.getOptionName()).bool_val;
   }
 
+  public boolean isHashJoinSkewHandlingEnabled() {
+    return options.getOption(HASH_JOIN_SKEW.getOptionName()).bool_val;
+  }
+
+  public int getHashJoinSkewFanout() {
+    return options.getOption(HASH_JOIN_SKEW_FANOUT.getOptionName()).num_val.intValue();
+  }
+
+  public boolean isRangePartitionedSortEnabled() {
+    return options.getOption(RANGE_PARTITIONED_SORT.getOptionName()).bool_val;
+  }
+
   public boolean isHepPartitionPruningEnabled() { return options.getOption(HEP_PARTITION_PRUNING.getOptionName()).bool_val;}
 
   public boolean isHepOptEnabled() { return options.getOption(HEP_OPT.getOptionName()).bool_val;}
@@ -19,12 +19,17 @@ package org.apache.drill.exec.planner.physical;
 
 import java.util.List;
 
+import org.apache.drill.exec.planner.StarColumnHelper;
 import org.apache.drill.exec.planner.logical.DrillRel;
 import org.apache.drill.exec.planner.logical.DrillSortRel;
 import org.apache.drill.exec.planner.logical.RelOptHelper;
 import org.apache.drill.exec.planner.physical.DrillDistributionTrait.DistributionField;
+import org.apache.calcite.rel.RelCollation;
+import org.apache.calcite.rel.RelCollations;
 import org.apache.calcite.rel.RelFieldCollation;
 import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexNode;
 import org.apache.calcite.plan.RelOptRule;
 import org.apache.calcite.plan.RelOptRuleCall;
 import org.apache.calcite.plan.RelTraitSet;
@@ -37,6 +42,9 @@ import com.google.common.collect.Lists;
  * Rule that converts a logical {@link DrillSortRel} to a physical sort.  Convert from Logical Sort into Physical Sort.
  * For Logical Sort, it requires one single data stream as the output.
  *
+ * When range partitioned sorts are enabled, the input is range partitioned on the sort keys and each range is sorted
+ * in parallel. The final merge then only has to concatenate disjoint sorted ranges.
+ *
  */
 public class SortPrule extends Prule{
   public static final RelOptRule INSTANCE = new SortPrule();
@@ -61,6 +69,11 @@ public class SortPrule extends Prule{
 
     if(isSingleMode(call)){
       call.transformTo(convertedInput);
+    }else if (PrelUtil.getPlannerSettings(call.getPlanner()).isRangePartitionedSortEnabled()
+        && !StarColumnHelper.containsStarColumn(sort.getRowType())) {
+      // the project that removes the range column is resolved by name, so this is not done when the input still has a
+      // star column that would expand to the range column as well.
+      call.transformTo(convertToRangePartitionedSort(sort, input));
     }else{
       RelNode exch = new SingleMergeExchangePrel(sort.getCluster(), sort.getTraitSet().plus(Prel.DRILL_PHYSICAL).plus(DrillDistributionTrait.SINGLETON), convertedInput, sort.getCollation());
       call.transformTo(exch);  // transform logical "sort" into "SingleMergeExchange".
@@ -69,6 +82,31 @@ public class SortPrule extends Prule{
 
   }
 
+  /**
+   * Range partitions the input on the sort keys, sorts each range locally and merges the sorted ranges. The range
+   * column added by the exchange is projected away before the merge.
+   */
+  private RelNode convertToRangePartitionedSort(DrillSortRel sort, RelNode input) {
+    final RelCollation collation = sort.getCollation();
+    final DrillDistributionTrait rangeDistribution =
+        new DrillDistributionTrait(DrillDistributionTrait.DistributionType.RANGE_DISTRIBUTED, ImmutableList.copyOf(getDistributionField(sort)));
+
+    final RelNode convertedInput = convert(input, input.getTraitSet().plus(Prel.DRILL_PHYSICAL));
+    final RelTraitSet rangeTraits = sort.getTraitSet().plus(Prel.DRILL_PHYSICAL).plus(rangeDistribution);
+
+    final RelNode exch = new OrderedPartitionExchangePrel(sort.getCluster(), rangeTraits.replace(RelCollations.EMPTY),
+        convertedInput, collation);
+    final RelNode localSort = new SortPrel(sort.getCluster(), rangeTraits, exch, collation);
+
+    final List<RexNode> exprs = Lists.newArrayList();
+    for (int i = 0; i < localSort.getRowType().getFieldCount(); i++) {
+      exprs.add(RexInputRef.of(i, localSort.getRowType()));
+    }
+    final RelNode project = new ProjectPrel(sort.getCluster(), rangeTraits, localSort, exprs, localSort.getRowType());
+
+    return new SingleMergeExchangePrel(sort.getCluster(), sort.getTraitSet().plus(Prel.DRILL_PHYSICAL).plus(DrillDistributionTrait.SINGLETON), project, collation);
+  }
+
   private List<DistributionField> getDistributionField(DrillSortRel rel) {
     List<DistributionField> distFields = Lists.newArrayList();
 
@@ -42,7 +42,10 @@ import org.apache.calcite.rel.RelFieldCollation;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.plan.RelOptCluster;
 import org.apache.calcite.plan.RelTraitSet;
+import org.apache.calcite.rex.RexInputRef;
 import org.apache.calcite.rex.RexLiteral;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexWindowBound;
 import org.apache.calcite.util.BitSets;
 
 import java.io.IOException;
@@ -106,13 +109,30 @@ public class WindowPrel extends DrillWindowRelBase implements Prel {
         aggs,
         orderings,
         window.isRows,
-        WindowPOP.newBound(window.lowerBound),
-        WindowPOP.newBound(window.upperBound));
+        newBound(window.lowerBound, childFields),
+        newBound(window.upperBound, childFields));
 
     creator.addMetadata(this, windowPOP);
     return windowPOP;
   }
 
+  /**
+   * Creates the bound of the physical window, resolving the offset of {@code <n> PRECEDING} and
+   * {@code <n> FOLLOWING} bounds from the window constants.
+   */
+  private WindowPOP.Bound newBound(RexWindowBound bound, List<String> fn) {
+    if (bound.isUnbounded() || bound.isCurrentRow()) {
+      return WindowPOP.newBound(bound);
+    }
+
+    RexNode offset = bound.getOffset();
+    if (offset instanceof RexInputRef) {
+      offset = constants.get(((RexInputRef) offset).getIndex() - fn.size());
+    }
+    final long value = ((Number) ((RexLiteral) offset).getValue()).longValue();
+    return new WindowPOP.Bound(false, bound.isPreceding() ? -value : value);
+  }
+
   protected LogicalExpression toDrill(AggregateCall call, List<String> fn) {
     DrillParseContext context = new DrillParseContext(PrelUtil.getSettings(getCluster()));
 
@@ -0,0 +1,152 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.planner.physical.visitor;
+
+import java.util.List;
+
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.JoinRelType;
+import org.apache.calcite.rel.metadata.RelMetadataQuery;
+import org.apache.drill.exec.physical.config.HashPartitionSender.SkewMode;
+import org.apache.drill.exec.planner.physical.ExchangePrel;
+import org.apache.drill.exec.planner.physical.FilterPrel;
+import org.apache.drill.exec.planner.physical.HashJoinPrel;
+import org.apache.drill.exec.planner.physical.HashToRandomExchangePrel;
+import org.apache.drill.exec.planner.physical.JoinPrel;
+import org.apache.drill.exec.planner.physical.LimitPrel;
+import org.apache.drill.exec.planner.physical.Prel;
+import org.apache.drill.exec.planner.physical.ProjectPrel;
+import org.apache.drill.exec.planner.physical.ScreenPrel;
+import org.apache.drill.exec.planner.physical.SelectionVectorRemoverPrel;
+import org.apache.drill.exec.planner.physical.SortPrel;
+import org.apache.drill.exec.planner.physical.TopNPrel;
+import org.apache.drill.exec.planner.physical.WriterPrel;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Marks the hash exchanges feeding both sides of a hash join so that keys that turn out to be much more frequent than
+ * others on the probe side don't all land on a single receiver. The probe side sender spreads the records of its
+ * heavy hitters over a group of receivers, and the build side sender replicates every record to that group so that
+ * each probe record still meets all of its matches.
+ *
+ * Only inner and left joins are handled: the build side records are replicated, so a join that emits unmatched build
+ * records would emit them more than once.
+ *
+ * The build side sender can't know which keys the probe side finds frequent, so it replicates all of its records and
+ * every receiver builds a hash table of fan-out times its share of the build side. Like the build side of a broadcast
+ * join, the replicated records are therefore bounded by planner.broadcast_threshold: a join whose build side would
+ * exceed it once replicated is left alone.
+ *
+ * A rewritten join's output is no longer hash distributed on the join keys, since the records of a key now come out of
+ * several fragments. A join is therefore only rewritten when no operator between it and the next exchange above it
+ * relies on its distribution, as an aggregate or another join on the same keys would. The visitor passes down whether
+ * the operators above depend on the distribution of their input.
+ */
+public class SkewedJoinExchangeVisitor extends BasePrelVisitor<Prel, Boolean, RuntimeException> {
+
+  private final int fanout;
+  private final long broadcastThreshold;
+
+  public static Prel markSkewedJoinExchanges(Prel prel, int fanout, long broadcastThreshold) {
+    if (fanout <= 1) {
+      return prel;
+    }
+    return prel.accept(new SkewedJoinExchangeVisitor(fanout, broadcastThreshold), false);
+  }
+
+  private SkewedJoinExchangeVisitor(int fanout, long broadcastThreshold) {
+    this.fanout = fanout;
+    this.broadcastThreshold = broadcastThreshold;
+  }
+
+  @Override
+  public Prel visitPrel(Prel prel, Boolean distributionNeeded) throws RuntimeException {
+    final boolean childDistributionNeeded = dependsOnDistribution(prel, distributionNeeded);
+    List<RelNode> children = Lists.newArrayList();
+    for (Prel child : prel) {
+      children.add(child.accept(this, childDistributionNeeded));
+    }
+    return (Prel) prel.copy(prel.getTraitSet(), children);
+  }
+
+  @Override
+  public Prel visitJoin(JoinPrel prel, Boolean distributionNeeded) throws RuntimeException {
+    final JoinPrel newJoin = (JoinPrel) visitPrel(prel, distributionNeeded);
+    if (distributionNeeded || !(newJoin instanceof HashJoinPrel)) {
+      return newJoin;
+    }
+
+    // a swapped hash join builds its hash table on the left input
+    final boolean swapped = ((HashJoinPrel) newJoin).isSwapped();
+    final JoinRelType joinType = newJoin.getJoinType();
+    if (!(joinType == JoinRelType.INNER || (joinType == JoinRelType.LEFT && !swapped))) {
+      return newJoin;
+    }
+
+    final Prel probe = (Prel) (swapped ? newJoin.getRight() : newJoin.getLeft());
+    final Prel build = (Prel) (swapped ? newJoin.getLeft() : newJoin.getRight());
+    if (RelMetadataQuery.getRowCount(build) * fanout >= broadcastThreshold) {
+      return newJoin;
+    }
+    final Prel newProbe = markExchange(probe, SkewMode.SPREAD);
+    final Prel newBuild = markExchange(build, SkewMode.REPLICATE);
+    if (newProbe == null || newBuild == null) {
+      return newJoin;
+    }
+
+    final List<RelNode> children = swapped ? Lists.<RelNode>newArrayList(newBuild, newProbe)
+        : Lists.<RelNode>newArrayList(newProbe, newBuild);
+    return (Prel) newJoin.copy(newJoin.getTraitSet(), children);
+  }
+
+  /**
+   * Returns whether the input of the given operator has to keep its distribution, given whether the operators above
+   * depend on the distribution of the operator. Exchanges redistribute their input, and the listed operators work
+   * on any distribution and pass it on unchanged; every other operator, such as an aggregate, a join or a window,
+   * may rely on its input being distributed on its keys.
+   */
+  private static boolean dependsOnDistribution(Prel prel, boolean distributionNeeded) {
+    if (prel instanceof ExchangePrel) {
+      return false;
+    }
+    if (prel instanceof ProjectPrel || prel instanceof FilterPrel || prel instanceof SelectionVectorRemoverPrel
+        || prel instanceof LimitPrel || prel instanceof SortPrel || prel instanceof TopNPrel
+        || prel instanceof ScreenPrel || prel instanceof WriterPrel) {
+      return distributionNeeded;
+    }
+    return true;
+  }
+
+  /**
+   * Finds the hash exchange distributing the given join input, looking through projects, and returns the input with
+   * the exchange set to the given skew mode. Returns null when the input isn't hash distributed by an exchange.
+   */
+  private Prel markExchange(Prel input, SkewMode mode) {
+    if (input instanceof HashToRandomExchangePrel) {
+      final HashToRandomExchangePrel exchange = (HashToRandomExchangePrel) input;
+      return new HashToRandomExchangePrel(exchange.getCluster(), exchange.getTraitSet(), exchange.getInput(),
+          exchange.getFields(), mode, fanout);
+    }
+    if (input instanceof ProjectPrel) {
+      final Prel child = markExchange((Prel) ((ProjectPrel) input).getInput(), mode);
+      return child == null ? null : (Prel) input.copy(input.getTraitSet(), Lists.<RelNode>newArrayList(child));
+    }
+    return null;
+  }
+}
@@ -87,6 +87,7 @@ import org.apache.drill.exec.planner.physical.visitor.MemoryEstimationVisitor;
 import org.apache.drill.exec.planner.physical.visitor.RelUniqifier;
 import org.apache.drill.exec.planner.physical.visitor.RewriteProjectToFlatten;
 import org.apache.drill.exec.planner.physical.visitor.SelectionVectorPrelVisitor;
+import org.apache.drill.exec.planner.physical.visitor.SkewedJoinExchangeVisitor;
 import org.apache.drill.exec.planner.physical.visitor.SplitUpComplexExpressions;
 import org.apache.drill.exec.planner.physical.visitor.StarColumnConverter;
 import org.apache.drill.exec.planner.physical.visitor.SwapHashJoinVisitor;
@@ -542,6 +543,15 @@ public class DefaultSqlHandler extends AbstractSqlHandler {
      */
     phyRelNode = InsertLocalExchangeVisitor.insertLocalExchanges(phyRelNode, queryOptions);
 
+    /* 6.1)
+     * Let the hash exchanges below hash joins spread the probe side's heavy hitters across receivers
+     */
+    if (context.getPlannerSettings().isHashJoinSkewHandlingEnabled()) {
+      phyRelNode = SkewedJoinExchangeVisitor.markSkewedJoinExchanges(phyRelNode,
+          context.getPlannerSettings().getHashJoinSkewFanout(),
+          context.getPlannerSettings().getBroadcastThreshold());
+    }
+
 
     /* 7.)
      * Next, we add any required selection vector removers given the supported encodings of each
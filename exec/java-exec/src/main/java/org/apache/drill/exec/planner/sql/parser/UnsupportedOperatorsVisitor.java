@@ -204,6 +204,14 @@ public class UnsupportedOperatorsVisitor extends SqlShuttle {
         isSupported = true;
       }
 
+      // ROWS BETWEEN <n> PRECEDING AND CURRENT ROW
+      // is supported for aggregate functions with and without the ORDER BY clause
+      if (window.isRows()
+          && isBoundedPreceding(lowerBound)
+          && (upperBound == null || SqlWindow.isCurrentRow(upperBound))) {
+        isSupported = true;
+      }
+
       // RANGE BETWEEN CURRENT ROW AND CURRENT ROW
       // is supported with and without an ORDER BY clause
       if (!window.isRows() &&
@@ -555,4 +563,13 @@ public class UnsupportedOperatorsVisitor extends SqlShuttle {
       }
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * @return true if the frame bound is {@code <n> PRECEDING} with a numeric literal offset
+   */
+  private static boolean isBoundedPreceding(SqlNode bound) {
+    return bound != null
+        && bound.getKind() == SqlKind.PRECEDING
+        && ((SqlCall) bound).operand(0) instanceof SqlNumericLiteral;
+  }
+}
@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.record;
+
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.server.options.OptionManager;
+import org.apache.drill.exec.vector.ValueVector;
+
+/**
+ * Limits the number of records an operator puts in an output batch so that the batch takes about
+ * {@link ExecConstants#OUTPUT_BATCH_SIZE_KEY} bytes. Operators that emit a fixed number of records per batch emit
+ * very large batches for wide rows, e.g. with big VARCHARs or maps, which makes the memory a query needs hard to
+ * predict.
+ *
+ * The width of a row is the sum of the average widths of the values of its columns, measured on the batches the
+ * operator receives or has emitted.
+ */
+public class OutputBatchSizer {
+
+  private final long batchSize;
+  private int rowWidth;
+
+  public OutputBatchSizer(long batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  public OutputBatchSizer(OptionManager options) {
+    this(options.getOption(ExecConstants.OUTPUT_BATCH_SIZE));
+  }
+
+  /**
+   * @return The average number of bytes the vector uses per value rounded up, or 0 if it holds no values.
+   */
+  public static int getWidth(ValueVector vector) {
+    final int valueCount = vector.getAccessor().getValueCount();
+    if (valueCount == 0) {
+      return 0;
+    }
+    return (int) (((long) vector.getBufferSize() + valueCount - 1) / valueCount);
+  }
+
+  /**
+   * @return The sum of the widths of the columns of the batch, see {@link #getWidth(ValueVector)}. The columns of
+   *         hyper batches are ignored.
+   */
+  public static int getRowWidth(VectorAccessible batch) {
+    long width = 0;
+    for (final VectorWrapper<?> w : batch) {
+      if (!w.isHyper()) {
+        width += getWidth(w.getValueVector());
+      }
+    }
+    return (int) Math.min(width, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Remember the row width of a batch the operator has emitted, the value counts of its vectors must have been set.
+   */
+  public void record(VectorAccessible batch) {
+    rowWidth = getRowWidth(batch);
+  }
+
+  /**
+   * Forget the recorded row width, e.g. when the output schema changes.
+   */
+  public void reset() {
+    rowWidth = 0;
+  }
+
+  /**
+   * @return The row width of the last recorded batch, or 0 if none has been recorded.
+   */
+  public int getRowWidth() {
+    return rowWidth;
+  }
+
+  /**
+   * @param rowWidth the expected width of the output rows in bytes, 0 if unknown
+   * @param maxRecords the number of records the operator would emit without a batch size
+   * @return The number of records of the given width that fit in the output batch size, at least 1 and at most
+   *         maxRecords.
+   */
+  public int getRecordCount(int rowWidth, int maxRecords) {
+    if (rowWidth <= 0) {
+      return maxRecords;
+    }
+    return (int) Math.max(1, Math.min(maxRecords, batchSize / rowWidth));
+  }
+}
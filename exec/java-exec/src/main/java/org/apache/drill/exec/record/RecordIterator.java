@@ -18,17 +18,25 @@
 package org.apache.drill.exec.record;
 
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.drill.common.expression.SchemaPath;
 import org.apache.drill.exec.ops.OperatorContext;
 import org.apache.drill.exec.physical.impl.sort.RecordBatchData;
+import org.apache.drill.exec.physical.impl.xsort.SpillSet;
 import org.apache.drill.exec.record.RecordBatch.IterOutcome;
 
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Range;
+import com.google.common.collect.Sets;
 import com.google.common.collect.TreeRangeMap;
 import org.apache.drill.exec.record.selection.SelectionVector2;
 import org.apache.drill.exec.record.selection.SelectionVector4;
+import org.apache.hadoop.fs.Path;
 
 /**
  * RecordIterator iterates over incoming record batches one record at a time.
@@ -57,6 +65,12 @@ public class RecordIterator implements VectorAccessible {
   private final VectorContainer container; // Holds VectorContainer of current record batch
   private final TreeRangeMap<Long, RecordBatchData> batches = TreeRangeMap.create();
 
+  // Spilling of the batches held for mark and reset, see enableSpilling()
+  private SpillSet spillSet;
+  private long spillThreshold;
+  private final Map<RecordBatchData, Path> spillFiles = Maps.newIdentityHashMap();
+  private final Set<RecordBatchData> spilledBatches = Sets.newIdentityHashSet();
+
   public RecordIterator(RecordBatch incoming,
                         AbstractRecordBatch<?> outgoing,
                         OperatorContext oContext,
@@ -80,6 +94,17 @@ public class RecordIterator implements VectorAccessible {
     this.enableMarkAndReset = enableMarkAndReset;
   }
 
+  /**
+   * Allows the batches held between a mark and the current position to be written to the given spill set when the
+   * operator's allocated memory goes beyond the threshold. Spilled batches are read back when the iterator moves onto
+   * them again (e.g. after a reset).
+   */
+  public void enableSpilling(SpillSet spillSet, long threshold) {
+    assert enableMarkAndReset;
+    this.spillSet = spillSet;
+    this.spillThreshold = threshold;
+  }
+
   private void resetIndices() {
     this.innerPosition = -1;
     this.startBatchPosition = -1;
@@ -106,6 +131,7 @@ public class RecordIterator implements VectorAccessible {
     // Release all batches before current batch. [0 to startBatchPosition).
     final Map<Range<Long>,RecordBatchData> oldBatches = batches.subRangeMap(Range.closedOpen(0l, startBatchPosition)).asMapOfRanges();
     for (RecordBatchData rbd : oldBatches.values()) {
+      releaseSpilled(rbd);
       rbd.clear();
     }
     batches.remove(Range.closedOpen(0l, startBatchPosition));
@@ -125,6 +151,7 @@ public class RecordIterator implements VectorAccessible {
       assert rbdNew != null;
       if (rbdNew != rbdOld) {
         container.transferOut(rbdOld.getContainer());
+        load(rbdNew);
         container.transferIn(rbdNew.getContainer());
       }
       innerPosition = markedInnerPosition;
@@ -134,6 +161,7 @@ public class RecordIterator implements VectorAccessible {
       innerRecordCount = (int)(markedBatchRange.upperEndpoint() - startBatchPosition);
       markedInnerPosition = -1;
       markedOuterPosition = -1;
+      spillIfNeeded();
     }
   }
 
@@ -151,12 +179,26 @@ public class RecordIterator implements VectorAccessible {
     assert rbdOld != null;
     container.transferOut(rbdOld.getContainer());
     // Get vectors from new position.
+    load(rbdNew);
     container.transferIn(rbdNew.getContainer());
     outerPosition = nextOuterPosition;
     final Range<Long> markedBatchRange = batches.getEntry(outerPosition).getKey();
     startBatchPosition = markedBatchRange.lowerEndpoint();
     innerPosition = (int)(outerPosition - startBatchPosition);
     innerRecordCount = (int)(markedBatchRange.upperEndpoint() - startBatchPosition);
+    spillIfNeeded();
+  }
+
+  /**
+   * Move forward by delta records and then to the next record, as {@link #next()} would after delta calls. The
+   * records skipped by delta must belong to the current record batch.
+   */
+  public IterOutcome skip(int delta) {
+    assert delta >= 0;
+    assert innerPosition + delta < innerRecordCount;
+    innerPosition += delta;
+    outerPosition += delta;
+    return next();
   }
 
   /**
@@ -181,6 +223,7 @@ public class RecordIterator implements VectorAccessible {
     }
     long nextOuterPosition = outerPosition + 1;
     final int nextInnerPosition = innerPosition + 1;
+    boolean spillAfterBatch = false;
     if (!initialized || nextOuterPosition >= totalRecordCount) {
       nextBatch();
       switch (lastOutcome) {
@@ -220,6 +263,7 @@ public class RecordIterator implements VectorAccessible {
               }
               container.transferIn(rbd.getContainer());
               batches.put(Range.closedOpen(nextOuterPosition, nextOuterPosition + innerRecordCount), rbd);
+              spillAfterBatch = true;
             } else {
               container.zeroVectors();
               container.transferIn(rbd.getContainer());
@@ -228,6 +272,9 @@ public class RecordIterator implements VectorAccessible {
             startBatchPosition = nextOuterPosition;
             outerPosition = nextOuterPosition;
             totalRecordCount += innerRecordCount;
+            if (spillAfterBatch) {
+              spillIfNeeded();
+            }
           } else {
             // Release schema/empty batches.
             rbd.clear();
@@ -249,11 +296,13 @@ public class RecordIterator implements VectorAccessible {
         assert rbdOld != null;
         assert rbdOld != rbdNew;
         container.transferOut(rbdOld.getContainer());
+        load(rbdNew);
         container.transferIn(rbdNew.getContainer());
         innerPosition = 0;
         outerPosition = nextOuterPosition;
         startBatchPosition = batches.getEntry(outerPosition).getKey().lowerEndpoint();
         innerRecordCount = (int)(batches.getEntry(outerPosition).getKey().upperEndpoint() - startBatchPosition);
+        spillIfNeeded();
       } else {
         outerPosition = nextOuterPosition;
         innerPosition = nextInnerPosition;
@@ -343,6 +392,62 @@ public class RecordIterator implements VectorAccessible {
       d.clear();
     }
     batches.clear();
+    spilledBatches.clear();
+    spillFiles.clear();
+    if (spillSet != null) {
+      spillSet.close();
+    }
+  }
+
+  /**
+   * Spills held batches until the allocated memory falls under the spill threshold. The batch just behind the current
+   * one is spilled first, as it is the last one needed again after a reset; then the batches ahead of the current one,
+   * farthest first.
+   */
+  private void spillIfNeeded() {
+    if (spillSet == null || oContext.getAllocator().getAllocatedMemory() <= spillThreshold) {
+      return;
+    }
+    final List<Map.Entry<Range<Long>, RecordBatchData>> behind = Lists.newArrayList();
+    final List<Map.Entry<Range<Long>, RecordBatchData>> ahead = Lists.newArrayList();
+    for (Map.Entry<Range<Long>, RecordBatchData> entry : batches.asMapOfRanges().entrySet()) {
+      if (entry.getKey().contains(outerPosition)) {
+        continue;
+      }
+      (entry.getKey().lowerEndpoint() < outerPosition ? behind : ahead).add(entry);
+    }
+    for (Map.Entry<Range<Long>, RecordBatchData> entry : Iterables.concat(Lists.reverse(behind), Lists.reverse(ahead))) {
+      if (oContext.getAllocator().getAllocatedMemory() <= spillThreshold) {
+        return;
+      }
+      final RecordBatchData rbd = entry.getValue();
+      if (rbd.getSv2() == null && !spilledBatches.contains(rbd)) {
+        spill(rbd);
+      }
+    }
+  }
+
+  private void spill(RecordBatchData rbd) {
+    // held batches never change, so a batch read back from disk can be spilled again without rewriting it
+    if (!spillFiles.containsKey(rbd)) {
+      spillFiles.put(rbd, spillSet.spill(rbd.getContainer(), rbd.getRecordCount()));
+    }
+    rbd.getContainer().zeroVectors();
+    spilledBatches.add(rbd);
+  }
+
+  private void load(RecordBatchData rbd) {
+    if (spilledBatches.remove(rbd)) {
+      spillSet.load(spillFiles.get(rbd), rbd.getContainer());
+    }
+  }
+
+  private void releaseSpilled(RecordBatchData rbd) {
+    spilledBatches.remove(rbd);
+    final Path path = spillFiles.remove(rbd);
+    if (path != null) {
+      spillSet.delete(path);
+    }
   }
 
   // Deplete incoming batches.
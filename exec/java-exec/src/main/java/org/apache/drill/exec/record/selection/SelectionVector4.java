@@ -18,6 +18,7 @@
 package org.apache.drill.exec.record.selection;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DrillBuf;
 
 import org.apache.drill.exec.exception.SchemaChangeException;
 import org.apache.drill.exec.record.DeadBuf;
@@ -65,6 +66,17 @@ public class SelectionVector4 implements AutoCloseable {
     return data.getInt( (start+index)*4);
   }
 
+  /**
+   * @return The buffer holding the entries, of which {@link #get(int)} reads the entries from {@link #getStart()} on.
+   */
+  public DrillBuf getBuffer() {
+    return (DrillBuf) data;
+  }
+
+  public int getStart() {
+    return start;
+  }
+
   /**
    * Caution: This method shares the underlying buffer between this vector and the newly created one.
    * @param batchRecordCount this will be used when creating the new vector
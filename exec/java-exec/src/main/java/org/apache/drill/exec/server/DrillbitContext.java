@@ -31,6 +31,7 @@ import org.apache.drill.exec.coord.ClusterCoordinator;
 import org.apache.drill.exec.expr.fn.FunctionImplementationRegistry;
 import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.physical.impl.OperatorCreatorRegistry;
+import org.apache.drill.exec.physical.impl.orderedpartitioner.OrderedPartitionSampleExchange;
 import org.apache.drill.exec.planner.PhysicalPlanReader;
 import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
 import org.apache.drill.exec.rpc.control.Controller;
@@ -61,6 +62,7 @@ public class DrillbitContext implements AutoCloseable {
   private final CodeCompiler compiler;
   private final ScanResult classpathScan;
   private final LogicalPlanPersistence lpPersistence;
+  private final OrderedPartitionSampleExchange sampleExchange;
 
 
   public DrillbitContext(
@@ -90,6 +92,7 @@ public class DrillbitContext implements AutoCloseable {
     this.systemOptions = new SystemOptionManager(lpPersistence, provider);
     this.functionRegistry = new FunctionImplementationRegistry(context.getConfig(), classpathScan, systemOptions);
     this.compiler = new CodeCompiler(context.getConfig(), systemOptions);
+    this.sampleExchange = new OrderedPartitionSampleExchange(endpoint, controller);
   }
 
   public FunctionImplementationRegistry getFunctionImplementationRegistry() {
@@ -144,6 +147,10 @@ public class DrillbitContext implements AutoCloseable {
     return controller;
   }
 
+  public OrderedPartitionSampleExchange getSampleExchange() {
+    return sampleExchange;
+  }
+
   public MetricRegistry getMetrics() {
     return context.getMetrics();
   }
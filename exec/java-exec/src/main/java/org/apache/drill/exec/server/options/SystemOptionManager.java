@@ -76,6 +76,9 @@ public class SystemOptionManager extends BaseOptionManager implements AutoClosea
       PlannerSettings.IDENTIFIER_MAX_LENGTH,
       PlannerSettings.HASH_JOIN_SWAP,
       PlannerSettings.HASH_JOIN_SWAP_MARGIN_FACTOR,
+      PlannerSettings.HASH_JOIN_SKEW,
+      PlannerSettings.HASH_JOIN_SKEW_FANOUT,
+      PlannerSettings.RANGE_PARTITIONED_SORT,
       PlannerSettings.PARTITION_SENDER_THREADS_FACTOR,
       PlannerSettings.PARTITION_SENDER_MAX_THREADS,
       PlannerSettings.PARTITION_SENDER_SET_THREADS,
@@ -100,10 +103,13 @@ public class SystemOptionManager extends BaseOptionManager implements AutoClosea
       ExecConstants.JSON_READER_ALL_TEXT_MODE_VALIDATOR,
       ExecConstants.ENABLE_UNION_TYPE,
       ExecConstants.TEXT_ESTIMATED_ROW_SIZE,
+      ExecConstants.TEXT_PARSE_THREADS,
+      ExecConstants.TEXT_PARSE_CHUNK_SIZE,
       ExecConstants.JSON_EXTENDED_TYPES,
       ExecConstants.JSON_WRITER_UGLIFY,
       ExecConstants.JSON_WRITER_SKIPNULLFIELDS,
       ExecConstants.JSON_READ_NUMBERS_AS_DOUBLE_VALIDATOR,
+      ExecConstants.JSON_BYTE_READER_VALIDATOR,
       ExecConstants.FILESYSTEM_PARTITION_COLUMN_LABEL_VALIDATOR,
       ExecConstants.MONGO_READER_ALL_TEXT_MODE_VALIDATOR,
       ExecConstants.MONGO_READER_READ_NUMBERS_AS_DOUBLE_VALIDATOR,
@@ -146,6 +152,15 @@ public class SystemOptionManager extends BaseOptionManager implements AutoClosea
       ExecConstants.IMPLICIT_FQN_COLUMN_LABEL_VALIDATOR,
       ExecConstants.IMPLICIT_FILEPATH_COLUMN_LABEL_VALIDATOR,
       ExecConstants.CODE_GEN_EXP_IN_METHOD_SIZE_VALIDATOR,
+      ExecConstants.ENABLE_VECTORIZED_FUNCTIONS,
+      ExecConstants.EXTERNAL_SORT_NORMALIZED_KEYS,
+      ExecConstants.WINDOW_SPILL_THRESHOLD,
+      ExecConstants.MERGE_JOIN_SPILL_THRESHOLD,
+      ExecConstants.NESTED_LOOP_JOIN_SPILL_THRESHOLD,
+      ExecConstants.HASHAGG_ADAPTIVE_PARTIAL,
+      ExecConstants.HASHAGG_PARTIAL_MAX_GROUP_RATIO,
+      ExecConstants.OUTPUT_BATCH_SIZE,
+      ExecConstants.SV_REMOVER_COLUMNAR_COPY,
       ExecConstants.TO_DATE_FORMAT,
       ExecConstants.CREATE_PREPARE_STATEMENT_TIMEOUT_MILLIS_VALIDATOR
     };
@@ -36,6 +36,7 @@ import org.apache.drill.exec.store.dfs.DrillFileSystem;
 import org.apache.drill.exec.store.easy.json.JsonProcessor.ReadState;
 import org.apache.drill.exec.store.easy.json.reader.CountingJsonReader;
 import org.apache.drill.exec.vector.BaseValueVector;
+import org.apache.drill.exec.vector.complex.fn.ByteJsonReader;
 import org.apache.drill.exec.vector.complex.fn.JsonReader;
 import org.apache.drill.exec.vector.complex.impl.VectorContainerWriter;
 import org.apache.hadoop.fs.Path;
@@ -49,6 +50,7 @@ public class JSONRecordReader extends AbstractRecordReader {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(JSONRecordReader.class);
 
   public static final long DEFAULT_ROWS_PER_BATCH = BaseValueVector.INITIAL_VALUE_ALLOCATION;
+  private static final int BYTE_READER_BUFFER_SIZE = 64 * 1024;
 
   private VectorContainerWriter writer;
 
@@ -64,6 +66,7 @@ public class JSONRecordReader extends AbstractRecordReader {
   private final boolean enableAllTextMode;
   private final boolean readNumbersAsDouble;
   private final boolean unionEnabled;
+  private final boolean useByteReader;
 
   /**
    * Create a JSON Record Reader that uses a file based input stream.
@@ -114,6 +117,7 @@ public class JSONRecordReader extends AbstractRecordReader {
     this.enableAllTextMode = embeddedContent == null && fragmentContext.getOptions().getOption(ExecConstants.JSON_READER_ALL_TEXT_MODE_VALIDATOR);
     this.readNumbersAsDouble = embeddedContent == null && fragmentContext.getOptions().getOption(ExecConstants.JSON_READ_NUMBERS_AS_DOUBLE_VALIDATOR);
     this.unionEnabled = embeddedContent == null && fragmentContext.getOptions().getOption(ExecConstants.ENABLE_UNION_TYPE);
+    this.useByteReader = fragmentContext.getOptions().getOption(ExecConstants.JSON_BYTE_READER_VALIDATOR);
     setColumns(columns);
   }
 
@@ -133,17 +137,29 @@ public class JSONRecordReader extends AbstractRecordReader {
       }
 
       this.writer = new VectorContainerWriter(output, unionEnabled);
-      if (isSkipQuery()) {
-        this.jsonReader = new CountingJsonReader(fragmentContext.getManagedBuffer());
-      } else {
-        this.jsonReader = new JsonReader(fragmentContext.getManagedBuffer(), ImmutableList.copyOf(getColumns()), enableAllTextMode, true, readNumbersAsDouble);
-      }
+      this.jsonReader = createJsonProcessor();
       setupParser();
     }catch(final Exception e){
       handleAndRaise("Failure reading JSON file", e);
     }
   }
 
+  /**
+   * The only place that chooses between the JSON readers. {@link ByteJsonReader} tokenizes input streams, so it
+   * is used for files only; embedded content is always read by {@link JsonReader}.
+   */
+  private JsonProcessor createJsonProcessor() {
+    if (isSkipQuery()) {
+      return new CountingJsonReader(fragmentContext.getManagedBuffer());
+    } else if (useByteReader && hadoopPath != null) {
+      return new ByteJsonReader(fragmentContext.getManagedBuffer(BYTE_READER_BUFFER_SIZE),
+          fragmentContext.getManagedBuffer(BYTE_READER_BUFFER_SIZE), ImmutableList.copyOf(getColumns()),
+          enableAllTextMode, readNumbersAsDouble);
+    } else {
+      return new JsonReader(fragmentContext.getManagedBuffer(), ImmutableList.copyOf(getColumns()), enableAllTextMode, true, readNumbersAsDouble);
+    }
+  }
+
   protected List<SchemaPath> getDefaultColumnsToRead() {
     return ImmutableList.of();
   }
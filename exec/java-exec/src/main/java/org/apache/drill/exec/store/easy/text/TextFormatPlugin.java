@@ -60,6 +60,7 @@ import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 
 public class TextFormatPlugin extends EasyFormatPlugin<TextFormatPlugin.TextFormatConfig> {
@@ -142,6 +143,8 @@ public class TextFormatPlugin extends EasyFormatPlugin<TextFormatPlugin.TextForm
     public char comment = '#';
     public boolean skipFirstLine = false;
     public boolean extractHeader = false;
+    // types of the header columns that are read into typed vectors rather than VARCHAR
+    public Map<String, String> columnTypes = ImmutableMap.of();
 
     public List<String> getExtensions() {
       return extensions;
@@ -187,6 +190,10 @@ public class TextFormatPlugin extends EasyFormatPlugin<TextFormatPlugin.TextForm
       return skipFirstLine;
     }
 
+    public Map<String, String> getColumnTypes() {
+      return columnTypes;
+    }
+
     @Override
     public int hashCode() {
       final int prime = 31;
@@ -199,6 +206,7 @@ public class TextFormatPlugin extends EasyFormatPlugin<TextFormatPlugin.TextForm
       result = prime * result + quote;
       result = prime * result + (skipFirstLine ? 1231 : 1237);
       result = prime * result + (extractHeader ? 1231 : 1237);
+      result = prime * result + ((columnTypes == null) ? 0 : columnTypes.hashCode());
       return result;
     }
 
@@ -246,6 +254,13 @@ public class TextFormatPlugin extends EasyFormatPlugin<TextFormatPlugin.TextForm
       if (extractHeader != other.extractHeader) {
         return false;
       }
+      if (columnTypes == null) {
+        if (other.columnTypes != null) {
+          return false;
+        }
+      } else if (!columnTypes.equals(other.columnTypes)) {
+        return false;
+      }
       return true;
     }
 
@@ -25,12 +25,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 import javax.annotation.Nullable;
 
 import org.apache.drill.common.exceptions.ExecutionSetupException;
 import org.apache.drill.common.exceptions.UserException;
 import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.exception.SchemaChangeException;
 import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.ops.OperatorContext;
@@ -67,11 +69,23 @@ public class CompliantTextRecordReader extends AbstractRecordReader {
   private DrillFileSystem dfs;
   // operator context for OutputMutator
   private OperatorContext oContext;
+  // field names extracted from the header, if any
+  private String [] fieldNames;
+  // number of threads parsing the split, 1 parses it on the scan thread
+  private final int parseThreads;
+  // number of bytes each parsing thread is handed at a time
+  private final int parseChunkSize;
+  private final ExecutorService executor;
+  // parses the split on several threads when more than one is configured
+  private ParallelTextReader parallelReader;
 
   public CompliantTextRecordReader(FileSplit split, DrillFileSystem dfs, FragmentContext context, TextParsingSettings settings, List<SchemaPath> columns) {
     this.split = split;
     this.settings = settings;
     this.dfs = dfs;
+    this.parseThreads = (int) context.getOptions().getOption(ExecConstants.TEXT_PARSE_THREADS);
+    this.parseChunkSize = (int) context.getOptions().getOption(ExecConstants.TEXT_PARSE_CHUNK_SIZE);
+    this.executor = context.getDrillbitContext().getExecutor();
     setColumns(columns);
   }
 
@@ -106,8 +120,6 @@ public class CompliantTextRecordReader extends AbstractRecordReader {
   public void setup(OperatorContext context, OutputMutator outputMutator) throws ExecutionSetupException {
 
     oContext = context;
-    readBuffer = context.getManagedBuffer(READ_BUFFER);
-    whitespaceBuffer = context.getManagedBuffer(WHITE_SPACE_BUFFER);
 
     // setup Output, Input, and Reader
     try {
@@ -118,15 +130,28 @@ public class CompliantTextRecordReader extends AbstractRecordReader {
       // setup Output using OutputMutator
       if (settings.isHeaderExtractionEnabled()){
         //extract header and use that to setup a set of VarCharVectors
-        String [] fieldNames = extractHeader();
-        output = new FieldVarCharOutput(outputMutator, fieldNames, getColumns(), isStarQuery());
-      } else {
-        //simply use RepeatedVarCharVector
-        output = new RepeatedVarCharOutput(outputMutator, getColumns(), isStarQuery());
+        fieldNames = extractHeader();
       }
+      output = newOutput(outputMutator);
 
       // setup Input using InputStream
       stream = dfs.openPossiblyCompressedStream(split.getPath());
+
+      if (parseThreads > 1 && settings.getNumberOfRecordsToRead() == -1) {
+        // parse chunks of the split on several threads, into vectors that are then transferred to the output
+        parallelReader = new ParallelTextReader(settings, stream, split.getStart(), split.getStart() + split.getLength(),
+            new ParallelTextReader.OutputFactory() {
+              @Override
+              public TextOutput newOutput(OutputMutator mutator) throws SchemaChangeException {
+                return CompliantTextRecordReader.this.newOutput(mutator);
+              }
+            }, outputMutator, context.getAllocator(), executor, parseThreads, parseChunkSize, MAX_RECORDS_PER_BATCH);
+        parallelReader.start();
+        return;
+      }
+
+      readBuffer = context.getManagedBuffer(READ_BUFFER);
+      whitespaceBuffer = context.getManagedBuffer(WHITE_SPACE_BUFFER);
       input = new TextInput(settings,  stream, readBuffer, split.getStart(), split.getStart() + split.getLength());
 
       // setup Reader using Input and Output
@@ -140,6 +165,21 @@ public class CompliantTextRecordReader extends AbstractRecordReader {
     }
   }
 
+  /**
+   * Creates the output records are parsed into: a set of VarCharVectors named by the header if one
+   * was extracted, with typed vectors for the columns the format declares types of, a
+   * RepeatedVarCharVector otherwise.
+   * @param outputMutator  Used to create the schema of the output
+   * @return the output
+   * @throws SchemaChangeException
+   */
+  private TextOutput newOutput(OutputMutator outputMutator) throws SchemaChangeException {
+    if (fieldNames != null) {
+      return new FieldVarCharOutput(outputMutator, fieldNames, getColumns(), isStarQuery(), settings.getColumnTypes());
+    }
+    return new RepeatedVarCharOutput(outputMutator, getColumns(), isStarQuery());
+  }
+
   /**
    * This method is responsible to implement logic for extracting header from text file
    * Currently it is assumed to be first line if headerExtractionEnabled is set to true
@@ -165,17 +205,17 @@ public class CompliantTextRecordReader extends AbstractRecordReader {
     TextInput hInput = new TextInput(settings,  hStream, oContext.getManagedBuffer(READ_BUFFER), 0, split.getLength());
 
     // setup Reader using Input and Output
-    this.reader = new TextReader(settings, hInput, hOutput, oContext.getManagedBuffer(WHITE_SPACE_BUFFER));
-    reader.start();
+    TextReader hReader = new TextReader(settings, hInput, hOutput, oContext.getManagedBuffer(WHITE_SPACE_BUFFER));
+    hReader.start();
 
     // extract first row only
-    reader.parseNext();
+    hReader.parseNext();
 
     // grab the field names from output
     String [] fieldNames = ((RepeatedVarCharOutput)hOutput).getTextOutput();
 
     // cleanup and set to skip the first line next time we read input
-    reader.close();
+    hReader.close();
     hOutputMutator.close();
     settings.setSkipFirstLine(true);
 
@@ -189,6 +229,17 @@ public class CompliantTextRecordReader extends AbstractRecordReader {
    */
   @Override
   public int next() {
+    if (parallelReader != null) {
+      try {
+        return parallelReader.next();
+      } catch (IOException | TextParsingException | SchemaChangeException e) {
+        throw UserException.dataReadError(e)
+            .addContext("Failure while reading file %s. Happened at or shortly before byte position %d.",
+              split.getPath(), parallelReader.getPos())
+            .build(logger);
+      }
+    }
+
     reader.resetForNextBatch();
     int cnt = 0;
 
@@ -217,6 +268,10 @@ public class CompliantTextRecordReader extends AbstractRecordReader {
         reader.close();
         reader = null;
       }
+      if (parallelReader != null) {
+        parallelReader.close();
+        parallelReader = null;
+      }
     } catch (IOException e) {
       logger.warn("Exception while closing stream.", e);
     }
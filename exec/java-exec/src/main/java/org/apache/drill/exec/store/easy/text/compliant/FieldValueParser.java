@@ -0,0 +1,241 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.easy.text.compliant;
+
+import org.apache.drill.exec.expr.fn.impl.DateUtility;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.chrono.ISOChronology;
+
+import com.google.common.base.Charsets;
+
+/**
+ * Parses the bytes of a text field into the values of typed columns. The common forms of each
+ * type are parsed straight from the bytes; other forms fall back to the parsing a CAST from
+ * VARCHAR does, except for dates, which are stricter than a CAST (see {@link #parseDate}).
+ */
+final class FieldValueParser {
+
+  private static final ISOChronology CHRONOLOGY = ISOChronology.getInstanceUTC();
+  private static final int RADIX = 10;
+  private static final long MIN_LONG_DIV_RADIX = Long.MIN_VALUE / RADIX;
+  private static final int MIN_INT_DIV_RADIX = Integer.MIN_VALUE / RADIX;
+
+  // a decimal with at most this many digits has a mantissa that is exact as a double
+  private static final int MAX_EXACT_DIGITS = 15;
+  private static final double[] POWERS_OF_TEN = new double[MAX_EXACT_DIGITS + 1];
+  static {
+    POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+  }
+
+  private FieldValueParser() {
+  }
+
+  static int parseInt(byte[] bytes, int length) {
+    final boolean negative = bytes[0] == '-';
+    int i = negative ? 1 : 0;
+    if (i == length) {
+      throw numberFormatException(bytes, length);
+    }
+
+    // accumulate negatively so that MIN_VALUE does not overflow
+    int result = 0;
+    for (; i < length; i++) {
+      final int digit = bytes[i] - '0';
+      if (digit < 0 || digit > 9 || result < MIN_INT_DIV_RADIX) {
+        throw numberFormatException(bytes, length);
+      }
+      final int next = result * RADIX - digit;
+      if (next > result) {
+        throw numberFormatException(bytes, length);
+      }
+      result = next;
+    }
+
+    if (negative) {
+      return result;
+    }
+    if (result == Integer.MIN_VALUE) {
+      throw numberFormatException(bytes, length);
+    }
+    return -result;
+  }
+
+  static long parseBigInt(byte[] bytes, int length) {
+    final boolean negative = bytes[0] == '-';
+    int i = negative ? 1 : 0;
+    if (i == length) {
+      throw numberFormatException(bytes, length);
+    }
+
+    long result = 0;
+    for (; i < length; i++) {
+      final int digit = bytes[i] - '0';
+      if (digit < 0 || digit > 9 || result < MIN_LONG_DIV_RADIX) {
+        throw numberFormatException(bytes, length);
+      }
+      final long next = result * RADIX - digit;
+      if (next > result) {
+        throw numberFormatException(bytes, length);
+      }
+      result = next;
+    }
+
+    if (negative) {
+      return result;
+    }
+    if (result == Long.MIN_VALUE) {
+      throw numberFormatException(bytes, length);
+    }
+    return -result;
+  }
+
+  static double parseFloat8(byte[] bytes, int length) {
+    final boolean negative = bytes[0] == '-';
+    int i = negative || bytes[0] == '+' ? 1 : 0;
+
+    // plain decimals short enough to be exact are divided by an exact power of ten, which
+    // rounds correctly, anything else is left to Double.parseDouble()
+    long mantissa = 0;
+    int digits = 0;
+    int scale = -1;
+    for (; i < length; i++) {
+      final byte b = bytes[i];
+      if (b >= '0' && b <= '9') {
+        mantissa = mantissa * RADIX + (b - '0');
+        if (++digits > MAX_EXACT_DIGITS) {
+          return slowParseFloat8(bytes, length);
+        }
+        if (scale >= 0) {
+          scale++;
+        }
+      } else if (b == '.' && scale < 0) {
+        scale = 0;
+      } else {
+        return slowParseFloat8(bytes, length);
+      }
+    }
+    if (digits == 0) {
+      return slowParseFloat8(bytes, length);
+    }
+
+    final double value = scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+    return negative ? -value : value;
+  }
+
+  private static double slowParseFloat8(byte[] bytes, int length) {
+    return Double.parseDouble(toString(bytes, length));
+  }
+
+  /**
+   * Parses a date. Year, month and day separated by single non digits and ending the field are
+   * parsed from the bytes, two digit years being taken as 1970 to 2069 as a CAST does; anything
+   * else is parsed with the {@link DateUtility#formatDate} yyyy-MM-dd formatter. This is stricter
+   * than a CAST from VARCHAR to DATE, which stops after the day and ignores what follows, so a
+   * date followed by a time is rejected here although a CAST accepts it.
+   * @return milliseconds since the epoch of the date in UTC
+   */
+  static long parseDate(byte[] bytes, int length) {
+    final int[] fields = new int[3];
+    int field = 0;
+    int digits = 0;
+    for (int i = 0; i < length; i++) {
+      final int digit = bytes[i] - '0';
+      if (digit >= 0 && digit <= 9) {
+        if (++digits > 4) {
+          return slowParseDate(bytes, length);
+        }
+        fields[field] = fields[field] * RADIX + digit;
+      } else if (digits == 0 || ++field == 3) {
+        return slowParseDate(bytes, length);
+      } else {
+        digits = 0;
+      }
+    }
+    if (field != 2 || digits == 0) {
+      return slowParseDate(bytes, length);
+    }
+    if (fields[0] < 100) {
+      fields[0] += fields[0] < 70 ? 2000 : 1900;
+    }
+    return CHRONOLOGY.getDateTimeMillis(fields[0], fields[1], fields[2], 0);
+  }
+
+  private static long slowParseDate(byte[] bytes, int length) {
+    return DateUtility.formatDate.withZone(DateTimeZone.UTC).parseMillis(toString(bytes, length));
+  }
+
+  /**
+   * Parses a timestamp. yyyy-MM-dd, yyyy-MM-dd HH:mm:ss and yyyy-MM-dd HH:mm:ss.S to .SSS are
+   * parsed from the bytes, other forms such as ones with a time zone with the formatter of CAST.
+   * @return milliseconds since the epoch of the timestamp in UTC
+   */
+  static long parseTimeStamp(byte[] bytes, int length) {
+    if ((length == 10 || length == 19 || (length >= 21 && length <= 23))
+        && digits(bytes, 0, 4) && bytes[4] == '-' && digits(bytes, 5, 2) && bytes[7] == '-' && digits(bytes, 8, 2)) {
+      final int year = number(bytes, 0, 4);
+      final int month = number(bytes, 5, 2);
+      final int day = number(bytes, 8, 2);
+      if (length == 10) {
+        return CHRONOLOGY.getDateTimeMillis(year, month, day, 0);
+      }
+      if (bytes[10] == ' ' && digits(bytes, 11, 2) && bytes[13] == ':' && digits(bytes, 14, 2) && bytes[16] == ':'
+          && digits(bytes, 17, 2) && (length == 19 || (bytes[19] == '.' && digits(bytes, 20, length - 20)))) {
+        int millis = 0;
+        if (length > 19) {
+          millis = number(bytes, 20, length - 20);
+          for (int i = length; i < 23; i++) {
+            millis *= RADIX;
+          }
+        }
+        return CHRONOLOGY.getDateTimeMillis(year, month, day,
+            number(bytes, 11, 2), number(bytes, 14, 2), number(bytes, 17, 2), millis);
+      }
+    }
+    return DateTime.parse(toString(bytes, length), DateUtility.getDateTimeFormatter())
+        .withZoneRetainFields(DateTimeZone.UTC).getMillis();
+  }
+
+  private static boolean digits(byte[] bytes, int start, int count) {
+    for (int i = start; i < start + count; i++) {
+      if (bytes[i] < '0' || bytes[i] > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int number(byte[] bytes, int start, int count) {
+    int value = 0;
+    for (int i = start; i < start + count; i++) {
+      value = value * RADIX + (bytes[i] - '0');
+    }
+    return value;
+  }
+
+  private static NumberFormatException numberFormatException(byte[] bytes, int length) {
+    return new NumberFormatException(toString(bytes, length));
+  }
+
+  static String toString(byte[] bytes, int length) {
+    return new String(bytes, 0, length, Charsets.UTF_8);
+  }
+}
@@ -17,13 +17,23 @@
  */
 package org.apache.drill.exec.store.easy.text.compliant;
 
+import io.netty.buffer.DrillBuf;
+
 import org.apache.drill.common.exceptions.UserException;
 import org.apache.drill.common.expression.SchemaPath;
 import org.apache.drill.common.types.TypeProtos;
+import org.apache.drill.common.types.TypeProtos.MinorType;
 import org.apache.drill.common.types.Types;
 import org.apache.drill.exec.exception.SchemaChangeException;
+import org.apache.drill.exec.expr.TypeHelper;
 import org.apache.drill.exec.physical.impl.OutputMutator;
 import org.apache.drill.exec.record.MaterializedField;
+import org.apache.drill.exec.vector.NullableBigIntVector;
+import org.apache.drill.exec.vector.NullableDateVector;
+import org.apache.drill.exec.vector.NullableFloat8Vector;
+import org.apache.drill.exec.vector.NullableIntVector;
+import org.apache.drill.exec.vector.NullableTimeStampVector;
+import org.apache.drill.exec.vector.ValueVector;
 import org.apache.drill.exec.vector.VarCharVector;
 
 import java.util.ArrayList;
@@ -31,11 +41,14 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Class is responsible for generating record batches for text file inputs. We generate
  * a record batch with a set of varchar vectors. A varchar vector contains all the field
  * values for a given column. Each record is a single value within each vector of the set.
+ * Columns declared with a type are parsed into a nullable vector of that type instead, an
+ * empty field being null.
  */
 class FieldVarCharOutput extends TextOutput {
 
@@ -43,11 +56,15 @@ class FieldVarCharOutput extends TextOutput {
   static final String COL_NAME = "columns";
 
   // array of output vector
-  private final VarCharVector [] vectors;
+  private final ValueVector [] vectors;
+  // declared type of each field, null for the VarChar ones
+  private final MinorType [] types;
   // boolean array indicating which fields are selected (if star query entire array is set to true)
   private final boolean[] selectedFields;
   // current vector to which field will be added
-  private VarCharVector currentVector;
+  private ValueVector currentVector;
+  // declared type of the current field, null if it is VarChar
+  private MinorType currentType;
   // track which field is getting appended
   private int currentFieldIndex = -1;
   // track chars within field
@@ -71,9 +88,11 @@ class FieldVarCharOutput extends TextOutput {
    * @param fieldNames Incoming field names
    * @param columns  List of columns selected in the query
    * @param isStarQuery  boolean to indicate if all fields are selected or not
+   * @param columnTypes  declared types of fields that are not VarChar, by name
    * @throws SchemaChangeException
    */
-  public FieldVarCharOutput(OutputMutator outputMutator, String [] fieldNames, Collection<SchemaPath> columns, boolean isStarQuery) throws SchemaChangeException {
+  public FieldVarCharOutput(OutputMutator outputMutator, String [] fieldNames, Collection<SchemaPath> columns,
+      boolean isStarQuery, Map<String, MinorType> columnTypes) throws SchemaChangeException {
 
     int totalFields = fieldNames.length;
     List<String> outputColumns = new ArrayList<>(Arrays.asList(fieldNames));
@@ -117,12 +136,20 @@ class FieldVarCharOutput extends TextOutput {
       }
     }
 
-    this.vectors = new VarCharVector[totalFields];
+    this.vectors = new ValueVector[totalFields];
+    this.types = new MinorType[totalFields];
 
     for (int i = 0; i <= maxField; i++) {
       if (selectedFields[i]) {
-        MaterializedField field = MaterializedField.create(outputColumns.get(i), Types.required(TypeProtos.MinorType.VARCHAR));
-        this.vectors[i] = outputMutator.addField(field, VarCharVector.class);
+        final MinorType type = columnTypes.get(outputColumns.get(i));
+        if (type == null) {
+          MaterializedField field = MaterializedField.create(outputColumns.get(i), Types.required(TypeProtos.MinorType.VARCHAR));
+          this.vectors[i] = outputMutator.addField(field, VarCharVector.class);
+        } else {
+          MaterializedField field = MaterializedField.create(outputColumns.get(i), Types.optional(type));
+          this.vectors[i] = outputMutator.addField(field, TypeHelper.getValueVectorClass(type, TypeProtos.DataMode.OPTIONAL));
+          this.types[i] = type;
+        }
       }
     }
 
@@ -149,6 +176,7 @@ class FieldVarCharOutput extends TextOutput {
     fieldOpen = true;
     collect = selectedFields[index];
     currentVector = vectors[index];
+    currentType = types[index];
   }
 
   @Override
@@ -158,15 +186,94 @@ class FieldVarCharOutput extends TextOutput {
     }
 
     if (currentDataPointer >= MAX_FIELD_LENGTH -1) {
+      throw fieldTooLong();
+    }
+
+    fieldBytes[currentDataPointer++] = data;
+  }
+
+  @Override
+  public void append(DrillBuf buffer, int index, int length) {
+    if (!collect) {
+      return;
+    }
+
+    if (currentDataPointer + length > MAX_FIELD_LENGTH -1) {
+      throw fieldTooLong();
+    }
+
+    buffer.getBytes(index, fieldBytes, currentDataPointer, length);
+    currentDataPointer += length;
+  }
+
+  /**
+   * Parses the bytes of the current field into its typed vector, an empty field is null.
+   */
+  private void setTypedValue() {
+    final byte[] bytes = fieldBytes;
+    final int length = currentDataPointer;
+    try {
+      switch (currentType) {
+      case INT:
+        final NullableIntVector.Mutator intMutator = ((NullableIntVector) currentVector).getMutator();
+        if (length == 0) {
+          intMutator.setNull(recordCount);
+        } else {
+          intMutator.setSafe(recordCount, FieldValueParser.parseInt(bytes, length));
+        }
+        break;
+      case BIGINT:
+        final NullableBigIntVector.Mutator bigIntMutator = ((NullableBigIntVector) currentVector).getMutator();
+        if (length == 0) {
+          bigIntMutator.setNull(recordCount);
+        } else {
+          bigIntMutator.setSafe(recordCount, FieldValueParser.parseBigInt(bytes, length));
+        }
+        break;
+      case FLOAT8:
+        final NullableFloat8Vector.Mutator float8Mutator = ((NullableFloat8Vector) currentVector).getMutator();
+        if (length == 0) {
+          float8Mutator.setNull(recordCount);
+        } else {
+          float8Mutator.setSafe(recordCount, FieldValueParser.parseFloat8(bytes, length));
+        }
+        break;
+      case DATE:
+        final NullableDateVector.Mutator dateMutator = ((NullableDateVector) currentVector).getMutator();
+        if (length == 0) {
+          dateMutator.setNull(recordCount);
+        } else {
+          dateMutator.setSafe(recordCount, FieldValueParser.parseDate(bytes, length));
+        }
+        break;
+      case TIMESTAMP:
+        final NullableTimeStampVector.Mutator timeStampMutator = ((NullableTimeStampVector) currentVector).getMutator();
+        if (length == 0) {
+          timeStampMutator.setNull(recordCount);
+        } else {
+          timeStampMutator.setSafe(recordCount, FieldValueParser.parseTimeStamp(bytes, length));
+        }
+        break;
+      default:
+        throw new IllegalStateException(String.format("Unexpected text column type %s", currentType));
+      }
+    } catch (IllegalArgumentException e) {
       throw UserException
-          .unsupportedError()
-          .message("Trying to write something big in a column")
+          .dataReadError(e)
+          .message("Failure parsing the value of a column as %s", currentType)
           .addContext("columnIndex", currentFieldIndex)
-          .addContext("Limit", MAX_FIELD_LENGTH)
+          .addContext("value", FieldValueParser.toString(bytes, length))
           .build(logger);
     }
+  }
 
-    fieldBytes[currentDataPointer++] = data;
+  private UserException fieldTooLong() {
+    return UserException
+        .unsupportedError()
+        .message("Trying to write something big in a column")
+        .addContext("columnIndex", currentFieldIndex)
+        .addContext("Limit", MAX_FIELD_LENGTH)
+        .build(logger);
   }
 
   @Override
@@ -175,7 +282,11 @@ class FieldVarCharOutput extends TextOutput {
 
     if(collect) {
       assert currentVector != null;
-      currentVector.getMutator().setSafe(recordCount, fieldBytes, 0, currentDataPointer);
+      if (currentType == null) {
+        ((VarCharVector) currentVector).getMutator().setSafe(recordCount, fieldBytes, 0, currentDataPointer);
+      } else {
+        setTypedValue();
+      }
     }
 
     if (currentDataPointer > 0) {
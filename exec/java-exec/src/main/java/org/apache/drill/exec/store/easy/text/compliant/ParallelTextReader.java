@@ -0,0 +1,518 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.easy.text.compliant;
+
+import io.netty.buffer.DrillBuf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.drill.exec.exception.SchemaChangeException;
+import org.apache.drill.exec.expr.TypeHelper;
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.physical.impl.OutputMutator;
+import org.apache.drill.exec.record.MaterializedField;
+import org.apache.drill.exec.record.TransferPair;
+import org.apache.drill.exec.util.CallBack;
+import org.apache.drill.exec.vector.ValueVector;
+import org.apache.hadoop.fs.Seekable;
+import org.apache.hadoop.io.compress.CompressionInputStream;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Parses a split of a text file on several threads. The scan thread reads the split into chunks of
+ * whole lines and hands each chunk to a worker thread, which parses it into batches of its own. The
+ * scan thread then returns those batches in file order by transferring their vectors into the vectors
+ * of the scan.
+ *
+ * Since the reader rejects line separators within quoted values, a chunk cut after a line separator
+ * always starts a new record. A chunk that turns out to end within a quoted value fails with the same
+ * error as the serial reader.
+ */
+class ParallelTextReader {
+  static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ParallelTextReader.class);
+
+  private static final int WHITE_SPACE_BUFFER = 64*1024;
+  // bytes read from the stream at a time
+  private static final int READ_SIZE = 64*1024;
+
+  /**
+   * Creates the output a chunk is parsed into.
+   */
+  interface OutputFactory {
+    TextOutput newOutput(OutputMutator mutator) throws SchemaChangeException;
+  }
+
+  private final TextParsingSettings settings;
+  private final OutputFactory outputFactory;
+  private final OutputMutator outputMutator;
+  private final BufferAllocator allocator;
+  private final ExecutorService executor;
+  private final int threads;
+  private final int chunkSize;
+  private final int maxRecordsPerBatch;
+
+  private final InputStream stream;
+  private final long endPos;
+  private final byte[] lineSeparator;
+  private final byte[] readBytes;
+
+  // chunks handed to the workers, in file order
+  private final Deque<ChunkParser> parsers = new ArrayDeque<>();
+  // batches of the oldest parsed chunk that have not been returned yet
+  private final Deque<ChunkBatch> batches = new ArrayDeque<>();
+  // parser of the chunk the batches come from
+  private ChunkParser current;
+
+  // buffer holding the next chunk, null once the split is read
+  private DrillBuf chunk;
+  // number of bytes read into the chunk buffer
+  private int chunkLength;
+  // position in the file of the first byte of the chunk buffer
+  private long chunkPos;
+  // whether the partial line at the start of the split is still to be skipped
+  private boolean skipLine;
+  private boolean eof;
+
+  /**
+   * @param settings  the parser configuration
+   * @param stream  stream of the file
+   * @param startPos  start of the split in the file
+   * @param endPos  end of the split in the file
+   * @param outputFactory  creates the output of each chunk
+   * @param outputMutator  holds the vectors the batches are returned in
+   * @param allocator  allocator for chunks and the vectors of their batches
+   * @param executor  runs the workers
+   * @param threads  the number of chunks parsed at a time
+   * @param chunkSize  the number of bytes read for a chunk
+   * @param maxRecordsPerBatch  the maximum number of records in a batch
+   */
+  public ParallelTextReader(TextParsingSettings settings, InputStream stream, long startPos, long endPos,
+      OutputFactory outputFactory, OutputMutator outputMutator, BufferAllocator allocator, ExecutorService executor,
+      int threads, int chunkSize, int maxRecordsPerBatch) {
+    Preconditions.checkArgument(stream instanceof Seekable, "Text input only supports an InputStream that supports Seekable.");
+    boolean isCompressed = stream instanceof CompressionInputStream;
+    Preconditions.checkArgument(!isCompressed || startPos == 0, "Cannot use split on compressed stream.");
+
+    this.settings = settings;
+    this.outputFactory = outputFactory;
+    this.outputMutator = outputMutator;
+    this.allocator = allocator;
+    this.executor = executor;
+    this.threads = threads;
+    this.chunkSize = chunkSize;
+    this.maxRecordsPerBatch = maxRecordsPerBatch;
+
+    this.stream = stream;
+    // the split length is the compressed size, so a compressed stream is read to its end
+    this.endPos = isCompressed ? Long.MAX_VALUE : endPos;
+    this.lineSeparator = settings.getNewLineDelimiter();
+    this.readBytes = new byte[READ_SIZE];
+
+    this.chunkPos = startPos;
+    this.skipLine = startPos > 0 || settings.isSkipFirstLine();
+  }
+
+  /**
+   * Seeks to the start of the split and allocates the first chunk.
+   * @throws IOException
+   */
+  public void start() throws IOException {
+    if (chunkPos > 0) {
+      ((Seekable) stream).seek(chunkPos);
+    }
+    chunk = allocator.buffer(chunkSize);
+  }
+
+  /**
+   * Returns the next batch of the split in the vectors of the output mutator.
+   * @return number of records in the batch, 0 once the split is parsed
+   * @throws IOException
+   */
+  public int next() throws IOException, SchemaChangeException {
+    while (batches.isEmpty()) {
+      fillPipeline();
+      current = parsers.poll();
+      if (current == null) {
+        return 0;
+      }
+      // read the next chunk before waiting so that all workers stay busy
+      fillPipeline();
+      batches.addAll(current.getBatches());
+    }
+
+    final ChunkBatch batch = batches.poll();
+    for (ValueVector v : batch.vectors) {
+      final ValueVector target = outputMutator.addField(v.getField(), v.getClass());
+      v.makeTransferPair(target).transfer();
+    }
+    return batch.recordCount;
+  }
+
+  /**
+   * Position the parser of the current chunk has reached, which is where it failed if it did.
+   * @return byte position in the file
+   */
+  public long getPos() {
+    return current != null ? current.getPos() : chunkPos;
+  }
+
+  private void fillPipeline() throws IOException {
+    while (parsers.size() < threads) {
+      final ChunkParser parser = readChunk();
+      if (parser == null) {
+        return;
+      }
+      parser.future = executor.submit(parser);
+      parsers.add(parser);
+    }
+  }
+
+  /**
+   * Reads whole lines of the split into the chunk buffer, up to the first line separator at or after
+   * the end of the split.
+   * @return the parser of the chunk, or null once the split is read
+   * @throws IOException
+   */
+  private ChunkParser readChunk() throws IOException {
+    int start = 0;
+    while (chunk != null) {
+      fill();
+
+      if (skipLine) {
+        final int separator = findSeparator(start, chunkLength);
+        if (separator < 0 && !eof) {
+          // the whole buffer belongs to the skipped line
+          chunkPos += chunkLength;
+          chunkLength = 0;
+          continue;
+        }
+        if (separator < 0 || chunkPos + separator >= endPos) {
+          // the skipped line runs to the end of the split
+          releaseChunk();
+          return null;
+        }
+        start = separator + lineSeparator.length;
+        skipLine = false;
+      }
+
+      final long endIndex = endPos - chunkPos;
+      if (endIndex < chunkLength) {
+        final int separator = findSeparator((int) Math.max(endIndex, start), chunkLength);
+        if (separator >= 0) {
+          return newParser(start, separator + lineSeparator.length, true);
+        }
+      }
+      if (eof) {
+        return newParser(start, chunkLength, true);
+      }
+      final int separator = findLastSeparator(start, chunkLength);
+      if (separator >= 0) {
+        return newParser(start, separator + lineSeparator.length, false);
+      }
+
+      // a line longer than the chunk
+      final DrillBuf larger = allocator.buffer(2 * chunk.capacity());
+      larger.setBytes(0, chunk, start, chunkLength - start);
+      chunk.release();
+      chunk = larger;
+      chunkPos += start;
+      chunkLength -= start;
+      start = 0;
+    }
+    return null;
+  }
+
+  private void fill() throws IOException {
+    final int capacity = chunk.capacity();
+    while (!eof && chunkLength < capacity) {
+      final int read = stream.read(readBytes, 0, Math.min(readBytes.length, capacity - chunkLength));
+      if (read < 0) {
+        eof = true;
+      } else {
+        chunk.setBytes(chunkLength, readBytes, 0, read);
+        chunkLength += read;
+      }
+    }
+  }
+
+  /**
+   * Hands bytes start to end of the chunk buffer to a parser and carries the remaining bytes over to a
+   * new chunk buffer.
+   */
+  private ChunkParser newParser(int start, int end, boolean last) {
+    final DrillBuf parsed = chunk;
+    final long parsedPos = chunkPos + start;
+    final boolean lineTerminated = end - start >= lineSeparator.length
+        && isSeparator(end - lineSeparator.length);
+
+    if (last) {
+      chunk = null;
+    } else {
+      final int carried = chunkLength - end;
+      chunk = allocator.buffer(Math.max(chunkSize, 2 * carried));
+      chunk.setBytes(0, parsed, end, carried);
+      chunkPos += end;
+      chunkLength = carried;
+    }
+
+    if (end == start) {
+      parsed.release();
+      return null;
+    }
+    return new ChunkParser(parsed, start, end - start, parsedPos, lineTerminated);
+  }
+
+  private int findSeparator(int from, int to) {
+    for (int i = from; i <= to - lineSeparator.length; i++) {
+      if (isSeparator(i)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private int findLastSeparator(int from, int to) {
+    for (int i = to - lineSeparator.length; i >= from; i--) {
+      if (isSeparator(i)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private boolean isSeparator(int index) {
+    for (int i = 0; i < lineSeparator.length; i++) {
+      if (chunk.getByte(index + i) != lineSeparator[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void releaseChunk() {
+    if (chunk != null) {
+      chunk.release();
+      chunk = null;
+    }
+  }
+
+  /**
+   * Waits for the workers still parsing and releases everything held by the reader.
+   * @throws IOException
+   */
+  public void close() throws IOException {
+    releaseChunk();
+    for (ChunkParser parser : parsers) {
+      if (parser.future.cancel(false)) {
+        parser.chunk.release();
+        continue;
+      }
+      try {
+        for (ChunkBatch batch : parser.getBatches()) {
+          batch.clear();
+        }
+      } catch (Exception e) {
+        logger.debug("Discarding failure of a chunk parsed after the reader was closed.", e);
+      }
+    }
+    parsers.clear();
+    for (ChunkBatch batch : batches) {
+      batch.clear();
+    }
+    batches.clear();
+    stream.close();
+  }
+
+  /**
+   * Vectors of a batch parsed from a chunk.
+   */
+  private static final class ChunkBatch {
+    private final List<ValueVector> vectors;
+    private final int recordCount;
+
+    public ChunkBatch(List<ValueVector> vectors, int recordCount) {
+      this.vectors = vectors;
+      this.recordCount = recordCount;
+    }
+
+    public void clear() {
+      for (ValueVector v : vectors) {
+        v.clear();
+      }
+    }
+  }
+
+  /**
+   * Parses a chunk on a worker thread into batches of at most the maximum number of records.
+   */
+  private final class ChunkParser implements Callable<List<ChunkBatch>> {
+    private final DrillBuf chunk;
+    private final int start;
+    private final int length;
+    private final long pos;
+    private final boolean lineTerminated;
+    private final ChunkMutator mutator = new ChunkMutator();
+
+    private Future<List<ChunkBatch>> future;
+    private volatile TextInput input;
+
+    public ChunkParser(DrillBuf chunk, int start, int length, long pos, boolean lineTerminated) {
+      this.chunk = chunk;
+      this.start = start;
+      this.length = length;
+      this.pos = pos;
+      this.lineTerminated = lineTerminated;
+    }
+
+    @Override
+    public List<ChunkBatch> call() throws Exception {
+      final List<ChunkBatch> parsed = Lists.newArrayList();
+      final DrillBuf workBuf = allocator.buffer(WHITE_SPACE_BUFFER);
+      try {
+        input = new TextInput(settings, chunk.slice(start, length), length, pos, lineTerminated);
+        final TextReader reader = new TextReader(settings, input, outputFactory.newOutput(mutator), workBuf);
+        reader.start();
+
+        boolean more = true;
+        while (more) {
+          mutator.allocate();
+          reader.resetForNextBatch();
+          int recordCount = 0;
+          while (recordCount < maxRecordsPerBatch && (more = reader.parseNext())) {
+            recordCount++;
+          }
+          reader.finishBatch();
+          if (recordCount > 0) {
+            parsed.add(mutator.removeBatch(recordCount));
+          }
+        }
+        return parsed;
+      } catch (Exception | Error e) {
+        for (ChunkBatch batch : parsed) {
+          batch.clear();
+        }
+        throw e;
+      } finally {
+        mutator.clear();
+        workBuf.release();
+        chunk.release();
+      }
+    }
+
+    /**
+     * Waits for the chunk to be parsed.
+     * @return the batches of the chunk
+     * @throws IOException
+     */
+    public List<ChunkBatch> getBatches() throws IOException {
+      try {
+        return future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while parsing a chunk of the file.", e);
+      } catch (ExecutionException e) {
+        Throwables.propagateIfPossible(e.getCause(), IOException.class);
+        throw new IOException(e.getCause());
+      }
+    }
+
+    public long getPos() {
+      final TextInput input = this.input;
+      return input != null ? input.getPos() : pos;
+    }
+  }
+
+  /**
+   * Holds the vectors of the output of a chunk, which are allocated from the reader's allocator.
+   */
+  private final class ChunkMutator implements OutputMutator {
+    private final Map<String, ValueVector> fieldVectorMap = Maps.newLinkedHashMap();
+
+    @Override
+    public <T extends ValueVector> T addField(MaterializedField field, Class<T> clazz) throws SchemaChangeException {
+      ValueVector v = fieldVectorMap.get(field.getPath());
+      if (v == null) {
+        v = TypeHelper.getNewVector(field, allocator);
+        if (!clazz.isAssignableFrom(v.getClass())) {
+          throw new SchemaChangeException(String.format(
+              "Class %s was provided, expected %s.", clazz.getSimpleName(), v.getClass().getSimpleName()));
+        }
+        fieldVectorMap.put(field.getPath(), v);
+      }
+      return clazz.cast(v);
+    }
+
+    @Override
+    public void allocate(int recordCount) {
+      allocate();
+    }
+
+    public void allocate() {
+      for (final ValueVector v : fieldVectorMap.values()) {
+        v.allocateNew();
+      }
+    }
+
+    /**
+     * Transfers the parsed records out into vectors of their own.
+     */
+    public ChunkBatch removeBatch(int recordCount) {
+      final List<ValueVector> vectors = Lists.newArrayListWithCapacity(fieldVectorMap.size());
+      for (final ValueVector v : fieldVectorMap.values()) {
+        final TransferPair tp = v.getTransferPair(allocator);
+        tp.transfer();
+        vectors.add(tp.getTo());
+      }
+      return new ChunkBatch(vectors, recordCount);
+    }
+
+    @Override
+    public boolean isNewSchema() {
+      return false;
+    }
+
+    @Override
+    public DrillBuf getManagedBuffer() {
+      return null;
+    }
+
+    @Override
+    public CallBack getCallBack() {
+      return null;
+    }
+
+    public void clear() {
+      for (final ValueVector v : fieldVectorMap.values()) {
+        v.clear();
+      }
+    }
+  }
+}
@@ -40,6 +40,9 @@ import com.univocity.parsers.common.Format;
  */
 final class TextInput {
 
+  private static final long ONES = 0x0101010101010101L;
+  private static final long HIGH_BITS = 0x8080808080808080L;
+
   private final byte[] lineSeparator;
   private final byte normalizedLineSeparator;
   private final TextParsingSettings settings;
@@ -87,6 +90,16 @@ final class TextInput {
 
   private boolean endFound = false;
 
+  /**
+   * The quantity of valid data in a chunk handed to the input, or -1 when the input reads from a stream.
+   */
+  private final int chunkLength;
+
+  /**
+   * Whether the chunk handed to the input ends with a line separator.
+   */
+  private final boolean lineTerminated;
+
   /**
    * Creates a new instance with the mandatory characters for handling newlines transparently.
    * lineSeparator the sequence of characters that represent a newline, as defined in {@link Format#getLineSeparator()}
@@ -125,6 +138,39 @@ final class TextInput {
     this.bStart = buffer.memoryAddress();
     this.bStartMinus1 = bStart -1;
     this.underlyingBuffer = buffer.nioBuffer(0, buffer.capacity());
+    this.chunkLength = -1;
+    this.lineTerminated = false;
+  }
+
+  /**
+   * Creates a new instance over a chunk of a file that has already been read into memory. The chunk
+   * holds whole lines only, so unlike a split no line is skipped at its start.
+   * @param settings  the parser configuration
+   * @param chunk  buffer holding the chunk
+   * @param chunkLength  number of bytes of the chunk in the buffer
+   * @param chunkPos  position of the chunk in the file, used to report positions
+   * @param lineTerminated  whether the chunk ends with a line separator
+   */
+  TextInput(TextParsingSettings settings, DrillBuf chunk, int chunkLength, long chunkPos, boolean lineTerminated) {
+    this.lineSeparator = settings.getNewLineDelimiter();
+    this.normalizedLineSeparator = settings.getNormalizedNewLine();
+    this.settings = settings;
+
+    this.input = null;
+    this.seekable = null;
+    this.inputFS = null;
+    this.bufferReadable = false;
+
+    this.startPos = 0;
+    this.endPos = chunkLength;
+    this.streamPos = chunkPos;
+
+    this.buffer = chunk;
+    this.bStart = buffer.memoryAddress();
+    this.bStartMinus1 = bStart -1;
+    this.underlyingBuffer = buffer.nioBuffer(0, buffer.capacity());
+    this.chunkLength = chunkLength;
+    this.lineTerminated = lineTerminated;
   }
 
   /**
@@ -139,7 +185,7 @@ final class TextInput {
     }
 
     updateBuffer();
-    if (length > 0) {
+    if (length > 0 && input != null) {
       if(startPos > 0 || settings.isSkipFirstLine()){
 
         // move to next full record.
@@ -204,6 +250,11 @@ final class TextInput {
    * @throws IOException
    */
   private void updateBuffer() throws IOException {
+    if (input == null) {
+      updateChunk();
+      return;
+    }
+
     streamPos = seekable.getPos();
     underlyingBuffer.clear();
 
@@ -227,6 +278,22 @@ final class TextInput {
 
   }
 
+  /**
+   * Makes the chunk the current buffer on the first call and ends the input on the next.
+   */
+  private void updateChunk() {
+    if(endFound || chunkLength == 0){
+      length = -1;
+      return;
+    }
+
+    length = chunkLength;
+    endFound = true;
+
+    charCount += bufferPtr;
+    bufferPtr = 1;
+  }
+
   /**
    * Checks to see if we can go over the end of our bytes constraint on the data.  If so,
    * adjusts so that we can only read to the last character of the first line that crosses
@@ -311,6 +378,63 @@ final class TextInput {
     return byteChar;
   }
 
+  /**
+   * Copies the bytes that follow in the buffer to the output, up to the next byte that is either
+   * of the given stop bytes or may start a line separator. Eight bytes are tested at a time. The
+   * last byte of the buffer is left to {@link #nextChar()} so that it alone refills the buffer.
+   * @param output  output to append the bytes to
+   * @param stop1  byte to stop at
+   * @param stop2  another byte to stop at, may equal stop1
+   * @return number of bytes copied
+   */
+  final int copyPlainBytes(TextOutput output, byte stop1, byte stop2) {
+    if (length == -1 || bufferPtr >= length) {
+      return 0;
+    }
+
+    if (BoundsChecking.BOUNDS_CHECKING_ENABLED) {
+      buffer.checkBytes(bufferPtr - 1, length - 1);
+    }
+
+    final long start = bStartMinus1 + bufferPtr;
+    final long end = bStartMinus1 + length;
+    final long mask1 = (stop1 & 0xFFL) * ONES;
+    final long mask2 = (stop2 & 0xFFL) * ONES;
+    final long mask3 = (lineSeparator[0] & 0xFFL) * ONES;
+    final long mask4 = (normalizedLineSeparator & 0xFFL) * ONES;
+
+    long p = start;
+    while (p + 8 <= end) {
+      final long word = PlatformDependent.getLong(p);
+      if ((hasByte(word ^ mask1) | hasByte(word ^ mask2) | hasByte(word ^ mask3) | hasByte(word ^ mask4)) != 0) {
+        break;
+      }
+      p += 8;
+    }
+    while (p < end) {
+      final byte b = PlatformDependent.getByte(p);
+      if (b == stop1 || b == stop2 || b == lineSeparator[0] || b == normalizedLineSeparator) {
+        break;
+      }
+      p++;
+    }
+
+    final int count = (int) (p - start);
+    if (count > 0) {
+      output.append(buffer, bufferPtr - 1, count);
+      bufferPtr += count;
+    }
+    return count;
+  }
+
+  /**
+   * Tests a word for a zero byte.
+   * @return non-zero if any byte of the word is zero
+   */
+  private static long hasByte(long word) {
+    return (word - ONES) & ~word & HIGH_BITS;
+  }
+
   /**
    * Number of lines read since the start of this split.
    * @return
@@ -351,7 +475,18 @@ final class TextInput {
     return lineCount;
   }
 
+  /**
+   * Whether this input reads a chunk that ends with a line separator. A record that runs to
+   * the end of such a chunk has swallowed that separator inside a quoted value.
+   * @return true if the chunk ends with a line separator
+   */
+  final boolean isLineTerminated() {
+    return lineTerminated;
+  }
+
   public void close() throws IOException{
-    input.close();
+    if (input != null) {
+      input.close();
+    }
   }
 }
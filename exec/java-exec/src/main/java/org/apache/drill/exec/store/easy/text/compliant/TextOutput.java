@@ -17,6 +17,8 @@
  */
 package org.apache.drill.exec.store.easy.text.compliant;
 
+import io.netty.buffer.DrillBuf;
+
 /* Base class for producing output record batches while dealing with
  * Text files.
  */
@@ -59,6 +61,19 @@ abstract class TextOutput {
    */
   public abstract void append(byte data);
 
+  /**
+   * Appends a run of bytes to the output character data buffer. Outputs override this
+   * to copy the run at once.
+   * @param buffer  buffer holding the bytes
+   * @param index  index of the first byte in the buffer
+   * @param length  number of bytes
+   */
+  public void append(DrillBuf buffer, int index, int length) {
+    for (int i = 0; i < length; i++) {
+      append(buffer.getByte(index + i));
+    }
+  }
+
   /**
    * Completes the processing of a given record. Also completes the processing of the
    * last field being read.
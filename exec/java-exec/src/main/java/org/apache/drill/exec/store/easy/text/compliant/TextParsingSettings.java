@@ -17,9 +17,16 @@
  */
 package org.apache.drill.exec.store.easy.text.compliant;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.drill.common.types.TypeProtos.MinorType;
 import org.apache.drill.exec.store.easy.text.TextFormatPlugin.TextFormatConfig;
 
 import com.google.common.base.Charsets;
+import com.google.common.collect.Sets;
 import com.univocity.parsers.common.TextParsingException;
 
 public class TextParsingSettings {
@@ -27,6 +34,10 @@ public class TextParsingSettings {
 
   public static final TextParsingSettings DEFAULT = new TextParsingSettings();
 
+  // types a header column may be declared to have
+  static final Set<MinorType> TYPED_COLUMN_TYPES =
+      Sets.immutableEnumSet(MinorType.INT, MinorType.BIGINT, MinorType.FLOAT8, MinorType.DATE, MinorType.TIMESTAMP);
+
   private String emptyValue = null;
   private boolean parseUnescapedQuotes = true;
   private byte quote = b('"');
@@ -45,6 +56,8 @@ public class TextParsingSettings {
   private boolean headerExtractionEnabled = false;
   private boolean useRepeatedVarChar = true;
   private int numberOfRecordsToRead = -1;
+  // types of the header columns read into typed vectors, by case insensitive name
+  private Map<String, MinorType> columnTypes = Collections.emptyMap();
 
   public void set(TextFormatConfig config){
     this.quote = bSafe(config.getQuote(), "quote");
@@ -58,6 +71,40 @@ public class TextParsingSettings {
       // In case of header TextRecordReader will use set of VarChar vectors vs RepeatedVarChar
       this.useRepeatedVarChar = false;
     }
+    this.columnTypes = columnTypes(config.getColumnTypes());
+  }
+
+  private static Map<String, MinorType> columnTypes(Map<String, String> types) {
+    if (types == null || types.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    final Map<String, MinorType> columnTypes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    for (Map.Entry<String, String> entry : types.entrySet()) {
+      final MinorType type;
+      try {
+        type = MinorType.valueOf(entry.getValue().toUpperCase());
+      } catch (IllegalArgumentException e) {
+        throw unsupportedColumnType(entry);
+      }
+      if (!TYPED_COLUMN_TYPES.contains(type)) {
+        throw unsupportedColumnType(entry);
+      }
+      columnTypes.put(entry.getKey(), type);
+    }
+    return columnTypes;
+  }
+
+  private static IllegalArgumentException unsupportedColumnType(Map.Entry<String, String> entry) {
+    return new IllegalArgumentException(String.format("Failure validating configuration option columnTypes.  Column "
+        + "%s has type %s but only %s are supported.", entry.getKey(), entry.getValue(), TYPED_COLUMN_TYPES));
+  }
+
+  /**
+   * Types of the header columns that are read into typed vectors rather than VARCHAR.
+   * @return map from case insensitive column name to type, empty when all columns are VARCHAR
+   */
+  public Map<String, MinorType> getColumnTypes() {
+    return columnTypes;
   }
 
   public byte getComment(){
@@ -160,6 +160,10 @@ final class TextReader {
       if(fieldsWritten == 0 && !output.rowHasData()){
         throw e;
       }
+      // a chunk ends with a line separator, so a record running past it read that separator inside quotes
+      if(input.isLineTerminated()){
+        throw new TextParsingException(context, "Cannot use newline character within quoted string");
+      }
     }
 
     output.finishRecord();
@@ -200,6 +204,8 @@ final class TextReader {
     byte ch = this.ch;
     while (ch != delimiter && ch != newLine) {
       output.append(ch);
+      // copy the run of plain bytes that follows at once
+      input.copyPlainBytes(output, delimiter, delimiter);
       ch = input.nextChar();
     }
     this.ch = ch;
@@ -251,6 +257,10 @@ final class TextReader {
         }
         output.append(ch);
         prev = ch;
+        if (prev != quoteEscape) {
+          // copy the run of bytes up to the next quote or escape at once
+          input.copyPlainBytes(output, quote, quoteEscape);
+        }
       } else if (prev == quoteEscape) {
         output.append(quote);
         prev = NULL_BYTE;
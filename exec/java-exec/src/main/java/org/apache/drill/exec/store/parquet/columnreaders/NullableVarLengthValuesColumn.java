@@ -55,7 +55,7 @@ public abstract class NullableVarLengthValuesColumn<V extends ValueVector> exten
 
   @Override
   protected void postPageRead() {
-    currLengthDeterminingDictVal = null;
+    currLengthDeterminingDictId = -1;
     pageReader.valuesReadyToRead = 0;
   }
 
@@ -79,12 +79,12 @@ public abstract class NullableVarLengthValuesColumn<V extends ValueVector> exten
     }
 
     if (usingDictionary) {
-      if (currLengthDeterminingDictVal == null) {
-        currLengthDeterminingDictVal = pageReader.dictionaryLengthDeterminingReader.readBytes();
+      if (currLengthDeterminingDictId == -1) {
+        currLengthDeterminingDictId = pageReader.dictionaryLengthDeterminingReader.readValueDictionaryId();
       }
-      currDictValToWrite = currLengthDeterminingDictVal;
+      currDictIdToWrite = currLengthDeterminingDictId;
       // re-purposing  this field here for length in BYTES to prevent repetitive multiplication/division
-      dataTypeLengthInBits = currLengthDeterminingDictVal.length();
+      dataTypeLengthInBits = pageReader.getDictionaryValueLength(currLengthDeterminingDictId);
     }
     else {
       // re-purposing  this field here for length in BYTES to prevent repetitive multiplication/division
@@ -105,7 +105,7 @@ public abstract class NullableVarLengthValuesColumn<V extends ValueVector> exten
       pageReader.readyToReadPosInBytes += dataTypeLengthInBits + 4;
     }
     pageReader.valuesReadyToRead++;
-    currLengthDeterminingDictVal = null;
+    currLengthDeterminingDictId = -1;
   }
 
   @Override
@@ -126,7 +126,7 @@ public abstract class NullableVarLengthValuesColumn<V extends ValueVector> exten
     // again, I am re-purposing the unused field here, it is a length n BYTES, not bits
     if (! currentValNull) {
       if (usingDictionary) {
-        currDictValToWrite = pageReader.dictionaryValueReader.readBytes();
+        currDictIdToWrite = pageReader.dictionaryValueReader.readValueDictionaryId();
       }
       // re-purposing  this field here for length in BYTES to prevent repetitive multiplication/division
       dataTypeLengthInBits = variableWidthVector.getAccessor().getValueLength(valuesReadInCurrentPass);
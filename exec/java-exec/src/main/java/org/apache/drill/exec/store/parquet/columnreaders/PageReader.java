@@ -46,6 +46,7 @@ import org.apache.parquet.format.converter.ParquetMetadataConverter;
 import org.apache.parquet.hadoop.CodecFactory;
 import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.schema.PrimitiveType;
 
 import com.google.common.base.Preconditions;
@@ -95,6 +96,11 @@ final class PageReader {
   ValuesReader dictionaryLengthDeterminingReader;
   ValuesReader dictionaryValueReader;
   Dictionary dictionary;
+  // values of a binary dictionary, decoded once into direct memory so that variable length readers can copy
+  // dictionary encoded values into their vectors by dictionary id; entry i spans
+  // [dictionaryValueOffsets[i], dictionaryValueOffsets[i + 1])
+  DrillBuf dictionaryValues;
+  int[] dictionaryValueOffsets;
   PageHeader pageHeader = null;
 
   int currentPageCount = -1;
@@ -158,6 +164,44 @@ final class PageReader {
         valueOf(pageHeader.dictionary_page_header.encoding.name()));
 
     this.dictionary = page.getEncoding().initDictionary(parentStatus.columnDescriptor, page);
+    if (parentStatus instanceof VarLengthValuesColumn) {
+      decodeBinaryDictionary();
+    }
+  }
+
+  /**
+   * Decode all entries of the current binary dictionary into a single buffer. Dictionary encoded pages of low
+   * cardinality columns then cost a copy out of this buffer per value, instead of materializing a {@link Binary}
+   * and a heap {@link ByteBuffer} for every value read.
+   */
+  private void decodeBinaryDictionary() {
+    final int entries = dictionary.getMaxId() + 1;
+    final Binary[] values = new Binary[entries];
+    dictionaryValueOffsets = new int[entries + 1];
+    int totalLength = 0;
+    for (int id = 0; id < entries; id++) {
+      values[id] = dictionary.decodeToBinary(id);
+      dictionaryValueOffsets[id] = totalLength;
+      totalLength += values[id].length();
+    }
+    dictionaryValueOffsets[entries] = totalLength;
+
+    dictionaryValues = allocateDictionaryBuffer(totalLength);
+    for (int id = 0; id < entries; id++) {
+      dictionaryValues.setBytes(dictionaryValueOffsets[id], values[id].getBytes());
+    }
+  }
+
+  int getDictionaryValueStart(int dictionaryId) {
+    return dictionaryValueOffsets[dictionaryId];
+  }
+
+  int getDictionaryValueEnd(int dictionaryId) {
+    return dictionaryValueOffsets[dictionaryId + 1];
+  }
+
+  int getDictionaryValueLength(int dictionaryId) {
+    return dictionaryValueOffsets[dictionaryId + 1] - dictionaryValueOffsets[dictionaryId];
   }
 
   public void readPage(PageHeader pageHeader, int compressedSize, int uncompressedSize, DrillBuf dest) throws IOException {
@@ -367,6 +411,8 @@ final class PageReader {
       b.release();
     }
     allocatedDictionaryBuffers.clear();
+    dictionaryValues = null;
+    dictionaryValueOffsets = null;
   }
 
   public void clear(){
@@ -20,7 +20,6 @@ package org.apache.drill.exec.store.parquet.columnreaders;
 import io.netty.buffer.DrillBuf;
 
 import java.math.BigDecimal;
-import java.nio.ByteBuffer;
 
 import org.apache.drill.common.exceptions.ExecutionSetupException;
 import org.apache.drill.exec.expr.holders.Decimal28SparseHolder;
@@ -186,9 +185,9 @@ public class VarLengthColumnReaders {
       }
 
       if (usingDictionary) {
-        currDictValToWrite = pageReader.dictionaryValueReader.readBytes();
-        ByteBuffer buf = currDictValToWrite.toByteBuffer();
-        mutator.setSafe(index, buf, buf.position(), currDictValToWrite.length());
+        currDictIdToWrite = pageReader.dictionaryValueReader.readValueDictionaryId();
+        mutator.setSafe(index, pageReader.getDictionaryValueStart(currDictIdToWrite),
+            pageReader.getDictionaryValueEnd(currDictIdToWrite), pageReader.dictionaryValues);
       } else {
         mutator.setSafe(index, start, start + length, bytebuf);
       }
@@ -224,8 +223,8 @@ public class VarLengthColumnReaders {
       }
 
       if (usingDictionary) {
-        ByteBuffer buf = currDictValToWrite.toByteBuffer();
-        mutator.setSafe(index, buf, buf.position(), currDictValToWrite.length());
+        mutator.setSafe(index, 1, pageReader.getDictionaryValueStart(currDictIdToWrite),
+            pageReader.getDictionaryValueEnd(currDictIdToWrite), pageReader.dictionaryValues);
       } else {
         mutator.setSafe(index, 1, start, start + length, value);
       }
@@ -259,9 +258,9 @@ public class VarLengthColumnReaders {
       }
 
       if (usingDictionary) {
-        currDictValToWrite = pageReader.dictionaryValueReader.readBytes();
-        ByteBuffer buf = currDictValToWrite.toByteBuffer();
-        mutator.setSafe(index, buf, buf.position(), currDictValToWrite.length());
+        currDictIdToWrite = pageReader.dictionaryValueReader.readValueDictionaryId();
+        mutator.setSafe(index, pageReader.getDictionaryValueStart(currDictIdToWrite),
+            pageReader.getDictionaryValueEnd(currDictIdToWrite), pageReader.dictionaryValues);
       } else {
         mutator.setSafe(index, start, start + length, value);
       }
@@ -298,8 +297,8 @@ public class VarLengthColumnReaders {
       }
 
       if (usingDictionary) {
-        ByteBuffer buf = currDictValToWrite.toByteBuffer();
-        mutator.setSafe(index, buf, buf.position(), currDictValToWrite.length());
+        mutator.setSafe(index, 1, pageReader.getDictionaryValueStart(currDictIdToWrite),
+            pageReader.getDictionaryValueEnd(currDictIdToWrite), pageReader.dictionaryValues);
       } else {
         mutator.setSafe(index, 1, start, start + length, value);
       }
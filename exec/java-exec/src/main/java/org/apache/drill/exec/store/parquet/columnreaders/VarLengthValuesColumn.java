@@ -29,12 +29,13 @@ import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.format.Encoding;
 import org.apache.parquet.format.SchemaElement;
 import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
-import org.apache.parquet.io.api.Binary;
 
 public abstract class VarLengthValuesColumn<V extends ValueVector> extends VarLengthColumn {
 
-  Binary currLengthDeterminingDictVal;
-  Binary currDictValToWrite;
+  // dictionary ids of the values being sized and written, currLengthDeterminingDictId is -1 until the id of
+  // the next value has been read
+  int currLengthDeterminingDictId = -1;
+  int currDictIdToWrite;
   VariableWidthVector variableWidthVector;
 
   VarLengthValuesColumn(ParquetRecordReader parentReader, int allocateSize, ColumnDescriptor descriptor,
@@ -66,7 +67,7 @@ public abstract class VarLengthValuesColumn<V extends ValueVector> extends VarLe
   public void updateReadyToReadPosition() {
     pageReader.readyToReadPosInBytes += dataTypeLengthInBits + 4;
     pageReader.valuesReadyToRead++;
-    currLengthDeterminingDictVal = null;
+    currLengthDeterminingDictId = -1;
   }
 
   @Override
@@ -85,12 +86,12 @@ public abstract class VarLengthValuesColumn<V extends ValueVector> extends VarLe
   protected boolean readAndStoreValueSizeInformation() throws IOException {
     // re-purposing this field here for length in BYTES to prevent repetitive multiplication/division
     if (usingDictionary) {
-      if (currLengthDeterminingDictVal == null) {
-        currLengthDeterminingDictVal = pageReader.dictionaryLengthDeterminingReader.readBytes();
+      if (currLengthDeterminingDictId == -1) {
+        currLengthDeterminingDictId = pageReader.dictionaryLengthDeterminingReader.readValueDictionaryId();
       }
-      currDictValToWrite = currLengthDeterminingDictVal;
+      currDictIdToWrite = currLengthDeterminingDictId;
       // re-purposing  this field here for length in BYTES to prevent repetitive multiplication/division
-      dataTypeLengthInBits = currLengthDeterminingDictVal.length();
+      dataTypeLengthInBits = pageReader.getDictionaryValueLength(currLengthDeterminingDictId);
     } else {
       // re-purposing  this field here for length in BYTES to prevent repetitive multiplication/division
       dataTypeLengthInBits = pageReader.pageData.getInt((int) pageReader.readyToReadPosInBytes);
@@ -25,6 +25,7 @@ import java.util.Iterator;
 import java.util.List;
 
 import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.exec.memory.AllocationManager;
 import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
 
@@ -64,6 +65,9 @@ public class MemoryIterator implements Iterator<Object> {
 
     memoryInfo.direct_current = context.getDrillbitContext().getAllocator().getAllocatedMemory();
     memoryInfo.direct_max = DrillConfig.getMaxDirectMemory();
+    memoryInfo.direct_rounded_up = AllocationManager.getRoundedUpMemory();
+    memoryInfo.pooled_current = AllocationManager.getPooledMemory();
+    memoryInfo.pooled_free = AllocationManager.getPooledFreeMemory();
     return memoryInfo;
   }
 
@@ -90,5 +94,8 @@ public class MemoryIterator implements Iterator<Object> {
     public long direct_current;
     public long jvm_direct_current;
     public long direct_max;
+    public long direct_rounded_up;
+    public long pooled_current;
+    public long pooled_free;
   }
 }
@@ -0,0 +1,433 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.vector.complex.fn;
+
+import io.netty.buffer.DrillBuf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import org.apache.drill.common.exceptions.UserException;
+import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.exec.store.easy.json.JsonProcessor;
+import org.apache.drill.exec.vector.complex.writer.BaseWriter.ComplexWriter;
+import org.apache.drill.exec.vector.complex.writer.BaseWriter.ListWriter;
+import org.apache.drill.exec.vector.complex.writer.BaseWriter.MapWriter;
+import org.apache.drill.exec.vector.complex.writer.VarCharWriter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.base.Preconditions;
+
+/**
+ * Reads JSON records the way {@link JsonReader} does, but from a {@link ByteJsonTokenizer} rather
+ * than a Jackson parser, so that reading a record creates no objects: strings and the text of
+ * values in all text mode are copied from the read buffer into the vectors, and field names are
+ * resolved through a {@link FieldNameCache}. A single top level array of records is unwrapped.
+ *
+ * Extended JSON types such as {"$date": ...} are not recognized and are read as maps. Only input streams
+ * are read; JSONRecordReader reads embedded content with {@link JsonReader} instead.
+ */
+public class ByteJsonReader implements JsonProcessor {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ByteJsonReader.class);
+
+  private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+  private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+  private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+
+  private final ByteJsonTokenizer tokenizer;
+  private final FieldNameCache fieldNames = new FieldNameCache();
+  private final List<SchemaPath> columns;
+  private final FieldSelection selection;
+  private final boolean allTextMode;
+  private final boolean readNumbersAsDouble;
+
+  /**
+   * Whether the reader is currently in a situation where we are unwrapping an outer list.
+   */
+  private boolean inOuterList;
+  /**
+   * The name of the current field being parsed. For Error messages.
+   */
+  private String currentFieldName = "<none>";
+
+  /**
+   * @param readBuffer  buffer the input is read into
+   * @param spareBuffer  buffer the read buffer is swapped with when a value does not fit in it
+   * @param columns  pathnames of columns/subfields to read
+   * @param allTextMode  whether all scalars are read as VarChar
+   * @param readNumbersAsDouble  whether integral numbers are read as Float8
+   */
+  public ByteJsonReader(DrillBuf readBuffer, DrillBuf spareBuffer, List<SchemaPath> columns, boolean allTextMode,
+      boolean readNumbersAsDouble) {
+    assert Preconditions.checkNotNull(columns).size() > 0 : "JSON record reader requires at least one column";
+    this.tokenizer = new ByteJsonTokenizer(readBuffer, spareBuffer);
+    this.columns = columns;
+    this.selection = FieldSelection.getFieldSelection(columns);
+    this.allTextMode = allTextMode;
+    this.readNumbersAsDouble = readNumbersAsDouble;
+  }
+
+  @Override
+  public void setSource(InputStream is) throws IOException {
+    tokenizer.setSource(is);
+    inOuterList = false;
+  }
+
+  /**
+   * Not supported, there is no byte input to tokenize. Use {@link JsonReader} for embedded content.
+   */
+  @Override
+  public void setSource(JsonNode node) {
+    throw new UnsupportedOperationException("ByteJsonReader only reads from streams.");
+  }
+
+  @Override
+  public void ensureAtLeastOneField(ComplexWriter writer) {
+    JsonReader.ensureAtLeastOneField(writer, columns, allTextMode);
+  }
+
+  @Override
+  public ReadState write(ComplexWriter writer) throws IOException {
+    int c = tokenizer.peek();
+
+    if (inOuterList) {
+      tokenizer.consume();
+      if (c == ']') {
+        confirmLast();
+        return ReadState.END_OF_STREAM;
+      } else if (c != ',') {
+        throw tokenizer.unexpected(c, "was expecting comma to separate ARRAY entries");
+      }
+      c = tokenizer.peek();
+      if (c != '{') {
+        throw topLevelError();
+      }
+    }
+
+    switch (c) {
+    case ByteJsonTokenizer.EOF:
+      return ReadState.END_OF_STREAM;
+    case '{':
+      tokenizer.consume();
+      writeData(writer.rootAsMap(), selection);
+      break;
+    case '[':
+      if (inOuterList) {
+        throw topLevelError();
+      }
+      tokenizer.consume();
+      if (tokenizer.peek() != '{') {
+        throw topLevelError();
+      }
+      tokenizer.consume();
+      inOuterList = true;
+      writeData(writer.rootAsMap(), selection);
+      break;
+    case ']':
+      throw
+        getExceptionWithContext(
+          UserException.dataReadError(), currentFieldName, null)
+          .message("Failure while parsing JSON.  Ran across unexpected END_ARRAY.")
+          .build(logger);
+    default:
+      throw
+        getExceptionWithContext(
+          UserException.dataReadError(), currentFieldName, null)
+          .message("Failure while parsing JSON.  Drill currently only supports parsing "
+              + "json strings that contain either lists or maps.  The root object cannot be a scalar.")
+          .build(logger);
+    }
+
+    return ReadState.WRITE_SUCCEED;
+  }
+
+  private UserException topLevelError() {
+    return
+      getExceptionWithContext(
+        UserException.dataReadError(), currentFieldName, null)
+        .message("The top level of your document must either be a single array of maps or a set "
+          + "of white space delimited maps.")
+        .build(logger);
+  }
+
+  private void confirmLast() throws IOException {
+    if (tokenizer.peek() != ByteJsonTokenizer.EOF) {
+      throw
+        getExceptionWithContext(
+          UserException.dataReadError(), currentFieldName, null)
+        .message("Drill attempted to unwrap a toplevel list "
+          + "in your document.  However, it appears that there is trailing content after this top level list.  Drill only "
+          + "supports querying a set of distinct maps or a single json array with multiple inner maps.")
+        .build(logger);
+    }
+  }
+
+  /**
+   * Writes the entries of the map whose opening brace was just read.
+   */
+  private void writeData(MapWriter map, FieldSelection selection) throws IOException {
+    map.start();
+    try {
+      if (tokenizer.peek() == '}') {
+        tokenizer.consume();
+        return;
+      }
+      for (;;) {
+        tokenizer.readFieldName();
+        final String fieldName = fieldNames.get(tokenizer.getBuffer(), tokenizer.getValueStart(), tokenizer.getValueEnd());
+        this.currentFieldName = fieldName;
+        final int colon = tokenizer.peek();
+        if (colon != ':') {
+          throw tokenizer.unexpected(colon, "was expecting a colon to separate field name and value");
+        }
+        tokenizer.consume();
+
+        final FieldSelection childSelection = selection.getChild(fieldName);
+        if (childSelection.isNeverValid()) {
+          skipValue();
+        } else {
+          writeValue(map, fieldName, childSelection);
+        }
+
+        final int c = tokenizer.peek();
+        tokenizer.consume();
+        if (c == '}') {
+          return;
+        } else if (c != ',') {
+          throw tokenizer.unexpected(c, "was expecting comma to separate OBJECT entries");
+        }
+      }
+    } finally {
+      map.end();
+    }
+  }
+
+  private void writeValue(MapWriter map, String fieldName, FieldSelection selection) throws IOException {
+    switch (tokenizer.peek()) {
+    case '{':
+      tokenizer.consume();
+      writeData(map.map(fieldName), selection);
+      break;
+    case '[':
+      tokenizer.consume();
+      writeData(map.list(fieldName));
+      break;
+    case '"':
+      tokenizer.readString();
+      writeVarChar(map.varChar(fieldName));
+      break;
+    case 't':
+      tokenizer.readLiteral(TRUE);
+      if (allTextMode) {
+        writeVarChar(map.varChar(fieldName));
+      } else {
+        map.bit(fieldName).writeBit(1);
+      }
+      break;
+    case 'f':
+      tokenizer.readLiteral(FALSE);
+      if (allTextMode) {
+        writeVarChar(map.varChar(fieldName));
+      } else {
+        map.bit(fieldName).writeBit(0);
+      }
+      break;
+    case 'n':
+      // do nothing as we don't have a type.
+      tokenizer.readLiteral(NULL);
+      break;
+    default:
+      final boolean integral = tokenizer.readNumber();
+      if (allTextMode) {
+        writeVarChar(map.varChar(fieldName));
+      } else if (integral && !readNumbersAsDouble) {
+        map.bigInt(fieldName).writeBigInt(tokenizer.getLongValue());
+      } else {
+        map.float8(fieldName).writeFloat8(tokenizer.getDoubleValue());
+      }
+    }
+  }
+
+  /**
+   * Writes the elements of the list whose opening bracket was just read.
+   */
+  private void writeData(ListWriter list) throws IOException {
+    list.startList();
+    if (tokenizer.peek() == ']') {
+      tokenizer.consume();
+    } else {
+      for (;;) {
+        writeValue(list);
+        final int c = tokenizer.peek();
+        tokenizer.consume();
+        if (c == ']') {
+          break;
+        } else if (c != ',') {
+          throw tokenizer.unexpected(c, "was expecting comma to separate ARRAY entries");
+        }
+      }
+    }
+    list.endList();
+  }
+
+  private void writeValue(ListWriter list) throws IOException {
+    switch (tokenizer.peek()) {
+    case '{':
+      tokenizer.consume();
+      writeData(list.map(), FieldSelection.ALL_VALID);
+      break;
+    case '[':
+      tokenizer.consume();
+      writeData(list.list());
+      break;
+    case '"':
+      tokenizer.readString();
+      writeVarChar(list.varChar());
+      break;
+    case 't':
+      tokenizer.readLiteral(TRUE);
+      if (allTextMode) {
+        writeVarChar(list.varChar());
+      } else {
+        list.bit().writeBit(1);
+      }
+      break;
+    case 'f':
+      tokenizer.readLiteral(FALSE);
+      if (allTextMode) {
+        writeVarChar(list.varChar());
+      } else {
+        list.bit().writeBit(0);
+      }
+      break;
+    case 'n':
+      tokenizer.readLiteral(NULL);
+      if (!allTextMode) {
+        throw UserException.unsupportedError()
+          .message("Null values are not supported in lists by default. " +
+            "Please set `store.json.all_text_mode` to true to read lists containing nulls. " +
+            "Be advised that this will treat JSON null values as a string containing the word 'null'.")
+          .build(logger);
+      }
+      writeVarChar(list.varChar());
+      break;
+    default:
+      final boolean integral = tokenizer.readNumber();
+      if (allTextMode) {
+        writeVarChar(list.varChar());
+      } else if (integral && !readNumbersAsDouble) {
+        list.bigInt().writeBigInt(tokenizer.getLongValue());
+      } else {
+        list.float8().writeFloat8(tokenizer.getDoubleValue());
+      }
+    }
+  }
+
+  /**
+   * Writes the value last read by the tokenizer, straight from its buffer.
+   */
+  private void writeVarChar(VarCharWriter writer) {
+    writer.writeVarChar(tokenizer.getValueStart(), tokenizer.getValueEnd(), tokenizer.getBuffer());
+  }
+
+  /**
+   * Reads past the next value, for fields that are not selected.
+   */
+  private void skipValue() throws IOException {
+    switch (tokenizer.peek()) {
+    case '{':
+      tokenizer.consume();
+      if (tokenizer.peek() == '}') {
+        tokenizer.consume();
+        return;
+      }
+      for (;;) {
+        tokenizer.readFieldName();
+        final int colon = tokenizer.peek();
+        if (colon != ':') {
+          throw tokenizer.unexpected(colon, "was expecting a colon to separate field name and value");
+        }
+        tokenizer.consume();
+        skipValue();
+        final int c = tokenizer.peek();
+        tokenizer.consume();
+        if (c == '}') {
+          return;
+        } else if (c != ',') {
+          throw tokenizer.unexpected(c, "was expecting comma to separate OBJECT entries");
+        }
+      }
+    case '[':
+      tokenizer.consume();
+      if (tokenizer.peek() == ']') {
+        tokenizer.consume();
+        return;
+      }
+      for (;;) {
+        skipValue();
+        final int c = tokenizer.peek();
+        tokenizer.consume();
+        if (c == ']') {
+          return;
+        } else if (c != ',') {
+          throw tokenizer.unexpected(c, "was expecting comma to separate ARRAY entries");
+        }
+      }
+    case '"':
+      tokenizer.readString();
+      return;
+    case 't':
+      tokenizer.readLiteral(TRUE);
+      return;
+    case 'f':
+      tokenizer.readLiteral(FALSE);
+      return;
+    case 'n':
+      tokenizer.readLiteral(NULL);
+      return;
+    default:
+      tokenizer.readNumber();
+    }
+  }
+
+  @Override
+  public UserException.Builder getExceptionWithContext(UserException.Builder exceptionBuilder,
+                                                       String field,
+                                                       String msg,
+                                                       Object... args) {
+    if (msg != null) {
+      exceptionBuilder.message(msg, args);
+    }
+    if (field != null) {
+      exceptionBuilder.pushContext("Field ", field);
+    }
+    exceptionBuilder.pushContext("Column ", tokenizer.getColumn())
+            .pushContext("Line ", tokenizer.getLine());
+    return exceptionBuilder;
+  }
+
+  @Override
+  public UserException.Builder getExceptionWithContext(Throwable e,
+                                                       String field,
+                                                       String msg,
+                                                       Object... args) {
+    UserException.Builder exceptionBuilder = UserException.dataReadError(e);
+    return getExceptionWithContext(exceptionBuilder, field, msg, args);
+  }
+}
@@ -0,0 +1,649 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.vector.complex.fn;
+
+import io.netty.buffer.DrillBuf;
+import io.netty.util.internal.PlatformDependent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.apache.hadoop.fs.ByteBufferReadable;
+import org.apache.hadoop.fs.FSDataInputStream;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.google.common.base.Charsets;
+
+/**
+ * Splits a JSON stream into values straight from the bytes of a read buffer. Strings, field
+ * names and numbers are left in the buffer and exposed as a range of it, which stays valid
+ * until the tokenizer is called again. Escaped strings are unescaped in place, as the unescaped
+ * form of an escape sequence is never longer than the sequence. A value that runs past the end
+ * of the buffer is moved to the front before more bytes are read, and the buffer is grown when
+ * a single value does not fit in it.
+ *
+ * Comments and unquoted field names are accepted, as they are by {@link JsonReader}.
+ */
+final class ByteJsonTokenizer {
+
+  static final int EOF = -1;
+
+  // a decimal with at most this many significant digits has a mantissa that is exact as a double
+  private static final int MAX_EXACT_DIGITS = 15;
+  private static final double[] POWERS_OF_TEN = new double[23];
+  static {
+    POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+  }
+
+  private DrillBuf buffer;
+  // buffer swapped in when the current one has to grow
+  private DrillBuf spare;
+  private long address;
+  private ByteBuffer nioBuffer;
+
+  private InputStream input;
+  private FSDataInputStream inputFS;
+  private boolean bufferReadable;
+  private byte[] readBytes;
+  private boolean endOfInput;
+
+  // next byte to read
+  private int pos;
+  // end of the bytes read into the buffer
+  private int limit;
+  // start of the value being read, kept in the buffer when it is refilled; -1 if none
+  private int mark = -1;
+  // where the next unescaped byte of a string goes, -1 while the string has no escapes
+  private int writePos = -1;
+  // number of bytes dropped from the front of the buffer so far
+  private long consumed;
+
+  private int line = 1;
+  private long lineStart;
+
+  private int valueStart;
+  private int valueEnd;
+
+  ByteJsonTokenizer(DrillBuf buffer, DrillBuf spare) {
+    this.buffer = buffer;
+    this.spare = spare;
+    updateAddress();
+  }
+
+  void setSource(InputStream input) {
+    this.input = input;
+    if (input instanceof FSDataInputStream) {
+      this.inputFS = (FSDataInputStream) input;
+      this.bufferReadable = inputFS.getWrappedStream() instanceof ByteBufferReadable;
+    } else {
+      this.inputFS = null;
+      this.bufferReadable = false;
+    }
+    pos = 0;
+    limit = 0;
+    mark = -1;
+    writePos = -1;
+    consumed = 0;
+    line = 1;
+    lineStart = 0;
+    endOfInput = false;
+  }
+
+  /**
+   * Buffer holding the current value, between {@link #getValueStart()} and {@link #getValueEnd()}.
+   */
+  DrillBuf getBuffer() {
+    return buffer;
+  }
+
+  int getValueStart() {
+    return valueStart;
+  }
+
+  int getValueEnd() {
+    return valueEnd;
+  }
+
+  int getLine() {
+    return line;
+  }
+
+  int getColumn() {
+    return (int) (consumed + pos - lineStart) + 1;
+  }
+
+  /**
+   * Skips white space and comments.
+   * @return the next byte, which is left unread, or {@link #EOF} at the end of the input
+   */
+  int peek() throws IOException {
+    for (;;) {
+      if (pos >= limit && !fill()) {
+        return EOF;
+      }
+      final byte b = get(pos);
+      switch (b) {
+      case '\n':
+        pos++;
+        newLine();
+        break;
+      case ' ':
+      case '\t':
+      case '\r':
+        pos++;
+        break;
+      case '/':
+        skipComment();
+        break;
+      default:
+        return b & 0xFF;
+      }
+    }
+  }
+
+  /**
+   * Reads the byte returned by the last call to {@link #peek()}.
+   */
+  void consume() {
+    pos++;
+  }
+
+  /**
+   * Reads the string that starts at the next byte.
+   */
+  void readString() throws IOException {
+    pos++;
+    mark = pos;
+    writePos = -1;
+    for (;;) {
+      if (pos >= limit && !fill()) {
+        throw parseException("Unexpected end-of-input: was expecting closing quote for a string value");
+      }
+      final byte b = get(pos);
+      if (b == '"') {
+        break;
+      }
+      if (b == '\\') {
+        if (writePos < 0) {
+          writePos = pos;
+        }
+        unescape();
+        continue;
+      }
+      if ((b & 0xFF) < 0x20) {
+        throw parseException(String.format(
+            "Illegal unquoted character (CTRL-CHAR, code %d): has to be escaped using backslash to be included in string value", b));
+      }
+      if (writePos >= 0) {
+        put(writePos++, b);
+      }
+      pos++;
+    }
+    valueStart = mark;
+    valueEnd = writePos >= 0 ? writePos : pos;
+    pos++;
+    mark = -1;
+    writePos = -1;
+  }
+
+  /**
+   * Reads the field name that starts at the next non white space byte, quoted or not.
+   */
+  void readFieldName() throws IOException {
+    final int c = peek();
+    if (c == '"') {
+      readString();
+      return;
+    }
+    if (!isNameByte(c)) {
+      throw unexpected(c, "was expecting double-quote to start field name");
+    }
+    mark = pos;
+    do {
+      pos++;
+    } while ((pos < limit || fill()) && isNameByte(get(pos) & 0xFF));
+    valueStart = mark;
+    valueEnd = pos;
+    mark = -1;
+  }
+
+  private static boolean isNameByte(int c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '$'
+        || c >= 0x80;
+  }
+
+  /**
+   * Reads the number that starts at the next byte.
+   * @return true if the number has neither a fraction nor an exponent
+   */
+  boolean readNumber() throws IOException {
+    mark = pos;
+    boolean integral = true;
+    int c = current();
+    if (c == '-') {
+      c = next();
+    }
+    if (c == '0') {
+      c = next();
+      if (c >= '0' && c <= '9') {
+        throw parseException("Invalid numeric value: Leading zeroes not allowed");
+      }
+    } else if (c >= '1' && c <= '9') {
+      c = skipDigits();
+    } else {
+      mark = -1;
+      throw unexpected(c, "expected a valid value (number, String, array, object, 'true', 'false' or 'null')");
+    }
+    if (c == '.') {
+      integral = false;
+      c = requireDigits(next(), "Decimal point not followed by a digit");
+    }
+    if (c == 'e' || c == 'E') {
+      integral = false;
+      c = next();
+      if (c == '-' || c == '+') {
+        c = next();
+      }
+      requireDigits(c, "Exponent indicator not followed by a digit");
+    }
+    valueStart = mark;
+    valueEnd = pos;
+    mark = -1;
+    return integral;
+  }
+
+  private int requireDigits(int c, String message) throws IOException {
+    if (c < '0' || c > '9') {
+      throw parseException("Unexpected character in numeric value: " + message);
+    }
+    return skipDigits();
+  }
+
+  private int skipDigits() throws IOException {
+    int c;
+    do {
+      c = next();
+    } while (c >= '0' && c <= '9');
+    return c;
+  }
+
+  private int current() throws IOException {
+    if (pos >= limit && !fill()) {
+      return EOF;
+    }
+    return get(pos) & 0xFF;
+  }
+
+  private int next() throws IOException {
+    pos++;
+    return current();
+  }
+
+  /**
+   * Value of the integral number last read.
+   */
+  long getLongValue() throws JsonParseException {
+    int i = valueStart;
+    final boolean negative = get(i) == '-';
+    if (negative) {
+      i++;
+    }
+    // accumulate negatively so that Long.MIN_VALUE does not overflow
+    long result = 0;
+    for (; i < valueEnd; i++) {
+      final int digit = get(i) - '0';
+      if (result < Long.MIN_VALUE / 10) {
+        throw numberOutOfRange();
+      }
+      final long next = result * 10 - digit;
+      if (next > result) {
+        throw numberOutOfRange();
+      }
+      result = next;
+    }
+    if (negative) {
+      return result;
+    }
+    if (result == Long.MIN_VALUE) {
+      throw numberOutOfRange();
+    }
+    return -result;
+  }
+
+  private JsonParseException numberOutOfRange() {
+    return parseException(String.format("Numeric value (%s) out of range of long (%d - %d)",
+        getValueText(), Long.MIN_VALUE, Long.MAX_VALUE));
+  }
+
+  /**
+   * Value of the number last read. Numbers with few enough significant digits and a small
+   * exponent are scaled by an exact power of ten, which rounds correctly; others are left to
+   * {@link Double#parseDouble(String)}.
+   */
+  double getDoubleValue() {
+    int i = valueStart;
+    final boolean negative = get(i) == '-';
+    if (negative) {
+      i++;
+    }
+    long mantissa = 0;
+    int digits = 0;
+    int scale = 0;
+    boolean fraction = false;
+    for (; i < valueEnd; i++) {
+      final byte b = get(i);
+      if (b == '.') {
+        fraction = true;
+      } else if (b == 'e' || b == 'E') {
+        break;
+      } else {
+        if (mantissa != 0 || b != '0') {
+          if (++digits > MAX_EXACT_DIGITS) {
+            return Double.parseDouble(getValueText());
+          }
+        }
+        mantissa = mantissa * 10 + (b - '0');
+        if (fraction) {
+          scale--;
+        }
+      }
+    }
+    final boolean exponentPart = i < valueEnd;
+    if (exponentPart) {
+      i++;
+      final boolean negativeExponent = get(i) == '-';
+      if (negativeExponent || get(i) == '+') {
+        i++;
+      }
+      int exponent = 0;
+      for (; i < valueEnd && exponent < 1000; i++) {
+        exponent = exponent * 10 + (get(i) - '0');
+      }
+      scale += negativeExponent ? -exponent : exponent;
+    }
+
+    final double value;
+    if (scale == 0 || mantissa == 0) {
+      value = mantissa;
+    } else if (scale > 0 && scale < POWERS_OF_TEN.length) {
+      value = mantissa * POWERS_OF_TEN[scale];
+    } else if (scale < 0 && -scale < POWERS_OF_TEN.length) {
+      value = mantissa / POWERS_OF_TEN[-scale];
+    } else {
+      return Double.parseDouble(getValueText());
+    }
+    // an integral -0 is 0, as it is when read as a long first
+    return negative && (value != 0 || fraction || exponentPart) ? -value : value;
+  }
+
+  /**
+   * Text of the value last read. Creates a String, so only used on rare paths.
+   */
+  String getValueText() {
+    return buffer.toString(valueStart, valueEnd - valueStart, Charsets.UTF_8);
+  }
+
+  /**
+   * Reads the given literal, which must start at the next byte.
+   */
+  void readLiteral(byte[] literal) throws IOException {
+    if (!ensure(literal.length)) {
+      throw parseException("Unexpected end-of-input in a literal value");
+    }
+    for (int i = 0; i < literal.length; i++) {
+      if (get(pos + i) != literal[i]) {
+        throw parseException(String.format("Unrecognized token: was expecting '%s'", new String(literal, Charsets.UTF_8)));
+      }
+    }
+    valueStart = pos;
+    pos += literal.length;
+    valueEnd = pos;
+  }
+
+  private void unescape() throws IOException {
+    if (!ensure(2)) {
+      throw parseException("Unexpected end-of-input in character escape sequence");
+    }
+    final byte c = get(pos + 1);
+    switch (c) {
+    case '"':
+    case '\\':
+    case '/':
+      put(writePos++, c);
+      break;
+    case 'b':
+      put(writePos++, (byte) '\b');
+      break;
+    case 'f':
+      put(writePos++, (byte) '\f');
+      break;
+    case 'n':
+      put(writePos++, (byte) '\n');
+      break;
+    case 'r':
+      put(writePos++, (byte) '\r');
+      break;
+    case 't':
+      put(writePos++, (byte) '\t');
+      break;
+    case 'u':
+      if (!ensure(6)) {
+        throw parseException("Unexpected end-of-input in character escape sequence");
+      }
+      int codePoint = hex(pos + 2);
+      pos += 6;
+      if (Character.isHighSurrogate((char) codePoint)) {
+        if (ensure(6) && get(pos) == '\\' && get(pos + 1) == 'u') {
+          final int low = hex(pos + 2);
+          if (Character.isLowSurrogate((char) low)) {
+            codePoint = Character.toCodePoint((char) codePoint, (char) low);
+            pos += 6;
+          }
+        }
+      }
+      putCodePoint(codePoint);
+      return;
+    default:
+      throw parseException(String.format("Unrecognized character escape '%c' (code %d)", (char) c, c));
+    }
+    pos += 2;
+  }
+
+  private int hex(int index) throws JsonParseException {
+    int value = 0;
+    for (int i = index; i < index + 4; i++) {
+      final int digit = Character.digit(get(i), 16);
+      if (digit < 0) {
+        throw parseException("Unexpected character in character escape sequence: expected a hex-digit");
+      }
+      value = value << 4 | digit;
+    }
+    return value;
+  }
+
+  /**
+   * Writes a code point as UTF-8; a lone surrogate is written as '?', as encoding it as a
+   * String would.
+   */
+  private void putCodePoint(int codePoint) {
+    if (codePoint < 0x80) {
+      put(writePos++, (byte) codePoint);
+    } else if (codePoint < 0x800) {
+      put(writePos++, (byte) (0xC0 | codePoint >> 6));
+      put(writePos++, (byte) (0x80 | codePoint & 0x3F));
+    } else if (Character.isSurrogate((char) codePoint) && codePoint <= Character.MAX_VALUE) {
+      put(writePos++, (byte) '?');
+    } else if (codePoint < 0x10000) {
+      put(writePos++, (byte) (0xE0 | codePoint >> 12));
+      put(writePos++, (byte) (0x80 | codePoint >> 6 & 0x3F));
+      put(writePos++, (byte) (0x80 | codePoint & 0x3F));
+    } else {
+      put(writePos++, (byte) (0xF0 | codePoint >> 18));
+      put(writePos++, (byte) (0x80 | codePoint >> 12 & 0x3F));
+      put(writePos++, (byte) (0x80 | codePoint >> 6 & 0x3F));
+      put(writePos++, (byte) (0x80 | codePoint & 0x3F));
+    }
+  }
+
+  private void skipComment() throws IOException {
+    if (!ensure(2)) {
+      throw unexpected('/', "maybe a (non-standard) comment?");
+    }
+    final byte type = get(pos + 1);
+    pos += 2;
+    if (type == '/') {
+      for (;;) {
+        if (pos >= limit && !fill()) {
+          return;
+        }
+        if (get(pos++) == '\n') {
+          newLine();
+          return;
+        }
+      }
+    } else if (type == '*') {
+      for (;;) {
+        if (!ensure(2)) {
+          throw parseException("Unexpected end-of-input in a comment");
+        }
+        final byte b = get(pos++);
+        if (b == '\n') {
+          newLine();
+        } else if (b == '*' && get(pos) == '/') {
+          pos++;
+          return;
+        }
+      }
+    } else {
+      pos -= 2;
+      throw unexpected('/', "maybe a (non-standard) comment?");
+    }
+  }
+
+  private void newLine() {
+    line++;
+    lineStart = consumed + pos;
+  }
+
+  /**
+   * Makes sure at least the given number of bytes follow the current position in the buffer.
+   * @return false if the input ends first
+   */
+  private boolean ensure(int count) throws IOException {
+    while (limit - pos < count) {
+      if (!fill()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reads more of the input into the buffer, first moving the bytes from the mark, or from the
+   * current position when nothing is marked, to the front of the buffer.
+   * @return false if the input has ended
+   */
+  private boolean fill() throws IOException {
+    if (endOfInput) {
+      return false;
+    }
+    final int keep = mark >= 0 ? mark : pos;
+    if (keep > 0) {
+      PlatformDependent.copyMemory(address + keep, address, limit - keep);
+      pos -= keep;
+      limit -= keep;
+      if (mark >= 0) {
+        mark -= keep;
+      }
+      if (writePos >= 0) {
+        writePos -= keep;
+      }
+      consumed += keep;
+    }
+    if (limit == buffer.capacity()) {
+      grow();
+    }
+
+    int read;
+    do {
+      read = read();
+    } while (read == 0);
+    if (read < 0) {
+      endOfInput = true;
+      return false;
+    }
+    limit += read;
+    return true;
+  }
+
+  private int read() throws IOException {
+    if (bufferReadable) {
+      nioBuffer.limit(buffer.capacity());
+      nioBuffer.position(limit);
+      return inputFS.read(nioBuffer);
+    }
+    if (readBytes == null || readBytes.length < buffer.capacity() - limit) {
+      readBytes = new byte[buffer.capacity() - limit];
+    }
+    final int read = input.read(readBytes, 0, buffer.capacity() - limit);
+    if (read > 0) {
+      buffer.setBytes(limit, readBytes, 0, read);
+    }
+    return read;
+  }
+
+  /**
+   * Moves the bytes in the buffer to a buffer twice as large.
+   */
+  private void grow() {
+    final DrillBuf grown = spare.reallocIfNeeded(buffer.capacity() * 2);
+    grown.setBytes(0, buffer, 0, limit);
+    spare = buffer;
+    buffer = grown;
+    updateAddress();
+  }
+
+  private void updateAddress() {
+    address = buffer.memoryAddress();
+    nioBuffer = buffer.nioBuffer(0, buffer.capacity());
+  }
+
+  private byte get(int index) {
+    return PlatformDependent.getByte(address + index);
+  }
+
+  private void put(int index, byte b) {
+    PlatformDependent.putByte(address + index, b);
+  }
+
+  JsonParseException unexpected(int c, String message) {
+    if (c == EOF) {
+      return parseException(String.format("Unexpected end-of-input: %s", message));
+    }
+    return parseException(String.format("Unexpected character ('%c' (code %d)): %s", (char) c, c, message));
+  }
+
+  JsonParseException parseException(String message) {
+    return new JsonParseException(message, new JsonLocation(null, consumed + pos, line, getColumn()));
+  }
+}
@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.vector.complex.fn;
+
+import io.netty.buffer.DrillBuf;
+import io.netty.util.internal.PlatformDependent;
+
+import com.google.common.base.Charsets;
+
+/**
+ * Resolves the UTF-8 bytes of field names to Strings, creating a String only the first time a
+ * name is seen. Names are kept in an open addressing table keyed by their bytes; once it holds
+ * {@link #MAX_NAMES} names, new ones are decoded every time they are seen instead.
+ */
+final class FieldNameCache {
+
+  static final int MAX_NAMES = 4096;
+  private static final int INITIAL_CAPACITY = 64;
+
+  private byte[][] keys = new byte[INITIAL_CAPACITY][];
+  private int[] hashes = new int[INITIAL_CAPACITY];
+  private String[] names = new String[INITIAL_CAPACITY];
+  private int size;
+
+  /**
+   * Name whose UTF-8 bytes are the given range of the buffer.
+   */
+  String get(DrillBuf buffer, int start, int end) {
+    final long address = buffer.memoryAddress();
+    int hash = 0;
+    for (long p = address + start; p < address + end; p++) {
+      hash = 31 * hash + PlatformDependent.getByte(p);
+    }
+
+    final int mask = keys.length - 1;
+    int slot = hash & mask;
+    for (byte[] key = keys[slot]; key != null; key = keys[slot]) {
+      if (hashes[slot] == hash && equals(key, address + start, end - start)) {
+        return names[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    final String name = buffer.toString(start, end - start, Charsets.UTF_8);
+    if (size < MAX_NAMES) {
+      final byte[] key = new byte[end - start];
+      buffer.getBytes(start, key);
+      keys[slot] = key;
+      hashes[slot] = hash;
+      names[slot] = name;
+      if (++size > keys.length / 2) {
+        resize();
+      }
+    }
+    return name;
+  }
+
+  private static boolean equals(byte[] key, long address, int length) {
+    if (key.length != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (key[i] != PlatformDependent.getByte(address + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void resize() {
+    final byte[][] oldKeys = keys;
+    final int[] oldHashes = hashes;
+    final String[] oldNames = names;
+    keys = new byte[oldKeys.length * 2][];
+    hashes = new int[oldKeys.length * 2];
+    names = new String[oldKeys.length * 2];
+    final int mask = keys.length - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != null) {
+        int slot = oldHashes[i] & mask;
+        while (keys[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = oldKeys[i];
+        hashes[slot] = oldHashes[i];
+        names[slot] = oldNames[i];
+      }
+    }
+  }
+}
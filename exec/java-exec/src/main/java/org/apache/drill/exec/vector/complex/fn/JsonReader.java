@@ -91,6 +91,13 @@ public class JsonReader extends BaseJsonProcessor {
 
   @Override
   public void ensureAtLeastOneField(ComplexWriter writer) {
+    ensureAtLeastOneField(writer, columns, allTextMode);
+  }
+
+  /**
+   * Creates default typed vectors for the selected columns that no record had a value for.
+   */
+  static void ensureAtLeastOneField(ComplexWriter writer, List<SchemaPath> columns, boolean allTextMode) {
     List<BaseWriter.MapWriter> writerList = Lists.newArrayList();
     List<PathSegment> fieldPathList = Lists.newArrayList();
     BitSet emptyStatus = new BitSet(columns.size());
@@ -104,6 +104,7 @@ public class WorkManager implements AutoCloseable {
       final ClusterCoordinator coord,
       final PersistentStoreProvider provider) {
     dContext = new DrillbitContext(endpoint, bContext, coord, controller, data, workBus, provider);
+    dContext.getSampleExchange().registerHandlers(bee);
     statusThread.start();
 
     DrillMetrics.register("drill.fragments.running",
@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.compile;
+
+import org.apache.drill.BaseTestQuery;
+import org.apache.drill.TestBuilder;
+import org.apache.drill.exec.ExecConstants;
+import org.junit.Test;
+
+/**
+ * Projects many expressions that share subtrees with one expression per generated block, so cached holders
+ * are looked up again after every block rotation.
+ */
+public class TestCrossBlockExpressionReuse extends BaseTestQuery {
+
+  private static final int NUM_COLUMNS = 10;
+
+  @Test
+  public void repeatedConstantAndComplexReaderAcrossBlocks() throws Exception {
+    final StringBuilder query = new StringBuilder("select ");
+    final String[] columns = new String[NUM_COLUMNS];
+    for (int i = 0; i < NUM_COLUMNS; i++) {
+      columns[i] = "c" + i;
+      query.append(i == 0 ? "" : ", ")
+          .append("t.rl[1][0] + length(concat('ab', 'cd')) + ").append(i).append(" as ").append(columns[i]);
+    }
+    query.append(" from cp.`jsoninput/input2.json` t");
+
+    final TestBuilder builder = testBuilder()
+        .sqlQuery(query.toString())
+        .optionSettingQueriesForTestQuery(
+            String.format("alter session set `%s` = 1", ExecConstants.CODE_GEN_EXP_IN_METHOD_SIZE))
+        .unOrdered()
+        .baselineColumns(columns);
+    final Object[] present = new Object[NUM_COLUMNS];
+    final Object[] missing = new Object[NUM_COLUMNS];
+    for (int i = 0; i < NUM_COLUMNS; i++) {
+      present[i] = 8L + i;
+      missing[i] = null;
+    }
+    builder.baselineValues(present)
+        .baselineValues(missing)
+        .baselineValues(present)
+        .baselineValues(present);
+
+    try {
+      builder.go();
+    } finally {
+      test("alter session reset `%s`", ExecConstants.CODE_GEN_EXP_IN_METHOD_SIZE);
+    }
+  }
+}
@@ -558,4 +558,49 @@ public class TestAggregateFunctions extends BaseTestQuery {
     }
   }
 
+  @Test // runs of equal keys within and across batches
+  public void testStreamingAggOverLongRuns() throws Exception {
+    final String query = "select l_suppkey, count(*) cnt, sum(l_quantity) total, min(l_partkey) mn, max(l_partkey) mx " +
+        "from (select * from cp.`tpch/lineitem.parquet` order by l_suppkey) group by l_suppkey";
+    try {
+      testBuilder()
+          .sqlQuery(query)
+          .unOrdered()
+          .optionSettingQueriesForTestQuery("alter session set `planner.enable_hashagg` = false")
+          .optionSettingQueriesForBaseline("alter session set `planner.enable_hashagg` = true; " +
+              "alter session set `planner.enable_streamagg` = false")
+          .sqlBaselineQuery(query)
+          .go();
+    } finally {
+      test("alter session reset `planner.enable_hashagg`");
+      test("alter session reset `planner.enable_streamagg`");
+    }
+  }
+
+  @Test // first phase flushes its groups after every batch once it sees no reduction
+  public void testAdaptivePartialHashAgg() throws Exception {
+    final String query = "select l_orderkey, count(*) cnt, sum(l_quantity) total, min(l_partkey) mn, max(l_partkey) mx " +
+        "from cp.`tpch/lineitem.parquet` group by l_orderkey";
+    try {
+      testBuilder()
+          .sqlQuery(query)
+          .unOrdered()
+          .optionSettingQueriesForTestQuery("alter session set `planner.enable_streamagg` = false; " +
+              "alter session set `planner.slice_target` = 1; " +
+              "alter session set `exec.hashagg.adaptive_partial` = true; " +
+              "alter session set `exec.hashagg.partial_max_group_ratio` = 0")
+          .optionSettingQueriesForBaseline("alter session reset `planner.enable_streamagg`; " +
+              "alter session reset `planner.slice_target`; " +
+              "alter session reset `exec.hashagg.adaptive_partial`; " +
+              "alter session reset `exec.hashagg.partial_max_group_ratio`")
+          .sqlBaselineQuery(query)
+          .go();
+    } finally {
+      test("alter session reset `planner.enable_streamagg`");
+      test("alter session reset `planner.slice_target`");
+      test("alter session reset `exec.hashagg.adaptive_partial`");
+      test("alter session reset `exec.hashagg.partial_max_group_ratio`");
+    }
+  }
+
 }
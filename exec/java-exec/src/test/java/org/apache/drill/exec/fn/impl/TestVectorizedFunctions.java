@@ -0,0 +1,63 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.fn.impl;
+
+import org.apache.drill.BaseTestQuery;
+import org.apache.drill.exec.ExecConstants;
+import org.junit.Test;
+
+public class TestVectorizedFunctions extends BaseTestQuery {
+
+  private void compareWithRowByRow(String query) throws Exception {
+    try {
+      testBuilder()
+          .unOrdered()
+          .sqlQuery(query)
+          .optionSettingQueriesForTestQuery(
+              String.format("alter session set `%s` = true", ExecConstants.ENABLE_VECTORIZED_FUNCTIONS_KEY))
+          .sqlBaselineQuery(query)
+          .optionSettingQueriesForBaseline(
+              String.format("alter session set `%s` = false", ExecConstants.ENABLE_VECTORIZED_FUNCTIONS_KEY))
+          .build().run();
+    } finally {
+      test("alter session set `%s` = %b", ExecConstants.ENABLE_VECTORIZED_FUNCTIONS_KEY,
+          ExecConstants.ENABLE_VECTORIZED_FUNCTIONS.getDefault().bool_val);
+    }
+  }
+
+  @Test
+  public void lowerAndUpperOverRequiredColumn() throws Exception {
+    compareWithRowByRow("select lower(n_name) l, upper(n_comment) u, n_nationkey from cp.`tpch/nation.parquet`");
+  }
+
+  @Test
+  public void lowerAfterFilter() throws Exception {
+    // incoming batch carries a selection vector
+    compareWithRowByRow("select lower(n_name) l from cp.`tpch/nation.parquet` where n_regionkey = 1");
+  }
+
+  @Test
+  public void lowerValues() throws Exception {
+    testBuilder()
+        .unOrdered()
+        .sqlQuery("select lower(n_name) l, upper(n_name) u from cp.`tpch/nation.parquet` where n_nationkey = 24")
+        .baselineColumns("l", "u")
+        .baselineValues("united states", "UNITED STATES")
+        .go();
+  }
+}
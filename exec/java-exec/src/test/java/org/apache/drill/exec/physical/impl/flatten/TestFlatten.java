@@ -196,6 +196,24 @@ public class TestFlatten extends BaseTestQuery {
     assertEquals(rowCount, 1);
   }
 
+  @Test
+  public void testFlattenWithSmallOutputBatches() throws Exception {
+    // rows of the flatten and the projections above it no longer fit in one output batch
+    final String query = "select id, upper(t.ev.event_name) as name, t.ev.event_time as event_time from "
+        + "(select id, flatten(evnts1) as ev from cp.`/flatten/many-arrays-50.json`) t";
+    try {
+      testBuilder()
+          .sqlQuery(query)
+          .unOrdered()
+          .optionSettingQueriesForTestQuery("alter session set `exec.output_batch_size` = 1024")
+          .sqlBaselineQuery(query)
+          .optionSettingQueriesForBaseline("alter session reset `exec.output_batch_size`")
+          .go();
+    } finally {
+      test("alter session reset `exec.output_batch_size`");
+    }
+  }
+
   @Test
   public void drill3370() throws Exception {
     testBuilder()
@@ -126,4 +126,54 @@ public class TestHashJoinAdvanced extends BaseTestQuery {
         .baselineValues(4l)
         .go();
   }
+
+  @Test
+  public void testSkewedKeysSpreadAcrossReceivers() throws Exception {
+    // two join keys for all of lineitem, both are heavy hitters once the probe side is hash distributed
+    final String query = "select count(*) cnt, sum(l.l_quantity) qty from cp.`tpch/lineitem.parquet` l %s join " +
+        "(values ('F'), ('O')) d(ls) on l.l_linestatus = d.ls";
+    final String distribute = "alter session set `planner.slice_target` = 1; " +
+        "alter session set `planner.enable_broadcast_join` = false; ";
+
+    try {
+      for (String joinType : new String[] {"inner", "left"}) {
+        testBuilder()
+            .sqlQuery(String.format(query, joinType))
+            .unOrdered()
+            .optionSettingQueriesForTestQuery(distribute + "alter session set `planner.enable_hashjoin_skew_handling` = true")
+            .optionSettingQueriesForBaseline(distribute + "alter session set `planner.enable_hashjoin_skew_handling` = false")
+            .sqlBaselineQuery(String.format(query, joinType))
+            .go();
+      }
+    } finally {
+      test("alter session reset `planner.slice_target`");
+      test("alter session reset `planner.enable_broadcast_join`");
+      test("alter session reset `planner.enable_hashjoin_skew_handling`");
+    }
+  }
+
+  @Test
+  public void testSkewedJoinUnderAggregateOnJoinKey() throws Exception {
+    // the aggregate relies on the join being distributed on l_linestatus, spreading its heavy hitters would split groups
+    final String query = "select l.l_linestatus, count(*) cnt from cp.`tpch/lineitem.parquet` l " +
+        "join (values ('F'), ('O')) d(ls) on l.l_linestatus = d.ls group by l.l_linestatus";
+    final String distribute = "alter session set `planner.slice_target` = 1; " +
+        "alter session set `planner.enable_broadcast_join` = false; " +
+        "alter session set `planner.enable_multiphase_agg` = false; ";
+
+    try {
+      testBuilder()
+          .sqlQuery(query)
+          .unOrdered()
+          .optionSettingQueriesForTestQuery(distribute + "alter session set `planner.enable_hashjoin_skew_handling` = true")
+          .optionSettingQueriesForBaseline(distribute + "alter session set `planner.enable_hashjoin_skew_handling` = false")
+          .sqlBaselineQuery(query)
+          .go();
+    } finally {
+      test("alter session reset `planner.slice_target`");
+      test("alter session reset `planner.enable_broadcast_join`");
+      test("alter session reset `planner.enable_multiphase_agg`");
+      test("alter session reset `planner.enable_hashjoin_skew_handling`");
+    }
+  }
 }
@@ -176,6 +176,46 @@ public class TestMergeJoinAdvanced extends BaseTestQuery {
     testMultipleBatchJoin(5000l, 1000l, "right", 5000l*1000l + 3l);
   }
 
+  @Test
+  public void testMergeJoinSpillDuplicateRun() throws Exception {
+    final String leftSide = BaseTestQuery.getTempDir("merge-join-spill-left.json");
+    final String rightSide = BaseTestQuery.getTempDir("merge-join-spill-right.json");
+    final BufferedWriter leftWriter = new BufferedWriter(new FileWriter(new File(leftSide)));
+    final BufferedWriter rightWriter = new BufferedWriter(new FileWriter(new File(rightSide)));
+
+    // Long runs of non matching keys on both sides let the join gallop past them, and the duplicate run on the
+    // right spans several batches so that it has to be spilled and read back for every matching left row.
+    for (int i = 0; i < 5000; ++i) {
+      leftWriter.write(String.format("{ \"k\" : %d , \"v\": %d }", i, i));
+    }
+    for (int i = 0; i < 100; ++i) {
+      leftWriter.write(String.format("{ \"k\" : %d , \"v\": %d }", 10000, i));
+    }
+    for (int i = 0; i < 5000; ++i) {
+      rightWriter.write(String.format("{ \"k1\" : %d , \"v1\": %d }", 5000 + i, i));
+    }
+    for (int i = 0; i < 10000; ++i) {
+      rightWriter.write(String.format("{ \"k1\" : %d , \"v1\": %d }", 10000, i));
+    }
+    leftWriter.close();
+    rightWriter.close();
+
+    final String query = String.format("select count(*) c1, sum(R.v1) s1 from dfs_test.`%s` L inner join " +
+        "dfs_test.`%s` R on L.k=R.k1", leftSide, rightSide);
+    try {
+      testBuilder()
+        .sqlQuery(query)
+        .optionSettingQueriesForTestQuery(
+            String.format("alter session set `%s` = 1", ExecConstants.MERGE_JOIN_SPILL_THRESHOLD_KEY))
+        .unOrdered()
+        .baselineColumns("c1", "s1")
+        .baselineValues(100L * 10000L, 100L * (10000L * 9999L / 2))
+        .go();
+    } finally {
+      test("alter session reset `%s`", ExecConstants.MERGE_JOIN_SPILL_THRESHOLD_KEY);
+    }
+  }
+
   // Following tests can take some time.
   @Test
   @Ignore
@@ -21,6 +21,7 @@ package org.apache.drill.exec.physical.impl.join;
 import org.apache.drill.PlanTestBase;
 import org.apache.drill.common.exceptions.UserException;
 import org.apache.drill.common.util.TestTools;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.work.foreman.UnsupportedRelOperatorException;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -203,6 +204,50 @@ public class TestNestedLoopJoin extends PlanTestBase {
         .go();
   }
 
+  @Test
+  public void testNlJoinInequality_2_exec() throws Exception {
+    try {
+      testBuilder()
+          .sqlQuery(testNlJoinInequality_2)
+          .unOrdered()
+          .optionSettingQueriesForTestQuery(DISABLE_NLJ_SCALAR)
+          .baselineColumns("r_regionkey", "n_nationkey")
+          .baselineValues(1, 0)
+          .baselineValues(2, 0)
+          .baselineValues(3, 0)
+          .baselineValues(4, 0)
+          .baselineValues(2, 1)
+          .baselineValues(3, 1)
+          .baselineValues(4, 1)
+          .baselineValues(2, 2)
+          .baselineValues(3, 2)
+          .baselineValues(4, 2)
+          .go();
+    } finally {
+      test(ENABLE_NLJ_SCALAR);
+    }
+  }
+
+  @Test // the right side is spilled and read back for every left batch
+  public void testNlJoinInequalitySpillRight() throws Exception {
+    final String query = "select count(*) cnt from cp.`tpch/lineitem.parquet` l "
+        + " inner join cp.`tpch/nation.parquet` n on l.l_suppkey < n.n_nationkey";
+    try {
+      testBuilder()
+          .sqlQuery(query)
+          .unOrdered()
+          .optionSettingQueriesForTestQuery(DISABLE_NLJ_SCALAR + "; alter session set `"
+              + ExecConstants.NESTED_LOOP_JOIN_SPILL_THRESHOLD_KEY + "` = 1")
+          .optionSettingQueriesForBaseline(DISABLE_NLJ_SCALAR + "; alter session reset `"
+              + ExecConstants.NESTED_LOOP_JOIN_SPILL_THRESHOLD_KEY + "`")
+          .sqlBaselineQuery(query)
+          .go();
+    } finally {
+      test(ENABLE_NLJ_SCALAR);
+      test("alter session reset `%s`", ExecConstants.NESTED_LOOP_JOIN_SPILL_THRESHOLD_KEY);
+    }
+  }
+
   @Test
   public void testNLJWithEmptyBatch() throws Exception {
     Long result = 0l;
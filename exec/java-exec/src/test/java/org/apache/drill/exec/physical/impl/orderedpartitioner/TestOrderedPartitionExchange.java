@@ -39,7 +39,6 @@ import org.apache.drill.exec.vector.BigIntVector;
 import org.apache.drill.exec.vector.Float8Vector;
 import org.apache.drill.exec.vector.IntVector;
 import org.junit.Assert;
-import org.junit.Ignore;
 import org.junit.Test;
 
 import com.google.common.base.Charsets;
@@ -49,7 +48,6 @@ import com.google.common.io.Files;
 /**
  * Tests the OrderedPartitionExchange Operator
  */
-@Ignore("Disabled until alternative to distributed cache provided.")
 public class TestOrderedPartitionExchange extends PopUnitTestBase {
   static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(TestOrderedPartitionExchange.class);
 
@@ -136,4 +134,33 @@ public class TestOrderedPartitionExchange extends PopUnitTestBase {
     }
   }
 
+  /**
+   * Runs the ordered partition exchange where three of the four sending fragments have no data, enough of them to
+   * reach the completion factor on their own. The fragment with data must still get the sample set instead of waiting
+   * for it forever.
+   * @throws Exception
+   */
+  @Test
+  public void mostSendersWithoutData() throws Exception {
+    RemoteServiceSet serviceSet = RemoteServiceSet.getLocalServiceSet();
+
+    try(Drillbit bit1 = new Drillbit(CONFIG, serviceSet);
+        Drillbit bit2 = new Drillbit(CONFIG, serviceSet);
+        DrillClient client = new DrillClient(CONFIG, serviceSet.getCoordinator());) {
+
+      bit1.run();
+      bit2.run();
+      client.connect();
+      List<QueryDataBatch> results = client.runQuery(org.apache.drill.exec.proto.UserBitShared.QueryType.PHYSICAL,
+          Files.toString(FileUtils.getResourceAsFile("/sender/ordered_exchange_sparse.json"),
+              Charsets.UTF_8));
+      int count = 0;
+      for(QueryDataBatch b : results) {
+        count += b.getHeader().getRowCount();
+        b.release();
+      }
+      assertEquals(20000, count);
+    }
+  }
+
 }
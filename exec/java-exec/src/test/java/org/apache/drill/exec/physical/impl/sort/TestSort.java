@@ -60,4 +60,23 @@ public class TestSort extends BaseTestQuery {
     // reset the planner.slice_target
     test("alter session set `planner.slice_target` = " + ExecConstants.SLICE_TARGET_DEFAULT);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testRangePartitionedSort() throws Exception {
+    final String query = "select l_orderkey, l_linenumber, l_partkey from cp.`tpch/lineitem.parquet` " +
+        "order by l_orderkey desc, l_linenumber";
+    try {
+      testBuilder()
+          .sqlQuery(query)
+          .optionSettingQueriesForTestQuery("alter session set `planner.slice_target` = 1; " +
+              "alter session set `planner.enable_range_partitioned_sort` = true")
+          .optionSettingQueriesForBaseline("alter session set `planner.enable_range_partitioned_sort` = false")
+          .ordered()
+          .sqlBaselineQuery(query)
+          .go();
+    } finally {
+      test("alter session set `planner.slice_target` = " + ExecConstants.SLICE_TARGET_DEFAULT);
+      test("alter session reset `planner.enable_range_partitioned_sort`");
+    }
+  }
+}
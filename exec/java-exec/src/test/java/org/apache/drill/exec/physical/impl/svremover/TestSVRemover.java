@@ -20,6 +20,7 @@ package org.apache.drill.exec.physical.impl.svremover;
 import static org.junit.Assert.assertEquals;
 
 import org.apache.drill.BaseTestQuery;
+import org.apache.drill.exec.ExecConstants;
 import org.junit.Test;
 
 public class TestSVRemover extends BaseTestQuery {
@@ -34,4 +35,29 @@ public class TestSVRemover extends BaseTestQuery {
     int numOutputRecords = testPhysical(getFile("remover/sv_with_no_filter.json"));
     assertEquals(100, numOutputRecords);
   }
+
+  @Test
+  public void testColumnarCopyMatchesGeneratedCopier() throws Exception {
+    final String[] queries = {
+        // SV2 from a filter over required, nullable and variable width columns
+        "select employee_id, full_name, salary, management_role, end_date from cp.`employee.json` where mod(employee_id, 3) = 0",
+        // SV4 from a sort
+        "select employee_id, full_name, salary, management_role from cp.`employee.json` order by full_name",
+        // SV4 from a top N
+        "select employee_id, full_name, salary from cp.`employee.json` order by salary desc, employee_id limit 50"
+    };
+    try {
+      for (String query : queries) {
+        testBuilder()
+            .sqlQuery(query)
+            .unOrdered()
+            .optionSettingQueriesForTestQuery("alter session set `" + ExecConstants.SV_REMOVER_COLUMNAR_COPY_KEY + "` = true")
+            .sqlBaselineQuery(query)
+            .optionSettingQueriesForBaseline("alter session set `" + ExecConstants.SV_REMOVER_COLUMNAR_COPY_KEY + "` = false")
+            .go();
+      }
+    } finally {
+      test("alter session reset `%s`", ExecConstants.SV_REMOVER_COLUMNAR_COPY_KEY);
+    }
+  }
 }
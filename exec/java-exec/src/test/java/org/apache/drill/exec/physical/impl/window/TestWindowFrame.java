@@ -451,4 +451,72 @@ public class TestWindowFrame extends BaseTestQuery {
       .go();
   }
 
+  @Test
+  public void testSpillBufferedPartition() throws Exception {
+    // a single partition spanning the whole table forces the operator to buffer every batch
+    final String query = "select l_orderkey, l_linenumber, " +
+      "sum(l_quantity) over(partition by l_returnflag) s, " +
+      "ntile(4) over(partition by l_returnflag order by l_orderkey, l_linenumber) nt, " +
+      "last_value(l_linenumber) over(partition by l_returnflag order by l_orderkey, l_linenumber) lv " +
+      "from cp.`tpch/lineitem.parquet`";
+
+    testBuilder()
+      .sqlQuery(query)
+      .optionSettingQueriesForTestQuery("alter session set `exec.window.spill_threshold` = 1")
+      .unOrdered()
+      .sqlBaselineQuery(query)
+      .optionSettingQueriesForBaseline("alter session reset `exec.window.spill_threshold`")
+      .go();
+  }
+
+  @Test
+  public void testBoundedRowsFrame() throws Exception {
+    testBuilder()
+      .sqlQuery("select n_nationkey, " +
+        "sum(n_nationkey) over w s, count(*) over w c, min(n_nationkey) over w mn, max(n_nationkey) over w mx " +
+        "from cp.`tpch/nation.parquet` where n_regionkey = 0 " +
+        "window w as (partition by n_regionkey order by n_nationkey rows between 2 preceding and current row)")
+      .ordered()
+      .baselineColumns("n_nationkey", "s", "c", "mn", "mx")
+      .baselineValues(0, 0L, 1L, 0, 0)
+      .baselineValues(5, 5L, 2L, 0, 5)
+      .baselineValues(14, 19L, 3L, 0, 14)
+      .baselineValues(15, 34L, 3L, 5, 15)
+      .baselineValues(16, 45L, 3L, 14, 16)
+      .go();
+  }
+
+  @Test
+  public void testBoundedRowsFrameAcrossPartitions() throws Exception {
+    testBuilder()
+      .sqlQuery("select n_nationkey, sum(n_nationkey) over w s, min(n_nationkey) over w mn " +
+        "from cp.`tpch/nation.parquet` " +
+        "window w as (partition by n_regionkey order by n_nationkey rows 1 preceding)")
+      .unOrdered()
+      .sqlBaselineQuery("select n_nationkey, " +
+        "cast(n_nationkey + coalesce(lag(n_nationkey) over w, 0) as bigint) s, " +
+        "coalesce(lag(n_nationkey) over w, n_nationkey) mn " +
+        "from cp.`tpch/nation.parquet` " +
+        "window w as (partition by n_regionkey order by n_nationkey)")
+      .go();
+  }
+
+  @Test
+  public void testBoundedRowsFrameFloatingSum() throws Exception {
+    // values that left the frame must not leave rounding error or an infinity behind
+    testBuilder()
+      .sqlQuery("select id, sum(x) over w s from (select id, cast(v as double) x from " +
+        "(values (1, '1e20'), (2, '1'), (3, '5'), (4, 'Infinity'), (5, '2'), (6, '3')) t(id, v)) " +
+        "window w as (order by id rows 1 preceding) order by id")
+      .ordered()
+      .baselineColumns("id", "s")
+      .baselineValues(1, 1e20)
+      .baselineValues(2, 1e20)
+      .baselineValues(3, 6.0)
+      .baselineValues(4, Double.POSITIVE_INFINITY)
+      .baselineValues(5, Double.POSITIVE_INFINITY)
+      .baselineValues(6, 5.0)
+      .go();
+  }
+
 }
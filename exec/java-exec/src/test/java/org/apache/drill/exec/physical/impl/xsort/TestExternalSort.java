@@ -136,4 +136,29 @@ public class TestExternalSort extends BaseTestQuery {
     String newQuery = "select * from dfs_test.tmp.newColumns order by a desc";
     test(newQuery);
   }
+
+  @Test
+  public void testNormalizedKeySort() throws Exception {
+    final String[] queries = {
+        "select l_orderkey, l_linenumber from cp.`tpch/lineitem.parquet` order by l_orderkey desc, l_linenumber",
+        "select l_shipdate, l_orderkey, l_linenumber from cp.`tpch/lineitem.parquet` order by l_shipdate, l_orderkey, l_linenumber",
+        "select l_shipmode, l_orderkey, l_linenumber from cp.`tpch/lineitem.parquet` order by l_shipmode desc, l_orderkey, l_linenumber",
+        "select n_comment from cp.`tpch/nation.parquet` order by n_comment",
+        "select case when mod(l_orderkey, 3) = 0 then null else l_orderkey end k, l_linenumber " +
+            "from cp.`tpch/lineitem.parquet` order by k nulls first, l_linenumber desc, l_orderkey"
+    };
+    try {
+      for (String query : queries) {
+        testBuilder()
+            .sqlQuery(query)
+            .optionSettingQueriesForTestQuery("alter session set `exec.sort.enable_normalized_keys` = true")
+            .ordered()
+            .sqlBaselineQuery(query)
+            .optionSettingQueriesForBaseline("alter session set `exec.sort.enable_normalized_keys` = false")
+            .go();
+      }
+    } finally {
+      test("alter session reset `exec.sort.enable_normalized_keys`");
+    }
+  }
 }
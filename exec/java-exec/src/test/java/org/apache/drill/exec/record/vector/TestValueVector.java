@@ -50,6 +50,7 @@ import org.apache.drill.exec.record.MaterializedField;
 import org.apache.drill.exec.record.VectorWrapper;
 import org.apache.drill.exec.vector.BaseValueVector;
 import org.apache.drill.exec.vector.BitVector;
+import org.apache.drill.exec.vector.ColumnWidthTracker;
 import org.apache.drill.exec.vector.NullableFloat4Vector;
 import org.apache.drill.exec.vector.NullableUInt4Vector;
 import org.apache.drill.exec.vector.NullableVarCharVector;
@@ -234,6 +235,85 @@ public class TestValueVector extends ExecTest {
     }
   }
 
+  @Test
+  public void testFixedVectorBulkCopy() {
+    final MaterializedField field = MaterializedField.create(EMPTY_SCHEMA_PATH, UInt4Holder.TYPE);
+
+    try (final UInt4Vector from = new UInt4Vector(field, allocator);
+         final UInt4Vector to = new UInt4Vector(field, allocator)) {
+      from.allocateNew(100);
+      for (int i = 0; i < 100; i++) {
+        from.getMutator().set(i, i * 3);
+      }
+      from.getMutator().setValueCount(100);
+      to.allocateNew(4);
+
+      // the copies grow the vector as needed
+      to.copyRangeSafe(10, 2, 50, from);
+      for (int i = 0; i < 50; i++) {
+        assertEquals((10 + i) * 3, to.getAccessor().get(2 + i));
+      }
+
+      to.getMutator().set(60, 7);
+      to.fillSafe(60, 5000);
+      for (int i = 60; i <= 5060; i++) {
+        assertEquals(7, to.getAccessor().get(i));
+      }
+
+      final DrillBuf sv2 = allocator.buffer(2 * 10);
+      try {
+        for (int i = 0; i < 10; i++) {
+          sv2.setChar(i * 2, 99 - i * 7);
+        }
+        to.copyFromSafe(sv2, 3, 7, 6000, from);
+        for (int i = 0; i < 7; i++) {
+          assertEquals((99 - (3 + i) * 7) * 3, to.getAccessor().get(6000 + i));
+        }
+      } finally {
+        sv2.release();
+      }
+
+      final UInt4Vector[] batches = { from, to };
+      final DrillBuf sv4 = allocator.buffer(4 * 6);
+      try (final UInt4Vector out = new UInt4Vector(field, allocator)) {
+        for (int i = 0; i < 6; i++) {
+          sv4.setInt(i * 4, (i % 2) << 16 | i * 5);
+        }
+        out.allocateNew(1);
+        out.copyFromSafe(sv4, 0, 6, 0, batches);
+        for (int i = 0; i < 6; i++) {
+          assertEquals(batches[i % 2].getAccessor().get(i * 5), out.getAccessor().get(i));
+        }
+      } finally {
+        sv4.release();
+      }
+    }
+  }
+
+  @Test
+  public void testColumnWidthTracker() {
+    final MaterializedField field = MaterializedField.create(EMPTY_SCHEMA_PATH, VarCharHolder.TYPE);
+    final ColumnWidthTracker tracker = new ColumnWidthTracker(1, 50);
+    final byte[] value = new byte[200];
+
+    // nothing recorded yet, so the first vector is allocated for the default width
+    assertEquals(50, tracker.getWidth(0));
+    for (int batch = 0; batch < 2; batch++) {
+      try (final VarCharVector vector = new VarCharVector(field, allocator)) {
+        tracker.allocate(0, vector, 100);
+        for (int i = 0; i < 100; i++) {
+          vector.getMutator().setSafe(i, value);
+        }
+        vector.getMutator().setValueCount(100);
+        tracker.record(0, vector);
+      }
+      assertEquals(200, tracker.getWidth(0));
+    }
+
+    // the second vector didn't have to grow from 5000 to 20000 bytes
+    assertEquals(2, tracker.getReallocsAvoided());
+  }
+
   private static DrillBuf combineBuffers(final BufferAllocator allocator, final DrillBuf[] buffers) {
     // find the total size we'll need
     int size = 0;
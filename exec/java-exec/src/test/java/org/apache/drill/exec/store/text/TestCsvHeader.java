@@ -17,14 +17,21 @@
  */
 package org.apache.drill.exec.store.text;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
 import org.apache.drill.BaseTestQuery;
 import org.apache.drill.TestBuilder;
+import org.apache.drill.common.exceptions.UserRemoteException;
 import org.apache.drill.common.util.FileUtils;
+import org.apache.drill.exec.proto.UserBitShared.DrillPBError.ErrorType;
 
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 
+import org.joda.time.DateTime;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -163,6 +170,43 @@ public class TestCsvHeader extends BaseTestQuery{
             .go();
   }
 
+  @Test
+  public void testCsvHeaderColumnTypes() throws Exception {
+    // columns declared in the columnTypes of the format are read into nullable typed vectors
+    String dfile = FileUtils.getResourceAsFile("/store/text/data/typed.csvh-typed").toURI().toString();
+    String query = String.format("select * from dfs_test.`%s`", dfile);
+    testBuilder()
+            .sqlQuery(query)
+            .ordered()
+            .baselineColumns("id", "big", "price", "day", "at", "name")
+            .baselineValues(1, 10000000000L, 2.5, new DateTime(2015, 3, 1, 0, 0), new DateTime(2015, 3, 1, 12, 30, 15, 250), "a")
+            .baselineValues(-2, Long.MIN_VALUE, -0.125, new DateTime(1999, 12, 31, 0, 0), new DateTime(1999, 12, 31, 23, 59, 59), "b")
+            .baselineValues(null, null, null, null, null, "c")
+            .go();
+  }
+
+  @Test
+  public void testCsvHeaderColumnTypesRejectTrailingText() throws Exception {
+    // a date column does not take a value that goes on after the day
+    String dfs_temp = getDfsTestTmpSchemaLocation();
+    File table_dir = new File(dfs_temp, "typedTrailingText");
+    table_dir.mkdir();
+    for (String day : new String[] {"2015-01-01xyz", "2015-01-01 10:30"}) {
+      BufferedOutputStream os = new BufferedOutputStream(new FileOutputStream(new File(table_dir, "a.csvh-typed")));
+      os.write("id,big,price,day,at,name\n".getBytes());
+      os.write(String.format("1,1,1.0,%s,2015-01-01,a\n", day).getBytes());
+      os.flush();
+      os.close();
+      try {
+        test("select * from dfs_test.tmp.typedTrailingText");
+        fail("Expected a data read error for " + day);
+      } catch (UserRemoteException e) {
+        assertEquals(ErrorType.DATA_READ, e.getErrorType());
+        assertTrue(e.getMessage().contains(day));
+      }
+    }
+  }
+
   @Test
   public void testEmptyFinalColumn() throws Exception {
     String dfs_temp = getDfsTestTmpSchemaLocation();
@@ -21,12 +21,20 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+
 import org.apache.drill.BaseTestQuery;
+import org.apache.drill.TestBuilder;
 import org.apache.drill.common.exceptions.UserRemoteException;
 import org.apache.drill.common.util.FileUtils;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.proto.UserBitShared.DrillPBError.ErrorType;
 import org.junit.Test;
 
+import com.google.common.base.Strings;
+
 public class TestNewTextReader extends BaseTestQuery {
 
   @Test
@@ -112,4 +120,95 @@ public class TestNewTextReader extends BaseTestQuery {
         .build()
         .run();
   }
+
+  @Test
+  public void testParallelParsing() throws Exception {
+    final File dir = new File(BaseTestQuery.getTempDir("parallel-text"));
+    dir.mkdirs();
+    for (String name : new String[] {"data.csv", "data.csvh"}) {
+      try (BufferedWriter writer = new BufferedWriter(new FileWriter(new File(dir, name)))) {
+        writer.write("id,name,note\n");
+        for (int i = 0; i < 20000; i++) {
+          writer.write(String.format("%d,name%d,\"a, \"\"quoted\"\" note %d\"\n", i, i % 100, i));
+          if (i % 1000 == 0) {
+            writer.write("# comment " + i + "\n");
+          }
+        }
+      }
+    }
+
+    final String[] queries = {
+        String.format("select columns[0] as id, columns[2] as note from dfs_test.`%s`", new File(dir, "data.csv").getPath()),
+        String.format("select id, name, note from dfs_test.`%s`", new File(dir, "data.csvh").getPath())
+    };
+    try {
+      for (String query : queries) {
+        // the batches of the chunks must come back in file order, as they do from a single thread
+        testBuilder()
+            .sqlQuery(query)
+            .ordered()
+            .optionSettingQueriesForTestQuery(String.format("alter session set `%s` = 4; alter session set `%s` = 1024",
+                ExecConstants.TEXT_PARSE_THREADS_KEY, ExecConstants.TEXT_PARSE_CHUNK_SIZE_KEY))
+            .sqlBaselineQuery(query)
+            .optionSettingQueriesForBaseline(String.format("alter session set `%s` = 1", ExecConstants.TEXT_PARSE_THREADS_KEY))
+            .go();
+      }
+    } finally {
+      test("alter session reset `%s`", ExecConstants.TEXT_PARSE_THREADS_KEY);
+      test("alter session reset `%s`", ExecConstants.TEXT_PARSE_CHUNK_SIZE_KEY);
+    }
+  }
+
+  @Test
+  public void testParallelParsingNewLineWithinQuotes() throws Exception {
+    final File dir = new File(BaseTestQuery.getTempDir("parallel-text-quoted-newline"));
+    dir.mkdirs();
+    try (BufferedWriter writer = new BufferedWriter(new FileWriter(new File(dir, "data.csv")))) {
+      // the quoted line separator is the last one in the first chunk, which so ends within the quotes
+      writer.write("1,\"" + Strings.repeat("a", 1010) + "\n" + Strings.repeat("b", 20) + "\"\n");
+      for (int i = 2; i < 100; i++) {
+        writer.write(String.format("%d,c\n", i));
+      }
+    }
+
+    try {
+      test("alter session set `%s` = 4", ExecConstants.TEXT_PARSE_THREADS_KEY);
+      test("alter session set `%s` = 1024", ExecConstants.TEXT_PARSE_CHUNK_SIZE_KEY);
+      test("select columns[1] as col1 from dfs_test.`%s`", new File(dir, "data.csv").getPath());
+      fail("Expected exception not thrown.");
+    } catch (UserRemoteException e) {
+      assertTrue(e.getMessage().contains("Cannot use newline character within quoted string"));
+    } finally {
+      test("alter session reset `%s`", ExecConstants.TEXT_PARSE_THREADS_KEY);
+      test("alter session reset `%s`", ExecConstants.TEXT_PARSE_CHUNK_SIZE_KEY);
+    }
+  }
+
+  @Test
+  public void testLongPlainAndQuotedRuns() throws Exception {
+    final File dir = new File(BaseTestQuery.getTempDir("long-runs"));
+    dir.mkdirs();
+    final StringBuilder plain = new StringBuilder();
+    final StringBuilder quoted = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      plain.append((char) ('a' + i % 26));
+      quoted.append(i % 89 == 0 ? ',' : (char) ('A' + i % 26));
+    }
+
+    final TestBuilder builder = testBuilder()
+        .sqlQuery("select columns[0] as a, columns[1] as b from dfs_test.`%s`", new File(dir, "runs.csv").getPath())
+        .ordered()
+        .baselineColumns("a", "b");
+    try (BufferedWriter writer = new BufferedWriter(new FileWriter(new File(dir, "runs.csv")))) {
+      for (int i = 0; i < 100; i++) {
+        // vary the lengths so that the runs end at every offset within a word
+        final String a = plain.substring(i);
+        final String b = quoted.substring(i);
+        final int half = b.length() / 2;
+        writer.write(String.format("%s,\"%s\"\"%s\"\n", a, b.substring(0, half), b.substring(half)));
+        builder.baselineValues(a, b.substring(0, half) + "\"" + b.substring(half));
+      }
+    }
+    builder.go();
+  }
 }
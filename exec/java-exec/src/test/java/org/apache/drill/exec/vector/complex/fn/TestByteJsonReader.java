@@ -0,0 +1,203 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.vector.complex.fn;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.exec.ExecTest;
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.memory.RootAllocatorFactory;
+import org.apache.drill.exec.ops.BufferManagerImpl;
+import org.apache.drill.exec.physical.base.GroupScan;
+import org.apache.drill.exec.store.easy.json.JsonProcessor;
+import org.apache.drill.exec.vector.complex.MapVector;
+import org.apache.drill.exec.vector.complex.impl.ComplexWriterImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+/**
+ * Compares the records and errors of {@link ByteJsonReader} with the ones of {@link JsonReader} on inputs that exercise
+ * the refill and growth of the byte reader's buffer, which the default 64KB buffer rarely reaches in query tests.
+ */
+public class TestByteJsonReader extends ExecTest {
+
+  private static final int BATCH_SIZE = 100;
+
+  private BufferAllocator allocator;
+  private BufferManagerImpl bufferManager;
+
+  @Before
+  public void setup() {
+    allocator = RootAllocatorFactory.newRoot(DrillConfig.create());
+    bufferManager = new BufferManagerImpl(allocator);
+  }
+
+  @After
+  public void cleanup() throws Exception {
+    bufferManager.close();
+    allocator.close();
+  }
+
+  @Test
+  public void testStringLongerThanBuffer() throws Exception {
+    final String value = Strings.repeat("abcdefgh", 10000) + "\\n\\u00e9\\\"";
+    final String json = "{\"a\": \"" + value + "\", \"b\": 1}\n{\"a\": \"x\", \"b\": 2}";
+    // 80KB doesn't fit in the 64KB buffer JSONRecordReader starts with
+    compare(json, GroupScan.ALL_COLUMNS, 64 * 1024, Integer.MAX_VALUE);
+    compare(json, GroupScan.ALL_COLUMNS, 64, 1000);
+  }
+
+  @Test
+  public void testEscapesAcrossRefill() throws Exception {
+    final String escapes = "\\u00e9\\ud83d\\ude00\\\"\\\\\\/\\t";
+    for (int padding = 0; padding < 24; padding++) {
+      final String json = "{\"a\": \"" + Strings.repeat("x", padding) + escapes + "\", \"b\": \"\u00fc\"}";
+      for (int chunk = 1; chunk < 8; chunk++) {
+        compare(json, GroupScan.ALL_COLUMNS, 16, chunk);
+      }
+    }
+
+    // an escape across the end of the first 64KB read
+    for (int offset = 65530; offset < 65540; offset++) {
+      final String prefix = "{\"a\": \"";
+      final String json = prefix + Strings.repeat("y", offset - prefix.length()) + "\\u00e9\"}\n{\"a\": \"z\"}";
+      compare(json, GroupScan.ALL_COLUMNS, 64 * 1024, Integer.MAX_VALUE);
+    }
+  }
+
+  @Test
+  public void testOuterListCommentsAndUnquotedNames() throws Exception {
+    final String json = "// leading comment\n[ {\"a\": 1, b: [1, 2], /* inline */ \"c\": {\"d\": \"e\"}},\n" +
+        "  {a: 2, \"b\": [], \"c\": {\"d\": null}} ]  ";
+    for (int chunk = 1; chunk < 8; chunk++) {
+      compare(json, GroupScan.ALL_COLUMNS, 16, chunk);
+    }
+  }
+
+  @Test
+  public void testNumbersAndModes() throws Exception {
+    final String json = "{\"i\": -0, \"l\": 9223372036854775807, \"d\": 1.5e300, \"e\": -0.000123, \"f\": 12345678901234567890.5}\n" +
+        "{\"i\": 7, \"l\": -9223372036854775808, \"d\": 0.1, \"e\": 2E-3, \"f\": 1e400}";
+    for (boolean allTextMode : new boolean[] {false, true}) {
+      compare(json, GroupScan.ALL_COLUMNS, allTextMode, !allTextMode, 16, 3);
+    }
+  }
+
+  @Test
+  public void testProjectedColumns() throws Exception {
+    final String json = "{\"a\": 1, \"skipped\": {\"x\": [1, {\"y\": \"z\\\"\"}], \"w\": \"]}\"}, \"b\": {\"c\": \"d\", \"e\": 5}}\n" +
+        "{\"skipped\": [[], [true, null]], \"a\": 2, \"b\": {\"e\": 6}}";
+    final List<SchemaPath> columns = ImmutableList.of(SchemaPath.getSimplePath("a"), SchemaPath.getCompoundPath("b", "c"));
+    for (int chunk = 1; chunk < 8; chunk++) {
+      compare(json, columns, 16, chunk);
+    }
+  }
+
+  @Test
+  public void testErrors() throws Exception {
+    final String[] inputs = {
+        "{\"a\": tru}",
+        "{\"a\" 1}",
+        "{\"a\": \"unterminated",
+        "{\"a\": \"bad \\q escape\"}",
+        "{\"a\": 01}",
+        "{\"a\": 1} /* unterminated comment",
+        "{\"a\": [1, \"mixed\"]}",
+        "[{\"a\": 1}, 2]"
+    };
+    for (String json : inputs) {
+      for (int chunk = 1; chunk < 4; chunk++) {
+        final List<String> records = compare(json, GroupScan.ALL_COLUMNS, 16, chunk);
+        assertTrue(json, records.get(records.size() - 1).startsWith("ERR "));
+      }
+    }
+  }
+
+  private List<String> compare(String json, List<SchemaPath> columns, int bufferSize, int chunk) throws Exception {
+    return compare(json, columns, false, false, bufferSize, chunk);
+  }
+
+  /**
+   * Reads the input with both readers, the byte reader starting with buffers of the given size, from a stream that
+   * returns at most chunk bytes per read. Both must produce the same records and fail the same way, if at all.
+   * @return the records, followed by the error if reading failed
+   */
+  private List<String> compare(String json, List<SchemaPath> columns, boolean allTextMode, boolean readNumbersAsDouble,
+      int bufferSize, int chunk) throws Exception {
+    final byte[] data = json.getBytes(Charsets.UTF_8);
+    final List<String> expected = read(new JsonReader(bufferManager.getManagedBuffer(), columns, allTextMode, true,
+        readNumbersAsDouble), data, chunk);
+    final List<String> actual = read(new ByteJsonReader(bufferManager.getManagedBuffer(bufferSize),
+        bufferManager.getManagedBuffer(bufferSize), columns, allTextMode, readNumbersAsDouble), data, chunk);
+    assertEquals(json, expected, actual);
+    return actual;
+  }
+
+  private List<String> read(JsonProcessor reader, byte[] data, final int chunk) throws Exception {
+    final List<String> records = Lists.newArrayList();
+    final MapVector root = new MapVector("root", allocator, null);
+    final ComplexWriterImpl writer = new ComplexWriterImpl("root", root);
+    final InputStream in = new ByteArrayInputStream(data) {
+      @Override
+      public synchronized int read(byte[] b, int off, int len) {
+        return super.read(b, off, Math.min(len, chunk));
+      }
+    };
+    reader.setSource(in);
+    try {
+      int count;
+      do {
+        writer.allocate();
+        writer.reset();
+        count = 0;
+        while (count < BATCH_SIZE) {
+          writer.setPosition(count);
+          if (reader.write(writer) != JsonProcessor.ReadState.WRITE_SUCCEED) {
+            break;
+          }
+          count++;
+        }
+        reader.ensureAtLeastOneField(writer);
+        writer.setValueCount(count);
+        for (int i = 0; i < count; i++) {
+          records.add(String.valueOf(root.getAccessor().getObject(i)));
+        }
+      } while (count == BATCH_SIZE);
+    } catch (Exception e) {
+      // the readers word their errors differently
+      records.add("ERR " + e.getClass().getSimpleName());
+    } finally {
+      writer.clear();
+      root.clear();
+    }
+    return records;
+  }
+}
@@ -652,4 +652,45 @@ public class TestJsonReader extends BaseTestQuery {
     }
   }
 
+  @Test
+  public void testByteReader() throws Exception {
+    try {
+      String dfs_temp = getDfsTestTmpSchemaLocation();
+      File table_dir = new File(dfs_temp, "byte_reader");
+      table_dir.mkdir();
+      BufferedOutputStream os = new BufferedOutputStream(new FileOutputStream(new File(table_dir, "a.json")));
+      os.write("{\"a\": \"x\\\"y\\u00e9\", \"b\": 1, \"c\": {\"d\": [1, 2], \"e\": 2.5}}\n".getBytes(Charsets.UTF_8));
+      os.write("{\"skipped\": [{\"z\": null}], \"a\": \"\u00fc\", \"b\": -3, \"c\": {\"d\": [], \"e\": 1e2}}\n".getBytes(Charsets.UTF_8));
+      os.flush();
+      os.close();
+
+      testBuilder()
+        .sqlQuery("select t.a, t.b, t.c.d[1] as d, t.c.e as e from dfs_test.tmp.byte_reader t")
+        .ordered()
+        .optionSettingQueriesForTestQuery("alter session set `store.json.byte_reader` = true")
+        .baselineColumns("a", "b", "d", "e")
+        .baselineValues("x\"y\u00e9", 1L, 2L, 2.5)
+        .baselineValues("\u00fc", -3L, null, 100.0)
+        .go();
+    } finally {
+      testNoResult("alter session set `store.json.byte_reader` = false");
+    }
+  }
+
+  @Test
+  public void testByteReaderEmbeddedContent() throws Exception {
+    try {
+      // VALUES is read from embedded JSON content, which the byte reader does not handle
+      testBuilder()
+        .sqlQuery("select a from (values('x')) as t(a)")
+        .unOrdered()
+        .optionSettingQueriesForTestQuery("alter session set `store.json.byte_reader` = true")
+        .baselineColumns("a")
+        .baselineValues("x")
+        .go();
+    } finally {
+      testNoResult("alter session set `store.json.byte_reader` = false");
+    }
+  }
+
 }
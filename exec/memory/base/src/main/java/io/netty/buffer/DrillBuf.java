@@ -648,6 +648,88 @@ public final class DrillBuf extends AbstractByteBuf implements AutoCloseable {
     PlatformDependent.putByte(addr(index), b);
   }
 
+  /**
+   * Copy length bytes of src starting at srcIndex to this buffer starting at index. Unlike
+   * {@link #setBytes(int, ByteBuf, int, int)} this copies straight between the memory of the two buffers, and only
+   * checks the ranges when bounds checking is enabled.
+   */
+  public void copyFrom(int index, DrillBuf src, int srcIndex, int length) {
+    chk(index, length);
+    src.chk(srcIndex, length);
+    PlatformDependent.copyMemory(src.addr(srcIndex), addr(index), length);
+  }
+
+  /**
+   * Repeat the width bytes at index count times right after them, e.g. to set a range of a vector to one value.
+   * Every copy doubles the filled range, so this takes log(count) memory copies.
+   */
+  public void fill(int index, int width, int count) {
+    final long length = (long) width * (count + 1);
+    chk(index, (int) length);
+    final long start = addr(index);
+    long filled = width;
+    while (filled < length) {
+      final long copy = Math.min(filled, length - filled);
+      PlatformDependent.copyMemory(start, start + filled, copy);
+      filled += copy;
+    }
+  }
+
+  /**
+   * Copy the values of src that the two byte selection vector sv2 selects at its entries svStart to
+   * svStart + count - 1 to consecutive positions of this buffer starting at index. Positions are in values of the
+   * given width rather than bytes.
+   */
+  public void gather(int index, DrillBuf src, int width, DrillBuf sv2, int svStart, int count) {
+    chk(index * width, count * width);
+    sv2.chk(svStart * 2, count * 2);
+    final long sv = sv2.addr(svStart * 2);
+    long to = addr(index * width);
+    for (int i = 0; i < count; i++, to += width) {
+      final int from = (PlatformDependent.getShort(sv + i * 2L) & 0xFFFF) * width;
+      src.chk(from, width);
+      copyValue(src.addr(from), to, width);
+    }
+  }
+
+  /**
+   * Copy the values of srcs that the four byte selection vector sv4 selects at its entries svStart to
+   * svStart + count - 1 to consecutive positions of this buffer starting at index. Positions are in values of the
+   * given width rather than bytes.
+   */
+  public void gather(int index, DrillBuf[] srcs, int width, DrillBuf sv4, int svStart, int count) {
+    chk(index * width, count * width);
+    sv4.chk(svStart * 4, count * 4);
+    final long sv = sv4.addr(svStart * 4);
+    long to = addr(index * width);
+    for (int i = 0; i < count; i++, to += width) {
+      final int entry = PlatformDependent.getInt(sv + i * 4L);
+      final DrillBuf src = srcs[entry >>> 16];
+      final int from = (entry & 0xFFFF) * width;
+      src.chk(from, width);
+      copyValue(src.addr(from), to, width);
+    }
+  }
+
+  private static void copyValue(long from, long to, int width) {
+    switch (width) {
+    case 1:
+      PlatformDependent.putByte(to, PlatformDependent.getByte(from));
+      break;
+    case 2:
+      PlatformDependent.putShort(to, PlatformDependent.getShort(from));
+      break;
+    case 4:
+      PlatformDependent.putInt(to, PlatformDependent.getInt(from));
+      break;
+    case 8:
+      PlatformDependent.putLong(to, PlatformDependent.getLong(from));
+      break;
+    default:
+      PlatformDependent.copyMemory(from, to, width);
+    }
+  }
+
   public void writeByteUnsafe(byte b) {
     PlatformDependent.putByte(addr(readerIndex), b);
     readerIndex++;
@@ -58,8 +58,22 @@ public class PooledByteBufAllocatorL {
   }
 
   public UnsafeDirectLittleEndian allocate(int size) {
+    return allocate(size, -1);
+  }
+
+  /**
+   * Allocate a buffer from a particular arena.
+   *
+   * @param size
+   *          The size of the buffer.
+   * @param arena
+   *          Index of the arena to allocate from, wrapped around the number of arenas. A negative index uses the arena
+   *          of the current thread.
+   * @return The new buffer.
+   */
+  public UnsafeDirectLittleEndian allocate(int size, int arena) {
     try {
-      return allocator.directBuffer(size, Integer.MAX_VALUE);
+      return allocator.directBuffer(size, Integer.MAX_VALUE, arena);
     } catch (OutOfMemoryError e) {
       throw new OutOfMemoryException("Failure allocating buffer.", e);
     }
@@ -70,6 +84,25 @@ public class PooledByteBufAllocatorL {
     return allocator.chunkSize;
   }
 
+  public int getArenaCount() {
+    return allocator.directArenas.length;
+  }
+
+  /**
+   * @return The memory held in the chunks of all arenas, whether it is in use or not.
+   */
+  public long getPooledMemory() {
+    return allocator.getPooledMemory(false);
+  }
+
+  /**
+   * @return The memory held in the chunks of all arenas that isn't handed out to buffers. Buffers held in thread
+   *         caches count as handed out.
+   */
+  public long getPooledFreeMemory() {
+    return allocator.getPooledMemory(true);
+  }
+
   private class InnerAllocator extends PooledByteBufAllocator {
 
 
@@ -78,6 +111,9 @@ public class PooledByteBufAllocatorL {
     private final Histogram largeBuffersHist;
     private final Histogram normalBuffersHist;
     private final int chunkSize;
+    private final Field[] chunkListFields;
+    private final Field chunkListHead;
+    private final Field chunkFreeBytes;
 
     public InnerAllocator() {
       super(true);
@@ -92,6 +128,21 @@ public class PooledByteBufAllocatorL {
 
       this.chunkSize = directArenas[0].chunkSize;
 
+      try {
+        final String[] chunkLists = {"qInit", "q000", "q025", "q050", "q075", "q100"};
+        this.chunkListFields = new Field[chunkLists.length];
+        for (int i = 0; i < chunkLists.length; i++) {
+          chunkListFields[i] = PoolArena.class.getDeclaredField(chunkLists[i]);
+          chunkListFields[i].setAccessible(true);
+        }
+        this.chunkListHead = PoolChunkList.class.getDeclaredField("head");
+        chunkListHead.setAccessible(true);
+        this.chunkFreeBytes = PoolChunk.class.getDeclaredField("freeBytes");
+        chunkFreeBytes.setAccessible(true);
+      } catch (Exception e) {
+        throw new RuntimeException("Failure while initializing allocator.  Unable to retrieve arena chunk fields.", e);
+      }
+
       if (memoryLogger.isTraceEnabled()) {
         statusThread = new MemoryStatusThread();
         statusThread.start();
@@ -144,9 +195,10 @@ public class PooledByteBufAllocatorL {
       });
     }
 
-    private UnsafeDirectLittleEndian newDirectBufferL(int initialCapacity, int maxCapacity) {
+    private UnsafeDirectLittleEndian newDirectBufferL(int initialCapacity, int maxCapacity, int arena) {
       PoolThreadCache cache = threadCache.get();
-      PoolArena<ByteBuffer> directArena = cache.directArena;
+      // the thread cache may still hand out memory from another arena; freed memory always returns to its own arena.
+      PoolArena<ByteBuffer> directArena = arena < 0 ? cache.directArena : directArenas[arena % directArenas.length];
 
       if (directArena != null) {
 
@@ -187,12 +239,30 @@ public class PooledByteBufAllocatorL {
           "Drill requries that the JVM used supports access sun.misc.Unsafe.  This platform didn't provide that functionality.");
     }
 
-    public UnsafeDirectLittleEndian directBuffer(int initialCapacity, int maxCapacity) {
+    public UnsafeDirectLittleEndian directBuffer(int initialCapacity, int maxCapacity, int arena) {
       if (initialCapacity == 0 && maxCapacity == 0) {
         newDirectBuffer(initialCapacity, maxCapacity);
       }
       validate(initialCapacity, maxCapacity);
-      return newDirectBufferL(initialCapacity, maxCapacity);
+      return newDirectBufferL(initialCapacity, maxCapacity, arena);
+    }
+
+    private long getPooledMemory(boolean freeOnly) {
+      long total = 0;
+      try {
+        for (PoolArena<ByteBuffer> a : directArenas) {
+          synchronized (a) {
+            for (Field chunkList : chunkListFields) {
+              for (PoolChunk<?> c = (PoolChunk<?>) chunkListHead.get(chunkList.get(a)); c != null; c = c.next) {
+                total += freeOnly ? chunkFreeBytes.getInt(c) : chunkSize;
+              }
+            }
+          }
+        }
+      } catch (IllegalAccessException e) {
+        throw new IllegalStateException("Unable to walk the chunks of the direct arenas.", e);
+      }
+      return total;
     }
 
     @Override
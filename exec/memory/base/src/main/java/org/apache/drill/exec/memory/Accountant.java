@@ -17,6 +17,9 @@
  */
 package org.apache.drill.exec.memory;
 
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.concurrent.ThreadSafe;
@@ -44,6 +47,13 @@ class Accountant implements AutoCloseable {
    */
   protected final long reservation;
 
+  /**
+   * The amount of memory taken from the parent Accountant beyond what is currently allocated is kept locally in grants
+   * of up to this size, so that small allocations and releases don't have to walk up the tree. Zero means every change
+   * is propagated to the parent immediately.
+   */
+  private final long grantSize;
+
   private final AtomicLong peakAllocation = new AtomicLong();
 
   /**
@@ -57,16 +67,35 @@ class Accountant implements AutoCloseable {
    */
   private final AtomicLong locallyHeldMemory = new AtomicLong();
 
+  /**
+   * Memory accounted for in the parent Accountant on behalf of this one: the reservation, the allocated memory beyond
+   * it and any unused grant.
+   */
+  private final AtomicLong heldFromParent = new AtomicLong();
+
+  /**
+   * The open Accountants whose parent is this one, so that their unused grants can be reclaimed when an allocation
+   * fails against this Accountant's limit.
+   */
+  private final Set<Accountant> children = Collections.newSetFromMap(new ConcurrentHashMap<Accountant, Boolean>());
+
   public Accountant(Accountant parent, long reservation, long maxAllocation) {
+    this(parent, reservation, maxAllocation, 0);
+  }
+
+  public Accountant(Accountant parent, long reservation, long maxAllocation, long grantSize) {
     Preconditions.checkArgument(reservation >= 0, "The initial reservation size must be non-negative.");
     Preconditions.checkArgument(maxAllocation >= 0, "The maximum allocation limit must be non-negative.");
     Preconditions.checkArgument(reservation <= maxAllocation,
         "The initial reservation size must be <= the maximum allocation.");
     Preconditions.checkArgument(reservation == 0 || parent != null, "The root accountant can't reserve memory.");
+    Preconditions.checkArgument(grantSize >= 0, "The grant size must be non-negative.");
 
     this.parent = parent;
     this.reservation = reservation;
+    this.grantSize = grantSize;
     this.allocationLimit.set(maxAllocation);
+    this.heldFromParent.set(reservation);
 
     if (reservation != 0) {
       // we will allocate a reservation from our parent.
@@ -77,6 +106,9 @@ class Accountant implements AutoCloseable {
                 + "Attempted to allocate %d bytes and received an outcome of %s.", reservation, outcome.name()));
       }
     }
+    if (parent != null) {
+      parent.children.add(this);
+    }
   }
 
   /**
@@ -90,13 +122,55 @@ class Accountant implements AutoCloseable {
    * @return True if the allocation was successful, false if the allocation failed.
    */
   AllocationOutcome allocateBytes(long size) {
-    final AllocationOutcome outcome = allocate(size, true, false);
+    AllocationOutcome outcome = allocate(size, true, false);
     if (!outcome.isOk()) {
-      releaseBytes(size);
+      // unwind completely so that a failed allocation doesn't leave a grant behind in the parent.
+      release(size, 0);
+      if (outcome == AllocationOutcome.FAILED_PARENT && reclaimGrants(size) > 0) {
+        // the memory may only have been held in unused grants of other Accountants, try again without them.
+        outcome = allocate(size, true, false);
+        if (!outcome.isOk()) {
+          release(size, 0);
+        }
+      }
     }
     return outcome;
   }
 
+  /**
+   * Returns the unused grants below the highest ancestor that the given allocation would take beyond its limit.
+   *
+   * @param size
+   *          The size of the failed allocation.
+   * @return The amount of memory released to that ancestor.
+   */
+  private long reclaimGrants(long size) {
+    Accountant full = null;
+    for (Accountant ancestor = parent; ancestor != null; ancestor = ancestor.parent) {
+      if (ancestor.getAllocatedMemory() + size > ancestor.getLimit()) {
+        full = ancestor;
+      }
+    }
+    return full == null ? 0 : full.reclaimChildGrants();
+  }
+
+  /**
+   * Makes the Accountants below this one return their unused grants, deepest first so that the released memory adds
+   * up to this Accountant.
+   *
+   * @return The amount of memory the children released to this Accountant.
+   */
+  private long reclaimChildGrants() {
+    long reclaimed = 0;
+    for (Accountant child : children) {
+      final long held = child.heldFromParent.get();
+      child.reclaimChildGrants();
+      child.releaseToParent(0);
+      reclaimed += Math.max(0, held - child.heldFromParent.get());
+    }
+    return reclaimed;
+  }
+
   private void updatePeak() {
     final long currentMemory = locallyHeldMemory.get();
     while (true) {
@@ -147,15 +221,12 @@ class Accountant implements AutoCloseable {
    */
   private AllocationOutcome allocate(final long size, final boolean incomingUpdatePeak, final boolean forceAllocation) {
     final long newLocal = locallyHeldMemory.addAndGet(size);
-    final long beyondReservation = newLocal - reservation;
     final boolean beyondLimit = newLocal > allocationLimit.get();
     final boolean updatePeak = forceAllocation || (incomingUpdatePeak && !beyondLimit);
 
     AllocationOutcome parentOutcome = AllocationOutcome.SUCCESS;
-    if (beyondReservation > 0 && parent != null) {
-      // we need to get memory from our parent.
-      final long parentRequest = Math.min(beyondReservation, size);
-      parentOutcome = parent.allocate(parentRequest, updatePeak, forceAllocation);
+    if (parent != null) {
+      parentOutcome = allocateFromParent(newLocal, updatePeak, forceAllocation);
     }
 
     final AllocationOutcome finalOutcome = beyondLimit ? AllocationOutcome.FAILED_LOCAL :
@@ -168,20 +239,82 @@ class Accountant implements AutoCloseable {
     return finalOutcome;
   }
 
+  /**
+   * Make sure the parent accounts for at least the given amount of local memory. If more is needed, a whole grant is
+   * requested (within this Accountant's limit) so that following allocations can be served locally. When the grant
+   * doesn't fit in the parent, only the missing amount is requested.
+   *
+   * @param newLocal
+   *          The local memory, including the current allocation, that the parent should account for.
+   * @return The outcome of the parent allocation, if one was needed.
+   */
+  private AllocationOutcome allocateFromParent(final long newLocal, final boolean updatePeak,
+      final boolean forceAllocation) {
+    while (true) {
+      final long held = heldFromParent.get();
+      if (newLocal <= held) {
+        return AllocationOutcome.SUCCESS;
+      }
+
+      final long needed = newLocal - held;
+      final long request = Math.max(needed, Math.min(grantSize, allocationLimit.get() - held));
+      if (!heldFromParent.compareAndSet(held, held + request)) {
+        // someone else changed what the parent holds for us. try again.
+        continue;
+      }
+
+      AllocationOutcome outcome = parent.allocate(request, updatePeak, forceAllocation);
+      if (!outcome.isOk() && request > needed) {
+        parent.releaseBytes(request);
+        heldFromParent.addAndGet(needed - request);
+        outcome = parent.allocate(needed, updatePeak, forceAllocation);
+      }
+
+      // a failed outcome still leaves the request accounted in the parent; it is unwound by allocateBytes().
+      return outcome;
+    }
+  }
+
   public void releaseBytes(long size) {
-    // reduce local memory. all memory released above reservation should be released up the tree.
+    release(size, grantSize);
+  }
+
+  private void release(long size, long keptGrantSize) {
+    // reduce local memory. memory held beyond the reservation and the kept grants should be released up the tree.
     final long newSize = locallyHeldMemory.addAndGet(-size);
 
     Preconditions.checkArgument(newSize >= 0, "Accounted size went negative.");
 
-    final long originalSize = newSize + size;
-    if(originalSize > reservation && parent != null){
-      // we deallocated memory that we should release to our parent.
-      final long possibleAmountToReleaseToParent = originalSize - reservation;
-      final long actualToReleaseToParent = Math.min(size, possibleAmountToReleaseToParent);
-      parent.releaseBytes(actualToReleaseToParent);
+    if (parent != null) {
+      releaseToParent(keptGrantSize);
     }
+  }
+
+  private void releaseToParent(final long keptGrantSize) {
+    while (true) {
+      final long held = heldFromParent.get();
+      final long local = locallyHeldMemory.get();
+      final long limit = allocationLimit.get();
 
+      // keep up to two grants within the limit so that alternating allocations and releases stay local.
+      if (held <= Math.max(reservation, Math.max(local, Math.min(local + 2 * keptGrantSize, limit)))) {
+        return;
+      }
+
+      final long retain = Math.max(reservation, Math.max(local, Math.min(local + keptGrantSize, limit)));
+      if (heldFromParent.compareAndSet(held, retain)) {
+        // when no grant is kept here, e.g. while unwinding a failed allocation, the ancestors don't keep one either
+        parent.release(held - retain, keptGrantSize == 0 ? 0 : parent.grantSize);
+
+        // an allocation may have grown the local memory after we looked at it while seeing the old amount held for
+        // us. that allocation has already succeeded so make sure the parent accounts for it.
+        final long newLocal = locallyHeldMemory.get();
+        if (newLocal > retain) {
+          allocateFromParent(newLocal, true, true);
+        }
+        return;
+      }
+    }
   }
 
   /**
@@ -202,9 +335,11 @@ class Accountant implements AutoCloseable {
    * Close this Accountant. This will release any reservation bytes back to a parent Accountant.
    */
   public void close() {
-    // return memory reservation to parent allocator.
+    // return memory reservation and any unused grant to parent allocator.
     if (parent != null) {
-      parent.releaseBytes(reservation);
+      parent.children.remove(this);
+      final long stillAllocated = Math.max(locallyHeldMemory.get(), reservation) - reservation;
+      parent.releaseBytes(heldFromParent.getAndSet(stillAllocated) - stillAllocated);
     }
   }
 
@@ -227,6 +362,16 @@ class Accountant implements AutoCloseable {
     return locallyHeldMemory.get();
   }
 
+  /**
+   * Return the amount of memory the parent Accountant is accounting for on behalf of this one. This is at least the
+   * larger of the reservation and the allocated memory and includes any unused grant.
+   *
+   * @return Memory held from the parent in bytes.
+   */
+  public long getHeldFromParent() {
+    return heldFromParent.get();
+  }
+
   /**
    * The peak memory allocated by this Accountant.
    *
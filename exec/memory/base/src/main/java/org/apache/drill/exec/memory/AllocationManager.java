@@ -58,10 +58,12 @@ public class AllocationManager {
   private static final AtomicLong MANAGER_ID_GENERATOR = new AtomicLong(0);
   private static final AtomicLong LEDGER_ID_GENERATOR = new AtomicLong(0);
   static final PooledByteBufAllocatorL INNER_ALLOCATOR = new PooledByteBufAllocatorL(DrillMetrics.getRegistry());
+  private static final AtomicLong ROUNDED_UP_MEMORY = new AtomicLong(0);
 
   private final RootAllocator root;
   private final long allocatorManagerId = MANAGER_ID_GENERATOR.incrementAndGet();
   private final int size;
+  private final int roundedUp; // bytes beyond the size the buffer was requested with
   private final UnsafeDirectLittleEndian underlying;
   private final IdentityHashMap<BufferAllocator, BufferLedger> map = new IdentityHashMap<>();
   private final ReadWriteLock lock = new ReentrantReadWriteLock();
@@ -72,12 +74,14 @@ public class AllocationManager {
   private volatile BufferLedger owningLedger;
   private volatile long amDestructionTime = 0;
 
-  AllocationManager(BaseAllocator accountingAllocator, int size) {
+  AllocationManager(BaseAllocator accountingAllocator, int size, int requestedSize) {
     Preconditions.checkNotNull(accountingAllocator);
     accountingAllocator.assertOpen();
 
     this.root = accountingAllocator.root;
-    this.underlying = INNER_ALLOCATOR.allocate(size);
+    this.underlying = INNER_ALLOCATOR.allocate(size, accountingAllocator.arena);
+    this.roundedUp = Math.max(size - requestedSize, 0);
+    ROUNDED_UP_MEMORY.addAndGet(roundedUp);
 
     // we do a no retain association since our creator will want to retrieve the newly created ledger and will create a
     // reference count at that point
@@ -85,6 +89,28 @@ public class AllocationManager {
     this.size = underlying.capacity();
   }
 
+  /**
+   * @return The memory of outstanding buffers beyond the sizes they were requested with, because allocations are
+   *         rounded up to the size classes of the underlying allocator.
+   */
+  public static long getRoundedUpMemory() {
+    return ROUNDED_UP_MEMORY.get();
+  }
+
+  /**
+   * @return The memory held by the pooled arenas of the underlying allocator, whether handed out or not.
+   */
+  public static long getPooledMemory() {
+    return INNER_ALLOCATOR.getPooledMemory();
+  }
+
+  /**
+   * @return The memory held by the pooled arenas of the underlying allocator that isn't handed out to buffers.
+   */
+  public static long getPooledFreeMemory() {
+    return INNER_ALLOCATOR.getPooledFreeMemory();
+  }
+
   /**
    * Associate the existing underlying buffer with a new allocator. This will increase the reference count to the
    * provided ledger by 1.
@@ -164,6 +190,7 @@ public class AllocationManager {
           // no one else owns, lets release.
           oldLedger.allocator.releaseBytes(size);
           underlying.release();
+          ROUNDED_UP_MEMORY.addAndGet(-roundedUp);
           amDestructionTime = System.nanoTime();
           owningLedger = null;
         } else {
@@ -39,6 +39,8 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(BaseAllocator.class);
 
   public static final String DEBUG_ALLOCATOR = "drill.memory.debug.allocator";
+  public static final String GRANT_SIZE = "drill.memory.allocator.grant_size";
+  public static final String SEPARATE_ARENAS = "drill.memory.allocator.separate_arenas";
 
   private static final AtomicLong ID_GENERATOR = new AtomicLong(0);
   private static final int CHUNK_SIZE = AllocationManager.INNER_ALLOCATOR.getChunkSize();
@@ -48,6 +50,16 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
       || Boolean.parseBoolean(System.getProperty(DEBUG_ALLOCATOR, "false"));
   private final Object DEBUG_LOCK = DEBUG ? new Object() : null;
 
+  // memory an allocator takes from its parent at a time so that small allocations don't contend on the parent's
+  // accounting; 0 accounts every allocation all the way up the tree.
+  private static final long LOCAL_GRANT_SIZE = Long.getLong(GRANT_SIZE, 256 * 1024);
+
+  // each child of the root allocator (a fragment, query or service) and its descendants allocate from their own pooled
+  // arena rather than from the arena of the allocating thread.
+  private static final boolean USE_SEPARATE_ARENAS =
+      Boolean.parseBoolean(System.getProperty(SEPARATE_ARENAS, "true"));
+  private static final AtomicInteger ARENA_GENERATOR = new AtomicInteger(0);
+
   private final BaseAllocator parentAllocator;
   private final ByteBufAllocator thisAsByteBufAllocator;
   private final IdentityHashMap<BaseAllocator, Object> childAllocators;
@@ -58,6 +70,7 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
   // Package exposed for sharing between AllocatorManger and BaseAllocator objects
   final String name;
   final RootAllocator root;
+  final int arena; // pooled arena to allocate from, negative for the arena of the allocating thread
 
   // members used purely for debugging
   private final IdentityHashMap<BufferLedger, Object> childLedgers;
@@ -69,14 +82,20 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
       final String name,
       final long initReservation,
       final long maxAllocation) throws OutOfMemoryException {
-    super(parentAllocator, initReservation, maxAllocation);
+    super(parentAllocator, initReservation, maxAllocation, LOCAL_GRANT_SIZE);
 
     if (parentAllocator != null) {
       this.root = parentAllocator.root;
       empty = parentAllocator.empty;
+      if (parentAllocator == root && USE_SEPARATE_ARENAS) {
+        arena = ARENA_GENERATOR.getAndIncrement() & Integer.MAX_VALUE;
+      } else {
+        arena = parentAllocator.arena;
+      }
     } else if (this instanceof RootAllocator) {
       this.root = (RootAllocator) this;
       empty = createEmpty();
+      arena = -1;
     } else {
       throw new IllegalStateException("An parent allocator must either carry a root or be the root.");
     }
@@ -218,7 +237,7 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
 
     boolean success = false;
     try {
-      DrillBuf buffer = bufferWithoutReservation(actualRequestSize, manager);
+      DrillBuf buffer = bufferWithoutReservation(actualRequestSize, initialRequestSize, manager);
       success = true;
       return buffer;
     } finally {
@@ -234,9 +253,14 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
    * with creating a new buffer.
    */
   private DrillBuf bufferWithoutReservation(final int size, BufferManager bufferManager) throws OutOfMemoryException {
+    return bufferWithoutReservation(size, size, bufferManager);
+  }
+
+  private DrillBuf bufferWithoutReservation(final int size, final int requestedSize, BufferManager bufferManager)
+      throws OutOfMemoryException {
     assertOpen();
 
-    final AllocationManager manager = new AllocationManager(this, size);
+    final AllocationManager manager = new AllocationManager(this, size, requestedSize);
     final BufferLedger ledger = manager.associate(this); // +1 ref cnt (required)
     final DrillBuf buffer = ledger.newDrillBuf(0, size, bufferManager);
 
@@ -595,12 +619,12 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
       /*
        * Verify my relationships with my descendants.
        *
-       * The sum of direct child allocators' owned memory must be <= my allocated memory; my allocated memory also
-       * includes DrillBuf's directly allocated by me.
+       * The sum of the memory held by direct child allocators must be <= my allocated memory; my allocated memory
+       * also includes DrillBuf's directly allocated by me.
        */
       long childTotal = 0;
       for (final BaseAllocator childAllocator : childSet) {
-        childTotal += Math.max(childAllocator.getAllocatedMemory(), childAllocator.reservation);
+        childTotal += childAllocator.getHeldFromParent();
       }
       if (childTotal > getAllocatedMemory()) {
         historicalLog.logHistory(logger);
@@ -72,6 +72,136 @@ public class TestAccountant {
     assertEquals(0, parent.getAllocatedMemory());
   }
 
+  @Test
+  public void grants() {
+    final Accountant parent = new Accountant(null, 0, 100);
+    final Accountant child = new Accountant(parent, 2, 50, 10);
+    assertEquals(2, parent.getAllocatedMemory());
+
+    // served from the reservation
+    assertEquals(AllocationOutcome.SUCCESS, child.allocateBytes(2));
+    assertEquals(2, parent.getAllocatedMemory());
+
+    // beyond the reservation, a whole grant is taken from the parent
+    assertEquals(AllocationOutcome.SUCCESS, child.allocateBytes(1));
+    assertEquals(3, child.getAllocatedMemory());
+    assertEquals(12, parent.getAllocatedMemory());
+
+    // served from the grant
+    assertEquals(AllocationOutcome.SUCCESS, child.allocateBytes(9));
+    assertEquals(12, parent.getAllocatedMemory());
+
+    // a larger allocation takes only what it needs
+    assertEquals(AllocationOutcome.SUCCESS, child.allocateBytes(33));
+    assertEquals(45, child.getAllocatedMemory());
+    assertEquals(45, parent.getAllocatedMemory());
+
+    // the grant is capped by the child's limit
+    assertEquals(AllocationOutcome.SUCCESS, child.allocateBytes(2));
+    assertEquals(50, parent.getAllocatedMemory());
+
+    // a failed allocation is unwound exactly
+    assertEquals(AllocationOutcome.FAILED_LOCAL, child.allocateBytes(6));
+    assertEquals(47, child.getAllocatedMemory());
+    assertEquals(47, parent.getAllocatedMemory());
+
+    // up to two grants are kept when releasing
+    child.releaseBytes(5);
+    assertEquals(47, parent.getAllocatedMemory());
+    child.releaseBytes(35);
+    assertEquals(7, child.getAllocatedMemory());
+    assertEquals(17, parent.getAllocatedMemory());
+
+    // when a grant doesn't fit in the parent, only the missing amount is taken
+    assertEquals(AllocationOutcome.SUCCESS, parent.allocateBytes(80));
+    assertEquals(AllocationOutcome.SUCCESS, child.allocateBytes(13));
+    assertEquals(20, child.getAllocatedMemory());
+    assertEquals(100, parent.getAllocatedMemory());
+    assertEquals(AllocationOutcome.FAILED_PARENT, child.allocateBytes(1));
+    assertEquals(20, child.getAllocatedMemory());
+    assertEquals(100, parent.getAllocatedMemory());
+    parent.releaseBytes(80);
+
+    // everything held from the parent is returned on close
+    child.releaseBytes(20);
+    assertEquals(20, parent.getAllocatedMemory());
+    child.close();
+    assertEquals(0, parent.getAllocatedMemory());
+    parent.close();
+  }
+
+  @Test
+  public void reclaimGrants() {
+    final Accountant root = new Accountant(null, 0, 100);
+    final Accountant parent = new Accountant(root, 0, Long.MAX_VALUE, 10);
+    final Accountant child1 = new Accountant(parent, 0, 100, 10);
+    final Accountant child2 = new Accountant(parent, 0, 100, 10);
+
+    // child1 keeps its grant after releasing everything
+    assertEquals(AllocationOutcome.SUCCESS, child1.allocateBytes(1));
+    child1.releaseBytes(1);
+    assertEquals(0, child1.getAllocatedMemory());
+    assertEquals(10, child1.getHeldFromParent());
+    assertEquals(10, root.getAllocatedMemory());
+
+    // the unused grant is taken back when an allocation doesn't fit without it
+    assertEquals(AllocationOutcome.SUCCESS, child2.allocateBytes(95));
+    assertEquals(0, child1.getHeldFromParent());
+    assertEquals(95, root.getAllocatedMemory());
+
+    // an allocation that doesn't fit anyway still fails and is unwound at every level
+    assertEquals(AllocationOutcome.FAILED_PARENT, child1.allocateBytes(20));
+    assertEquals(0, child1.getAllocatedMemory());
+    assertEquals(95, parent.getHeldFromParent());
+    assertEquals(95, root.getAllocatedMemory());
+
+    child2.releaseBytes(95);
+    child1.close();
+    child2.close();
+    parent.close();
+    assertEquals(0, root.getAllocatedMemory());
+    root.close();
+  }
+
+  @Test
+  public void multiThreadWithGrants() throws InterruptedException {
+    final Accountant root = new Accountant(null, 0, Long.MAX_VALUE);
+    final Accountant parent = new Accountant(root, 0, Long.MAX_VALUE, 1024);
+
+    final int numberOfThreads = 32;
+    final int loops = 10000;
+    Thread[] threads = new Thread[numberOfThreads];
+
+    for (int i = 0; i < numberOfThreads; i++) {
+      final Accountant child = new Accountant(parent, 0, Long.MAX_VALUE, 256);
+      Thread t = new Thread() {
+
+        @Override
+        public void run() {
+          for (int i = 0; i < loops; i++) {
+            final int size = 1 + i % 300;
+            assertEquals(AllocationOutcome.SUCCESS, child.allocateBytes(size));
+            assertEquals(AllocationOutcome.SUCCESS, parent.allocateBytes(size));
+            child.releaseBytes(size);
+            parent.releaseBytes(size);
+          }
+          child.close();
+        }
+
+      };
+      threads[i] = t;
+      t.start();
+    }
+
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(0, parent.getAllocatedMemory());
+    parent.close();
+    assertEquals(0, root.getAllocatedMemory());
+  }
+
   private void ensureAccurateReservations(Accountant outsideParent) {
     final Accountant parent = new Accountant(outsideParent, 0, 10);
     assertEquals(0, parent.getAllocatedMemory());
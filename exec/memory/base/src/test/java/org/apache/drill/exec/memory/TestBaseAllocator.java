@@ -194,6 +194,22 @@ public class TestBaseAllocator {
     }
   }
 
+  @Test
+  public void testAllocator_roundedUpMemory() throws Exception {
+    try (final RootAllocator rootAllocator = new RootAllocator(MAX_ALLOCATION)) {
+      try (final BufferAllocator childAllocator = rootAllocator.newChildAllocator("roundedUpMemory", 0,
+          MAX_ALLOCATION)) {
+        final long roundedUp = AllocationManager.getRoundedUpMemory();
+        final DrillBuf drillBuf = childAllocator.buffer(MAX_ALLOCATION / 2 + 1);
+        assertEquals(MAX_ALLOCATION, drillBuf.capacity());
+        assertEquals(roundedUp + MAX_ALLOCATION / 2 - 1, AllocationManager.getRoundedUpMemory());
+        assertTrue(AllocationManager.getPooledMemory() >= AllocationManager.getPooledFreeMemory() + MAX_ALLOCATION);
+        drillBuf.release();
+        assertEquals(roundedUp, AllocationManager.getRoundedUpMemory());
+      }
+    }
+  }
+
   @Test(expected=IllegalStateException.class)
   public void testRootAllocator_createChildDontClose() throws Exception {
     try {
@@ -40,7 +40,7 @@ package org.apache.drill.exec.vector;
  *
  * NB: this class is automatically generated from ${.template_name} and ValueVectorTypes.tdd using FreeMarker.
  */
-public final class ${minor.class}Vector extends BaseDataValueVector implements FixedWidthVector{
+public final class ${minor.class}Vector extends BaseDataValueVector implements FixedWidthVector, BulkCopyVector{
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(${minor.class}Vector.class);
 
   private final FieldReader reader = new ${minor.class}ReaderImpl(${minor.class}Vector.this);
@@ -276,6 +276,54 @@ public final class ${minor.class}Vector extends BaseDataValueVector implements F
     copyFrom(fromIndex, thisIndex, from);
   }
 
+  /**
+   * Copy count values of from starting at fromIndex to this vector starting at thisIndex.
+   */
+  public void copyRangeSafe(int fromIndex, int thisIndex, int count, ${minor.class}Vector from){
+    while(thisIndex + count > getValueCapacity()) {
+        reAlloc();
+    }
+    data.copyFrom(thisIndex * ${type.width}, from.data, fromIndex * ${type.width}, count * ${type.width});
+  }
+
+  /**
+   * Set the count positions after thisIndex to the value at thisIndex.
+   */
+  public void fillSafe(int thisIndex, int count){
+    while(thisIndex + count >= getValueCapacity()) {
+        reAlloc();
+    }
+    data.fill(thisIndex * ${type.width}, ${type.width}, count);
+  }
+
+  /**
+   * Copy the values of from that the two byte selection vector sv2 selects at its entries svStart to
+   * svStart + count - 1 to this vector starting at thisIndex.
+   */
+  public void copyFromSafe(DrillBuf sv2, int svStart, int count, int thisIndex, ${minor.class}Vector from){
+    while(thisIndex + count > getValueCapacity()) {
+        reAlloc();
+    }
+    data.gather(thisIndex, from.data, ${type.width}, sv2, svStart, count);
+  }
+
+  @Override
+  public void copyFromSafe(DrillBuf sv2, int svStart, int count, int thisIndex, ValueVector from){
+    copyFromSafe(sv2, svStart, count, thisIndex, (${minor.class}Vector) from);
+  }
+
+  @Override
+  public void copyFromSafe(DrillBuf sv4, int svStart, int count, int thisIndex, ValueVector[] from){
+    while(thisIndex + count > getValueCapacity()) {
+        reAlloc();
+    }
+    final DrillBuf[] buffers = new DrillBuf[from.length];
+    for (int i = 0; i < from.length; i++) {
+      buffers[i] = ((${minor.class}Vector) from[i]).data;
+    }
+    data.gather(thisIndex, buffers, ${type.width}, sv4, svStart, count);
+  }
+
   public void decrementAllocationMonitor() {
     if (allocationMonitor > 0) {
       allocationMonitor = 0;
@@ -45,7 +45,7 @@ package org.apache.drill.exec.vector;
  * NB: this class is automatically generated from ${.template_name} and ValueVectorTypes.tdd using FreeMarker.
  */
 @SuppressWarnings("unused")
-public final class ${className} extends BaseDataValueVector implements <#if type.major == "VarLen">VariableWidth<#else>FixedWidth</#if>Vector, NullableVector{
+public final class ${className} extends BaseDataValueVector implements <#if type.major == "VarLen">VariableWidth<#else>FixedWidth</#if>Vector, NullableVector, BulkCopyVector{
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(${className}.class);
 
   private final FieldReader reader = new Nullable${minor.class}ReaderImpl(Nullable${minor.class}Vector.this);
@@ -350,6 +350,37 @@ public final class ${className} extends BaseDataValueVector implements <#if type
     values.copyFromSafe(fromIndex, thisIndex, from.values);
   }
 
+  @Override
+  public void copyFromSafe(DrillBuf sv2, int svStart, int count, int thisIndex, ValueVector from){
+    final Nullable${minor.class}Vector fromVector = (Nullable${minor.class}Vector) from;
+    <#if type.major == "VarLen">
+    mutator.fillEmpties(thisIndex);
+    </#if>
+    bits.copyFromSafe(sv2, svStart, count, thisIndex, fromVector.bits);
+    values.copyFromSafe(sv2, svStart, count, thisIndex, fromVector.values);
+    <#if type.major == "VarLen">
+    mutator.lastSet = thisIndex + count - 1;
+    </#if>
+  }
+
+  @Override
+  public void copyFromSafe(DrillBuf sv4, int svStart, int count, int thisIndex, ValueVector[] from){
+    final ValueVector[] fromBits = new ValueVector[from.length];
+    final ValueVector[] fromValues = new ValueVector[from.length];
+    for (int i = 0; i < from.length; i++) {
+      fromBits[i] = ((Nullable${minor.class}Vector) from[i]).bits;
+      fromValues[i] = ((Nullable${minor.class}Vector) from[i]).values;
+    }
+    <#if type.major == "VarLen">
+    mutator.fillEmpties(thisIndex);
+    </#if>
+    bits.copyFromSafe(sv4, svStart, count, thisIndex, fromBits);
+    values.copyFromSafe(sv4, svStart, count, thisIndex, fromValues);
+    <#if type.major == "VarLen">
+    mutator.lastSet = thisIndex + count - 1;
+    </#if>
+  }
+
   public final class Accessor extends BaseDataValueVector.BaseAccessor <#if type.major = "VarLen">implements VariableWidthVector.VariableWidthAccessor</#if> {
     final UInt1Vector.Accessor bAccessor = bits.getAccessor();
     final ${valuesName}.Accessor vAccessor = values.getAccessor();
@@ -48,7 +48,7 @@ package org.apache.drill.exec.vector;
  *
  * NB: this class is automatically generated from ${.template_name} and ValueVectorTypes.tdd using FreeMarker.
  */
-public final class ${minor.class}Vector extends BaseDataValueVector implements VariableWidthVector{
+public final class ${minor.class}Vector extends BaseDataValueVector implements VariableWidthVector, BulkCopyVector{
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(${minor.class}Vector.class);
 
   private static final int DEFAULT_RECORD_BYTE_COUNT = 8;
@@ -238,6 +238,74 @@ public final class ${minor.class}Vector extends BaseDataValueVector implements V
     return true;
   }
 
+  /**
+   * Copy the values of from that the two byte selection vector sv2 selects at its entries svStart to
+   * svStart + count - 1 to this vector starting at thisIndex.
+   */
+  public void copyFromSafe(DrillBuf sv2, int svStart, int count, int thisIndex, ${minor.class}Vector from){
+    final DrillBuf fromOffsets = from.offsetVector.data;
+
+    // add up the lengths of the values first, so that the data buffer grows at most once
+    int length = 0;
+    for (int i = 0; i < count; i++) {
+      final int fromIndex = sv2.getChar((svStart + i) * 2);
+      length += fromOffsets.getInt((fromIndex + 1) * 4) - fromOffsets.getInt(fromIndex * 4);
+    }
+    int outputStart = offsetVector.data.getInt(thisIndex * 4);
+    while(data.capacity() < outputStart + length) {
+      reAlloc();
+    }
+    while(thisIndex + count >= offsetVector.getValueCapacity()) {
+      offsetVector.reAlloc();
+    }
+
+    final DrillBuf offsets = offsetVector.data;
+    for (int i = 0; i < count; i++) {
+      final int fromIndex = sv2.getChar((svStart + i) * 2);
+      final int start = fromOffsets.getInt(fromIndex * 4);
+      final int len = fromOffsets.getInt((fromIndex + 1) * 4) - start;
+      data.copyFrom(outputStart, from.data, start, len);
+      outputStart += len;
+      offsets.setInt((thisIndex + i + 1) * 4, outputStart);
+    }
+  }
+
+  @Override
+  public void copyFromSafe(DrillBuf sv2, int svStart, int count, int thisIndex, ValueVector from){
+    copyFromSafe(sv2, svStart, count, thisIndex, (${minor.class}Vector) from);
+  }
+
+  @Override
+  public void copyFromSafe(DrillBuf sv4, int svStart, int count, int thisIndex, ValueVector[] from){
+    int length = 0;
+    for (int i = 0; i < count; i++) {
+      final int entry = sv4.getInt((svStart + i) * 4);
+      final DrillBuf fromOffsets = ((${minor.class}Vector) from[entry >>> 16]).offsetVector.data;
+      final int fromIndex = entry & 0xFFFF;
+      length += fromOffsets.getInt((fromIndex + 1) * 4) - fromOffsets.getInt(fromIndex * 4);
+    }
+    int outputStart = offsetVector.data.getInt(thisIndex * 4);
+    while(data.capacity() < outputStart + length) {
+      reAlloc();
+    }
+    while(thisIndex + count >= offsetVector.getValueCapacity()) {
+      offsetVector.reAlloc();
+    }
+
+    final DrillBuf offsets = offsetVector.data;
+    for (int i = 0; i < count; i++) {
+      final int entry = sv4.getInt((svStart + i) * 4);
+      final ${minor.class}Vector fromVector = (${minor.class}Vector) from[entry >>> 16];
+      final DrillBuf fromOffsets = fromVector.offsetVector.data;
+      final int fromIndex = entry & 0xFFFF;
+      final int start = fromOffsets.getInt(fromIndex * 4);
+      final int len = fromOffsets.getInt((fromIndex + 1) * 4) - start;
+      data.copyFrom(outputStart, fromVector.data, start, len);
+      outputStart += len;
+      offsets.setInt((thisIndex + i + 1) * 4, outputStart);
+    }
+  }
+
   private class TransferImpl implements TransferPair{
     ${minor.class}Vector to;
 
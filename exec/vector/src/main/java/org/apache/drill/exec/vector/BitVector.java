@@ -36,7 +36,7 @@ import org.apache.drill.exec.vector.complex.reader.FieldReader;
  * of the vector. The width of each element is 1 bit. The equivalent Java primitive is an int containing the value '0'
  * or '1'.
  */
-public final class BitVector extends BaseDataValueVector implements FixedWidthVector {
+public final class BitVector extends BaseDataValueVector implements FixedWidthVector, BulkCopyVector {
   static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(BitVector.class);
 
   private final FieldReader reader = new BitReaderImpl(BitVector.this);
@@ -182,6 +182,28 @@ public final class BitVector extends BaseDataValueVector implements FixedWidthVe
     return true;
   }
 
+  @Override
+  public void copyFromSafe(DrillBuf sv2, int svStart, int count, int thisIndex, ValueVector from) {
+    final BitVector fromVector = (BitVector) from;
+    while (thisIndex + count > getValueCapacity()) {
+      reAlloc();
+    }
+    for (int i = 0; i < count; i++) {
+      mutator.set(thisIndex + i, fromVector.accessor.get(sv2.getChar((svStart + i) * 2)));
+    }
+  }
+
+  @Override
+  public void copyFromSafe(DrillBuf sv4, int svStart, int count, int thisIndex, ValueVector[] from) {
+    while (thisIndex + count > getValueCapacity()) {
+      reAlloc();
+    }
+    for (int i = 0; i < count; i++) {
+      final int entry = sv4.getInt((svStart + i) * 4);
+      mutator.set(thisIndex + i, ((BitVector) from[entry >>> 16]).accessor.get(entry & 0xFFFF));
+    }
+  }
+
   @Override
   public void load(SerializedField metadata, DrillBuf buffer) {
     Preconditions.checkArgument(this.field.getPath().equals(metadata.getNamePart().getName()), "The field %s doesn't match the provided metadata %s.", this.field, metadata);
@@ -0,0 +1,39 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.vector;
+
+import io.netty.buffer.DrillBuf;
+
+/**
+ * A vector that copies the values of a vector of its type that a selection vector selects in one call, with a loop
+ * specialized for its type, instead of one call per value.
+ */
+public interface BulkCopyVector extends ValueVector {
+
+  /**
+   * Copy the values of from that the two byte selection vector sv2 selects at its entries svStart to
+   * svStart + count - 1 to this vector starting at thisIndex, growing this vector as needed.
+   */
+  void copyFromSafe(DrillBuf sv2, int svStart, int count, int thisIndex, ValueVector from);
+
+  /**
+   * Copy the values of the vectors of a hyper batch that the four byte selection vector sv4 selects at its entries
+   * svStart to svStart + count - 1 to this vector starting at thisIndex, growing this vector as needed.
+   */
+  void copyFromSafe(DrillBuf sv4, int svStart, int count, int thisIndex, ValueVector[] from);
+}
@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.vector;
+
+/**
+ * Tracks the average width of the values of the variable width columns an operator fills, so that it can allocate
+ * the vectors of later batches for the widths it has seen rather than from a fixed guess. Guessing too short makes
+ * the vectors double (and copy) their data buffers while they are filled; guessing too long wastes memory.
+ *
+ * Columns are identified by their position in the operator's batch. Until a column has been recorded, it is
+ * allocated with the default width.
+ */
+public class ColumnWidthTracker {
+
+  private final int defaultWidth;
+  private final long[] totalBytes;
+  private final long[] totalValues;
+  private final int[] allocatedWidths;
+  private long reallocsAvoided;
+
+  public ColumnWidthTracker(int columnCount, int defaultWidth) {
+    this.defaultWidth = defaultWidth;
+    this.totalBytes = new long[columnCount];
+    this.totalValues = new long[columnCount];
+    this.allocatedWidths = new int[columnCount];
+  }
+
+  /**
+   * @return The average width of the values recorded for the column rounded up, or the default width if nothing has
+   *         been recorded yet.
+   */
+  public int getWidth(int column) {
+    if (totalValues[column] == 0) {
+      return defaultWidth;
+    }
+    // never less than a byte; an empty buffer can't be doubled
+    return (int) Math.max(1, (totalBytes[column] + totalValues[column] - 1) / totalValues[column]);
+  }
+
+  /**
+   * Allocate a vector of the column for the given number of values, see
+   * {@link AllocationHelper#allocatePrecomputedChildCount(ValueVector, int, int, int)}.
+   */
+  public void allocate(int column, ValueVector vector, int valueCount) {
+    final int width = getWidth(column);
+    allocatedWidths[column] = width;
+    AllocationHelper.allocatePrecomputedChildCount(vector, valueCount, width, 0);
+  }
+
+  /**
+   * Record the values of a filled vector of the column. The value count of the vector must have been set. Vectors
+   * that aren't variable width are ignored.
+   */
+  public void record(int column, ValueVector vector) {
+    if (!(vector instanceof VariableWidthVector)) {
+      return;
+    }
+    final int valueCount = vector.getAccessor().getValueCount();
+    if (valueCount == 0) {
+      return;
+    }
+    final long bytes = ((VariableWidthVector) vector).getCurrentSizeInBytes();
+    final int allocatedWidth = allocatedWidths[column] == 0 ? defaultWidth : allocatedWidths[column];
+
+    reallocsAvoided +=
+        doublings(bytes, (long) defaultWidth * valueCount) - doublings(bytes, (long) allocatedWidth * valueCount);
+    totalBytes[column] += bytes;
+    totalValues[column] += valueCount;
+  }
+
+  /**
+   * @return An estimate of the number of times the data buffers of the recorded vectors would have been doubled
+   *         while being filled had they been allocated with the default width, less the number of times they were.
+   */
+  public long getReallocsAvoided() {
+    return reallocsAvoided;
+  }
+
+  private static int doublings(long bytes, long allocated) {
+    int count = 0;
+    for (long capacity = Math.max(allocated, 1); capacity < bytes; capacity *= 2) {
+      count++;
+    }
+    return count;
+  }
+}